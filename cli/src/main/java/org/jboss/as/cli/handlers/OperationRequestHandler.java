@@ -122,7 +122,14 @@ public class OperationRequestHandler implements CommandHandler, OperationCommand
         return Collections.emptyList();
     }
 
-    private void validateRequest(CommandContext ctx, ModelNode request) throws CommandFormatException {
+    /**
+     * Validate an operation request against the description of the operation.
+     *
+     * @param ctx the command context
+     * @param request the operation request
+     * @throws CommandFormatException if the request does not match the description of the operation
+     */
+    public static void validateRequest(CommandContext ctx, ModelNode request) throws CommandFormatException {
 
         final ModelControllerClient client = ctx.getModelControllerClient();
         if(client == null) {
@@ -53,6 +53,7 @@ public class CliLauncher {
             String argError = null;
             List<String> commands = null;
             File file = null;
+            int pipelineSteps = 0;
             boolean connect = false;
             String defaultControllerHost = null;
             int defaultControllerPort = -1;
@@ -112,6 +113,21 @@ public class CliLauncher {
                     }
                 } else if("--connect".equals(arg) || "-c".equals(arg)) {
                     connect = true;
+                } else if("--pipeline".equals(arg)) {
+                    if(pipelineSteps == 0) {
+                        pipelineSteps = ScriptPipeline.DEFAULT_MAX_STEPS;
+                    }
+                } else if(arg.startsWith("--pipeline-steps=")) {
+                    final String value = arg.substring(17);
+                    try {
+                        pipelineSteps = Integer.parseInt(value);
+                    } catch(NumberFormatException e) {
+                        pipelineSteps = 0;
+                    }
+                    if(pipelineSteps < 1) {
+                        argError = "The value of --pipeline-steps must be a positive number: " + value;
+                        break;
+                    }
                 } else if("--version".equals(arg)) {
                     version = true;
                 } else if ("--gui".equals(arg)) {
@@ -222,7 +238,9 @@ public class CliLauncher {
 
             if(file != null) {
                 cmdCtx = initCommandContext(defaultControllerHost, defaultControllerPort, username, password, false, connect);
-                processFile(file, cmdCtx);
+                if(!processFile(file, cmdCtx, pipelineSteps)) {
+                    exitCode = 1;
+                }
                 return;
             }
 
@@ -287,16 +305,20 @@ public class CliLauncher {
         }
     }
 
-    private static void processFile(File file, final CommandContext cmdCtx) {
+    private static boolean processFile(File file, final CommandContext cmdCtx, int pipelineSteps) {
 
         BufferedReader reader = null;
         try {
             reader = new BufferedReader(new FileReader(file));
+            if(pipelineSteps > 0) {
+                return new ScriptPipeline(cmdCtx, pipelineSteps).process(reader);
+            }
             String line = reader.readLine();
             while (cmdCtx.getExitCode() == 0 && !cmdCtx.isTerminated() && line != null) {
                 cmdCtx.handleSafe(line.trim());
                 line = reader.readLine();
             }
+            return cmdCtx.getExitCode() == 0;
         } catch (Throwable e) {
             throw new IllegalStateException("Failed to process file '" + file.getAbsolutePath() + "'", e);
         } finally {
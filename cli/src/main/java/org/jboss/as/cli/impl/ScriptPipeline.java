@@ -0,0 +1,340 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.cli.impl;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import org.jboss.as.cli.CommandContext;
+import org.jboss.as.cli.CommandFormatException;
+import org.jboss.as.cli.Util;
+import org.jboss.as.cli.batch.Batch;
+import org.jboss.as.cli.batch.BatchManager;
+import org.jboss.as.cli.handlers.OperationRequestHandler;
+import org.jboss.as.cli.operation.impl.DefaultCallbackHandler;
+import org.jboss.as.cli.parsing.operation.OperationFormat;
+import org.jboss.as.controller.client.ModelControllerClient;
+import org.jboss.as.controller.client.OperationBuilder;
+import org.jboss.dmr.ModelNode;
+
+/**
+ * Executes a script in the pipelined mode, which saves the round trips to the controller. Consecutive operation
+ * requests of the script are grouped into a single composite operation of up to {@code maxSteps} steps, which is sent
+ * asynchronously while the following lines are parsed.
+ * <p>
+ * The operations are executed in the order of the script. The steps of a composite operation are executed in order,
+ * and as the management protocol does not guarantee the order in which operations sent concurrently are executed,
+ * only one operation is in flight at a time: the next one is sent once the previous one completed. Commands, requests
+ * with headers or an output target and the operations bouncing the controller are only executed once all the
+ * preceding operations completed, and are never grouped with other operations.
+ * <p>
+ * A composite operation is the rollback scope: as in a batch, its steps are rolled back if one of them fails, and the
+ * script stops. With one step per composite operation, each operation succeeds or fails on its own, as without the
+ * pipelined mode, but each operation needs a round trip again. A batch block of the script is sent as one composite
+ * operation of its own, which is never merged with other operations.
+ * <p>
+ * Failures are reported with the line number of the failed request.
+ */
+class ScriptPipeline {
+
+    /** The number of steps of the composite operations if the script does not ask for a given number */
+    static final int DEFAULT_MAX_STEPS = 50;
+
+    private static final String RUN_BATCH = "run-batch";
+
+    /** The operations that can't be executed as the step of a composite operation */
+    private static final Set<String> BARRIER_OPERATIONS = new HashSet<String>(Arrays.asList(Util.COMPOSITE, "reload", "restart", "shutdown"));
+
+    private final CommandContext ctx;
+    private final int maxSteps;
+    private final List<ModelNode> steps = new ArrayList<ModelNode>();
+    private final List<Integer> stepLines = new ArrayList<Integer>();
+    private InFlight inFlight;
+    /** The line the active batch was started at */
+    private int batchLine;
+    /** The lines of the commands of the active batch, {@code null} if the batch was edited */
+    private List<Integer> batchLines;
+
+    ScriptPipeline(final CommandContext ctx, final int maxSteps) {
+        if (maxSteps < 1) {
+            throw new IllegalArgumentException("maxSteps must be positive: " + maxSteps);
+        }
+        this.ctx = ctx;
+        this.maxSteps = maxSteps;
+    }
+
+    /**
+     * Execute the commands and operations read from a script.
+     *
+     * @param reader the reader of the script
+     * @return {@code true} if all the commands and operations succeeded
+     * @throws IOException if the script could not be read
+     */
+    boolean process(final BufferedReader reader) throws IOException {
+        int lineNumber = 0;
+        int startLine = 0;
+        StringBuilder lineBuffer = null;
+        String line;
+        while (ctx.getExitCode() == 0 && !ctx.isTerminated() && (line = reader.readLine()) != null) {
+            ++lineNumber;
+            line = line.trim();
+            if (lineBuffer == null) {
+                if (line.isEmpty() || line.charAt(0) == '#') {
+                    continue; // ignore comments
+                }
+                startLine = lineNumber;
+            }
+            if (line.endsWith("\\")) {
+                if (lineBuffer == null) {
+                    lineBuffer = new StringBuilder();
+                }
+                lineBuffer.append(line, 0, line.length() - 1).append(' ');
+                continue;
+            } else if (lineBuffer != null) {
+                line = lineBuffer.append(line).toString();
+                lineBuffer = null;
+            }
+            if (!handle(line, startLine)) {
+                return false;
+            }
+        }
+        return flush() && awaitInFlight() && ctx.getExitCode() == 0;
+    }
+
+    private boolean handle(final String line, final int lineNumber) {
+        if (ctx.isBatchMode() && RUN_BATCH.equals(line) && getBatchSize() > 0) {
+            return runBatch(lineNumber);
+        }
+        ModelNode request;
+        try {
+            request = toPipelinedRequest(line);
+        } catch (CommandFormatException e) {
+            // Reported by the command context, once the preceding operations completed
+            request = null;
+        }
+        if (request != null) {
+            steps.add(request);
+            stepLines.add(lineNumber);
+            return steps.size() < maxSteps || flush();
+        }
+        if (!flush() || !awaitInFlight()) {
+            return false;
+        }
+        final boolean batchMode = ctx.isBatchMode();
+        final int batchSize = getBatchSize();
+        ctx.handleSafe(line);
+        if (ctx.getExitCode() != 0) {
+            ctx.printLine("The command at line " + lineNumber + " failed.");
+            return false;
+        }
+        if (ctx.isBatchMode()) {
+            trackBatchLine(batchMode, batchSize, lineNumber);
+        }
+        return true;
+    }
+
+    /**
+     * Keep track of the lines of the commands added to the active batch, to report failures with their line numbers.
+     */
+    private void trackBatchLine(final boolean batchMode, final int previousSize, final int lineNumber) {
+        final int size = getBatchSize();
+        if (!batchMode) {
+            batchLine = lineNumber;
+            // A batch that was held back has commands from other lines
+            batchLines = size == 0 ? new ArrayList<Integer>() : null;
+        } else if (batchLines != null && size != previousSize) {
+            if (size == previousSize + 1 && size == batchLines.size() + 1) {
+                batchLines.add(lineNumber);
+            } else {
+                batchLines = null;
+            }
+        }
+    }
+
+    private int getBatchSize() {
+        final BatchManager batchManager = ctx.getBatchManager();
+        return batchManager != null && batchManager.isBatchActive() ? batchManager.getActiveBatch().size() : 0;
+    }
+
+    /**
+     * Send the active batch as one composite operation, rather than having the command context wait for its result.
+     */
+    private boolean runBatch(final int lineNumber) {
+        final BatchManager batchManager = ctx.getBatchManager();
+        final Batch batch = batchManager.getActiveBatch();
+        final ModelNode request = batch.toRequest();
+        final List<Integer> lines = new ArrayList<Integer>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            lines.add(batchLines != null ? batchLines.get(i) : batchLine);
+        }
+        batchManager.discardActiveBatch();
+        batchLines = null;
+        // The batch is a rollback scope of its own
+        return flush() && send(request, lines, true, "The batch at lines " + batchLine + " to " + lineNumber + " was rolled back.");
+    }
+
+    /**
+     * Parse a line as an operation request that can be executed as the step of a composite operation.
+     *
+     * @return the request, or {@code null} if the line has to be handled by the command context
+     */
+    private ModelNode toPipelinedRequest(final String line) throws CommandFormatException {
+        if (ctx.isBatchMode() || ctx.getModelControllerClient() == null) {
+            return null;
+        }
+        final DefaultCallbackHandler parsedCmd = new DefaultCallbackHandler();
+        parsedCmd.parse(ctx.getCurrentNodePath(), line);
+        if (parsedCmd.getFormat() != OperationFormat.INSTANCE || parsedCmd.getOutputTarget() != null) {
+            return null;
+        }
+        final ModelNode request = parsedCmd.toOperationRequest(ctx);
+        if (request.hasDefined(Util.OPERATION_HEADERS) || BARRIER_OPERATIONS.contains(request.get(Util.OPERATION).asString())) {
+            return null;
+        }
+        if (ctx.getConfig().isValidateOperationRequests()) {
+            // A request may only be valid once the preceding operations completed, e.g. if they add the resource
+            // it addresses. Such requests are validated again by the command context after their completion.
+            OperationRequestHandler.validateRequest(ctx, request);
+        }
+        return request;
+    }
+
+    /**
+     * Send the pending steps, once the operation in flight completed.
+     */
+    private boolean flush() {
+        if (steps.isEmpty()) {
+            return true;
+        }
+        final List<Integer> lines = new ArrayList<Integer>(stepLines);
+        final boolean composite = steps.size() > 1;
+        final ModelNode operation;
+        if (composite) {
+            operation = new ModelNode();
+            operation.get(Util.OPERATION).set(Util.COMPOSITE);
+            operation.get(Util.ADDRESS).setEmptyList();
+            final ModelNode stepsNode = operation.get(Util.STEPS);
+            for (ModelNode step : steps) {
+                stepsNode.add(step);
+            }
+        } else {
+            operation = steps.get(0);
+        }
+        steps.clear();
+        stepLines.clear();
+        return send(operation, lines, composite, composite ? "The operations at lines " + lines.get(0) + " to "
+                + lines.get(lines.size() - 1) + " were rolled back." : null);
+    }
+
+    /**
+     * Send an operation, once the operation in flight completed.
+     *
+     * @param operation the operation
+     * @param lines the lines of the steps of a composite operation, or the line of the operation
+     * @param composite whether the operation is a composite operation
+     * @param rollbackMessage the message reporting the rollback of a composite operation
+     */
+    private boolean send(final ModelNode operation, final List<Integer> lines, final boolean composite, final String rollbackMessage) {
+        if (!awaitInFlight()) {
+            return false;
+        }
+        final ModelControllerClient client = ctx.getModelControllerClient();
+        if (client == null) {
+            return failed(lines.get(0), "You are disconnected at the moment.");
+        }
+        inFlight = new InFlight(client.executeAsync(new OperationBuilder(operation).build(), null), lines, composite, rollbackMessage);
+        return true;
+    }
+
+    /**
+     * Wait for the completion of the operation in flight, and print its results.
+     */
+    private boolean awaitInFlight() {
+        if (inFlight == null) {
+            return true;
+        }
+        final InFlight completed = inFlight;
+        final List<Integer> lines = completed.lines;
+        inFlight = null;
+
+        final ModelNode response;
+        try {
+            response = completed.future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return failed(lines.get(0), "Interrupted while waiting for the result.");
+        } catch (ExecutionException e) {
+            ctx.disconnectController();
+            return failed(lines.get(0), "Communication error: " + e.getCause().getLocalizedMessage());
+        }
+
+        if (!completed.composite) {
+            if (Util.isSuccess(response)) {
+                ctx.printLine(response.toString());
+                return true;
+            }
+            return failed(lines.get(0), response.toString());
+        }
+        final ModelNode result = response.get(Util.RESULT);
+        if (Util.isSuccess(response)) {
+            for (int i = 1; i <= lines.size(); i++) {
+                ctx.printLine(result.get("step-" + i).toString());
+            }
+            return true;
+        }
+        for (int i = 1; i <= lines.size(); i++) {
+            final ModelNode step = result.get("step-" + i);
+            if (step.hasDefined(Util.OUTCOME) && !Util.isSuccess(step) && step.hasDefined(Util.FAILURE_DESCRIPTION)) {
+                return failed(lines.get(i - 1), step.toString() + "\n" + completed.rollbackMessage);
+            }
+        }
+        return failed(lines.get(0), Util.getFailureDescription(response) + "\n" + completed.rollbackMessage);
+    }
+
+    private boolean failed(final int lineNumber, final String message) {
+        ctx.printLine("The operation at line " + lineNumber + " failed: " + message);
+        return false;
+    }
+
+    private static final class InFlight {
+
+        private final Future<ModelNode> future;
+        /** The lines of the steps of a composite operation, or the line of the operation */
+        private final List<Integer> lines;
+        private final boolean composite;
+        private final String rollbackMessage;
+
+        private InFlight(final Future<ModelNode> future, final List<Integer> lines, final boolean composite, final String rollbackMessage) {
+            this.future = future;
+            this.lines = lines;
+            this.composite = composite;
+            this.rollbackMessage = rollbackMessage;
+        }
+    }
+}
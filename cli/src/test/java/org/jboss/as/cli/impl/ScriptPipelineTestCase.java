@@ -0,0 +1,337 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.cli.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.jboss.as.cli.CommandFormatException;
+import org.jboss.as.cli.Util;
+import org.jboss.as.cli.batch.BatchManager;
+import org.jboss.as.cli.batch.impl.DefaultBatchManager;
+import org.jboss.as.cli.batch.impl.DefaultBatchedCommand;
+import org.jboss.as.cli.completion.mock.MockCommandContext;
+import org.jboss.as.cli.operation.impl.DefaultCallbackHandler;
+import org.jboss.as.controller.client.ModelControllerClient;
+import org.jboss.as.controller.client.Operation;
+import org.jboss.as.controller.client.OperationMessageHandler;
+import org.jboss.dmr.ModelNode;
+import org.jboss.threads.AsyncFuture;
+import org.junit.Test;
+
+/**
+ * Tests of the pipelined execution of scripts by {@link ScriptPipeline}.
+ */
+public class ScriptPipelineTestCase {
+
+    private final List<String> events = new ArrayList<String>();
+    private final List<String> output = new ArrayList<String>();
+    private final PipelineContext ctx = new PipelineContext();
+
+    @Test
+    public void testOneOperationInFlight() throws Exception {
+        assertTrue(process(1,
+                "/subsystem=a:add",
+                "/subsystem=b:add",
+                "/subsystem=c:add"));
+        assertEquals(Arrays.asList(
+                "sent a", "completed a",
+                "sent b", "completed b",
+                "sent c", "completed c"), events);
+    }
+
+    @Test
+    public void testCompositeSteps() throws Exception {
+        assertTrue(process(2,
+                "/subsystem=a:add",
+                "/subsystem=b:add",
+                "/subsystem=c:add"));
+        assertEquals(Arrays.asList(
+                "sent [a, b]", "completed [a, b]",
+                "sent c", "completed c"), events);
+    }
+
+    @Test
+    public void testDefaultGrouping() throws Exception {
+        assertTrue(process(ScriptPipeline.DEFAULT_MAX_STEPS,
+                "/subsystem=a:add",
+                "/subsystem=b:add",
+                "/subsystem=c:add"));
+        // One round trip for the consecutive operations
+        assertEquals(Arrays.asList(
+                "sent [a, b, c]", "completed [a, b, c]"), events);
+    }
+
+    @Test
+    public void testBarriers() throws Exception {
+        assertTrue(process(10,
+                "/subsystem=a:add",
+                "cd /subsystem=a",
+                "/subsystem=b:add",
+                "/subsystem=c:add{rollback-on-runtime-failure=false}",
+                "/subsystem=d:add",
+                ":reload"));
+        // Commands, requests with headers and operations bouncing the controller wait for the preceding operations
+        assertEquals(Arrays.asList(
+                "sent a", "completed a",
+                "handled cd /subsystem=a",
+                "sent b", "completed b",
+                "handled /subsystem=c:add{rollback-on-runtime-failure=false}",
+                "sent d", "completed d",
+                "handled :reload"), events);
+    }
+
+    @Test
+    public void testInvalidRequestLeftToContext() throws Exception {
+        assertTrue(process(10,
+                "/subsystem=a:add",
+                "/subsystem=a:write-attribute(name=x,value=y)"));
+        // The validation failed, so the command context validates the request again once the resource exists
+        assertEquals(Arrays.asList(
+                "sent a", "completed a",
+                "handled /subsystem=a:write-attribute(name=x,value=y)"), events);
+    }
+
+    @Test
+    public void testFailureLineNumber() throws Exception {
+        assertFalse(process(1,
+                "# a comment",
+                "/subsystem=a:add",
+                "",
+                "/subsystem=\\",
+                "fail:add",
+                "/subsystem=c:add"));
+        assertEquals(Arrays.asList(
+                "sent a", "completed a",
+                "sent fail", "completed fail"), events);
+        assertTrue(output.toString(), output.get(output.size() - 1).startsWith("The operation at line 4 failed: "));
+    }
+
+    @Test
+    public void testCompositeFailureLineNumber() throws Exception {
+        assertFalse(process(3,
+                "/subsystem=a:add",
+                "/subsystem=fail:add",
+                "/subsystem=c:add",
+                "/subsystem=d:add"));
+        assertEquals(Arrays.asList(
+                "sent [a, fail, c]", "completed [a, fail, c]"), events);
+        final String message = output.get(output.size() - 1);
+        assertTrue(message, message.startsWith("The operation at line 2 failed: "));
+        assertTrue(message, message.endsWith("The operations at lines 1 to 3 were rolled back."));
+    }
+
+    @Test
+    public void testBatch() throws Exception {
+        assertTrue(process(10,
+                "/subsystem=a:add",
+                "batch",
+                "/subsystem=b:add",
+                "/subsystem=c:add",
+                "run-batch",
+                "/subsystem=d:add"));
+        // The batch is sent as a composite operation of its own
+        assertEquals(Arrays.asList(
+                "sent a", "completed a",
+                "handled batch",
+                "handled /subsystem=b:add",
+                "handled /subsystem=c:add",
+                "sent [b, c]", "completed [b, c]",
+                "sent d", "completed d"), events);
+        assertFalse(ctx.isBatchMode());
+    }
+
+    @Test
+    public void testBatchFailureLineNumber() throws Exception {
+        assertFalse(process(10,
+                "batch",
+                "/subsystem=b:add",
+                "/subsystem=fail:add",
+                "run-batch",
+                "/subsystem=d:add"));
+        assertEquals(Arrays.asList(
+                "handled batch",
+                "handled /subsystem=b:add",
+                "handled /subsystem=fail:add",
+                "sent [b, fail]", "completed [b, fail]"), events);
+        final String message = output.get(output.size() - 1);
+        assertTrue(message, message.startsWith("The operation at line 3 failed: "));
+        assertTrue(message, message.endsWith("The batch at lines 1 to 4 was rolled back."));
+    }
+
+    private boolean process(final int maxSteps, final String... lines) throws IOException {
+        final StringBuilder script = new StringBuilder();
+        for (String line : lines) {
+            script.append(line).append('\n');
+        }
+        return new ScriptPipeline(ctx, maxSteps).process(new BufferedReader(new StringReader(script.toString())));
+    }
+
+    private static String getName(final ModelNode operation) {
+        return operation.get(Util.ADDRESS).get(0).get(Util.SUBSYSTEM).asString();
+    }
+
+    private static ModelNode execute(final ModelNode operation) {
+        final ModelNode response = new ModelNode();
+        if (Util.COMPOSITE.equals(operation.get(Util.OPERATION).asString())) {
+            boolean failed = false;
+            int i = 0;
+            for (ModelNode step : operation.get(Util.STEPS).asList()) {
+                final ModelNode stepResponse = execute(step);
+                failed |= !Util.isSuccess(stepResponse);
+                response.get(Util.RESULT, "step-" + ++i).set(stepResponse);
+            }
+            response.get(Util.OUTCOME).set(failed ? "failed" : Util.SUCCESS);
+        } else if ("fail".equals(getName(operation))) {
+            response.get(Util.OUTCOME).set("failed");
+            response.get(Util.FAILURE_DESCRIPTION).set("failed");
+        } else {
+            response.get(Util.OUTCOME).set(Util.SUCCESS);
+        }
+        return response;
+    }
+
+    private String describe(final ModelNode operation) {
+        if (!Util.COMPOSITE.equals(operation.get(Util.OPERATION).asString())) {
+            return getName(operation);
+        }
+        final List<String> names = new ArrayList<String>();
+        for (ModelNode step : operation.get(Util.STEPS).asList()) {
+            names.add(getName(step));
+        }
+        return names.toString();
+    }
+
+    private final class PipelineContext extends MockCommandContext {
+
+        private final BatchManager batchManager = new DefaultBatchManager();
+        private final ModelControllerClient client = new PipelineClient();
+        private int exitCode;
+
+        @Override
+        public ModelControllerClient getModelControllerClient() {
+            return client;
+        }
+
+        @Override
+        public void printLine(final String message) {
+            output.add(message);
+        }
+
+        @Override
+        public void handleSafe(final String line) {
+            events.add("handled " + line);
+            if ("batch".equals(line)) {
+                batchManager.activateNewBatch();
+            } else if (batchManager.isBatchActive()) {
+                final DefaultCallbackHandler parsedCmd = new DefaultCallbackHandler();
+                try {
+                    parsedCmd.parse(getCurrentNodePath(), line);
+                    batchManager.getActiveBatch().add(new DefaultBatchedCommand(line, parsedCmd.toOperationRequest(this)));
+                } catch (CommandFormatException e) {
+                    exitCode = 1;
+                }
+            }
+        }
+
+        @Override
+        public int getExitCode() {
+            return exitCode;
+        }
+
+        @Override
+        public boolean isBatchMode() {
+            return batchManager.isBatchActive();
+        }
+
+        @Override
+        public BatchManager getBatchManager() {
+            return batchManager;
+        }
+    }
+
+    private final class PipelineClient implements ModelControllerClient {
+
+        @Override
+        public ModelNode execute(final ModelNode operation) throws IOException {
+            // The validation of requests with properties fails, as if the addressed resource did not exist yet
+            final ModelNode response = new ModelNode();
+            response.get(Util.OUTCOME).set("failed");
+            response.get(Util.FAILURE_DESCRIPTION).set("not found");
+            return response;
+        }
+
+        @Override
+        public ModelNode execute(final Operation operation) throws IOException {
+            return execute(operation.getOperation());
+        }
+
+        @Override
+        public ModelNode execute(final ModelNode operation, final OperationMessageHandler messageHandler) throws IOException {
+            return execute(operation);
+        }
+
+        @Override
+        public ModelNode execute(final Operation operation, final OperationMessageHandler messageHandler) throws IOException {
+            return execute(operation.getOperation());
+        }
+
+        @Override
+        public AsyncFuture<ModelNode> executeAsync(final ModelNode operation, final OperationMessageHandler messageHandler) {
+            final String description = describe(operation);
+            events.add("sent " + description);
+            // The operation completes once the pipeline waits for it
+            return (AsyncFuture<ModelNode>) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { AsyncFuture.class },
+                    new InvocationHandler() {
+                        @Override
+                        public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+                            if ("get".equals(method.getName())) {
+                                events.add("completed " + description);
+                                return ScriptPipelineTestCase.execute(operation);
+                            }
+                            throw new UnsupportedOperationException(method.getName());
+                        }
+                    });
+        }
+
+        @Override
+        public AsyncFuture<ModelNode> executeAsync(final Operation operation, final OperationMessageHandler messageHandler) {
+            return executeAsync(operation.getOperation(), messageHandler);
+        }
+
+        @Override
+        public void close() throws IOException {
+        }
+    }
+}
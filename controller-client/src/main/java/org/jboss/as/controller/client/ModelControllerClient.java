@@ -117,9 +117,9 @@ public interface ModelControllerClient extends Closeable {
          *
          * @param address the address of the remote host
          * @param port the port
-         * @return A model controller client
+         * @return A model controller client, which supports streaming results
          */
-        public static ModelControllerClient create(final InetAddress address, final int port){
+        public static StreamingModelControllerClient create(final InetAddress address, final int port){
             return create(ClientConfigurationImpl.create(address, port));
         }
 
@@ -129,9 +129,9 @@ public interface ModelControllerClient extends Closeable {
          * @param address the address of the remote host
          * @param port the port
          * @param handler  CallbackHandler to obtain authentication information for the call.
-         * @return A model controller client
+         * @return A model controller client, which supports streaming results
          */
-        public static ModelControllerClient create(final InetAddress address, final int port, final CallbackHandler handler){
+        public static StreamingModelControllerClient create(final InetAddress address, final int port, final CallbackHandler handler){
             return create(ClientConfigurationImpl.create(address, port, handler));
         }
 
@@ -142,9 +142,9 @@ public interface ModelControllerClient extends Closeable {
          * @param port the port
          * @param handler  CallbackHandler to obtain authentication information for the call.
          * @param saslOptions Additional options to be passed to the SASL mechanism.
-         * @return A model controller client
+         * @return A model controller client, which supports streaming results
          */
-        public static ModelControllerClient create(final InetAddress address, final int port, final CallbackHandler handler, final Map<String, String> saslOptions){
+        public static StreamingModelControllerClient create(final InetAddress address, final int port, final CallbackHandler handler, final Map<String, String> saslOptions){
             return create(ClientConfigurationImpl.create(address, port, handler, saslOptions));
         }
 
@@ -153,10 +153,10 @@ public interface ModelControllerClient extends Closeable {
          *
          * @param hostName the remote host
          * @param port the port
-         * @return A model controller client
+         * @return A model controller client, which supports streaming results
          * @throws UnknownHostException if the host cannot be found
          */
-        public static ModelControllerClient create(final String hostName, final int port) throws UnknownHostException {
+        public static StreamingModelControllerClient create(final String hostName, final int port) throws UnknownHostException {
             return create(ClientConfigurationImpl.create(hostName, port));
         }
 
@@ -166,10 +166,10 @@ public interface ModelControllerClient extends Closeable {
          * @param hostName the remote host
          * @param port     the port
          * @param handler  CallbackHandler to obtain authentication information for the call.
-         * @return A model controller client
+         * @return A model controller client, which supports streaming results
          * @throws UnknownHostException if the host cannot be found
          */
-        public static ModelControllerClient create(final String hostName, final int port, final CallbackHandler handler) throws UnknownHostException {
+        public static StreamingModelControllerClient create(final String hostName, final int port, final CallbackHandler handler) throws UnknownHostException {
             return create(ClientConfigurationImpl.create(hostName,  port, handler));
         }
 
@@ -180,10 +180,10 @@ public interface ModelControllerClient extends Closeable {
          * @param port       the port
          * @param handler    CallbackHandler to obtain authentication information for the call.
          * @param sslContext a pre-initialised SSLContext
-         * @return A model controller client
+         * @return A model controller client, which supports streaming results
          * @throws UnknownHostException if the host cannot be found
          */
-        public static ModelControllerClient create(final String hostName, final int port, final CallbackHandler handler, final SSLContext sslContext) throws UnknownHostException {
+        public static StreamingModelControllerClient create(final String hostName, final int port, final CallbackHandler handler, final SSLContext sslContext) throws UnknownHostException {
             return create(ClientConfigurationImpl.create(hostName,  port, handler, sslContext));
         }
 
@@ -194,10 +194,10 @@ public interface ModelControllerClient extends Closeable {
          * @param port     the port
          * @param handler  CallbackHandler to obtain authentication information for the call.
          * @param saslOptions Additional options to be passed to the SASL mechanism.
-         * @return A model controller client
+         * @return A model controller client, which supports streaming results
          * @throws UnknownHostException if the host cannot be found
          */
-        public static ModelControllerClient create(final String hostName, final int port, final CallbackHandler handler, final Map<String, String> saslOptions) throws UnknownHostException {
+        public static StreamingModelControllerClient create(final String hostName, final int port, final CallbackHandler handler, final Map<String, String> saslOptions) throws UnknownHostException {
             return create(ClientConfigurationImpl.create(hostName, port, handler, saslOptions));
         }
 
@@ -205,9 +205,9 @@ public interface ModelControllerClient extends Closeable {
          * Create a client instance based on the client configuration.
          *
          * @param configuration the controller client configuration
-         * @return the client
+         * @return the client, which supports streaming results
          */
-        public static ModelControllerClient create(final ModelControllerClientConfiguration configuration) {
+        public static StreamingModelControllerClient create(final ModelControllerClientConfiguration configuration) {
             return new RemotingModelControllerClient(configuration);
         }
 
@@ -0,0 +1,48 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.client;
+
+import java.util.List;
+
+import org.jboss.dmr.ModelNode;
+
+/**
+ * A handler for the fragments of a streamed operation result, see
+ * {@link StreamingModelControllerClient#executeStreaming(Operation, OperationMessageHandler, ResultFragmentHandler)}.
+ * <p>
+ * The result of a successful operation is sent in fragments, in the order of the result, before the response itself.
+ * A fragment is the value of the result at a path of at most two keys, so for a {@code read-resource} operation every
+ * child resource is a separate fragment, with the path {@code [child-type, child-name]}. The values of the fragments
+ * are removed from the {@code result} of the final response.
+ * </p>
+ */
+public interface ResultFragmentHandler {
+
+    /**
+     * Handle a fragment of the result.
+     *
+     * @param path the keys of the fragment within the result
+     * @param value the value of the fragment
+     */
+    void handleFragment(List<String> path, ModelNode value);
+}
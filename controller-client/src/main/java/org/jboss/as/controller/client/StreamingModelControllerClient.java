@@ -0,0 +1,48 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.client;
+
+import org.jboss.dmr.ModelNode;
+import org.jboss.threads.AsyncFuture;
+
+/**
+ * A {@link ModelControllerClient} which can stream the results of operations, so that large results do not need to
+ * be held in memory as a whole. The clients created by {@link ModelControllerClient.Factory} support streaming.
+ */
+public interface StreamingModelControllerClient extends ModelControllerClient {
+
+    /**
+     * Execute an operation, streaming the result. The result is passed to the fragment handler in fragments as it is
+     * received, instead of being held in memory as a whole.
+     *
+     * Note that associated input-streams have to be closed by the caller, after the
+     * operation completed {@link OperationAttachments#isAutoCloseStreams()}.
+     *
+     * @param operation the operation to execute
+     * @param messageHandler the message handler to use for operation progress reporting, or {@code null} for none
+     * @param fragmentHandler the handler for the fragments of the result
+     * @return the future result of the operation, without the result fragments passed to {@code fragmentHandler}
+     * @see ResultFragmentHandler
+     */
+    AsyncFuture<ModelNode> executeStreaming(Operation operation, OperationMessageHandler messageHandler, ResultFragmentHandler fragmentHandler);
+}
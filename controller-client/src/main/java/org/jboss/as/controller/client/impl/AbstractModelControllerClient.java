@@ -26,10 +26,11 @@ import java.util.Collections;
 import java.util.List;
 
 import org.jboss.as.controller.client.MessageSeverity;
-import org.jboss.as.controller.client.ModelControllerClient;
 import org.jboss.as.controller.client.Operation;
 import org.jboss.as.controller.client.OperationBuilder;
 import org.jboss.as.controller.client.OperationMessageHandler;
+import org.jboss.as.controller.client.ResultFragmentHandler;
+import org.jboss.as.controller.client.StreamingModelControllerClient;
 import org.jboss.as.protocol.StreamUtils;
 import org.jboss.as.protocol.mgmt.AbstractManagementRequest;
 import org.jboss.as.protocol.mgmt.ActiveOperation;
@@ -51,10 +52,11 @@ import org.jboss.threads.AsyncFuture;
  *
  * @author <a href="kabir.khan@jboss.com">Kabir Khan</a>
  */
-public abstract class AbstractModelControllerClient implements ModelControllerClient, ManagementRequestHandlerFactory {
+public abstract class AbstractModelControllerClient implements StreamingModelControllerClient, ManagementRequestHandlerFactory {
 
     private static ManagementRequestHandler<ModelNode, OperationExecutionContext> MESSAGE_HANDLER = new HandleReportRequestHandler();
     private static ManagementRequestHandler<ModelNode, OperationExecutionContext> GET_INPUT_STREAM = new ReadAttachmentInputStreamRequestHandler();
+    private static ManagementRequestHandler<ModelNode, OperationExecutionContext> RESPONSE_FRAGMENT_HANDLER = new HandleResponseFragmentRequestHandler();
 
     private static final OperationMessageHandler NO_OP_HANDLER = OperationMessageHandler.DISCARD;
 
@@ -104,6 +106,15 @@ public abstract class AbstractModelControllerClient implements ModelControllerCl
         }
     }
 
+    @Override
+    public AsyncFuture<ModelNode> executeStreaming(final Operation operation, final OperationMessageHandler messageHandler, final ResultFragmentHandler fragmentHandler) {
+        try {
+            return execute(OperationExecutionContext.create(operation, messageHandler, fragmentHandler), ModelControllerProtocol.EXECUTE_STREAMING_CLIENT_REQUEST);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
     @Override
     public ManagementRequestHandler<?, ?> resolveHandler(RequestHandlerChain handlers, ManagementRequestHeader header) {
         final byte operationType = header.getOperationId();
@@ -111,6 +122,8 @@ public abstract class AbstractModelControllerClient implements ModelControllerCl
             return MESSAGE_HANDLER;
         } else if (operationType == ModelControllerProtocol.GET_INPUTSTREAM_REQUEST) {
             return GET_INPUT_STREAM;
+        } else if (operationType == ModelControllerProtocol.HANDLE_RESPONSE_FRAGMENT_REQUEST) {
+            return RESPONSE_FRAGMENT_HANDLER;
         }
         return handlers.resolveNext();
     }
@@ -138,11 +151,23 @@ public abstract class AbstractModelControllerClient implements ModelControllerCl
      * @throws IOException
      */
     private AsyncFuture<ModelNode> execute(final OperationExecutionContext executionContext) throws IOException {
+        return execute(executionContext, ModelControllerProtocol.EXECUTE_ASYNC_CLIENT_REQUEST);
+    }
+
+    /**
+     * Execute a request.
+     *
+     * @param executionContext the execution context
+     * @param operationType the type of the execute request
+     * @return the future result
+     * @throws IOException
+     */
+    private AsyncFuture<ModelNode> execute(final OperationExecutionContext executionContext, final byte operationType) throws IOException {
         return executeRequest(new AbstractManagementRequest<ModelNode, OperationExecutionContext>() {
 
             @Override
             public byte getOperationType() {
-                return ModelControllerProtocol.EXECUTE_ASYNC_CLIENT_REQUEST;
+                return operationType;
             }
 
             @Override
@@ -232,6 +257,51 @@ public abstract class AbstractModelControllerClient implements ModelControllerCl
 
     }
 
+    private static class HandleResponseFragmentRequestHandler implements ManagementRequestHandler<ModelNode, OperationExecutionContext> {
+
+        @Override
+        public void handleRequest(final DataInput input, final ActiveOperation.ResultHandler<ModelNode> resultHandler, final ManagementRequestContext<OperationExecutionContext> context) throws IOException {
+            expectHeader(input, ModelControllerProtocol.PARAM_RESPONSE_FRAGMENTS_LENGTH);
+            final int length = input.readInt();
+            final List<List<String>> paths = new ArrayList<List<String>>(length);
+            final List<ModelNode> values = new ArrayList<ModelNode>(length);
+            for (int i = 0; i < length; i++) {
+                expectHeader(input, ModelControllerProtocol.PARAM_RESPONSE_FRAGMENT);
+                final int pathLength = input.readInt();
+                final List<String> path = new ArrayList<String>(pathLength);
+                for (int j = 0; j < pathLength; j++) {
+                    path.add(input.readUTF());
+                }
+                final ModelNode value = new ModelNode();
+                value.readExternal(input);
+                paths.add(Collections.unmodifiableList(path));
+                values.add(value);
+            }
+            expectHeader(input, ManagementProtocol.REQUEST_END);
+            context.executeAsync(new ManagementRequestContext.AsyncTask<OperationExecutionContext>() {
+                @Override
+                public void execute(final ManagementRequestContext<OperationExecutionContext> context) throws Exception {
+                    final ResultFragmentHandler handler = context.getAttachment().getResultFragmentHandler();
+                    if (handler != null) {
+                        for (int i = 0; i < paths.size(); i++) {
+                            handler.handleFragment(paths.get(i), values.get(i));
+                        }
+                    }
+                    // The server only sends the next fragments once these are acknowledged
+                    final ManagementResponseHeader response = ManagementResponseHeader.create(context.getRequestHeader());
+                    final FlushableDataOutput output = context.writeMessage(response);
+                    try {
+                        output.writeByte(ManagementProtocol.RESPONSE_END);
+                        output.close();
+                    } finally {
+                        StreamUtils.safeClose(output);
+                    }
+                }
+            });
+        }
+
+    }
+
     protected AsyncFuture<ModelNode> executeRequest(final ManagementRequest<ModelNode, OperationExecutionContext> request, final OperationExecutionContext attachment) throws IOException {
         final ActiveOperation<ModelNode, OperationExecutionContext> support = getChannelAssociation().executeRequest(request, attachment);
         return new DelegatingCancellableAsyncFuture(support.getResult(), support.getOperationId());
@@ -241,11 +311,17 @@ public abstract class AbstractModelControllerClient implements ModelControllerCl
 
         private final Operation operation;
         private final OperationMessageHandler handler;
+        private final ResultFragmentHandler fragmentHandler;
         private final List<InputStreamEntry> streams;
 
         OperationExecutionContext(final Operation operation, final OperationMessageHandler handler) {
+            this(operation, handler, null);
+        }
+
+        OperationExecutionContext(final Operation operation, final OperationMessageHandler handler, final ResultFragmentHandler fragmentHandler) {
             this.operation = operation;
             this.handler = handler != null ? handler : NO_OP_HANDLER;
+            this.fragmentHandler = fragmentHandler;
             this.streams = createStreamEntries(operation);
         }
 
@@ -253,6 +329,10 @@ public abstract class AbstractModelControllerClient implements ModelControllerCl
             return handler;
         }
 
+        ResultFragmentHandler getResultFragmentHandler() {
+            return fragmentHandler;
+        }
+
         InputStreamEntry getStream(int index) {
             final InputStreamEntry entry = streams.get(index);
             if(entry == null) {
@@ -302,6 +382,10 @@ public abstract class AbstractModelControllerClient implements ModelControllerCl
             return new OperationExecutionContext(operation, handler);
         }
 
+        static OperationExecutionContext create(final Operation operation, final OperationMessageHandler handler, final ResultFragmentHandler fragmentHandler) {
+            return new OperationExecutionContext(operation, handler, fragmentHandler);
+        }
+
     }
 
     /**
@@ -35,6 +35,8 @@ public interface ModelControllerProtocol {
     byte GET_INPUTSTREAM_REQUEST = 0x4C;
     byte CANCEL_ASYNC_REQUEST = 0x4D;
     byte COMPLETE_TX_REQUEST = 0x4E;
+    byte EXECUTE_STREAMING_CLIENT_REQUEST = 0x4F;
+    byte HANDLE_RESPONSE_FRAGMENT_REQUEST = 0x50;
 
 
     byte PARAM_END = 0x60;
@@ -49,6 +51,8 @@ public interface ModelControllerProtocol {
     //byte PARAM_PREPARED = 0x69;
     byte PARAM_COMMIT = 0x70;
     byte PARAM_ROLLBACK = 0x71;
+    byte PARAM_RESPONSE_FRAGMENTS_LENGTH = 0x72;
+    byte PARAM_RESPONSE_FRAGMENT = 0x73;
     // The tx response params
     byte PARAM_OPERATION_FAILED = 0x49;
     byte PARAM_OPERATION_COMPLETED = 0x4A;
@@ -174,8 +174,8 @@ public abstract class AbstractControllerService implements Service<ModelControll
                 new ContainerStateMonitor(container, serviceController),
                 configurationPersister, processType, runningModeControl, prepareStep,
                 processState, executorService, expressionResolver);
-        initModel(controller.getRootResource(), controller.getRootRegistration());
         this.controller = controller;
+        initModel(controller.getRootResource(), controller.getRootRegistration());
 
         final long bootStackSize = getBootStackSize();
         final Thread bootThread = new Thread(null, new Runnable() {
@@ -255,6 +255,20 @@ public abstract class AbstractControllerService implements Service<ModelControll
         this.configurationPersister = persister;
     }
 
+    /**
+     * Register the runtime metrics of the controller itself, e.g. the time operations spent waiting for the
+     * controller's lock.
+     *
+     * @param registration the registration of the resource exposing the metrics, typically {@code core-service=management}
+     */
+    protected void registerControllerMetrics(final ManagementResourceRegistration registration) {
+        ModelControllerMetrics.registerMetrics(registration, this);
+    }
+
+    ModelControllerImpl getModelControllerImpl() {
+        return controller;
+    }
+
     protected abstract void initModel(Resource rootResource, ManagementResourceRegistration rootRegistration);
 
 
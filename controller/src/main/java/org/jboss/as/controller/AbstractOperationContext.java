@@ -42,6 +42,7 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SER
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUCCESS;
 
 import java.util.ArrayDeque;
+import java.util.Arrays;
 import java.util.Deque;
 import java.util.EnumMap;
 import java.util.concurrent.LinkedBlockingDeque;
@@ -84,8 +85,16 @@ abstract class AbstractOperationContext implements OperationContext {
     /** Currently executing step */
     Step activeStep;
 
+    /** The time spent in each stage, indexed by the stage ordinal. Negative for stages never entered */
+    private final long[] stageTimes = new long[Stage.values().length];
+    /** The stage currently being timed */
+    private Stage timedStage = Stage.MODEL;
+    private long timedStageStart;
+
     enum ContextFlag {
         ROLLBACK_ON_FAIL, ALLOW_RESOURCE_SERVICE_RESTART,
+        /** The operation is read-only and executes against a published snapshot of the model */
+        READ_ONLY,
     }
 
     AbstractOperationContext(final ProcessType processType, final RunningMode runningMode,
@@ -107,6 +116,9 @@ abstract class AbstractOperationContext implements OperationContext {
             }
         }
         initiatingThread = Thread.currentThread();
+        Arrays.fill(stageTimes, -1L);
+        stageTimes[Stage.MODEL.ordinal()] = 0L;
+        timedStageStart = System.nanoTime();
     }
 
     @Override
@@ -210,6 +222,33 @@ abstract class AbstractOperationContext implements OperationContext {
         return activeStep.response.get(RESPONSE_HEADERS);
     }
 
+    /**
+     * Account the time spent in the stage timed so far, and start timing another stage.
+     *
+     * @param stage the stage entered, or {@code null} once the operation completed
+     */
+    final void stageEntered(final Stage stage) {
+        final long now = System.nanoTime();
+        if (timedStage != null) {
+            stageTimes[timedStage.ordinal()] += now - timedStageStart;
+        }
+        if (stage != null && stageTimes[stage.ordinal()] < 0) {
+            stageTimes[stage.ordinal()] = 0L;
+        }
+        timedStage = stage;
+        timedStageStart = now;
+    }
+
+    /**
+     * Get the time spent in a stage.
+     *
+     * @param stage the stage
+     * @return the time in nanoseconds, or {@code -1} if the operation never entered the stage
+     */
+    final long getStageTime(final Stage stage) {
+        return stageTimes[stage.ordinal()];
+    }
+
     @Override
     public final ResultAction completeStep() {
         return completeStepInternal();
@@ -291,6 +330,7 @@ abstract class AbstractOperationContext implements OperationContext {
                 // No steps remain in this stage; proceed to the next stage.
                 if (currentStage.hasNext()) {
                     currentStage = currentStage.next();
+                    stageEntered(currentStage);
                     if (currentStage == Stage.VERIFY) {
                         // a change was made to the runtime. Thus, we must wait
                         // for stability before resuming in to verify.
@@ -764,6 +804,7 @@ abstract class AbstractOperationContext implements OperationContext {
                     // fixing the context state and treating
                     // the overall operation as a failure.
                     currentStage = Stage.DONE;
+                    stageEntered(Stage.DONE);
                     if (!response.hasDefined(FAILURE_DESCRIPTION)) {
                         response.get(FAILURE_DESCRIPTION).set(MESSAGES.operationHandlerFailedToComplete());
                     }
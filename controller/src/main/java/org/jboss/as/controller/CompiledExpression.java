@@ -0,0 +1,150 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.jboss.dmr.ModelNode;
+
+/**
+ * An expression compiled to the system properties it references, along with its resolution.
+ * <p>
+ * The resolution of an expression only depends on the expression itself, on the environment variables, which
+ * cannot change, and on the referenced system properties. So a resolution stays valid as long as the values of the
+ * referenced system properties are the ones it was resolved with, which is much cheaper to check than to tokenize and
+ * resolve the expression again. Expressions which cannot be compiled safely, e.g. because they are nested, are
+ * resolved every time.
+ * </p>
+ * <p>
+ * The resolutions are shared by all callers, so they are not used if a security manager is installed: the permission
+ * to read the referenced system properties is then checked on every resolution, like without compilation.
+ * </p>
+ */
+final class CompiledExpression {
+
+    private static final int MAX_CACHE_SIZE = 4096;
+    private static final String ENV_PREFIX = "env.";
+    private static final ConcurrentMap<String, CompiledExpression> cache = new ConcurrentHashMap<String, CompiledExpression>();
+
+    private final String[] propertyKeys;
+    private final String[] propertyValues;
+    private final ModelNode resolved;
+
+    private CompiledExpression(final String[] propertyKeys, final String[] propertyValues, final ModelNode resolved) {
+        this.propertyKeys = propertyKeys;
+        this.propertyValues = propertyValues;
+        this.resolved = resolved;
+    }
+
+    /**
+     * Resolve an expression node.
+     *
+     * @param node the node of type {@link org.jboss.dmr.ModelType#EXPRESSION}
+     * @return the resolved node
+     * @throws IllegalStateException if the expression cannot be resolved
+     * @throws SecurityException if the resolution of the expression is not permitted
+     */
+    static ModelNode resolve(final ModelNode node) {
+        if (System.getSecurityManager() != null) {
+            return node.resolve();
+        }
+        final String expression = node.asString();
+        final CompiledExpression compiled = cache.get(expression);
+        if (compiled != null && compiled.isValid()) {
+            return compiled.resolved.clone();
+        }
+        final String[] keys = getReferencedProperties(expression);
+        if (keys == null) {
+            return node.resolve();
+        }
+        final String[] values = new String[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            values[i] = System.getProperty(keys[i]);
+            if (values[i] != null && values[i].indexOf('$') >= 0) {
+                // The value may get resolved further, so the referenced properties are not known
+                return node.resolve();
+            }
+        }
+        final ModelNode resolved = node.resolve();
+        if (cache.size() >= MAX_CACHE_SIZE) {
+            cache.clear();
+        }
+        cache.put(expression, new CompiledExpression(keys, values, resolved.clone()));
+        return resolved;
+    }
+
+    private boolean isValid() {
+        for (int i = 0; i < propertyKeys.length; i++) {
+            final String value = System.getProperty(propertyKeys[i]);
+            if (value == null ? propertyValues[i] != null : !value.equals(propertyValues[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Get the system properties referenced by an expression.
+     *
+     * @param expression the expression
+     * @return the keys of the system properties, or {@code null} if they cannot be determined safely
+     */
+    static String[] getReferencedProperties(final String expression) {
+        final List<String> keys = new ArrayList<String>();
+        final int length = expression.length();
+        int i = 0;
+        while (i < length) {
+            final char c = expression.charAt(i);
+            if (c != '$' || i + 1 == length) {
+                i++;
+                continue;
+            }
+            // An escaped '$' is not skipped, including too many properties is harmless
+            if (expression.charAt(i + 1) != '{') {
+                i++;
+                continue;
+            }
+            final int end = expression.indexOf('}', i + 2);
+            if (end < 0) {
+                return null;
+            }
+            final String body = expression.substring(i + 2, end);
+            if (body.indexOf('$') >= 0 || body.indexOf('{') >= 0 || body.trim().startsWith(":")) {
+                return null;
+            }
+            final int colon = body.indexOf(':');
+            final String names = colon < 0 ? body : body.substring(0, colon);
+            for (final String name : names.split(",")) {
+                final String key = name.trim();
+                if (!key.startsWith(ENV_PREFIX) && !key.equals("/") && !keys.contains(key)) {
+                    keys.add(key);
+                }
+            }
+            i = end + 1;
+        }
+        return keys.toArray(new String[keys.size()]);
+    }
+}
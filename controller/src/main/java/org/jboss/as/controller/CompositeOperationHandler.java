@@ -23,17 +23,23 @@
 package org.jboss.as.controller;
 
 import static org.jboss.as.controller.ControllerMessages.MESSAGES;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.EXECUTE_STEPS_IN_PARALLEL;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILURE_DESCRIPTION;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OPERATION_HEADERS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OUTCOME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUCCESS;
 
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
 import org.jboss.as.controller.descriptions.common.ControllerResolver;
 import org.jboss.as.controller.registry.ImmutableManagementResourceRegistration;
+import org.jboss.as.controller.registry.OperationEntry;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
 
@@ -85,6 +91,25 @@ public final class CompositeOperationHandler implements OperationStepHandler {
             stepHandlerMap.put(stepName, stepHandler);
         }
 
+        if (size > 1 && isParallelExecutionRequested(operation) && context instanceof OperationContextImpl
+                && areReadOnly(registry, list)) {
+            final List<ModelNode> responses = ((OperationContextImpl) context).executeReadOnlyInParallel(list,
+                    operation.hasDefined(OPERATION_HEADERS) ? operation.get(OPERATION_HEADERS) : new ModelNode());
+            if (responses != null) {
+                boolean failed = false;
+                for (int i = 0; i < size; i++) {
+                    final ModelNode stepResponse = responses.get(i);
+                    responseMap.get("step-" + (i + 1)).set(stepResponse);
+                    failed |= !SUCCESS.equals(stepResponse.get(OUTCOME).asString());
+                }
+                if (failed) {
+                    context.getFailureDescription().set(getFailureDescription(responseMap, size));
+                }
+                context.stepCompleted();
+                return;
+            }
+        }
+
         for (int i = size - 1; i >= 0; i --) {
             final ModelNode subOperation = list.get(i);
             String stepName = "step-" + (i+1);
@@ -94,19 +119,42 @@ public final class CompositeOperationHandler implements OperationStepHandler {
         context.completeStep(new OperationContext.RollbackHandler() {
             @Override
             public void handleRollback(OperationContext context, ModelNode operation) {
-                final ModelNode failureMsg = new ModelNode();
-                for (int i = 0; i < size; i++) {
-                    String stepName = "step-" + (i+1);
-                    ModelNode stepResponse = responseMap.get(stepName);
-                    if (stepResponse.hasDefined(FAILURE_DESCRIPTION)) {
-                        failureMsg.get(MESSAGES.compositeOperationFailed(), MESSAGES.operation(stepName)).set(stepResponse.get(FAILURE_DESCRIPTION));
-                    }
-                }
-                if (!failureMsg.isDefined()) {
-                    failureMsg.set(MESSAGES.compositeOperationRolledBack());
-                }
-                context.getFailureDescription().set(failureMsg);
+                context.getFailureDescription().set(getFailureDescription(responseMap, size));
             }
         });
     }
+
+    private static ModelNode getFailureDescription(final ModelNode responseMap, final int size) {
+        final ModelNode failureMsg = new ModelNode();
+        for (int i = 0; i < size; i++) {
+            String stepName = "step-" + (i+1);
+            ModelNode stepResponse = responseMap.get(stepName);
+            if (stepResponse.hasDefined(FAILURE_DESCRIPTION)) {
+                failureMsg.get(MESSAGES.compositeOperationFailed(), MESSAGES.operation(stepName)).set(stepResponse.get(FAILURE_DESCRIPTION));
+            }
+        }
+        if (!failureMsg.isDefined()) {
+            failureMsg.set(MESSAGES.compositeOperationRolledBack());
+        }
+        return failureMsg;
+    }
+
+    /**
+     * Whether the steps should execute concurrently, which is only done if all of them are read-only. Each step then
+     * executes as a separate operation against the published model.
+     */
+    private static boolean isParallelExecutionRequested(final ModelNode operation) {
+        return operation.hasDefined(OPERATION_HEADERS) && operation.get(OPERATION_HEADERS).hasDefined(EXECUTE_STEPS_IN_PARALLEL)
+                && operation.get(OPERATION_HEADERS, EXECUTE_STEPS_IN_PARALLEL).asBoolean();
+    }
+
+    private static boolean areReadOnly(final ImmutableManagementResourceRegistration registry, final List<ModelNode> steps) {
+        for (final ModelNode step : steps) {
+            final Set<OperationEntry.Flag> flags = registry.getOperationFlags(PathAddress.pathAddress(step.get(OP_ADDR)), step.require(OP).asString());
+            if (flags == null || !flags.contains(OperationEntry.Flag.READ_ONLY)) {
+                return false;
+            }
+        }
+        return true;
+    }
 }
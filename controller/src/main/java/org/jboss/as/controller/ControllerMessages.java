@@ -2537,4 +2537,15 @@ public interface ControllerMessages {
 
     @Message(id = Message.NONE, value = "Services that may be the cause:")
     String missingTransitiveDependencies();
+
+    /**
+     * Creates an exception indicating a lock on part of the model cannot be acquired, as waiting for it would
+     * deadlock with a concurrently executing operation.
+     *
+     * @param scope the part of the model
+     *
+     * @return an {@link OperationFailedRuntimeException} for the error.
+     */
+    @Message(id = 14880, value = "Cannot acquire the lock for %s without deadlocking with a concurrently executing operation; the operation can be retried")
+    OperationFailedRuntimeException modelLockDeadlock(String scope);
 }
@@ -37,25 +37,27 @@ public class ExpressionResolverImpl implements ExpressionResolver {
 
     @Override
     public final ModelNode resolveExpressions(final ModelNode node) throws OperationFailedException {
-        ModelNode resolved = resolveExpressionsRecursively(node);
         try {
-            return resolved.resolve();
+            return resolveExpressionsRecursively(node);
         } catch (SecurityException e) {
-            throw new OperationFailedException(new ModelNode().set(ControllerMessages.MESSAGES.noPermissionToResolveExpression(resolved, e)));
+            throw new OperationFailedException(new ModelNode().set(ControllerMessages.MESSAGES.noPermissionToResolveExpression(node, e)));
         } catch (IllegalStateException e) {
-            throw new OperationFailedException(new ModelNode().set(ControllerMessages.MESSAGES.cannotResolveExpression(resolved, e)));
+            throw new OperationFailedException(new ModelNode().set(ControllerMessages.MESSAGES.cannotResolveExpression(node, e)));
         }
     }
 
     private ModelNode resolveExpressionsRecursively(final ModelNode node) {
         if (!node.isDefined()) {
-            return node;
+            return node.clone();
         }
 
         ModelNode resolved;
         if (node.getType() == ModelType.EXPRESSION) {
             resolved = node.clone();
             resolvePluggableExpression(resolved);
+            if (resolved.getType() == ModelType.EXPRESSION) {
+                resolved = CompiledExpression.resolve(resolved);
+            }
         } else if (node.getType() == ModelType.OBJECT) {
             resolved = node.clone();
             for (Property prop : resolved.asPropertyList()) {
@@ -72,7 +74,7 @@ public class ExpressionResolverImpl implements ExpressionResolver {
             resolved = node.clone();
             resolved.set(resolved.asProperty().getName(), resolveExpressionsRecursively(resolved.asProperty().getValue()));
         } else {
-            resolved = node;
+            resolved = node.clone();
         }
 
         return resolved;
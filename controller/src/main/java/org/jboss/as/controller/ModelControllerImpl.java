@@ -27,6 +27,8 @@ import static org.jboss.as.controller.ControllerLogger.ROOT_LOGGER;
 import static org.jboss.as.controller.ControllerMessages.MESSAGES;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ALLOW_RESOURCE_SERVICE_RESTART;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.CANCELLED;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILED;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILURE_DESCRIPTION;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OPERATION_HEADERS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
@@ -37,16 +39,23 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ROL
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.EnumSet;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.Executor;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
-import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
+import javax.security.auth.Subject;
+
 import org.jboss.as.controller.client.ModelControllerClient;
 import org.jboss.as.controller.client.Operation;
 import org.jboss.as.controller.client.OperationAttachments;
@@ -56,7 +65,9 @@ import org.jboss.as.controller.extension.ParallelExtensionAddHandler;
 import org.jboss.as.controller.operations.common.Util;
 import org.jboss.as.controller.persistence.ConfigurationPersistenceException;
 import org.jboss.as.controller.persistence.ConfigurationPersister;
+import org.jboss.as.controller.registry.CopyOnWriteResourceTree;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.as.controller.registry.OperationEntry;
 import org.jboss.as.controller.registry.Resource;
 import org.jboss.dmr.ModelNode;
 import org.jboss.msc.service.ServiceListener;
@@ -72,12 +83,19 @@ import org.jboss.threads.AsyncFutureTask;
  */
 class ModelControllerImpl implements ModelController {
 
+    /** The maximum number of threads executing the operations of a single {@link #executeReadOnlyInParallel} call */
+    private static final int MAX_PARALLEL_OPERATIONS = 16;
+
     private final ServiceRegistry serviceRegistry;
     private final ServiceTarget serviceTarget;
     private final ManagementResourceRegistration rootRegistration;
-    private final Lock writeLock = new ReentrantLock();
+    private final ModelControllerLock controllerLock = new ModelControllerLock();
+    /** Serializes the persistence and publication of model updates */
+    private final ReentrantLock publishLock = new ReentrantLock();
     private final ContainerStateMonitor stateMonitor;
     private final RootResource model = new RootResource();
+    /** The number of models published so far */
+    private final AtomicLong modelRevision = new AtomicLong();
     private final ConfigurationPersister persister;
     private final ProcessType processType;
     private final RunningModeControl runningModeControl;
@@ -86,6 +104,7 @@ class ModelControllerImpl implements ModelController {
     private final ControlledProcessState processState;
     private final ExecutorService executorService;
     private final ExpressionResolver expressionResolver;
+    private final OperationStatistics operationStatistics = new OperationStatistics();
 
     ModelControllerImpl(final ServiceRegistry serviceRegistry, final ServiceTarget serviceTarget, final ManagementResourceRegistration rootRegistration,
                         final ContainerStateMonitor stateMonitor, final ConfigurationPersister persister,
@@ -130,9 +149,21 @@ class ModelControllerImpl implements ModelController {
             }
         };
 
-        OperationContextImpl context = new OperationContextImpl(this, processType, runningModeControl.getRunningMode(), contextFlags, handler, attachments, model, originalResultTxControl, processState, bootingFlag.get());
+        final boolean booting = bootingFlag.get();
+        // Read-only operations execute against the currently published model, which never changes, so they
+        // neither need to see nor to wait for concurrent updates
+        final Resource root;
+        if (!booting && isReadOnly(operation)) {
+            contextFlags.add(OperationContextImpl.ContextFlag.READ_ONLY);
+            root = model.getDelegate();
+        } else {
+            root = model;
+        }
+        OperationContextImpl context = new OperationContextImpl(this, processType, runningModeControl.getRunningMode(), contextFlags, handler, attachments, root, originalResultTxControl, processState, booting);
         context.addStep(response, operation, prepareStep, OperationContext.Stage.MODEL);
         context.executeOperation();
+        context.stageEntered(null);
+        recordStatistics(operation, context);
 
         if (!response.hasDefined(RESPONSE_HEADERS) || !response.get(RESPONSE_HEADERS).hasDefined(PROCESS_STATE)) {
             ControlledProcessState.State state = processState.getState();
@@ -293,6 +324,142 @@ class ModelControllerImpl implements ModelController {
         return model;
     }
 
+    /**
+     * Execute read-only operations concurrently, each as a separate operation against the published model. The
+     * operations are distributed over at most {@link #MAX_PARALLEL_OPERATIONS} threads of the management executor,
+     * including the calling thread, which also executes whatever the executor does not pick up. The operations
+     * are executed with the headers of the composite operation and the security context of the calling thread.
+     *
+     * @param operations the operations, which must all be registered as read-only
+     * @param headers the operation headers of the composite operation, may be undefined
+     * @param handler the message handler, may be {@code null}
+     * @return the responses, in the order of the operations, or {@code null} if the operations cannot be executed
+     *         concurrently by this controller
+     */
+    List<ModelNode> executeReadOnlyInParallel(final List<ModelNode> operations, final ModelNode headers, final OperationMessageHandler handler) {
+        // Operations of the host controller may be routed to the servers of the domain, which needs a single context
+        if (executorService == null || !processType.isServer()) {
+            return null;
+        }
+        final int size = operations.size();
+        final ModelNode[] responses = new ModelNode[size];
+        final AtomicInteger next = new AtomicInteger();
+        final AtomicBoolean cancelled = new AtomicBoolean();
+        final CountDownLatch completed = new CountDownLatch(size);
+        final Runnable worker = new Runnable() {
+            @Override
+            public void run() {
+                int index;
+                while (!cancelled.get() && (index = next.getAndIncrement()) < size) {
+                    try {
+                        responses[index] = internalExecute(withHeaders(operations.get(index), headers), handler, null, null, prepareStep);
+                    } catch (RuntimeException e) {
+                        final ModelNode failure = new ModelNode();
+                        failure.get(OUTCOME).set(FAILED);
+                        failure.get(FAILURE_DESCRIPTION).set(e.toString());
+                        responses[index] = failure;
+                    } finally {
+                        completed.countDown();
+                    }
+                }
+            }
+        };
+        final Subject subject = SecurityActions.getSecurityContextSubject();
+        final Runnable pooledWorker = new Runnable() {
+            @Override
+            public void run() {
+                SecurityActions.setSecurityContextSubject(subject);
+                try {
+                    worker.run();
+                } finally {
+                    SecurityActions.clearSubjectSecurityContext();
+                }
+            }
+        };
+        final int workers = Math.min(size, MAX_PARALLEL_OPERATIONS) - 1;
+        for (int i = 0; i < workers; i++) {
+            try {
+                executorService.execute(pooledWorker);
+            } catch (RejectedExecutionException e) {
+                break;
+            }
+        }
+        worker.run();
+        try {
+            completed.await();
+        } catch (InterruptedException e) {
+            cancelled.set(true);
+            Thread.currentThread().interrupt();
+            throw MESSAGES.operationCancelledAsynchronously();
+        }
+        return Arrays.asList(responses);
+    }
+
+    /**
+     * Add the headers of a composite operation to one of its steps, unless the step defines them itself.
+     */
+    private static ModelNode withHeaders(final ModelNode operation, final ModelNode headers) {
+        if (!headers.isDefined()) {
+            return operation;
+        }
+        final ModelNode result = operation.clone();
+        final ModelNode stepHeaders = result.get(OPERATION_HEADERS);
+        for (final String key : headers.keys()) {
+            if (!stepHeaders.hasDefined(key)) {
+                stepHeaders.get(key).set(headers.get(key));
+            }
+        }
+        return result;
+    }
+
+    private void recordStatistics(final ModelNode operation, final OperationContextImpl context) {
+        if (!operation.hasDefined(OP)) {
+            return;
+        }
+        final PathAddress address;
+        try {
+            address = PathAddress.pathAddress(operation.get(OP_ADDR));
+        } catch (IllegalArgumentException e) {
+            return;
+        }
+        operationStatistics.record(operation.get(OP).asString(), address, rootRegistration, context);
+    }
+
+    OperationStatistics getOperationStatistics() {
+        return operationStatistics;
+    }
+
+    /**
+     * Determine whether an operation is registered as {@link OperationEntry.Flag#READ_ONLY read-only}.
+     *
+     * @param operation the operation
+     * @return {@code true} if the operation is read-only, {@code false} if it is not or cannot be resolved
+     */
+    private boolean isReadOnly(final ModelNode operation) {
+        if (!operation.hasDefined(OP)) {
+            return false;
+        }
+        final PathAddress address;
+        try {
+            address = PathAddress.pathAddress(operation.get(OP_ADDR));
+        } catch (IllegalArgumentException e) {
+            // Let the operation fail when executing
+            return false;
+        }
+        final Set<OperationEntry.Flag> flags = rootRegistration.getOperationFlags(address, operation.get(OP).asString());
+        return flags != null && flags.contains(OperationEntry.Flag.READ_ONLY);
+    }
+
+    /**
+     * Create a private copy of the current model for a model update. The copy shares all resources with the
+     * current model, until they get navigated for update.
+     *
+     * @return the copy of the model
+     */
+    CopyOnWriteResourceTree createModelUpdate() {
+        return new CopyOnWriteResourceTree(model.getDelegate());
+    }
+
     ManagementResourceRegistration getRootRegistration() {
         return rootRegistration;
     }
@@ -399,36 +566,107 @@ class ModelControllerImpl implements ModelController {
         };
     }
 
-    ConfigurationPersister.PersistenceResource writeModel(final Resource resource, Set<PathAddress> affectedAddresses) throws ConfigurationPersistenceException {
-        final ModelNode newModel = Resource.Tools.readModel(resource);  // Get the model representation
-        final ConfigurationPersister.PersistenceResource delegate = persister.store(newModel, affectedAddresses);
+    Resource getPublishedModel() {
+        return model.getDelegate();
+    }
+
+    /**
+     * Get the revision of the published model. It is incremented each time a model gets published, so it changes
+     * whenever the {@link OperationContext#getModelIdentity() identity} of the model changes, and is cheap to compare
+     * for clients which cannot hold on to that identity. It is incremented once the new model is visible, so the model
+     * read after reading the revision is at least as recent as that revision.
+     *
+     * @return the revision
+     */
+    long getModelRevision() {
+        return modelRevision.get();
+    }
+
+    void refreshModelUpdate(final CopyOnWriteResourceTree modelUpdate, final Collection<PathAddress> lockedAddresses) {
+        modelUpdate.refresh(model.getDelegate(), lockedAddresses);
+    }
+
+    ConfigurationPersister.PersistenceResource writeModel(final CopyOnWriteResourceTree modelUpdate, final Collection<PathAddress> lockedAddresses,
+                                                          final Set<PathAddress> affectedAddresses, final boolean interruptibly)
+            throws ConfigurationPersistenceException, InterruptedException {
+        if (interruptibly) {
+            publishLock.lockInterruptibly();
+        } else {
+            publishLock.lock();
+        }
+        final Resource prepared;
+        final ConfigurationPersister.PersistenceResource preparedDelegate;
+        try {
+            // Operations holding locks for other parts of the model may have published changes in the meantime
+            prepared = model.getDelegate();
+            modelUpdate.refresh(prepared, lockedAddresses);
+            preparedDelegate = persister.store(Resource.Tools.readModel(modelUpdate.getRoot()), affectedAddresses);
+        } finally {
+            // Not held while the outcome of the operation is decided, which may take a while
+            publishLock.unlock();
+        }
         return new ConfigurationPersister.PersistenceResource() {
 
             @Override
             public void commit() {
-                model.set(resource);
-                delegate.commit();
+                ConfigurationPersister.PersistenceResource delegate = preparedDelegate;
+                publishLock.lock();
+                try {
+                    if (model.getDelegate() != prepared) {
+                        // Other operations published their changes after this one was prepared
+                        delegate.rollback();
+                        modelUpdate.refresh(model.getDelegate(), lockedAddresses);
+                        try {
+                            delegate = persister.store(Resource.Tools.readModel(modelUpdate.getRoot()), affectedAddresses);
+                        } catch (ConfigurationPersistenceException e) {
+                            MGMT_OP_LOGGER.failedToPersistConfigurationChange(e);
+                            delegate = null;
+                        }
+                    }
+                    model.set(modelUpdate.getRoot());
+                    if (delegate instanceof ConfigurationPersister.DeferredPersistenceResource) {
+                        // Only the order of submission needs the lock, the flush can be shared with other commits
+                        ((ConfigurationPersister.DeferredPersistenceResource) delegate).submit();
+                    } else if (delegate != null) {
+                        delegate.commit();
+                    }
+                } finally {
+                    publishLock.unlock();
+                }
+                if (delegate instanceof ConfigurationPersister.DeferredPersistenceResource) {
+                    try {
+                        ((ConfigurationPersister.DeferredPersistenceResource) delegate).awaitCommitted();
+                    } catch (ConfigurationPersistenceException e) {
+                        // The changes are in effect, the failed write was logged like the ones of non grouped commits
+                    }
+                }
             }
 
             @Override
             public void rollback() {
-                delegate.rollback();
+                preparedDelegate.rollback();
             }
         };
     }
 
-    void acquireLock(final boolean interruptibly) throws InterruptedException {
-        if (interruptibly) {
-            //noinspection LockAcquiredButNotSafelyReleased
-            writeLock.lockInterruptibly();
-        } else {
-            //noinspection LockAcquiredButNotSafelyReleased
-            writeLock.lock();
-        }
+    boolean acquireLock(final Object owner, final PathAddress scope, final boolean interruptibly) throws InterruptedException {
+        return controllerLock.lock(owner, scope, interruptibly);
+    }
+
+    void acquireRuntimeLock(final Object owner, final boolean interruptibly) throws InterruptedException {
+        controllerLock.lockRuntime(owner, interruptibly);
+    }
+
+    Collection<PathAddress> getLockedAddresses(final Object owner) {
+        return controllerLock.getLockedAddresses(owner);
+    }
+
+    void releaseLock(final Object owner) {
+        controllerLock.unlock(owner);
     }
 
-    void releaseLock() {
-        writeLock.unlock();
+    ModelControllerLock getControllerLock() {
+        return controllerLock;
     }
 
     void acquireContainerMonitor() {
@@ -485,7 +723,7 @@ class ModelControllerImpl implements ModelController {
 
     /**
      * The root resource, maintains a read-only reference to the current model. All write operations have to performed
-     * after acquiring the write lock on a clone of the underlying model.
+     * after acquiring the write lock on a {@link CopyOnWriteResourceTree copy} of the underlying model.
      */
     private class RootResource implements Resource {
 
@@ -493,6 +731,7 @@ class ModelControllerImpl implements ModelController {
 
         void set(Resource resource){
             modelReference.set(resource);
+            modelRevision.incrementAndGet();
         }
 
         @SuppressWarnings({"CloneDoesntCallSuperClone"})
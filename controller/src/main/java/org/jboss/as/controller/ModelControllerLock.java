@@ -0,0 +1,296 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller;
+
+import static org.jboss.as.controller.ControllerMessages.MESSAGES;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The exclusive lock of the {@link ModelControllerImpl}, scoped to subtrees of the model.
+ * <p>
+ * An owner (the {@link OperationContextImpl operation context}) locks the addresses it is going to modify. Two
+ * addresses conflict if one of them is an ancestor of the other, so operations modifying disjoint parts of the
+ * model do not block each other. Locking the {@link PathAddress#EMPTY_ADDRESS empty address} locks the whole
+ * model, including the runtime. Changes to the runtime are serialized separately through the {@link #lockRuntime
+ * runtime lock}, since the service container can only be monitored for a single operation at a time.
+ * </p>
+ * <p>
+ * All locks of an owner are held until {@link #unlock(Object)}. If waiting for a lock would deadlock with an owner
+ * waiting for a lock held by the requesting owner, the request fails instead.
+ * </p>
+ * <p>
+ * Like the reentrant lock this replaced, locks held by an owner do not block requests made on a thread that owner
+ * acquired them on. This allows an operation to execute another operation on its own thread.
+ * </p>
+ */
+final class ModelControllerLock {
+
+    /** Locked scopes keyed by owner. Guarded by {@code this} */
+    private final Map<Object, Scopes> holders = new IdentityHashMap<Object, Scopes>();
+    /** Scope each blocked owner is waiting for. Guarded by {@code this} */
+    private final Map<Object, Scope> waiting = new IdentityHashMap<Object, Scope>();
+
+    private final AtomicLong acquisitions = new AtomicLong();
+    private final AtomicLong contendedAcquisitions = new AtomicLong();
+    private final AtomicLong waitTime = new AtomicLong();
+    private final AtomicLong maxWaitTime = new AtomicLong();
+
+    /**
+     * Lock a part of the model.
+     *
+     * @param owner the owner
+     * @param address the address of the part of the model
+     * @param interruptibly {@code true} if waiting for the lock can be interrupted
+     * @return {@code true} if the owner did not already hold a lock covering {@code address}
+     * @throws InterruptedException if interrupted while waiting
+     * @throws OperationFailedRuntimeException if waiting for the lock would deadlock
+     */
+    boolean lock(final Object owner, final PathAddress address, final boolean interruptibly) throws InterruptedException {
+        return lock(owner, new Scope(address, address.size() == 0), interruptibly);
+    }
+
+    /**
+     * Lock the runtime.
+     *
+     * @param owner the owner
+     * @param interruptibly {@code true} if waiting for the lock can be interrupted
+     * @return {@code true} if the owner did not already hold the runtime lock
+     * @throws InterruptedException if interrupted while waiting
+     * @throws OperationFailedRuntimeException if waiting for the lock would deadlock
+     */
+    boolean lockRuntime(final Object owner, final boolean interruptibly) throws InterruptedException {
+        return lock(owner, new Scope(null, true), interruptibly);
+    }
+
+    /**
+     * Release all locks of an owner.
+     *
+     * @param owner the owner
+     */
+    synchronized void unlock(final Object owner) {
+        if (holders.remove(owner) != null) {
+            notifyAll();
+        }
+    }
+
+    /**
+     * Get the addresses currently locked by an owner.
+     *
+     * @param owner the owner
+     * @return the locked addresses
+     */
+    synchronized Collection<PathAddress> getLockedAddresses(final Object owner) {
+        final Scopes scopes = holders.get(owner);
+        final List<PathAddress> result = new ArrayList<PathAddress>();
+        if (scopes != null) {
+            for (final Scope scope : scopes.scopes) {
+                if (scope.address != null) {
+                    result.add(scope.address);
+                }
+            }
+        }
+        return result;
+    }
+
+    long getAcquisitionCount() {
+        return acquisitions.get();
+    }
+
+    long getContendedAcquisitionCount() {
+        return contendedAcquisitions.get();
+    }
+
+    long getWaitTime(final TimeUnit unit) {
+        return unit.convert(waitTime.get(), TimeUnit.NANOSECONDS);
+    }
+
+    long getMaxWaitTime(final TimeUnit unit) {
+        return unit.convert(maxWaitTime.get(), TimeUnit.NANOSECONDS);
+    }
+
+    private synchronized boolean lock(final Object owner, final Scope scope, final boolean interruptibly) throws InterruptedException {
+        Scopes held = holders.get(owner);
+        if (held != null && held.covers(scope)) {
+            return false;
+        }
+        long start = 0;
+        boolean interrupted = false;
+        try {
+            while (isBlocked(owner, scope)) {
+                if (start == 0) {
+                    start = System.nanoTime();
+                    contendedAcquisitions.incrementAndGet();
+                }
+                if (wouldDeadlock(owner, scope, new HashSet<Object>())) {
+                    throw MESSAGES.modelLockDeadlock(scope.toString());
+                }
+                waiting.put(owner, scope);
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    if (interruptibly) {
+                        throw e;
+                    }
+                    interrupted = true;
+                } finally {
+                    waiting.remove(owner);
+                }
+            }
+        } finally {
+            if (start != 0) {
+                final long elapsed = System.nanoTime() - start;
+                waitTime.addAndGet(elapsed);
+                long max;
+                do {
+                    max = maxWaitTime.get();
+                } while (elapsed > max && !maxWaitTime.compareAndSet(max, elapsed));
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (held == null) {
+            held = new Scopes();
+            holders.put(owner, held);
+        }
+        held.scopes.add(scope);
+        held.threads.add(Thread.currentThread());
+        acquisitions.incrementAndGet();
+        return true;
+    }
+
+    private boolean isBlocked(final Object owner, final Scope scope) {
+        final Thread thread = Thread.currentThread();
+        for (final Map.Entry<Object, Scopes> entry : holders.entrySet()) {
+            if (entry.getKey() != owner && !entry.getValue().threads.contains(thread) && entry.getValue().conflicts(scope)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Determine whether any owner holding a lock that conflicts with {@code scope} is, directly or transitively,
+     * waiting for a lock held by {@code owner}.
+     */
+    private boolean wouldDeadlock(final Object owner, final Scope scope, final Set<Object> visited) {
+        final Thread thread = Thread.currentThread();
+        for (final Map.Entry<Object, Scopes> entry : holders.entrySet()) {
+            final Object other = entry.getKey();
+            if (other == owner || entry.getValue().threads.contains(thread) || !entry.getValue().conflicts(scope) || !visited.add(other)) {
+                continue;
+            }
+            final Scope awaited = waiting.get(other);
+            if (awaited != null) {
+                final Scopes held = holders.get(owner);
+                if (held != null && held.conflicts(awaited)) {
+                    return true;
+                }
+                if (wouldDeadlock(owner, awaited, visited)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * A lockable part of the controller. {@code address} is {@code null} for the runtime.
+     */
+    private static final class Scope {
+
+        private final PathAddress address;
+        private final boolean runtime;
+
+        private Scope(final PathAddress address, final boolean runtime) {
+            this.address = address;
+            this.runtime = runtime;
+        }
+
+        boolean covers(final Scope other) {
+            if (other.runtime && !runtime) {
+                return false;
+            }
+            return address == null ? other.address == null : other.address == null || isAncestor(address, other.address);
+        }
+
+        boolean conflicts(final Scope other) {
+            if (runtime && other.runtime) {
+                return true;
+            }
+            return address != null && other.address != null
+                    && (isAncestor(address, other.address) || isAncestor(other.address, address));
+        }
+
+        private static boolean isAncestor(final PathAddress ancestor, final PathAddress address) {
+            if (ancestor.size() > address.size()) {
+                return false;
+            }
+            for (int i = 0; i < ancestor.size(); i++) {
+                if (!ancestor.getElement(i).equals(address.getElement(i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public String toString() {
+            return address == null ? "runtime" : address.toString();
+        }
+    }
+
+    private static final class Scopes {
+
+        private final List<Scope> scopes = new ArrayList<Scope>();
+        /** The threads the scopes were acquired on */
+        private final Set<Thread> threads = new HashSet<Thread>(2);
+
+        boolean covers(final Scope scope) {
+            for (final Scope held : scopes) {
+                if (held.covers(scope)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        boolean conflicts(final Scope scope) {
+            for (final Scope held : scopes) {
+                if (held.conflicts(scope)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
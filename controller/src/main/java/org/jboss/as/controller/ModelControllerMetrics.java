@@ -0,0 +1,116 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
+
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+
+/**
+ * Metrics of the {@link ModelControllerImpl} itself.
+ */
+final class ModelControllerMetrics {
+
+    static final AttributeDefinition MODEL_LOCK_ACQUISITIONS = new SimpleAttributeDefinitionBuilder("model-lock-acquisitions", ModelType.LONG, false)
+            .setStorageRuntime()
+            .build();
+
+    static final AttributeDefinition MODEL_LOCK_CONTENDED_ACQUISITIONS = new SimpleAttributeDefinitionBuilder("model-lock-contended-acquisitions", ModelType.LONG, false)
+            .setStorageRuntime()
+            .build();
+
+    static final AttributeDefinition MODEL_LOCK_WAIT_TIME = new SimpleAttributeDefinitionBuilder("model-lock-wait-time", ModelType.LONG, false)
+            .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+            .setStorageRuntime()
+            .build();
+
+    static final AttributeDefinition MODEL_LOCK_MAX_WAIT_TIME = new SimpleAttributeDefinitionBuilder("model-lock-max-wait-time", ModelType.LONG, false)
+            .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+            .setStorageRuntime()
+            .build();
+
+    static final AttributeDefinition MODEL_REVISION = new SimpleAttributeDefinitionBuilder("model-revision", ModelType.LONG, false)
+            .setStorageRuntime()
+            .build();
+
+    static final AttributeDefinition OPERATION_STATISTICS = new SimpleAttributeDefinitionBuilder("operation-statistics", ModelType.OBJECT, true)
+            .setStorageRuntime()
+            .build();
+
+    private ModelControllerMetrics() {
+    }
+
+    /**
+     * Register the metrics with the given resource.
+     *
+     * @param registration the resource registration
+     * @param service the service providing the controller
+     */
+    static void registerMetrics(final ManagementResourceRegistration registration, final AbstractControllerService service) {
+        final OperationStepHandler handler = new MetricsHandler(service);
+        registration.registerMetric(MODEL_LOCK_ACQUISITIONS, handler);
+        registration.registerMetric(MODEL_LOCK_CONTENDED_ACQUISITIONS, handler);
+        registration.registerMetric(MODEL_LOCK_WAIT_TIME, handler);
+        registration.registerMetric(MODEL_LOCK_MAX_WAIT_TIME, handler);
+        registration.registerMetric(MODEL_REVISION, handler);
+        registration.registerMetric(OPERATION_STATISTICS, handler);
+    }
+
+    private static class MetricsHandler implements OperationStepHandler {
+
+        private final AbstractControllerService service;
+
+        private MetricsHandler(final AbstractControllerService service) {
+            this.service = service;
+        }
+
+        @Override
+        public void execute(final OperationContext context, final ModelNode operation) throws OperationFailedException {
+            final String attributeName = operation.require(NAME).asString();
+            final ModelNode result = context.getResult();
+            final ModelControllerImpl controller = service.getModelControllerImpl();
+            if (controller != null) {
+                final ModelControllerLock lock = controller.getControllerLock();
+                if (MODEL_LOCK_ACQUISITIONS.getName().equals(attributeName)) {
+                    result.set(lock.getAcquisitionCount());
+                } else if (MODEL_LOCK_CONTENDED_ACQUISITIONS.getName().equals(attributeName)) {
+                    result.set(lock.getContendedAcquisitionCount());
+                } else if (MODEL_LOCK_WAIT_TIME.getName().equals(attributeName)) {
+                    result.set(lock.getWaitTime(TimeUnit.MILLISECONDS));
+                } else if (MODEL_LOCK_MAX_WAIT_TIME.getName().equals(attributeName)) {
+                    result.set(lock.getMaxWaitTime(TimeUnit.MILLISECONDS));
+                } else if (MODEL_REVISION.getName().equals(attributeName)) {
+                    result.set(controller.getModelRevision());
+                } else if (OPERATION_STATISTICS.getName().equals(attributeName)) {
+                    result.set(controller.getOperationStatistics().toModelNode());
+                }
+            }
+            context.stepCompleted();
+        }
+    }
+}
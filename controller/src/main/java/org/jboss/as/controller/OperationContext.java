@@ -544,6 +544,16 @@ public interface OperationContext extends ExpressionResolver {
      */
     Resource getOriginalRootResource();
 
+    /**
+     * Get an object identifying the content of the model read by this operation, so that information derived from
+     * the model can be reused by later operations as long as the model does not change. A different object is
+     * returned once another model update gets published. The caller should hold the controller lock, so that the
+     * model cannot change between reading it and getting its identity.
+     *
+     * @return the identity of the model, or {@code null} if this operation modified the model or the process is booting
+     */
+    Object getModelIdentity();
+
     /**
      * Determine whether the model has thus far been affected by this operation.
      *
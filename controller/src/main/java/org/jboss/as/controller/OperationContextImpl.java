@@ -35,6 +35,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -48,6 +49,8 @@ import org.jboss.as.controller.client.OperationMessageHandler;
 import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
 import org.jboss.as.controller.persistence.ConfigurationPersistenceException;
 import org.jboss.as.controller.persistence.ConfigurationPersister;
+import org.jboss.as.controller.registry.CopyOnWriteResourceTree;
+import org.jboss.as.controller.registry.CopyOnWriteResourceView;
 import org.jboss.as.controller.registry.DelegatingImmutableManagementResourceRegistration;
 import org.jboss.as.controller.registry.ImmutableManagementResourceRegistration;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
@@ -99,6 +102,12 @@ final class OperationContextImpl extends AbstractOperationContext {
     private volatile boolean affectsResourceRegistration;
 
     private volatile Resource model;
+    /** The private copy of the model, created once a step gets write access to the model */
+    private volatile CopyOnWriteResourceTree modelUpdate;
+    /** The subtrees read by the MODEL stage before the model was taken for update */
+    private Set<PathAddress> readDependencies;
+    /** The prepared persistence of the model update, if neither committed nor rolled back yet */
+    private volatile ConfigurationPersister.PersistenceResource pendingPersistence;
 
     private volatile Resource originalModel;
 
@@ -106,6 +115,8 @@ final class OperationContextImpl extends AbstractOperationContext {
     private volatile boolean affectsRuntime;
     /** The step that acquired the write lock */
     private Step lockStep;
+    /** The time spent waiting for locks, in nanoseconds */
+    private long lockWaitTime;
     /** The step that acquired the container monitor  */
     private Step containerMonitorStep;
     private volatile Boolean requiresModelUpdateAuthorization;
@@ -167,7 +178,29 @@ final class OperationContextImpl extends AbstractOperationContext {
 
     @Override
     ConfigurationPersister.PersistenceResource createPersistenceResource() throws ConfigurationPersistenceException {
-        return modelController.writeModel(model, affectsModel.keySet());
+        final ConfigurationPersister.PersistenceResource delegate;
+        try {
+            delegate = modelController.writeModel(modelUpdate, modelController.getLockedAddresses(this), affectsModel.keySet(), respectInterruption);
+        } catch (InterruptedException e) {
+            cancelled = true;
+            Thread.currentThread().interrupt();
+            throw new ConfigurationPersistenceException(MESSAGES.operationCancelled());
+        }
+        // Tracked so the prepared update can be discarded if completing the operation fails
+        pendingPersistence = new ConfigurationPersister.PersistenceResource() {
+            @Override
+            public void commit() {
+                pendingPersistence = null;
+                delegate.commit();
+            }
+
+            @Override
+            public void rollback() {
+                pendingPersistence = null;
+                delegate.rollback();
+            }
+        };
+        return pendingPersistence;
     }
 
     @Override
@@ -192,7 +225,7 @@ final class OperationContextImpl extends AbstractOperationContext {
         //    throw MESSAGES.stageAlreadyComplete(Stage.MODEL);
         //}
         if (!affectsResourceRegistration) {
-            takeWriteLock();
+            takeWriteLock(PathAddress.EMPTY_ADDRESS);
             affectsResourceRegistration = true;
         }
         return modelController.getRootRegistration().getSubModel(address);
@@ -227,7 +260,7 @@ final class OperationContextImpl extends AbstractOperationContext {
             throw MESSAGES.serviceRegistryRuntimeOperationsOnly();
         }
         if (modify && !affectsRuntime) {
-            takeWriteLock();
+            takeRuntimeLock();
             affectsRuntime = true;
             acquireContainerMonitor();
             awaitContainerMonitor();
@@ -245,7 +278,7 @@ final class OperationContextImpl extends AbstractOperationContext {
             throw MESSAGES.serviceRemovalRuntimeOperationsOnly();
         }
         if (!affectsRuntime) {
-            takeWriteLock();
+            takeRuntimeLock();
             affectsRuntime = true;
             acquireContainerMonitor();
             awaitContainerMonitor();
@@ -292,7 +325,7 @@ final class OperationContextImpl extends AbstractOperationContext {
             throw MESSAGES.serviceRemovalRuntimeOperationsOnly();
         }
         if (!affectsRuntime) {
-            takeWriteLock();
+            takeRuntimeLock();
             affectsRuntime = true;
             acquireContainerMonitor();
             awaitContainerMonitor();
@@ -341,7 +374,7 @@ final class OperationContextImpl extends AbstractOperationContext {
             throw MESSAGES.serviceTargetRuntimeOperationsOnly();
         }
         if (!affectsRuntime) {
-            takeWriteLock();
+            takeRuntimeLock();
             affectsRuntime = true;
             acquireContainerMonitor();
             awaitContainerMonitor();
@@ -349,19 +382,131 @@ final class OperationContextImpl extends AbstractOperationContext {
         return serviceTarget;
     }
 
-    private void takeWriteLock() {
-        if (lockStep == null) {
-            if (currentStage == Stage.DONE) {
-                throw MESSAGES.invalidModificationAfterCompletedStep();
+    /**
+     * Acquire the write lock for the given address and create the private copy of the model, if this has not
+     * already happened. Only the resources along the paths navigated for update get copied.
+     *
+     * @param address the address of the resource to be modified
+     */
+    private void takeModelForUpdate(final PathAddress address) {
+        // The boot operations are not confined to the address of their steps
+        takeScopeForUpdate(isBooting() ? PathAddress.EMPTY_ADDRESS : getLockScope(address));
+        if (modelUpdate == null) {
+            // What was read so far must not change underneath the update either
+            final Set<PathAddress> dependencies = readDependencies;
+            readDependencies = null;
+            if (dependencies != null) {
+                for (final PathAddress dependency : dependencies) {
+                    takeWriteLock(dependency);
+                }
+            }
+            modelUpdate = modelController.createModelUpdate();
+            model = modelUpdate.getRoot();
+        }
+    }
+
+    private void takeScopeForUpdate(final PathAddress scope) {
+        final Collection<PathAddress> retained = modelUpdate == null ? null : modelController.getLockedAddresses(this);
+        if (takeWriteLock(scope) && retained != null) {
+            // Pick up any changes other operations published before we acquired the lock
+            modelController.refreshModelUpdate(modelUpdate, retained);
+        }
+    }
+
+    /**
+     * Record that a step of the MODEL stage read the model at the given address. Once the operation modifies the
+     * model, the addresses it read are locked as well, so the update is not based on state that other operations
+     * change concurrently.
+     *
+     * @param address the address that was read
+     */
+    private void addReadDependency(final PathAddress address) {
+        if (currentStage != Stage.MODEL || isBooting() || contextFlags.contains(ContextFlag.READ_ONLY)) {
+            return;
+        }
+        final PathAddress scope = getLockScope(address);
+        if (modelUpdate != null) {
+            takeScopeForUpdate(scope);
+        } else {
+            if (readDependencies == null) {
+                readDependencies = new HashSet<PathAddress>();
+            }
+            readDependencies.add(scope);
+        }
+    }
+
+    /**
+     * Get the subtree that needs to be locked to access the given address, i.e. the address up to its first wildcard.
+     */
+    private static PathAddress getLockScope(final PathAddress address) {
+        for (int i = 0; i < address.size(); i++) {
+            if (address.getElement(i).isMultiTarget()) {
+                return address.subAddress(0, i);
             }
-            try {
-                modelController.acquireLock(respectInterruption);
+        }
+        return address;
+    }
+
+    /**
+     * Acquire the write lock for the subtree at the given address.
+     *
+     * @param scope the address of the subtree. The empty address locks the whole model, including the runtime
+     * @return {@code true} if the lock was not already held
+     */
+    private boolean takeWriteLock(final PathAddress scope) {
+        if (lockStep == null && currentStage == Stage.DONE) {
+            throw MESSAGES.invalidModificationAfterCompletedStep();
+        }
+        final long start = System.nanoTime();
+        try {
+            final boolean acquired = modelController.acquireLock(this, scope, respectInterruption);
+            lockWaitTime += System.nanoTime() - start;
+            if (lockStep == null) {
                 lockStep = activeStep;
-            } catch (InterruptedException e) {
-                cancelled = true;
-                Thread.currentThread().interrupt();
-                throw MESSAGES.operationCancelledAsynchronously();
             }
+            return acquired;
+        } catch (InterruptedException e) {
+            cancelled = true;
+            Thread.currentThread().interrupt();
+            throw MESSAGES.operationCancelledAsynchronously();
+        }
+    }
+
+    /**
+     * Execute read-only operations concurrently, each as a separate operation against the published model.
+     *
+     * @param operations the operations, which must all be registered as read-only
+     * @param headers the operation headers of the composite operation, may be undefined
+     * @return the responses, in the order of the operations, or {@code null} if they cannot be executed concurrently
+     */
+    List<ModelNode> executeReadOnlyInParallel(final List<ModelNode> operations, final ModelNode headers) {
+        return modelController.executeReadOnlyInParallel(operations, headers, messageHandler);
+    }
+
+    /**
+     * Get the time this operation spent waiting for the locks of the controller.
+     *
+     * @return the time in nanoseconds
+     */
+    long getLockWaitTime() {
+        return lockWaitTime;
+    }
+
+    private void takeRuntimeLock() {
+        if (lockStep == null && currentStage == Stage.DONE) {
+            throw MESSAGES.invalidModificationAfterCompletedStep();
+        }
+        final long start = System.nanoTime();
+        try {
+            modelController.acquireRuntimeLock(this, respectInterruption);
+            lockWaitTime += System.nanoTime() - start;
+            if (lockStep == null) {
+                lockStep = activeStep;
+            }
+        } catch (InterruptedException e) {
+            cancelled = true;
+            Thread.currentThread().interrupt();
+            throw MESSAGES.operationCancelledAsynchronously();
         }
     }
 
@@ -395,6 +540,7 @@ final class OperationContextImpl extends AbstractOperationContext {
         if (currentStage == null) {
             throw MESSAGES.operationAlreadyComplete();
         }
+        addReadDependency(address);
         Resource model = this.model;
         for (final PathElement element : address) {
             model = requireChild(model, element, address);
@@ -414,10 +560,7 @@ final class OperationContextImpl extends AbstractOperationContext {
             throw MESSAGES.stageAlreadyComplete(Stage.MODEL);
         }
         authorizeModelUpdate();
-        if (!isModelAffected()) {
-            takeWriteLock();
-            model = model.clone();
-        }
+        takeModelForUpdate(address);
         affectsModel.put(address, NULL);
         Resource model = this.model;
         final Iterator<PathElement> i = address.iterator();
@@ -435,13 +578,13 @@ final class OperationContextImpl extends AbstractOperationContext {
                         throw MESSAGES.noChildType(key);
                     }
                     final Resource newModel = Resource.Factory.create();
-                    model.registerChild(element, newModel);
+                    modelUpdate.registerChild(model, element, newModel);
                     model = newModel;
                 } else {
-                    model = requireChild(model, element, address);
+                    model = requireChildForUpdate(model, element, address);
                 }
             } else {
-                model = requireChild(model, element, address);
+                model = requireChildForUpdate(model, element, address);
             }
         }
         if(model == null) {
@@ -469,6 +612,7 @@ final class OperationContextImpl extends AbstractOperationContext {
         if (currentStage == null) {
             throw MESSAGES.operationAlreadyComplete();
         }
+        addReadDependency(address);
         Resource model = this.model;
         final Iterator<PathElement> iterator = address.iterator();
         while(iterator.hasNext()) {
@@ -493,6 +637,10 @@ final class OperationContextImpl extends AbstractOperationContext {
                 model = requireChild(model, element, address);
             }
         }
+        if (modelUpdate == null && contextFlags.contains(ContextFlag.READ_ONLY)) {
+            // The snapshot will not change, so only what the caller actually uses needs to be copied
+            return CopyOnWriteResourceView.create(model, recursive);
+        }
         if(recursive) {
             return model.clone();
         } else {
@@ -518,26 +666,37 @@ final class OperationContextImpl extends AbstractOperationContext {
             throw MESSAGES.stageAlreadyComplete(Stage.MODEL);
         }
         authorizeModelUpdate();
-        if (!isModelAffected()) {
-            takeWriteLock();
-            model = model.clone();
-        }
+        takeModelForUpdate(address);
         affectsModel.put(address, NULL);
         Resource resource = this.model;
         for (PathElement element : address) {
             if (element.isMultiTarget()) {
                 throw MESSAGES.cannotWriteTo("*");
             }
-            resource = requireChild(resource, element, address);
+            resource = requireChildForUpdate(resource, element, address);
         }
+        // The caller may modify any descendant of the returned resource
+        modelUpdate.makePrivate(resource);
         return resource;
     }
 
     @Override
     public Resource getOriginalRootResource() {
+        if (contextFlags.contains(ContextFlag.READ_ONLY)) {
+            return CopyOnWriteResourceView.create(originalModel, true);
+        }
         return originalModel.clone();
     }
 
+    @Override
+    public Object getModelIdentity() {
+        if (modelUpdate != null || isBooting()) {
+            return null;
+        }
+        // Published models never change, a model update publishes a new one
+        return contextFlags.contains(ContextFlag.READ_ONLY) ? model : modelController.getPublishedModel();
+    }
+
     public Resource createResource(PathAddress relativeAddress) {
         final Resource toAdd = Resource.Factory.create();
         addResource(relativeAddress, toAdd);
@@ -558,10 +717,7 @@ final class OperationContextImpl extends AbstractOperationContext {
             throw MESSAGES.duplicateResourceAddress(absoluteAddress);
         }
         authorizeModelUpdate();
-        if (!isModelAffected()) {
-            takeWriteLock();
-            model = model.clone();
-        }
+        takeModelForUpdate(absoluteAddress);
         affectsModel.put(absoluteAddress, NULL);
         Resource model = this.model;
         final Iterator<PathElement> i = absoluteAddress.iterator();
@@ -580,11 +736,11 @@ final class OperationContextImpl extends AbstractOperationContext {
                     if(!childrenNames.contains(key)) {
                         throw MESSAGES.noChildType(key);
                     }
-                    model.registerChild(element, toAdd);
+                    modelUpdate.registerChild(model, element, toAdd);
                     model = toAdd;
                 }
             } else {
-                model = model.getChild(element);
+                model = modelUpdate.getChildForUpdate(model, element);
                 if (model == null) {
                     PathAddress ancestor = PathAddress.EMPTY_ADDRESS;
                     for (PathElement pe : absoluteAddress) {
@@ -610,10 +766,7 @@ final class OperationContextImpl extends AbstractOperationContext {
             throw MESSAGES.stageAlreadyComplete(Stage.MODEL);
         }
         authorizeModelUpdate();
-        if (!isModelAffected()) {
-            takeWriteLock();
-            model = model.clone();
-        }
+        takeModelForUpdate(address);
         affectsModel.put(address, NULL);
         Resource model = this.model;
         final Iterator<PathElement> i = address.iterator();
@@ -625,18 +778,22 @@ final class OperationContextImpl extends AbstractOperationContext {
             if (! i.hasNext()) {
                 model = model.removeChild(element);
             } else {
-                model = requireChild(model, element, address);
+                model = requireChildForUpdate(model, element, address);
             }
         }
         return model;
     }
 
     public void acquireControllerLock() {
-        takeWriteLock();
+        takeWriteLock(PathAddress.EMPTY_ADDRESS);
     }
 
     public Resource getRootResource() {
+        addReadDependency(PathAddress.EMPTY_ADDRESS);
         final Resource readOnlyModel = this.model;
+        if (modelUpdate == null && contextFlags.contains(ContextFlag.READ_ONLY)) {
+            return CopyOnWriteResourceView.create(readOnlyModel, true);
+        }
         return readOnlyModel.clone();
     }
 
@@ -670,8 +827,16 @@ final class OperationContextImpl extends AbstractOperationContext {
     void releaseStepLocks(AbstractOperationContext.Step step) {
         try {
             if (this.lockStep == step) {
-                modelController.releaseLock();
-                lockStep = null;
+                try {
+                    final ConfigurationPersister.PersistenceResource pending = pendingPersistence;
+                    if (pending != null) {
+                        // Completing the operation failed after the model update was prepared
+                        pending.rollback();
+                    }
+                } finally {
+                    modelController.releaseLock(this);
+                    lockStep = null;
+                }
             }
             if (this.containerMonitorStep == step) {
                 // Note: If we allow this thread to be interrupted, an op that has been cancelled
@@ -696,6 +861,15 @@ final class OperationContextImpl extends AbstractOperationContext {
         }
     }
 
+    private Resource requireChildForUpdate(final Resource resource, final PathElement childPath, final PathAddress fullAddress) {
+        final Resource child = modelUpdate.getChildForUpdate(resource, childPath);
+        if (child == null) {
+            // Report the missing resource
+            return requireChild(resource, childPath, fullAddress);
+        }
+        return child;
+    }
+
     private static Resource requireChild(final Resource resource, final PathElement childPath, final PathAddress fullAddress) {
         if (resource.hasChild(childPath)) {
             return resource.requireChild(childPath);
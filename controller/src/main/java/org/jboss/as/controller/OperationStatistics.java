@@ -0,0 +1,188 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ADDRESS;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.jboss.as.controller.registry.ImmutableManagementResourceRegistration;
+import org.jboss.dmr.ModelNode;
+
+/**
+ * Latency statistics of the operations executed by a {@link ModelControllerImpl}, per operation name and address
+ * pattern. The address pattern is the address of the resource registration handling the operation, so values of
+ * wildcard registrations are replaced by {@code *}.
+ * <p>
+ * For every stage of {@link OperationContext.Stage} entered, and for the time spent waiting for the locks of the
+ * controller, the number of operations, the total and the maximum time and a histogram of the times are recorded.
+ * </p>
+ */
+final class OperationStatistics {
+
+    /** The upper bounds of the histogram buckets, in milliseconds */
+    private static final long[] BUCKETS = {1, 5, 10, 50, 100, 500, 1000, 5000, 10000};
+    /** The maximum number of distinct operations tracked, to bound the memory used */
+    private static final int MAX_ENTRIES = 2048;
+    private static final String LOCK_WAIT = "lock-wait";
+    private static final OperationContext.Stage[] STAGES = {
+            OperationContext.Stage.MODEL, OperationContext.Stage.RUNTIME, OperationContext.Stage.VERIFY,
+            OperationContext.Stage.DOMAIN, OperationContext.Stage.DONE
+    };
+
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<String, Entry>();
+
+    /**
+     * Record the execution of an operation.
+     *
+     * @param operationName the name of the operation
+     * @param address the address of the operation
+     * @param registration the root resource registration, used to determine the address pattern
+     * @param context the completed context of the operation
+     */
+    void record(final String operationName, final PathAddress address, final ImmutableManagementResourceRegistration registration,
+                final OperationContextImpl context) {
+        final String pattern = getAddressPattern(address, registration);
+        final String key = operationName + '@' + pattern;
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            if (entries.size() >= MAX_ENTRIES) {
+                return;
+            }
+            final Entry existing = entries.putIfAbsent(key, entry = new Entry(operationName, pattern));
+            if (existing != null) {
+                entry = existing;
+            }
+        }
+        for (final OperationContext.Stage stage : STAGES) {
+            final long time = context.getStageTime(stage);
+            if (time >= 0) {
+                entry.stages[stage.ordinal()].record(time);
+            }
+        }
+        entry.lockWait.record(context.getLockWaitTime());
+    }
+
+    /**
+     * Get the statistics of all operations.
+     *
+     * @return the statistics, keyed by {@code operation-name@address-pattern}
+     */
+    ModelNode toModelNode() {
+        final ModelNode result = new ModelNode().setEmptyObject();
+        for (final Map.Entry<String, Entry> entry : entries.entrySet()) {
+            result.get(entry.getKey()).set(entry.getValue().toModelNode());
+        }
+        return result;
+    }
+
+    static String getAddressPattern(final PathAddress address, final ImmutableManagementResourceRegistration registration) {
+        if (address.size() == 0) {
+            return "/";
+        }
+        final StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < address.size(); i++) {
+            final PathElement element = address.getElement(i);
+            final Set<PathElement> children = registration.getChildAddresses(address.subAddress(0, i));
+            builder.append('/').append(element.getKey()).append('=');
+            if (children != null && children.contains(element)) {
+                builder.append(element.getValue());
+            } else {
+                builder.append(PathElement.WILDCARD_VALUE);
+            }
+        }
+        return builder.toString();
+    }
+
+    private static final class Entry {
+
+        private final String operationName;
+        private final String addressPattern;
+        private final Histogram[] stages = new Histogram[OperationContext.Stage.values().length];
+        private final Histogram lockWait = new Histogram();
+
+        private Entry(final String operationName, final String addressPattern) {
+            this.operationName = operationName;
+            this.addressPattern = addressPattern;
+            for (final OperationContext.Stage stage : STAGES) {
+                stages[stage.ordinal()] = new Histogram();
+            }
+        }
+
+        private ModelNode toModelNode() {
+            final ModelNode node = new ModelNode();
+            node.get(OP).set(operationName);
+            node.get(ADDRESS).set(addressPattern);
+            for (final OperationContext.Stage stage : STAGES) {
+                node.get(stage.toString().toLowerCase(Locale.ENGLISH)).set(stages[stage.ordinal()].toModelNode());
+            }
+            node.get(LOCK_WAIT).set(lockWait.toModelNode());
+            return node;
+        }
+    }
+
+    private static final class Histogram {
+
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong totalTime = new AtomicLong();
+        private final AtomicLong maxTime = new AtomicLong();
+        /** One bucket per bound, plus one for the times exceeding the last bound */
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS.length + 1);
+
+        private void record(final long nanos) {
+            count.incrementAndGet();
+            totalTime.addAndGet(nanos);
+            long max = maxTime.get();
+            while (nanos > max && !maxTime.compareAndSet(max, nanos)) {
+                max = maxTime.get();
+            }
+            final long millis = TimeUnit.NANOSECONDS.toMillis(nanos);
+            int bucket = 0;
+            while (bucket < BUCKETS.length && millis >= BUCKETS[bucket]) {
+                bucket++;
+            }
+            buckets.incrementAndGet(bucket);
+        }
+
+        private ModelNode toModelNode() {
+            final ModelNode node = new ModelNode();
+            node.get("count").set(count.get());
+            node.get("total-time").set(TimeUnit.NANOSECONDS.toMillis(totalTime.get()));
+            node.get("max-time").set(TimeUnit.NANOSECONDS.toMillis(maxTime.get()));
+            final ModelNode histogram = node.get("histogram");
+            for (int i = 0; i < BUCKETS.length; i++) {
+                histogram.get("under-" + BUCKETS[i] + "ms").set(buckets.get(i));
+            }
+            histogram.get("over-" + BUCKETS[BUCKETS.length - 1] + "ms").set(buckets.get(BUCKETS.length));
+            return node;
+        }
+    }
+}
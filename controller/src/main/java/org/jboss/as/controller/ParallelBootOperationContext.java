@@ -234,6 +234,11 @@ class ParallelBootOperationContext extends AbstractOperationContext {
         return primaryContext.getOriginalRootResource();
     }
 
+    @Override
+    public Object getModelIdentity() {
+        return null;
+    }
+
     @Override
     public boolean isModelAffected() {
         return primaryContext.isModelAffected();
@@ -25,6 +25,10 @@ package org.jboss.as.controller;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
 
+import javax.security.auth.Subject;
+
+import org.jboss.as.controller.security.SecurityContext;
+
 /**
  * Security actions to perform possibly privileged operations.  no methods in
  * this class are to be made public under any circumstances!
@@ -61,6 +65,35 @@ class SecurityActions {
         });
     }
 
+    static Subject getSecurityContextSubject() {
+        if (System.getSecurityManager() == null) {
+            return SecurityContext.getSubject();
+        }
+        return AccessController.doPrivileged(new PrivilegedAction<Subject>() {
+            public Subject run() {
+                return SecurityContext.getSubject();
+            }
+        });
+    }
+
+    static void setSecurityContextSubject(final Subject subject) {
+        AccessController.doPrivileged(new PrivilegedAction<Void>() {
+            public Void run() {
+                SecurityContext.setSubject(subject);
+                return null;
+            }
+        });
+    }
+
+    static void clearSubjectSecurityContext() {
+        AccessController.doPrivileged(new PrivilegedAction<Void>() {
+            public Void run() {
+                SecurityContext.clearSubject();
+                return null;
+            }
+        });
+    }
+
     static ClassLoader setThreadContextClassLoader(Class cl) {
         if (System.getSecurityManager() == null) {
             return SetThreadContextClassLoaderAction.NON_PRIVILEGED.setThreadContextClassLoader(cl);
@@ -92,6 +92,7 @@ public class ModelDescriptionConstants {
     public static final String DUMP_SERVICES = "dump-services";
     public static final String ENABLE = "enable";
     public static final String ENABLED = "enabled";
+    public static final String EXECUTE_STEPS_IN_PARALLEL = "execute-steps-in-parallel";
     public static final String EXPRESSIONS_ALLOWED = "expressions-allowed";
     public static final String EXTENSION = "extension";
     public static final String FAILED = "failed";
@@ -145,6 +146,8 @@ public class ModelDescriptionConstants {
     public static final String MAX = "max";
     public static final String MAX_FAILED_SERVERS = "max-failed-servers";
     public static final String MAX_FAILURE_PERCENTAGE = "max-failure-percentage";
+    public static final String MAX_IN_FLIGHT = "max-in-flight";
+    public static final String MAX_IN_FLIGHT_PER_HOST = "max-in-flight-per-host";
     public static final String MAX_LENGTH = "max-length";
     public static final String MAX_OCCURS = "max-occurs";
     public static final String MAX_THREADS = "max-threads";
@@ -22,8 +22,11 @@
 
 package org.jboss.as.controller.persistence;
 
+import static org.jboss.as.controller.ControllerLogger.ROOT_LOGGER;
+
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import javax.xml.namespace.QName;
@@ -40,8 +43,26 @@ import org.jboss.staxmapper.XMLElementWriter;
  */
 public class BackupXmlConfigurationPersister extends XmlConfigurationPersister {
 
+    /**
+     * Name of the system property to set the group commit window in milliseconds. Commits arriving within the window
+     * are written to the configuration file together. A value of {@code 0} disables group commit.
+     *
+     * @see #DEFAULT_GROUP_COMMIT_WINDOW
+     */
+    public static final String GROUP_COMMIT_WINDOW_PROPERTY = "jboss.as.management.persistence.group.commit.window";
+
+    /**
+     * The default group commit window, in milliseconds.
+     *
+     * @see #GROUP_COMMIT_WINDOW_PROPERTY
+     */
+    public static final int DEFAULT_GROUP_COMMIT_WINDOW = 0;
+
     ConfigurationFile configurationFile;
     private final AtomicBoolean successfulBoot = new AtomicBoolean();
+    private volatile ConfigurationFileGroupCommitter groupCommitter;
+    private final Class<?> rootParserClass;
+    private volatile boolean bootOperationCacheEnabled;
     /**
      * Construct a new instance.
      *
@@ -53,6 +74,60 @@ public class BackupXmlConfigurationPersister extends XmlConfigurationPersister {
     public BackupXmlConfigurationPersister(final ConfigurationFile file, final QName rootElement, final XMLElementReader<List<ModelNode>> rootParser, final XMLElementWriter<ModelMarshallingContext> rootDeparser) {
         super(file.getBootFile(), rootElement, rootParser, rootDeparser);
         this.configurationFile = file;
+        this.rootParserClass = rootParser.getClass();
+        setGroupCommitWindow(getGroupCommitWindow(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Set the group commit window. Commits arriving within the window are written to the configuration file
+     * together, only the latest model gets written. A commit still only returns once its model, or a later one,
+     * has been written.
+     *
+     * @param window the window, or {@code 0} to write every commit on its own
+     * @param unit the unit of {@code window}
+     */
+    public void setGroupCommitWindow(final long window, final TimeUnit unit) {
+        groupCommitter = window > 0 ? new ConfigurationFileGroupCommitter(configurationFile, this, window, unit) : null;
+    }
+
+    /**
+     * Set whether the operations parsed from the configuration file should be cached in binary form. If enabled, the
+     * cached operations are loaded instead of parsing the configuration file as long as neither the file nor the
+     * parsers changed.
+     *
+     * @param enabled {@code true} to enable the cache
+     */
+    public void setBootOperationCacheEnabled(final boolean enabled) {
+        this.bootOperationCacheEnabled = enabled;
+    }
+
+    @Override
+    public List<ModelNode> load() throws ConfigurationPersistenceException {
+        if (!bootOperationCacheEnabled) {
+            return super.load();
+        }
+        final BootOperationCache cache = new BootOperationCache(configurationFile.getBootOperationCacheFile(), rootParserClass);
+        // Compute the key before parsing, so that concurrent changes of the file invalidate the cache
+        final String key = cache.getKey(configurationFile.getBootFile());
+        List<ModelNode> operations = cache.load(key);
+        if (operations == null) {
+            operations = super.load();
+            cache.store(key, operations);
+        }
+        return operations;
+    }
+
+    private static int getGroupCommitWindow() {
+        final String prop = SecurityActions.getSystemProperty(GROUP_COMMIT_WINDOW_PROPERTY);
+        if (prop == null) {
+            return DEFAULT_GROUP_COMMIT_WINDOW;
+        }
+        try {
+            return Integer.parseInt(prop);
+        } catch (NumberFormatException e) {
+            ROOT_LOGGER.invalidSystemPropertyValue(prop, GROUP_COMMIT_WINDOW_PROPERTY, DEFAULT_GROUP_COMMIT_WINDOW);
+            return DEFAULT_GROUP_COMMIT_WINDOW;
+        }
     }
 
     public void registerAdditionalRootElement(final QName anotherRoot, final XMLElementReader<List<ModelNode>> parser){
@@ -77,6 +152,11 @@ public class BackupXmlConfigurationPersister extends XmlConfigurationPersister {
                 }
             };
         }
+        final ConfigurationFileGroupCommitter groupCommitter = this.groupCommitter;
+        if (groupCommitter != null) {
+            // Marshalling is deferred to the write shared by the group
+            return groupCommitter.store(model);
+        }
         return new ConfigurationFilePersistenceResource(model, configurationFile, this);
     }
 
@@ -0,0 +1,237 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.persistence;
+
+import static org.jboss.as.controller.ControllerLogger.ROOT_LOGGER;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.EXTENSION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLConnection;
+import java.security.CodeSource;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.jboss.as.controller.Extension;
+import org.jboss.as.controller.HashUtil;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.dmr.ModelNode;
+import org.jboss.modules.Module;
+import org.jboss.modules.ModuleIdentifier;
+import org.jboss.modules.ModuleLoader;
+import org.xnio.IoUtils;
+
+/**
+ * A binary cache of the operations parsed from a configuration file, so that unchanged configurations do not need to
+ * be parsed again on the next boot.
+ * <p>
+ * The cached operations are only used if the configuration file, the classes of the root parser and the modules of
+ * all extensions referenced by the operations are unchanged. The extensions are checked by the location and the
+ * modification time of their {@link Extension} service descriptors, as the extensions provide the subsystem parsers.
+ * </p>
+ */
+final class BootOperationCache {
+
+    private static final int MAGIC = 0x4a41534f; // JASO
+    private static final int VERSION = 1;
+    private static final String EXTENSION_SERVICE = "META-INF/services/" + Extension.class.getName();
+
+    private final File cacheFile;
+    private final Class<?> parserClass;
+
+    BootOperationCache(final File cacheFile, final Class<?> parserClass) {
+        this.cacheFile = cacheFile;
+        this.parserClass = parserClass;
+    }
+
+    /**
+     * Compute the key of a configuration file.
+     *
+     * @param configurationFile the configuration file
+     * @return the key, or {@code null} if it cannot be computed
+     */
+    String getKey(final File configurationFile) {
+        try {
+            final MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            final InputStream in = new BufferedInputStream(new FileInputStream(configurationFile));
+            try {
+                final byte[] buffer = new byte[8192];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    digest.update(buffer, 0, read);
+                }
+            } finally {
+                IoUtils.safeClose(in);
+            }
+            digest.update(getStamp(getCodeSourceLocation(parserClass)).getBytes("UTF-8"));
+            return HashUtil.bytesToHexString(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            return null;
+        } catch (IOException e) {
+            ROOT_LOGGER.debugf(e, "Cannot compute the key of %s", configurationFile);
+            return null;
+        }
+    }
+
+    /**
+     * Load the cached operations.
+     *
+     * @param key the key of the configuration file
+     * @return the operations, or {@code null} if there are no valid cached operations for the key
+     */
+    List<ModelNode> load(final String key) {
+        if (key == null || !cacheFile.exists()) {
+            return null;
+        }
+        try {
+            final DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(cacheFile)));
+            try {
+                if (in.readInt() != MAGIC || in.readInt() != VERSION || !key.equals(in.readUTF())) {
+                    return null;
+                }
+                final int extensionCount = in.readInt();
+                for (int i = 0; i < extensionCount; i++) {
+                    final String module = in.readUTF();
+                    final String stamp = in.readUTF();
+                    if (!stamp.equals(getExtensionStamp(module))) {
+                        return null;
+                    }
+                }
+                final int count = in.readInt();
+                final List<ModelNode> operations = new ArrayList<ModelNode>(count);
+                for (int i = 0; i < count; i++) {
+                    final ModelNode operation = new ModelNode();
+                    operation.readExternal(in);
+                    operations.add(operation);
+                }
+                return operations;
+            } finally {
+                IoUtils.safeClose(in);
+            }
+        } catch (Exception e) {
+            ROOT_LOGGER.debugf(e, "Ignoring unreadable boot operation cache %s", cacheFile);
+            return null;
+        }
+    }
+
+    /**
+     * Store the operations parsed from a configuration file.
+     *
+     * @param key the key of the configuration file, as computed before parsing it
+     * @param operations the operations
+     */
+    void store(final String key, final List<ModelNode> operations) {
+        if (key == null) {
+            return;
+        }
+        final File tempFile = new File(cacheFile.getParentFile(), cacheFile.getName() + ".tmp");
+        try {
+            final Map<String, String> extensions = new LinkedHashMap<String, String>();
+            for (final ModelNode operation : operations) {
+                final PathAddress address = PathAddress.pathAddress(operation.get(OP_ADDR));
+                if (address.size() == 1 && EXTENSION.equals(address.getElement(0).getKey())) {
+                    final String module = address.getElement(0).getValue();
+                    final String stamp = getExtensionStamp(module);
+                    if (stamp == null) {
+                        // The extension cannot be verified on the next boot
+                        FilePersistenceUtils.deleteFile(cacheFile);
+                        return;
+                    }
+                    extensions.put(module, stamp);
+                }
+            }
+            if (!cacheFile.getParentFile().exists() && !cacheFile.getParentFile().mkdirs()) {
+                return;
+            }
+            final FileOutputStream fos = new FileOutputStream(tempFile);
+            try {
+                final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fos));
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeUTF(key);
+                out.writeInt(extensions.size());
+                for (final Map.Entry<String, String> entry : extensions.entrySet()) {
+                    out.writeUTF(entry.getKey());
+                    out.writeUTF(entry.getValue());
+                }
+                out.writeInt(operations.size());
+                for (final ModelNode operation : operations) {
+                    operation.writeExternal(out);
+                }
+                out.flush();
+                fos.getFD().sync();
+                out.close();
+            } finally {
+                IoUtils.safeClose(fos);
+            }
+            FilePersistenceUtils.moveTempFileToMain(tempFile, cacheFile);
+        } catch (Exception e) {
+            ROOT_LOGGER.debugf(e, "Failed to store the boot operation cache %s", cacheFile);
+        }
+    }
+
+    private static String getExtensionStamp(final String moduleName) {
+        final ModuleLoader loader = Module.getBootModuleLoader();
+        if (loader == null) {
+            return null;
+        }
+        try {
+            final Module module = loader.loadModule(ModuleIdentifier.fromString(moduleName));
+            final URL url = module.getClassLoader().getResource(EXTENSION_SERVICE);
+            return url == null ? null : getStamp(url);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private static URL getCodeSourceLocation(final Class<?> clazz) {
+        final CodeSource codeSource = clazz.getProtectionDomain().getCodeSource();
+        return codeSource == null ? null : codeSource.getLocation();
+    }
+
+    private static String getStamp(final URL url) throws IOException {
+        if (url == null) {
+            return "";
+        }
+        final URLConnection connection = url.openConnection();
+        connection.setUseCaches(false);
+        try {
+            return url.toExternalForm() + '@' + connection.getLastModified();
+        } finally {
+            IoUtils.safeClose(connection.getInputStream());
+        }
+    }
+}
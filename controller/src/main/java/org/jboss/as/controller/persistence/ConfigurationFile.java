@@ -280,6 +280,10 @@ public class ConfigurationFile {
         return mainFile;
     }
 
+    File getBootOperationCacheFile() {
+        return new File(historyRoot, mainFileName + ".ops");
+    }
+
     void successfulBoot() throws ConfigurationPersistenceException {
         synchronized (this) {
             if (doneBootup.get()) {
@@ -0,0 +1,271 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.persistence;
+
+import static org.jboss.as.controller.ControllerLogger.MGMT_OP_LOGGER;
+import static org.jboss.as.controller.ControllerMessages.MESSAGES;
+
+import java.io.File;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.dmr.ModelNode;
+
+/**
+ * Coalesces the commits of a {@link ConfigurationFile} into a single marshal and write.
+ * <p>
+ * Committed models are numbered in the order they get submitted. The first committer waiting for its model to be
+ * written becomes the writer and writes only the latest submitted model, which contains all changes of the earlier
+ * ones. Commits submitted while a write is in progress are grouped into the next write. If other stored models
+ * have not been submitted yet, the writer waits up to the group commit window for them, but it does not wait if
+ * there is nobody to group with. Every committer waits until a model at least as recent as its own has been
+ * written, so a commit still only returns once it is durable. If writing a group fails, the failure is reported
+ * to every committer of the group.
+ * </p>
+ */
+final class ConfigurationFileGroupCommitter {
+
+    private final ConfigurationFile configurationFile;
+    private final AbstractConfigurationPersister persister;
+    private final long windowNanos;
+
+    /** The latest submitted model not yet taken by a writer. Guarded by {@code this} */
+    private ModelNode pending;
+    /** The number of the latest submitted model. Guarded by {@code this} */
+    private long submitted;
+    /** The number of the latest written model. Guarded by {@code this} */
+    private long written;
+    /** Whether a committer is currently writing. Guarded by {@code this} */
+    private boolean writing;
+    /** The number of stored models neither submitted nor rolled back yet. Guarded by {@code this} */
+    private int unsubmitted;
+    /** Failed writes, keyed by the number of the last model of the group. Guarded by {@code this} */
+    private final NavigableMap<Long, FailedGroup> failures = new TreeMap<Long, FailedGroup>();
+
+    ConfigurationFileGroupCommitter(final ConfigurationFile configurationFile, final AbstractConfigurationPersister persister,
+                                    final long window, final TimeUnit unit) {
+        this.configurationFile = configurationFile;
+        this.persister = persister;
+        this.windowNanos = unit.toNanos(window);
+    }
+
+    /**
+     * Create the persistence resource for a model.
+     *
+     * @param model the model. The model must not be modified afterwards
+     * @return the persistence resource
+     */
+    synchronized ConfigurationPersister.DeferredPersistenceResource store(final ModelNode model) {
+        unsubmitted++;
+        return new GroupCommitPersistenceResource(model);
+    }
+
+    private synchronized long submit(final ModelNode model) {
+        pending = model;
+        unsubmitted--;
+        notifyAll();
+        return ++submitted;
+    }
+
+    private synchronized void discard() {
+        unsubmitted--;
+        notifyAll();
+    }
+
+    private void awaitWritten(final long number) throws ConfigurationPersistenceException {
+        boolean interrupted = false;
+        boolean writer = false;
+        try {
+            synchronized (this) {
+                while (written < number) {
+                    if (!writing) {
+                        writing = true;
+                        writer = true;
+                        break;
+                    }
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                    }
+                }
+            }
+            if (writer) {
+                interrupted |= write();
+            }
+            checkFailure(number);
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Throw the failure of the write of the group a model belonged to, if that write failed.
+     */
+    private synchronized void checkFailure(final long number) throws ConfigurationPersistenceException {
+        final Map.Entry<Long, FailedGroup> entry = failures.ceilingEntry(number);
+        if (entry == null || entry.getValue().first > number) {
+            return;
+        }
+        final FailedGroup group = entry.getValue();
+        if (--group.remaining == 0) {
+            failures.remove(entry.getKey());
+        }
+        throw group.failure;
+    }
+
+    /**
+     * Write the latest submitted model, after waiting up to the group commit window for stored models which have
+     * not been submitted yet.
+     *
+     * @return {@code true} if the thread was interrupted while waiting
+     */
+    private boolean write() {
+        boolean interrupted = false;
+        ModelNode model = null;
+        long first = 0;
+        long number = 0;
+        ConfigurationPersistenceException failure = null;
+        try {
+            synchronized (this) {
+                if (windowNanos > 0 && unsubmitted > 0) {
+                    final long deadline = System.nanoTime() + windowNanos;
+                    long remaining = windowNanos;
+                    while (unsubmitted > 0 && remaining > 0) {
+                        try {
+                            TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                        } catch (InterruptedException e) {
+                            // Write what we have, the commit needs to be durable when it returns
+                            interrupted = true;
+                            break;
+                        }
+                        remaining = deadline - System.nanoTime();
+                    }
+                }
+                model = pending;
+                first = written + 1;
+                number = submitted;
+                pending = null;
+            }
+            if (model != null) {
+                writeToFile(model);
+            }
+        } catch (ConfigurationPersistenceException e) {
+            MGMT_OP_LOGGER.failedToStoreConfiguration(e, configurationFile.getMainFile().getName());
+            failure = e;
+        } finally {
+            synchronized (this) {
+                if (number > written) {
+                    if (failure != null) {
+                        failures.put(Long.valueOf(number), new FailedGroup(first, number, failure));
+                    }
+                    written = number;
+                }
+                writing = false;
+                notifyAll();
+            }
+        }
+        return interrupted;
+    }
+
+    private void writeToFile(final ModelNode model) throws ConfigurationPersistenceException {
+        final File fileName = configurationFile.getMainFile();
+        final ExposedByteArrayOutputStream marshalled = FilePersistenceUtils.marshalXml(persister, model);
+        final File tempFileName = FilePersistenceUtils.createTempFile(fileName);
+        try {
+            FilePersistenceUtils.writeToTempFile(marshalled, tempFileName);
+        } catch (Exception e) {
+            throw MESSAGES.failedToWriteConfiguration(e);
+        }
+        try {
+            configurationFile.backup();
+        } finally {
+            configurationFile.commitTempFile(tempFileName);
+        }
+        configurationFile.fileWritten();
+    }
+
+    /**
+     * The models of a group whose write failed.
+     */
+    private static final class FailedGroup {
+        private final long first;
+        private final ConfigurationPersistenceException failure;
+        /** The number of committers of the group which did not see the failure yet */
+        private long remaining;
+
+        private FailedGroup(final long first, final long last, final ConfigurationPersistenceException failure) {
+            this.first = first;
+            this.failure = failure;
+            this.remaining = last - first + 1;
+        }
+    }
+
+    private class GroupCommitPersistenceResource implements ConfigurationPersister.DeferredPersistenceResource {
+
+        private ModelNode model;
+        private long number;
+
+        private GroupCommitPersistenceResource(final ModelNode model) {
+            this.model = model;
+        }
+
+        @Override
+        public void submit() {
+            if (model == null) {
+                throw MESSAGES.rollbackAlreadyInvoked();
+            }
+            number = ConfigurationFileGroupCommitter.this.submit(model);
+            model = null;
+        }
+
+        @Override
+        public void awaitCommitted() throws ConfigurationPersistenceException {
+            if (number > 0) {
+                awaitWritten(number);
+            }
+        }
+
+        @Override
+        public void commit() {
+            submit();
+            try {
+                awaitCommitted();
+            } catch (ConfigurationPersistenceException e) {
+                // Already logged by the writer, like failed writes of non grouped commits
+            }
+        }
+
+        @Override
+        public void rollback() {
+            if (model != null) {
+                model = null;
+                discard();
+            }
+        }
+    }
+}
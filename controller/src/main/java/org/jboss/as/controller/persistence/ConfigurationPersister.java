@@ -54,6 +54,27 @@ public interface ConfigurationPersister {
         void rollback();
     }
 
+    /**
+     * A {@link PersistenceResource} whose commit can be split into submitting the stored model, which determines
+     * the order in which models are persisted, and waiting until the submitted model has been flushed to permanent
+     * storage. This allows callers to only serialize the submission, so that concurrent commits can be flushed
+     * together.
+     */
+    interface DeferredPersistenceResource extends PersistenceResource {
+
+        /**
+         * Submit the stored model for flushing to permanent storage, without waiting for the flush.
+         */
+        void submit();
+
+        /**
+         * Wait until the submitted model, or a later one, has been flushed to permanent storage.
+         *
+         * @throws ConfigurationPersistenceException if flushing the model failed. The failure has already been logged
+         */
+        void awaitCommitted() throws ConfigurationPersistenceException;
+    }
+
     /**
      * Persist the given configuration model.
      *
@@ -187,52 +187,65 @@ public abstract class AbstractModelResource implements Resource {
 
     static class DefaultResourceProvider implements ResourceProvider {
 
-        private final Map<String, Resource> children = new LinkedHashMap<String, Resource>();
+        /** The children, replaced on every modification so copies of this provider can share it. */
+        private volatile PersistentResourceMap children;
 
         protected DefaultResourceProvider() {
+            this(PersistentResourceMap.EMPTY);
+        }
+
+        private DefaultResourceProvider(final PersistentResourceMap children) {
+            this.children = children;
         }
 
         @Override
         public Set<String> children() {
-            synchronized (children) {
-                return new LinkedHashSet<String>(children.keySet());
-            }
+            return children.names();
         }
 
         @Override
         public boolean has(String name) {
-            synchronized (children) {
-                return children.get(name) != null;
-            }
+            return children.get(name) != null;
         }
 
         @Override
         public Resource get(String name) {
-            synchronized (children) {
-                return children.get(name);
-            }
+            return children.get(name);
         }
 
         @Override
         public boolean hasChildren() {
-            return ! children().isEmpty();
+            return children.size() > 0;
         }
 
         @Override
-        public void register(String name, Resource resource) {
-            synchronized (children) {
-                if (children.containsKey(name)) {
-                    throw MESSAGES.duplicateResource(name);
-                }
-                children.put(name, resource);
+        public synchronized void register(String name, Resource resource) {
+            if (children.get(name) != null) {
+                throw MESSAGES.duplicateResource(name);
             }
+            children = children.put(name, resource);
         }
 
         @Override
-        public Resource remove(String name) {
-            synchronized (children) {
-                return children.remove(name);
-            }
+        public synchronized Resource remove(String name) {
+            final PersistentResourceMap current = children;
+            final Resource removed = current.get(name);
+            children = current.remove(name);
+            return removed;
+        }
+
+        synchronized void replace(String name, Resource resource) {
+            children = children.put(name, resource);
+        }
+
+        /**
+         * Create a provider with the same children as this one. Neither the copy nor this provider need to copy
+         * the existing children when they get modified later on.
+         *
+         * @return the copy
+         */
+        DefaultResourceProvider copy() {
+            return new DefaultResourceProvider(children);
         }
     }
 
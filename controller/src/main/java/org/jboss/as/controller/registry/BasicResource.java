@@ -22,6 +22,7 @@
 
 package org.jboss.as.controller.registry;
 
+import org.jboss.as.controller.PathElement;
 import org.jboss.dmr.ModelNode;
 
 import java.util.ConcurrentModificationException;
@@ -76,4 +77,47 @@ class BasicResource extends AbstractModelResource implements Resource {
         return clone;
     }
 
+    /**
+     * Create a copy of this resource which has its own local model and child registrations, but shares the child
+     * resources themselves with this instance.
+     *
+     * @return the shallow copy
+     */
+    BasicResource shallowCopy() {
+        final BasicResource copy = new BasicResource();
+        // Only published resources get copied, which are not modified concurrently
+        copy.writeModel(model);
+        for(final String childType : getChildTypes()) {
+            final ResourceProvider provider = getProvider(childType);
+            if(provider instanceof DefaultResourceProvider) {
+                copy.registerResourceProvider(childType, ((DefaultResourceProvider) provider).copy());
+                continue;
+            }
+            final ResourceProvider target = copy.getOrCreateProvider(childType);
+            for(final String name : provider.children()) {
+                final Resource child = provider.get(name);
+                if(child != null) {
+                    target.register(name, child);
+                }
+            }
+        }
+        return copy;
+    }
+
+    /**
+     * Replace an existing child registration, retaining the iteration order of the children.
+     *
+     * @param address the address of the child
+     * @param resource the replacement
+     */
+    void replaceChild(final PathElement address, final Resource resource) {
+        final ResourceProvider provider = getProvider(address.getKey());
+        if(provider instanceof DefaultResourceProvider) {
+            ((DefaultResourceProvider) provider).replace(address.getValue(), resource);
+        } else {
+            removeChild(address);
+            registerChild(address, resource);
+        }
+    }
+
 }
@@ -0,0 +1,95 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.registry;
+
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.jboss.as.controller.descriptions.DescriptionProvider;
+import org.jboss.dmr.ModelNode;
+
+/**
+ * A {@link DescriptionProvider} caching the descriptions of another provider per locale. Callers get a copy of the
+ * cached description, which they are free to modify.
+ * <p>
+ * The cache must be {@link #invalidate() invalidated} whenever the registry metadata the description is generated
+ * from changes.
+ * </p>
+ */
+final class CachingDescriptionProvider implements DescriptionProvider {
+
+    private final DescriptionProvider delegate;
+    private volatile ConcurrentMap<Locale, ModelNode> descriptions = new ConcurrentHashMap<Locale, ModelNode>();
+
+    private CachingDescriptionProvider(final DescriptionProvider delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * Wrap a description provider in a cache.
+     *
+     * @param provider the provider, may be {@code null}
+     * @return the caching provider, or {@code null} if {@code provider} is {@code null}
+     */
+    static DescriptionProvider wrap(final DescriptionProvider provider) {
+        if (provider == null || provider instanceof CachingDescriptionProvider) {
+            return provider;
+        }
+        return new CachingDescriptionProvider(provider);
+    }
+
+    /**
+     * Invalidate the cache of a description provider, if it is a caching provider.
+     *
+     * @param provider the provider, may be {@code null}
+     */
+    static void invalidate(final DescriptionProvider provider) {
+        if (provider instanceof CachingDescriptionProvider) {
+            ((CachingDescriptionProvider) provider).invalidate();
+        }
+    }
+
+    @Override
+    public ModelNode getModelDescription(final Locale locale) {
+        // Capture the cache first, so that a description generated before an invalidation does not end up in the new cache
+        final ConcurrentMap<Locale, ModelNode> descriptions = this.descriptions;
+        final Locale key = locale == null ? Locale.getDefault() : locale;
+        final ModelNode cached = descriptions.get(key);
+        if (cached != null) {
+            return cached.clone();
+        }
+        final ModelNode description = delegate.getModelDescription(locale);
+        if (description != null) {
+            descriptions.putIfAbsent(key, description.clone());
+        }
+        return description;
+    }
+
+    /**
+     * Discard all cached descriptions.
+     */
+    void invalidate() {
+        descriptions = new ConcurrentHashMap<Locale, ModelNode>();
+    }
+}
@@ -29,6 +29,7 @@ import java.util.Collections;
 import java.util.EnumSet;
 import java.util.HashSet;
 import java.util.ListIterator;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -63,6 +64,15 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
 
     private final AtomicBoolean runtimeOnly = new AtomicBoolean();
 
+    /** The cached description of this resource, invalidated whenever the registrations of this resource change */
+    private final DescriptionProvider modelDescription = CachingDescriptionProvider.wrap(new DescriptionProvider() {
+        @Override
+        public ModelNode getModelDescription(final Locale locale) {
+            final DescriptionProvider provider = resourceDefinition.getDescriptionProvider(ConcreteResourceRegistration.this);
+            return provider == null ? null : provider.getModelDescription(locale);
+        }
+    });
+
     private static final AtomicMapFieldUpdater<ConcreteResourceRegistration, String, NodeSubregistry> childrenUpdater = AtomicMapFieldUpdater.newMapUpdater(AtomicReferenceFieldUpdater.newUpdater(ConcreteResourceRegistration.class, Map.class, "children"));
     private static final AtomicMapFieldUpdater<ConcreteResourceRegistration, String, OperationEntry> operationsUpdater = AtomicMapFieldUpdater.newMapUpdater(AtomicReferenceFieldUpdater.newUpdater(ConcreteResourceRegistration.class, Map.class, "operations"));
     private static final AtomicMapFieldUpdater<ConcreteResourceRegistration, String, AttributeAccess> attributesUpdater = AtomicMapFieldUpdater.newMapUpdater(AtomicReferenceFieldUpdater.newUpdater(ConcreteResourceRegistration.class, Map.class, "attributes"));
@@ -114,6 +124,7 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
         resourceDefinition.registerAttributes(resourceRegistration);
         resourceDefinition.registerOperations(resourceRegistration);
         resourceDefinition.registerChildren(resourceRegistration);
+        invalidateDescriptions();
         return resourceRegistration;
     }
 
@@ -128,6 +139,7 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
         if (subregistry != null) {
             subregistry.unregisterSubModel(address.getValue());
         }
+        invalidateDescriptions();
     }
 
     @Override
@@ -190,16 +202,18 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
 
     @Override
     public void registerOperationHandler(final String operationName, final OperationStepHandler handler, final DescriptionProvider descriptionProvider, final boolean inherited, EntryType entryType) {
-        if (operationsUpdater.putIfAbsent(this, operationName, new OperationEntry(handler, descriptionProvider, inherited, entryType)) != null) {
+        if (operationsUpdater.putIfAbsent(this, operationName, new OperationEntry(handler, CachingDescriptionProvider.wrap(descriptionProvider), inherited, entryType)) != null) {
             throw alreadyRegistered("operation handler", operationName);
         }
+        invalidateDescriptions();
     }
 
     @Override
     public void registerOperationHandler(final String operationName, final OperationStepHandler handler, final DescriptionProvider descriptionProvider, final boolean inherited, EntryType entryType, EnumSet<OperationEntry.Flag> flags) {
-        if (operationsUpdater.putIfAbsent(this, operationName, new OperationEntry(handler, descriptionProvider, inherited, entryType, flags)) != null) {
+        if (operationsUpdater.putIfAbsent(this, operationName, new OperationEntry(handler, CachingDescriptionProvider.wrap(descriptionProvider), inherited, entryType, flags)) != null) {
             throw alreadyRegistered("operation handler", operationName);
         }
+        invalidateDescriptions();
     }
 
     @Override
@@ -207,6 +221,7 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
         if (operationsUpdater.remove(this, operationName) == null) {
             throw operationNotRegisteredException(operationName, resourceDefinition.getPathElement());
         }
+        invalidateDescriptions();
     }
 
     @Override
@@ -215,6 +230,7 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
         if (attributesUpdater.putIfAbsent(this, attributeName, aa) != null) {
             throw alreadyRegistered("attribute", attributeName);
         }
+        invalidateDescriptions();
     }
 
     @Override
@@ -224,6 +240,7 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
         if (attributesUpdater.putIfAbsent(this, attributeName, aa) != null) {
             throw alreadyRegistered("attribute", attributeName);
         }
+        invalidateDescriptions();
     }
 
     @Override
@@ -235,6 +252,7 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
         if (attributesUpdater.putIfAbsent(this, attributeName, aa) != null) {
             throw alreadyRegistered("attribute", attributeName);
         }
+        invalidateDescriptions();
     }
 
     @Override
@@ -243,6 +261,7 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
         if (attributesUpdater.putIfAbsent(this, attributeName, aa) != null) {
             throw alreadyRegistered("attribute", attributeName);
         }
+        invalidateDescriptions();
     }
 
     @Override
@@ -252,6 +271,7 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
         if (attributesUpdater.putIfAbsent(this, attributeName, aa) != null) {
             throw alreadyRegistered("attribute", attributeName);
         }
+        invalidateDescriptions();
     }
 
     @Override
@@ -263,6 +283,7 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
         if (attributesUpdater.putIfAbsent(this, attributeName, aa) != null) {
             throw alreadyRegistered("attribute", attributeName);
         }
+        invalidateDescriptions();
     }
 
     @Override
@@ -276,11 +297,13 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
         if (attributesUpdater.putIfAbsent(this, attributeName, aa) != null) {
             throw alreadyRegistered("attribute", attributeName);
         }
+        invalidateDescriptions();
     }
 
     @Override
     public void unregisterAttribute(String attributeName) {
         attributesUpdater.remove(this, attributeName);
+        invalidateDescriptions();
     }
 
     @Override
@@ -289,6 +312,7 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
         if (attributesUpdater.putIfAbsent(this, definition.getName(), aa) != null) {
             throw alreadyRegistered("attribute", definition.getName());
         }
+        invalidateDescriptions();
     }
 
     @Override
@@ -298,6 +322,7 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
             throw MESSAGES.nodeAlreadyRegistered(existing.getLocationString());
         }
         getOrCreateSubregistry(address.getKey()).registerProxyController(address.getValue(), controller);
+        invalidateDescriptions();
     }
 
     @Override
@@ -307,11 +332,13 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
         if (subregistry != null) {
             subregistry.unregisterProxyController(address.getValue());
         }
+        invalidateDescriptions();
     }
 
     @Override
     public void registerAlias(PathElement address, AliasEntry alias, AbstractResourceRegistration target) {
         getOrCreateSubregistry(address.getKey()).registerAlias(address.getValue(), alias, target);
+        invalidateDescriptions();
     }
 
     @Override
@@ -321,6 +348,18 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
         if (subregistry != null) {
             subregistry.unregisterAlias(address.getValue());
         }
+        invalidateDescriptions();
+    }
+
+    /**
+     * Invalidate the cached descriptions of this resource and its operations, as they are generated from the
+     * registered attributes, operations and children.
+     */
+    private void invalidateDescriptions() {
+        CachingDescriptionProvider.invalidate(modelDescription);
+        for (final OperationEntry entry : operationsUpdater.get(this).values()) {
+            CachingDescriptionProvider.invalidate(entry.getDescriptionProvider());
+        }
     }
 
     NodeSubregistry getOrCreateSubregistry(final String key) {
@@ -353,7 +392,7 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
             }
             return subregistry.getModelDescription(iterator, next.getValue());
         } else {
-            return resourceDefinition.getDescriptionProvider(this);
+            return modelDescription;
         }
     }
 
@@ -392,7 +431,7 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
                 // an unexpected undefined value returned. But it removes the possibility of a
                 // dev forgetting to call registry.registerReadOnlyAttribute("foo", null) resulting
                 // in the valid attribute "foo" not being readable
-                final ModelNode desc = resourceDefinition.getDescriptionProvider(this).getModelDescription(null);
+                final ModelNode desc = modelDescription.getModelDescription(null);
                 if (desc.has(ATTRIBUTES) && desc.get(ATTRIBUTES).keys().contains(attributeName)) {
                     access = new AttributeAccess(AccessType.READ_ONLY, Storage.CONFIGURATION, null, null, null, null);
                 }
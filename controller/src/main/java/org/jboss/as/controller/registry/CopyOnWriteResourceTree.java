@@ -0,0 +1,205 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.registry;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+
+/**
+ * A private, writable version of a published resource tree, which only copies the resources along the paths
+ * that actually get modified. All other resources are shared with the published tree.
+ * <p>
+ * Resources handed to callers are either <em>shallow copies</em>, which own their local model and child
+ * registrations but share their children with the published tree, or <em>private</em>, in which case the
+ * complete subtree belongs to this instance. Navigating for update through a shallow copy copies the
+ * requested child first, so the published tree is never modified.
+ * </p>
+ * <p>
+ * Resources which are not plain {@link BasicResource} instances cannot be shallow copied; those are
+ * {@link Resource#clone() cloned} and treated as private.
+ * </p>
+ */
+public final class CopyOnWriteResourceTree {
+
+    private final Resource root;
+    /** Resources copied from the published tree, which still share their children with it */
+    private final Set<Resource> shallowCopies = Collections.newSetFromMap(new IdentityHashMap<Resource, Boolean>());
+    /** Children of shallow copies which are not shared with the published tree */
+    private final Set<Resource> privateResources = Collections.newSetFromMap(new IdentityHashMap<Resource, Boolean>());
+
+    /**
+     * Create a new tree for the given published root resource.
+     *
+     * @param published the published root resource, which will never be modified through this instance
+     */
+    public CopyOnWriteResourceTree(final Resource published) {
+        this.root = copy(published);
+    }
+
+    /**
+     * Get the writable root resource.
+     *
+     * @return the root resource
+     */
+    public Resource getRoot() {
+        return root;
+    }
+
+    /**
+     * Get a child of a resource obtained from this tree, making sure the child can be modified without
+     * affecting the published tree.
+     *
+     * @param parent the parent, obtained from {@link #getRoot()} or a previous call to this method
+     * @param element the path element of the child
+     * @return the writable child, or {@code null} if there is no such child
+     */
+    public synchronized Resource getChildForUpdate(final Resource parent, final PathElement element) {
+        final Resource child = parent.getChild(element);
+        if (child == null || !shallowCopies.contains(parent)
+                || shallowCopies.contains(child) || privateResources.contains(child)) {
+            return child;
+        }
+        final Resource copy = copy(child);
+        ((BasicResource) parent).replaceChild(element, copy);
+        return copy;
+    }
+
+    /**
+     * Register a new child with a resource obtained from this tree. The child is treated as private.
+     *
+     * @param parent the parent, obtained from {@link #getRoot()} or {@link #getChildForUpdate(Resource, PathElement)}
+     * @param element the path element of the child
+     * @param child the child
+     */
+    public synchronized void registerChild(final Resource parent, final PathElement element, final Resource child) {
+        parent.registerChild(element, child);
+        privateResources.add(child);
+    }
+
+    /**
+     * Make sure the complete subtree of a resource obtained from this tree can be modified without affecting the
+     * published tree. The identity of the resource itself is retained.
+     *
+     * @param resource the resource, obtained from {@link #getRoot()} or {@link #getChildForUpdate(Resource, PathElement)}
+     */
+    public synchronized void makePrivate(final Resource resource) {
+        if (!shallowCopies.remove(resource)) {
+            return;
+        }
+        final BasicResource parent = (BasicResource) resource;
+        for (final String childType : parent.getChildTypes()) {
+            for (final String name : parent.getChildrenNames(childType)) {
+                final PathElement element = PathElement.pathElement(childType, name);
+                final Resource child = parent.getChild(element);
+                if (child == null || privateResources.contains(child)) {
+                    continue;
+                }
+                if (shallowCopies.contains(child)) {
+                    makePrivate(child);
+                } else {
+                    parent.replaceChild(element, child.clone());
+                }
+            }
+        }
+    }
+
+    /**
+     * Bring this tree up to date with a more recent version of the published tree, except for the subtrees at the
+     * given addresses, which are retained as they are. The retained subtrees must not have been modified in the
+     * published tree in the meantime.
+     *
+     * @param published the current published root resource
+     * @param retained the addresses of the subtrees to retain
+     */
+    public synchronized void refresh(final Resource published, final Collection<PathAddress> retained) {
+        refresh(root, published, PathAddress.EMPTY_ADDRESS, retained);
+    }
+
+    private void refresh(final Resource resource, final Resource published, final PathAddress address, final Collection<PathAddress> retained) {
+        if (retained.contains(address)) {
+            return;
+        }
+        if (!resource.getModel().equals(published.getModel())) {
+            resource.writeModel(published.getModel());
+        }
+        final Set<String> childTypes = new LinkedHashSet<String>(resource.getChildTypes());
+        childTypes.addAll(published.getChildTypes());
+        for (final String childType : childTypes) {
+            final Set<String> names = new LinkedHashSet<String>(resource.getChildrenNames(childType));
+            names.addAll(published.getChildrenNames(childType));
+            for (final String name : names) {
+                final PathElement element = PathElement.pathElement(childType, name);
+                final PathAddress childAddress = address.append(element);
+                final Resource current = resource.getChild(element);
+                final Resource latest = published.getChild(element);
+                if (containsRetained(childAddress, retained)) {
+                    if (current != null && latest != null) {
+                        refresh(getChildForUpdate(resource, element), latest, childAddress, retained);
+                    }
+                } else if (current != latest) {
+                    if (latest == null) {
+                        resource.removeChild(element);
+                    } else {
+                        // Children of shallow copies are copied on demand, so the published resource can be shared
+                        final Resource child = shallowCopies.contains(resource) ? latest : copy(latest);
+                        if (current == null) {
+                            resource.registerChild(element, child);
+                        } else if (resource instanceof BasicResource) {
+                            ((BasicResource) resource).replaceChild(element, child);
+                        } else {
+                            resource.removeChild(element);
+                            resource.registerChild(element, child);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private static boolean containsRetained(final PathAddress address, final Collection<PathAddress> retained) {
+        for (final PathAddress candidate : retained) {
+            if (candidate.size() >= address.size() && candidate.subAddress(0, address.size()).equals(address)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Resource copy(final Resource resource) {
+        if (resource.getClass() == BasicResource.class) {
+            final Resource copy = ((BasicResource) resource).shallowCopy();
+            shallowCopies.add(copy);
+            return copy;
+        }
+        final Resource copy = resource.clone();
+        privateResources.add(copy);
+        return copy;
+    }
+
+}
@@ -0,0 +1,296 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.registry;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.dmr.ModelNode;
+
+/**
+ * A view of a resource of a published, immutable snapshot of the model, which behaves like a {@link Resource#clone()
+ * copy} of that resource but only copies what is actually used. The local model gets copied on first access, the
+ * child registrations are only copied if they get modified. Children are exposed as views themselves, or as
+ * {@link PlaceholderResource placeholders} if the view is not recursive. The view of a child is created on first
+ * access and kept, so the changes made through it are part of the view like the changes of a copy.
+ * <p>
+ * {@link Resource#isRuntime() Runtime} and {@link Resource#isProxy() proxy} resources are not part of the immutable
+ * snapshot, their state is read from the running server when accessed. They are copied right away, like outside of
+ * a view, so they cannot change while the view is in use.
+ * </p>
+ *
+ * <p>Concurrency note: this class is *not* thread safe</p>
+ */
+public final class CopyOnWriteResourceView implements Resource {
+
+    private final Resource delegate;
+    private final boolean recursive;
+    /** The private copy of the local model, created on first access */
+    private ModelNode model;
+    /** The private copy of the child registrations, created on first modification */
+    private Resource children;
+    /** The views of the children which were accessed before the child registrations got copied */
+    private Map<PathElement, Resource> childViews;
+
+    private CopyOnWriteResourceView(final Resource delegate, final boolean recursive) {
+        this.delegate = delegate;
+        this.recursive = recursive;
+    }
+
+    /**
+     * Create a view of a resource. The resource must not be modified while the view is in use.
+     *
+     * @param resource the resource
+     * @param recursive {@code true} if the view should expose the children of the resource, {@code false}
+     *                  if it should only expose placeholders
+     * @return the view
+     */
+    public static Resource create(final Resource resource, final boolean recursive) {
+        if (resource.isRuntime() || resource.isProxy()) {
+            if (recursive) {
+                return resource.clone();
+            }
+            final CopyOnWriteResourceView view = new CopyOnWriteResourceView(resource, false);
+            view.model = resource.getModel().clone();
+            view.children = view.copyChildren();
+            return view;
+        }
+        return new CopyOnWriteResourceView(resource, recursive);
+    }
+
+    /**
+     * Get the resource of the published snapshot a view is based on. As the resources of a snapshot are never
+     * modified, and a model update only replaces the resources on the modified paths, the identity of the snapshot
+     * resources tells which parts of the model did not change between two snapshots.
+     *
+     * @param resource the resource, possibly a view
+     * @return the snapshot resource of the view, or {@code resource} if it is not a view or if the children of the
+     *         view, or of one of its child views, were modified
+     */
+    public static Resource getSnapshotResource(final Resource resource) {
+        if (resource instanceof CopyOnWriteResourceView) {
+            final CopyOnWriteResourceView view = (CopyOnWriteResourceView) resource;
+            if (!view.isStructureModified()) {
+                return view.delegate;
+            }
+        }
+        return resource;
+    }
+
+    @Override
+    public ModelNode getModel() {
+        if (model == null) {
+            model = delegate.getModel().clone();
+        }
+        return model;
+    }
+
+    @Override
+    public void writeModel(final ModelNode newModel) {
+        getModel().set(newModel);
+    }
+
+    @Override
+    public boolean isModelDefined() {
+        return model == null ? delegate.isModelDefined() : model.isDefined();
+    }
+
+    @Override
+    public boolean hasChild(final PathElement element) {
+        return children == null ? delegate.hasChild(element) : children.hasChild(element);
+    }
+
+    @Override
+    public Resource getChild(final PathElement element) {
+        if (children != null) {
+            return children.getChild(element);
+        }
+        if (!recursive) {
+            return delegate.hasChild(element) ? PlaceholderResource.INSTANCE : null;
+        }
+        Resource view = childViews == null ? null : childViews.get(element);
+        if (view == null) {
+            final Resource child = delegate.getChild(element);
+            if (child == null) {
+                return null;
+            }
+            view = create(child, true);
+            if (childViews == null) {
+                childViews = new HashMap<PathElement, Resource>();
+            }
+            childViews.put(element, view);
+        }
+        return view;
+    }
+
+    @Override
+    public Resource requireChild(final PathElement element) {
+        final Resource child = getChild(element);
+        if (child == null) {
+            throw new NoSuchResourceException(element);
+        }
+        return child;
+    }
+
+    @Override
+    public boolean hasChildren(final String childType) {
+        return children == null ? delegate.hasChildren(childType) : children.hasChildren(childType);
+    }
+
+    @Override
+    public Resource navigate(final PathAddress address) {
+        return Tools.navigate(this, address);
+    }
+
+    @Override
+    public Set<String> getChildTypes() {
+        return children == null ? delegate.getChildTypes() : children.getChildTypes();
+    }
+
+    @Override
+    public Set<String> getChildrenNames(final String childType) {
+        return children == null ? delegate.getChildrenNames(childType) : children.getChildrenNames(childType);
+    }
+
+    @Override
+    public Set<ResourceEntry> getChildren(final String childType) {
+        if (children != null) {
+            return children.getChildren(childType);
+        }
+        final Set<String> names = delegate.getChildrenNames(childType);
+        if (names.isEmpty()) {
+            return Collections.emptySet();
+        }
+        final Set<ResourceEntry> result = new LinkedHashSet<ResourceEntry>();
+        for (final String name : names) {
+            final PathElement element = PathElement.pathElement(childType, name);
+            final Resource child = getChild(element);
+            if (child != null) {
+                result.add(new AbstractModelResource.DelegateResource(child) {
+                    @Override
+                    public String getName() {
+                        return name;
+                    }
+
+                    @Override
+                    public PathElement getPathElement() {
+                        return element;
+                    }
+                });
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public void registerChild(final PathElement address, final Resource resource) {
+        getChildrenForUpdate().registerChild(address, resource);
+    }
+
+    @Override
+    public Resource removeChild(final PathElement address) {
+        return getChildrenForUpdate().removeChild(address);
+    }
+
+    @Override
+    public boolean isRuntime() {
+        return delegate.isRuntime();
+    }
+
+    @Override
+    public boolean isProxy() {
+        return delegate.isProxy();
+    }
+
+    @SuppressWarnings({"CloneDoesntCallSuperClone"})
+    @Override
+    public Resource clone() {
+        final Resource clone = children == null ? copyChildren(true) : children.clone();
+        clone.writeModel(getModel());
+        return clone;
+    }
+
+    private Resource getChildrenForUpdate() {
+        if (children == null) {
+            children = copyChildren(false);
+            childViews = null;
+        }
+        return children;
+    }
+
+    private boolean isStructureModified() {
+        if (children != null) {
+            return true;
+        }
+        if (childViews != null) {
+            for (final Resource view : childViews.values()) {
+                if (view instanceof CopyOnWriteResourceView && ((CopyOnWriteResourceView) view).isStructureModified()) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Copy the child registrations, including the child views which were already accessed.
+     *
+     * @param cloneViews {@code true} if the copy gets the clones of the child views, {@code false} if it gets the
+     *                   views themselves
+     * @return the copy
+     */
+    private Resource copyChildren(final boolean cloneViews) {
+        if (recursive) {
+            final Resource copy = delegate.clone();
+            if (childViews != null) {
+                for (final String childType : new ArrayList<String>(copy.getChildTypes())) {
+                    // Replace the copies of the children by the views in the registration order
+                    boolean replaced = false;
+                    for (final String name : new ArrayList<String>(copy.getChildrenNames(childType))) {
+                        final PathElement element = PathElement.pathElement(childType, name);
+                        final Resource view = childViews.get(element);
+                        if (view != null || replaced) {
+                            replaced = true;
+                            final Resource child = copy.removeChild(element);
+                            copy.registerChild(element, view == null ? child : cloneViews ? view.clone() : view);
+                        }
+                    }
+                }
+            }
+            return copy;
+        }
+        final Resource copy = Resource.Factory.create();
+        for (final String childType : delegate.getChildTypes()) {
+            for (final String name : delegate.getChildrenNames(childType)) {
+                copy.registerChild(PathElement.pathElement(childType, name), PlaceholderResource.INSTANCE);
+            }
+        }
+        return copy;
+    }
+}
@@ -0,0 +1,351 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.registry;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * An immutable map of child names to resources, retaining the registration order of the names. Updates return a
+ * new instance which shares all unchanged parts with the original one (a hash array mapped trie), so copying a
+ * resource with many children and then replacing one of them does not depend on the number of children.
+ * <p>
+ * The registration order is kept in a second persistent trie, indexed by the order of the names. The slots of the
+ * removed names are cleared, and the map is compacted once most of the slots are cleared, so listing the names is
+ * linear in their number.
+ */
+final class PersistentResourceMap {
+
+    static final PersistentResourceMap EMPTY = new PersistentResourceMap(null, 0, 0, null, 0);
+
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+
+    /** Either {@code null}, an {@link Entry}, a {@link Collision} or a {@link Node} */
+    private final Object root;
+    private final int size;
+    private final int nextOrder;
+    /** The names by order, {@code null} for the removed ones: the leaves hold names, the other nodes arrays */
+    private final Object[] order;
+    /** The shift of the index of the root node of the order */
+    private final int orderShift;
+
+    private PersistentResourceMap(final Object root, final int size, final int nextOrder, final Object[] order, final int orderShift) {
+        this.root = root;
+        this.size = size;
+        this.nextOrder = nextOrder;
+        this.order = order;
+        this.orderShift = orderShift;
+    }
+
+    int size() {
+        return size;
+    }
+
+    Resource get(final String name) {
+        final Entry entry = find(name);
+        return entry == null ? null : entry.resource;
+    }
+
+    private Entry find(final String name) {
+        final int hash = name.hashCode();
+        Object current = root;
+        int shift = 0;
+        for (;;) {
+            if (current == null) {
+                return null;
+            } else if (current instanceof Entry) {
+                final Entry entry = (Entry) current;
+                return entry.name.equals(name) ? entry : null;
+            } else if (current instanceof Collision) {
+                final Collision collision = (Collision) current;
+                final int index = collision.indexOf(name);
+                return index < 0 ? null : collision.entries[index];
+            } else {
+                final Node node = (Node) current;
+                final int bit = bit(hash, shift);
+                if ((node.bitmap & bit) == 0) {
+                    return null;
+                }
+                current = node.children[node.index(bit)];
+                shift += BITS;
+            }
+        }
+    }
+
+    /**
+     * Associate a resource with a name. A new name is ordered after all existing names, a replaced one retains
+     * its position.
+     *
+     * @param name the name
+     * @param resource the resource
+     * @return the updated map
+     */
+    PersistentResourceMap put(final String name, final Resource resource) {
+        final boolean[] added = new boolean[1];
+        final Entry entry = new Entry(name, name.hashCode(), nextOrder, resource);
+        final Object newRoot = put(root, 0, entry, added);
+        if (!added[0]) {
+            return new PersistentResourceMap(newRoot, size, nextOrder, order, orderShift);
+        }
+        Object[] newOrder = order;
+        int newOrderShift = orderShift;
+        if (newOrder != null && nextOrder == 1L << (orderShift + BITS)) {
+            // The order is full, add a level
+            newOrder = new Object[1 << BITS];
+            newOrder[0] = order;
+            newOrderShift += BITS;
+        }
+        newOrder = setName(newOrder, newOrderShift, nextOrder, name);
+        return new PersistentResourceMap(newRoot, size + 1, nextOrder + 1, newOrder, newOrderShift);
+    }
+
+    PersistentResourceMap remove(final String name) {
+        final Entry entry = find(name);
+        if (entry == null) {
+            return this;
+        }
+        final PersistentResourceMap removed = new PersistentResourceMap(remove(root, 0, name, name.hashCode()), size - 1, nextOrder,
+                setName(order, orderShift, entry.order, null), orderShift);
+        // Compact the order once most of its slots are cleared
+        return removed.nextOrder > (1 << BITS) && removed.nextOrder > 2 * removed.size ? removed.compact() : removed;
+    }
+
+    /**
+     * Get the names in registration order.
+     *
+     * @return a new set with the names
+     */
+    Set<String> names() {
+        final Set<String> names = new LinkedHashSet<String>(size * 2);
+        collect(order, orderShift, names);
+        return names;
+    }
+
+    private PersistentResourceMap compact() {
+        PersistentResourceMap compacted = EMPTY;
+        for (final String name : names()) {
+            compacted = compacted.put(name, get(name));
+        }
+        return compacted;
+    }
+
+    private static void collect(final Object[] node, final int shift, final Set<String> names) {
+        if (node == null) {
+            return;
+        }
+        for (final Object child : node) {
+            if (shift == 0) {
+                if (child != null) {
+                    names.add((String) child);
+                }
+            } else {
+                collect((Object[]) child, shift - BITS, names);
+            }
+        }
+    }
+
+    private static Object[] setName(final Object[] node, final int shift, final int index, final String name) {
+        final Object[] copy = node == null ? new Object[1 << BITS] : node.clone();
+        final int slot = (index >>> shift) & MASK;
+        if (shift == 0) {
+            copy[slot] = name;
+        } else {
+            copy[slot] = setName((Object[]) copy[slot], shift - BITS, index, name);
+        }
+        return copy;
+    }
+
+    private static Object put(final Object current, final int shift, final Entry entry, final boolean[] added) {
+        if (current == null) {
+            added[0] = true;
+            return entry;
+        } else if (current instanceof Entry) {
+            final Entry existing = (Entry) current;
+            if (existing.name.equals(entry.name)) {
+                return existing.replace(entry.resource);
+            } else if (existing.hash == entry.hash) {
+                added[0] = true;
+                return new Collision(entry.hash, new Entry[] { existing, entry });
+            }
+            added[0] = true;
+            return merge(existing, existing.hash, entry, entry.hash, shift);
+        } else if (current instanceof Collision) {
+            final Collision collision = (Collision) current;
+            if (collision.hash != entry.hash) {
+                added[0] = true;
+                return merge(collision, collision.hash, entry, entry.hash, shift);
+            }
+            final int index = collision.indexOf(entry.name);
+            final Entry[] entries;
+            if (index < 0) {
+                added[0] = true;
+                entries = Arrays.copyOf(collision.entries, collision.entries.length + 1);
+                entries[collision.entries.length] = entry;
+            } else {
+                entries = collision.entries.clone();
+                entries[index] = collision.entries[index].replace(entry.resource);
+            }
+            return new Collision(collision.hash, entries);
+        } else {
+            final Node node = (Node) current;
+            final int bit = bit(entry.hash, shift);
+            final int index = node.index(bit);
+            if ((node.bitmap & bit) == 0) {
+                added[0] = true;
+                final Object[] children = new Object[node.children.length + 1];
+                System.arraycopy(node.children, 0, children, 0, index);
+                children[index] = entry;
+                System.arraycopy(node.children, index, children, index + 1, node.children.length - index);
+                return new Node(node.bitmap | bit, children);
+            }
+            final Object[] children = node.children.clone();
+            children[index] = put(node.children[index], shift + BITS, entry, added);
+            return new Node(node.bitmap, children);
+        }
+    }
+
+    /**
+     * Create the node(s) holding two elements with different hashes.
+     */
+    private static Object merge(final Object first, final int firstHash, final Object second, final int secondHash, final int shift) {
+        final int firstBit = bit(firstHash, shift);
+        final int secondBit = bit(secondHash, shift);
+        if (firstBit == secondBit) {
+            return new Node(firstBit, new Object[] { merge(first, firstHash, second, secondHash, shift + BITS) });
+        } else if (index(firstHash, shift) < index(secondHash, shift)) {
+            return new Node(firstBit | secondBit, new Object[] { first, second });
+        }
+        return new Node(firstBit | secondBit, new Object[] { second, first });
+    }
+
+    private static Object remove(final Object current, final int shift, final String name, final int hash) {
+        if (current == null) {
+            return null;
+        } else if (current instanceof Entry) {
+            return ((Entry) current).name.equals(name) ? null : current;
+        } else if (current instanceof Collision) {
+            final Collision collision = (Collision) current;
+            final int index = collision.indexOf(name);
+            if (index < 0) {
+                return current;
+            } else if (collision.entries.length == 2) {
+                return collision.entries[1 - index];
+            }
+            final Entry[] entries = new Entry[collision.entries.length - 1];
+            System.arraycopy(collision.entries, 0, entries, 0, index);
+            System.arraycopy(collision.entries, index + 1, entries, index, entries.length - index);
+            return new Collision(collision.hash, entries);
+        } else {
+            final Node node = (Node) current;
+            final int bit = bit(hash, shift);
+            if ((node.bitmap & bit) == 0) {
+                return current;
+            }
+            final int index = node.index(bit);
+            final Object child = node.children[index];
+            final Object newChild = remove(child, shift + BITS, name, hash);
+            if (newChild == child) {
+                return current;
+            } else if (newChild != null) {
+                if (node.children.length == 1 && !(newChild instanceof Node)) {
+                    // Entries and collisions do not depend on their depth, so they can be moved up
+                    return newChild;
+                }
+                final Object[] children = node.children.clone();
+                children[index] = newChild;
+                return new Node(node.bitmap, children);
+            } else if (node.children.length == 1) {
+                return null;
+            } else if (node.children.length == 2 && !(node.children[1 - index] instanceof Node)) {
+                return node.children[1 - index];
+            }
+            final Object[] children = new Object[node.children.length - 1];
+            System.arraycopy(node.children, 0, children, 0, index);
+            System.arraycopy(node.children, index + 1, children, index, children.length - index);
+            return new Node(node.bitmap & ~bit, children);
+        }
+    }
+
+    private static int index(final int hash, final int shift) {
+        return (hash >>> shift) & MASK;
+    }
+
+    private static int bit(final int hash, final int shift) {
+        return 1 << index(hash, shift);
+    }
+
+    private static final class Entry {
+        private final String name;
+        private final int hash;
+        private final int order;
+        private final Resource resource;
+
+        private Entry(final String name, final int hash, final int order, final Resource resource) {
+            this.name = name;
+            this.hash = hash;
+            this.order = order;
+            this.resource = resource;
+        }
+
+        private Entry replace(final Resource resource) {
+            return new Entry(name, hash, order, resource);
+        }
+    }
+
+    /** Entries with different names but the same hash code */
+    private static final class Collision {
+        private final int hash;
+        private final Entry[] entries;
+
+        private Collision(final int hash, final Entry[] entries) {
+            this.hash = hash;
+            this.entries = entries;
+        }
+
+        private int indexOf(final String name) {
+            for (int i = 0; i < entries.length; i++) {
+                if (entries[i].name.equals(name)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+
+    private static final class Node {
+        private final int bitmap;
+        private final Object[] children;
+
+        private Node(final int bitmap, final Object[] children) {
+            this.bitmap = bitmap;
+            this.children = children;
+        }
+
+        private int index(final int bit) {
+            return Integer.bitCount(bitmap & (bit - 1));
+        }
+    }
+
+}
@@ -22,21 +22,30 @@
 package org.jboss.as.controller.remote;
 
 import static org.jboss.as.controller.ControllerLogger.ROOT_LOGGER;
+import static org.jboss.as.controller.ControllerMessages.MESSAGES;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.CALLER_TYPE;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILED;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILURE_DESCRIPTION;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OPERATION_HEADERS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OUTCOME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESULT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUCCESS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.USER;
 
 import java.io.DataInput;
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import javax.security.auth.Subject;
 
 import org.jboss.as.controller.ModelController;
 import org.jboss.as.controller.client.impl.ModelControllerProtocol;
 import org.jboss.as.protocol.StreamUtils;
+import org.jboss.as.protocol.mgmt.AbstractManagementRequest;
 import org.jboss.as.protocol.mgmt.ActiveOperation;
 import org.jboss.as.protocol.mgmt.FlushableDataOutput;
 import org.jboss.as.protocol.mgmt.ManagementChannelAssociation;
@@ -48,6 +57,8 @@ import org.jboss.as.protocol.mgmt.ManagementRequestHeader;
 import org.jboss.as.protocol.mgmt.ManagementResponseHeader;
 import org.jboss.as.protocol.mgmt.ProtocolUtils;
 import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+import org.jboss.threads.AsyncFuture;
 
 /**
  * Operation handlers for the remote implementation of {@link org.jboss.as.controller.client.ModelControllerClient}
@@ -57,6 +68,10 @@ import org.jboss.dmr.ModelNode;
  */
 public class ModelControllerClientOperationHandler implements ManagementRequestHandlerFactory {
 
+    /** The number of result fragments sent in one message */
+    private static final int FRAGMENTS_PER_MESSAGE = 64;
+    private static final long ACKNOWLEDGE_POLL_INTERVAL = 1000;
+
     private final ModelController controller;
 
     private final ManagementChannelAssociation channelAssociation;
@@ -82,6 +97,9 @@ public class ModelControllerClientOperationHandler implements ManagementRequestH
                 // initialize the operation ctx before executing the request handler
                 handlers.registerActiveOperation(header.getBatchId(), null);
                 return new ExecuteRequestHandler();
+            case ModelControllerProtocol.EXECUTE_STREAMING_CLIENT_REQUEST:
+                handlers.registerActiveOperation(header.getBatchId(), null);
+                return new ExecuteStreamingRequestHandler();
             case ModelControllerProtocol.CANCEL_ASYNC_REQUEST:
                 return new CancelAsyncRequestHandler();
         }
@@ -109,6 +127,7 @@ public class ModelControllerClientOperationHandler implements ManagementRequestH
                     } finally {
                         SecurityActions.clearSubjectSecurityContext();
                     }
+                    sendResultFragments(result, context);
 
                     final FlushableDataOutput output = context.writeMessage(response);
                     try {
@@ -153,6 +172,101 @@ public class ModelControllerClientOperationHandler implements ManagementRequestH
             return result;
         }
 
+        /**
+         * Send parts of the result ahead of the response. The parts sent must be removed from the result.
+         *
+         * @param result the result of the operation
+         * @param context the request context
+         * @throws IOException
+         */
+        protected void sendResultFragments(final ModelNode result, final ManagementRequestContext<Void> context) throws IOException {
+            // No-op, the complete result is sent with the response
+        }
+
+    }
+
+    /**
+     * Executes an operation like {@link ExecuteRequestHandler}, but sends the result in fragments before the response.
+     * Every fragment is released once it is sent, and the next fragments are only sent once the client acknowledged the
+     * previous ones, so neither side needs to hold the serialized result as a whole.
+     *
+     * @see org.jboss.as.controller.client.ResultFragmentHandler
+     */
+    class ExecuteStreamingRequestHandler extends ExecuteRequestHandler {
+
+        @Override
+        protected void sendResultFragments(final ModelNode response, final ManagementRequestContext<Void> context) throws IOException {
+            if (!SUCCESS.equals(response.get(OUTCOME).asString()) || !response.hasDefined(RESULT)
+                    || response.get(RESULT).getType() != ModelType.OBJECT) {
+                return;
+            }
+            final int batchId = ManagementRequestHeader.class.cast(context.getRequestHeader()).getBatchId();
+            final ModelNode result = response.get(RESULT);
+            final List<String[]> paths = new ArrayList<String[]>(FRAGMENTS_PER_MESSAGE);
+            final List<ModelNode> values = new ArrayList<ModelNode>(FRAGMENTS_PER_MESSAGE);
+            for (final String key : result.keys()) {
+                final ModelNode value = result.get(key);
+                if (value.getType() != ModelType.OBJECT) {
+                    // Simple values stay in the response
+                    continue;
+                }
+                // Removing the sent values modifies the key set
+                for (final String name : new ArrayList<String>(value.keys())) {
+                    paths.add(new String[] {key, name});
+                    values.add(value.remove(name));
+                    if (paths.size() == FRAGMENTS_PER_MESSAGE) {
+                        sendFragments(batchId, paths, values);
+                    }
+                }
+            }
+            if (!paths.isEmpty()) {
+                sendFragments(batchId, paths, values);
+            }
+        }
+
+        private void sendFragments(final int batchId, final List<String[]> paths, final List<ModelNode> values) throws IOException {
+            final CountDownLatch acknowledged = new CountDownLatch(1);
+            final AsyncFuture<Object> future = channelAssociation.executeRequest(batchId, new AbstractManagementRequest<Object, Object>() {
+
+                @Override
+                public byte getOperationType() {
+                    return ModelControllerProtocol.HANDLE_RESPONSE_FRAGMENT_REQUEST;
+                }
+
+                @Override
+                protected void sendRequest(final ActiveOperation.ResultHandler<Object> resultHandler, final ManagementRequestContext<Object> context, final FlushableDataOutput output) throws IOException {
+                    output.write(ModelControllerProtocol.PARAM_RESPONSE_FRAGMENTS_LENGTH);
+                    output.writeInt(paths.size());
+                    for (int i = 0; i < paths.size(); i++) {
+                        final String[] path = paths.get(i);
+                        output.write(ModelControllerProtocol.PARAM_RESPONSE_FRAGMENT);
+                        output.writeInt(path.length);
+                        for (final String key : path) {
+                            output.writeUTF(key);
+                        }
+                        values.get(i).writeExternal(output);
+                    }
+                }
+
+                @Override
+                public void handleRequest(final DataInput input, final ActiveOperation.ResultHandler<Object> resultHandler, final ManagementRequestContext<Object> context) throws IOException {
+                    // The acknowledgement must not complete the operation itself
+                    acknowledged.countDown();
+                }
+            });
+            paths.clear();
+            values.clear();
+            try {
+                while (!acknowledged.await(ACKNOWLEDGE_POLL_INTERVAL, TimeUnit.MILLISECONDS)) {
+                    if (future.getStatus() != AsyncFuture.Status.WAITING) {
+                        throw new IOException(MESSAGES.operationCancelled());
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException();
+            }
+        }
     }
 
     private static class CancelAsyncRequestHandler implements ManagementRequestHandler<ModelNode, Void> {
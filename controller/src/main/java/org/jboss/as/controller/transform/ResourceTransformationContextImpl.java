@@ -48,16 +48,17 @@ class ResourceTransformationContextImpl implements ResourceTransformationContext
 
     static ResourceTransformationContext create(final OperationContext context, final TransformationTarget target) {
         final Resource root = Resource.Factory.create();
+        final Object modelIdentity = context.getModelIdentity();
         final Resource original = context.readResourceFromRoot(PathAddress.EMPTY_ADDRESS, true);
         final ImmutableManagementResourceRegistration registration = context.getRootResourceRegistration().getSubModel(PathAddress.EMPTY_ADDRESS);
         final ExpressionResolver expressionResolver = TransformerExpressionResolver.create(context, target.getTargetType());
-        final OriginalModel originalModel = new OriginalModel(original, context.getRunningMode(), context.getProcessType(), target, registration, expressionResolver);
+        final OriginalModel originalModel = new OriginalModel(original, modelIdentity, context.getRunningMode(), context.getProcessType(), target, registration, expressionResolver);
         return new ResourceTransformationContextImpl(root, PathAddress.EMPTY_ADDRESS, originalModel);
     }
 
     static ResourceTransformationContext create(TransformationTarget target, Resource model, ImmutableManagementResourceRegistration registration, ExpressionResolver resolver, RunningMode runningMode, ProcessType type) {
         final Resource root = Resource.Factory.create();
-        final OriginalModel originalModel = new OriginalModel(model,  runningMode, type, target, registration,resolver);
+        final OriginalModel originalModel = new OriginalModel(model, null, runningMode, type, target, registration,resolver);
         return new ResourceTransformationContextImpl(root, PathAddress.EMPTY_ADDRESS, originalModel);
     }
 
@@ -217,17 +218,30 @@ class ResourceTransformationContextImpl implements ResourceTransformationContext
         return root;
     }
 
+    /**
+     * Get the identity of the model this context was created for.
+     *
+     * @return the identity, or {@code null} if it is not known
+     * @see OperationContext#getModelIdentity()
+     */
+    Object getModelIdentity() {
+        return originalModel.modelIdentity;
+    }
+
     static class OriginalModel {
 
         private final Resource original;
+        /** The identity of the model the original was read from, {@code null} if unknown */
+        private final Object modelIdentity;
         private final RunningMode mode;
         private final ProcessType type;
         private final TransformationTarget target;
         private final ImmutableManagementResourceRegistration registration;
         private final ExpressionResolver expressionResolver;
 
-        OriginalModel(Resource original, RunningMode mode, ProcessType type, TransformationTarget target, ImmutableManagementResourceRegistration registration, ExpressionResolver expressionResolver) {
+        OriginalModel(Resource original, Object modelIdentity, RunningMode mode, ProcessType type, TransformationTarget target, ImmutableManagementResourceRegistration registration, ExpressionResolver expressionResolver) {
             this.original = original;
+            this.modelIdentity = modelIdentity;
             this.mode = mode;
             this.type = type;
             this.target = target;
@@ -133,6 +133,14 @@ public interface TransformationTarget {
          * @return {@code true} if the resource should be excluded from operation transformation
          */
         boolean isOperationTransformationIgnored(final PathAddress address);
+
+        /**
+         * Gets a key identifying the resources excluded from transformation, so that targets excluding the same
+         * resources can share the results of resource transformations.
+         *
+         * @return the key, or {@code null} if the results of resource transformations must not be shared
+         */
+        String getTransformationExclusionKey();
     }
 
 }
@@ -3,6 +3,7 @@ package org.jboss.as.controller.transform;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.TreeMap;
 
 import org.jboss.as.controller.ModelVersion;
 import org.jboss.as.controller.PathAddress;
@@ -105,6 +106,28 @@ public class TransformationTargetImpl implements TransformationTarget {
         transformerRegistry.addSubsystem(operationTransformers, subsystemName, version);
     }
 
+    /**
+     * Get a key identifying the versions of this target, so that targets with the same versions can share the results
+     * of resource transformations.
+     *
+     * @return the key, or {@code null} if the results must not be shared
+     */
+    String getVersionsKey() {
+        final String exclusionKey = transformationExclusion == null ? "" : transformationExclusion.getTransformationExclusionKey();
+        if (exclusionKey == null) {
+            return null;
+        }
+        final Map<String, ModelVersion> subsystems;
+        synchronized (subsystemVersions) {
+            subsystems = new TreeMap<String, ModelVersion>(subsystemVersions);
+        }
+        return type + ";" + version + ";" + subsystems + ";" + exclusionKey;
+    }
+
+    TransformerRegistry getTransformerRegistry() {
+        return transformerRegistry;
+    }
+
     @Override
     public TransformationTargetType getTargetType() {
         return type;
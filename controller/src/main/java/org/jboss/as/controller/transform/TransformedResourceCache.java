@@ -0,0 +1,183 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.transform;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.ref.WeakReference;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.jboss.as.controller.HashUtil;
+import org.jboss.as.controller.registry.Resource;
+
+/**
+ * The results of resource transformations, shared by all targets with the same versions.
+ * <p>
+ * Only the latest result is kept per target versions, along with the revision of the transformed resource, which is
+ * the digest of its content. A result is used as long as the resource to transform has the same revision, so a
+ * mixed-version domain pays the transformation once per version rather than once per slave.
+ * </p>
+ */
+final class TransformedResourceCache {
+
+    private static final int MAX_ENTRIES = 32;
+    private static final OutputStream NULL_OUTPUT = new OutputStream() {
+        @Override
+        public void write(final int b) {
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) {
+        }
+    };
+
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<String, Entry>();
+    /** The model the memoized revisions belong to, guarded by {@code this} */
+    private WeakReference<Object> revisionsModel;
+    /** The revisions of the resources read from {@link #revisionsModel}, by the child types of the resource, guarded by {@code this} */
+    private final Map<String, String> revisions = new HashMap<String, String>();
+
+    /**
+     * Get a cached transformation result.
+     *
+     * @param key the key of the target versions
+     * @param revision the revision of the resource to transform
+     * @return a copy of the transformed resource, or {@code null} if there is no result for the revision
+     */
+    Resource get(final String key, final String revision) {
+        final Entry entry = entries.get(key);
+        if (entry == null || !entry.revision.equals(revision)) {
+            return null;
+        }
+        return entry.transformed.clone();
+    }
+
+    /**
+     * Store a transformation result.
+     *
+     * @param key the key of the target versions
+     * @param revision the revision of the transformed resource
+     * @param transformed the transformed resource
+     */
+    void put(final String key, final String revision, final Resource transformed) {
+        if (entries.size() >= MAX_ENTRIES && !entries.containsKey(key)) {
+            entries.clear();
+        }
+        entries.put(key, new Entry(revision, transformed.clone()));
+    }
+
+    /**
+     * Discard all results, e.g. because the transformers changed.
+     */
+    void clear() {
+        entries.clear();
+        synchronized (this) {
+            revisionsModel = null;
+            revisions.clear();
+        }
+    }
+
+    /**
+     * Get the revision of a resource. The revision is only computed once per model, as long as the resource was read
+     * from a model with a known identity.
+     *
+     * @param resource the resource
+     * @param shape the child types of the resource, which tell apart the resources read from the same model
+     * @param modelIdentity the identity of the model the resource was read from, {@code null} if not known
+     * @return the revision
+     */
+    String getRevision(final Resource resource, final String shape, final Object modelIdentity) {
+        if (modelIdentity == null) {
+            return getRevision(resource);
+        }
+        synchronized (this) {
+            if (revisionsModel == null || revisionsModel.get() != modelIdentity) {
+                revisionsModel = new WeakReference<Object>(modelIdentity);
+                revisions.clear();
+            }
+            String revision = revisions.get(shape);
+            if (revision == null) {
+                revision = getRevision(resource);
+                revisions.put(shape, revision);
+            }
+            return revision;
+        }
+    }
+
+    /**
+     * Compute the revision of a resource, which covers the models of the resource and all its children. Proxies and
+     * runtime resources are only covered by their address, as they are not transformed.
+     *
+     * @param resource the resource
+     * @return the revision
+     */
+    static String getRevision(final Resource resource) {
+        try {
+            final MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            final DataOutputStream out = new DataOutputStream(new DigestOutputStream(NULL_OUTPUT, digest));
+            writeResource(resource, out);
+            out.flush();
+            return HashUtil.bytesToHexString(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void writeResource(final Resource resource, final DataOutputStream out) throws IOException {
+        out.writeBoolean(resource.isProxy());
+        out.writeBoolean(resource.isRuntime());
+        if (resource.isProxy() || resource.isRuntime()) {
+            return;
+        }
+        resource.getModel().writeExternal(out);
+        for (final String type : resource.getChildTypes()) {
+            for (final Resource.ResourceEntry child : resource.getChildren(type)) {
+                out.writeUTF(type);
+                out.writeUTF(child.getName());
+                writeResource(child, out);
+            }
+        }
+        // Marks the end of the children
+        out.writeUTF("");
+    }
+
+    private static final class Entry {
+
+        private final String revision;
+        private final Resource transformed;
+
+        private Entry(final String revision, final Resource transformed) {
+            this.revision = revision;
+            this.transformed = transformed;
+        }
+    }
+}
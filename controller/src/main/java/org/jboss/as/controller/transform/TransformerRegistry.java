@@ -45,6 +45,7 @@ public final class TransformerRegistry {
 
     private final GlobalTransformerRegistry domain = new GlobalTransformerRegistry();
     private final GlobalTransformerRegistry subsystem = new GlobalTransformerRegistry();
+    private final TransformedResourceCache resourceCache = new TransformedResourceCache();
 
     TransformerRegistry(final ExtensionRegistry extensionRegistry) {
         this.extensionRegistry = extensionRegistry;
@@ -58,6 +59,10 @@ public final class TransformerRegistry {
         return extensionRegistry;
     }
 
+    TransformedResourceCache getResourceCache() {
+        return resourceCache;
+    }
+
     /**
      * Register a subsystem transformer.
      *
@@ -70,6 +75,7 @@ public final class TransformerRegistry {
         for(final ModelVersion version : range.getVersions()) {
             subsystem.createChildRegistry(subsystemAddress, version, subsystemTransformer, false);
         }
+        resourceCache.clear();
         return new TransformersSubRegistrationImpl(range, subsystem, subsystemAddress);
     }
 
@@ -74,6 +74,18 @@ public interface Transformers {
             return new TransformersImpl(target);
         }
 
+        /**
+         * Create transformers sharing the results of {@link Transformers#transformResource resource transformations}
+         * with all other caching transformers for the same target versions, as long as the resource to transform
+         * does not change. Only use it if the transformed resource is the complete input of the resource transformers.
+         *
+         * @param target the target
+         * @return the transformers
+         */
+        public static Transformers createCaching(final TransformationTarget target) {
+            return new TransformersImpl(target, true);
+        }
+
         public static ResourceTransformationContext getTransformationContext(final Transformers transformers, final OperationContext context) {
             return getTransformationContext(transformers.getTarget(), context);
         }
@@ -37,6 +37,8 @@ import org.jboss.as.controller.registry.Resource;
 import org.jboss.dmr.ModelNode;
 import org.jboss.logging.Logger;
 
+import java.util.TreeSet;
+
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
 
@@ -47,10 +49,16 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_
 public class TransformersImpl implements Transformers {
     private static final Logger log = Logger.getLogger(TransformersImpl.class);
     private final TransformationTarget target;
+    private final boolean cacheResources;
 
     TransformersImpl(TransformationTarget target) {
+        this(target, false);
+    }
+
+    TransformersImpl(TransformationTarget target, boolean cacheResources) {
         assert target != null;
         this.target = target;
+        this.cacheResources = cacheResources && target instanceof TransformationTargetImpl;
     }
 
     @Override
@@ -86,8 +94,32 @@ public class TransformersImpl implements Transformers {
             ControllerLogger.ROOT_LOGGER.tracef("resource %s does not need transformation", resource);
             return resource;
         }
+        if (!cacheResources) {
+            transformer.transformResource(context, PathAddress.EMPTY_ADDRESS, resource);
+            return context.getTransformedRoot();
+        }
+        // Targets with the same versions get the same result, as long as the resource does not change
+        final TransformationTargetImpl targetImpl = (TransformationTargetImpl) target;
+        final String versionsKey = targetImpl.getVersionsKey();
+        if (versionsKey == null) {
+            transformer.transformResource(context, PathAddress.EMPTY_ADDRESS, resource);
+            return context.getTransformedRoot();
+        }
+        // Callers transform different parts of the same model, e.g. only the extensions
+        final String shape = new TreeSet<String>(resource.getChildTypes()).toString();
+        final String key = versionsKey + ";" + context.getProcessType() + ";" + context.getRunningMode() + ";" + shape;
+        final Object modelIdentity = context instanceof ResourceTransformationContextImpl ? ((ResourceTransformationContextImpl) context).getModelIdentity() : null;
+        final TransformedResourceCache cache = targetImpl.getTransformerRegistry().getResourceCache();
+        final String revision = cache.getRevision(resource, shape, modelIdentity);
+        final Resource cached = cache.get(key, revision);
+        if (cached != null) {
+            ControllerLogger.ROOT_LOGGER.tracef("using the cached transformation of resource revision %s for %s", revision, key);
+            return cached;
+        }
         transformer.transformResource(context, PathAddress.EMPTY_ADDRESS, resource);
-        return context.getTransformedRoot();
+        final Resource transformed = context.getTransformedRoot();
+        cache.put(key, revision, transformed);
+        return transformed;
     }
 
 }
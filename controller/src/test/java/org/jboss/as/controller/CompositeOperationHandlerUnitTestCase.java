@@ -6,8 +6,10 @@ package org.jboss.as.controller;
 import static junit.framework.Assert.assertEquals;
 import static org.jboss.as.controller.ModelControllerImplUnitTestCase.getOperation;
 import static org.jboss.as.controller.ModelControllerImplUnitTestCase.useNonRecursive;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.EXECUTE_STEPS_IN_PARALLEL;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILED;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILURE_DESCRIPTION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OPERATION_HEADERS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OPERATION_REQUIRES_RELOAD;
@@ -15,6 +17,7 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OPE
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OUTCOME;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.PROCESS_STATE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_ATTRIBUTE_OPERATION;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESPONSE_HEADERS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESULT;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ROLLBACK_ON_RUNTIME_FAILURE;
@@ -25,6 +28,8 @@ import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -723,6 +728,48 @@ public class CompositeOperationHandlerUnitTestCase {
         testSingleStepOperation();
     }
 
+    @Test
+    public void testParallelReadOnlySteps() throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        final ServiceContainer parallelContainer = ServiceContainer.Factory.create("parallel");
+        try {
+            final ControlledProcessState processState = new ControlledProcessState(true);
+            final ModelControllerImplUnitTestCase.ModelControllerService svc = new ModelControllerImplUnitTestCase.ModelControllerService(processState);
+            svc.getExecutorServiceInjector().inject(executor);
+            parallelContainer.subTarget().addService(ServiceName.of("ModelController"), svc).install();
+            svc.latch.await();
+            final ModelController parallelController = svc.getValue();
+            parallelController.execute(Util.getEmptyOperation("setup", new ModelNode()), null, null, null);
+            processState.setRunning();
+
+            final ModelNode op = getCompositeOperation(null, getReadAttributeOperation("attr1"), getReadAttributeOperation("attr2"),
+                    getReadAttributeOperation("attr1"));
+            op.get(OPERATION_HEADERS, EXECUTE_STEPS_IN_PARALLEL).set(true);
+            ModelNode result = parallelController.execute(op, null, null, null);
+            assertEquals(SUCCESS, result.get(OUTCOME).asString());
+            assertEquals(1, result.get(RESULT, "step-1", RESULT).asInt());
+            assertEquals(2, result.get(RESULT, "step-2", RESULT).asInt());
+            assertEquals(1, result.get(RESULT, "step-3", RESULT).asInt());
+
+            final ModelNode failing = getCompositeOperation(null, getReadAttributeOperation("attr1"), getReadAttributeOperation("missing"));
+            failing.get(OPERATION_HEADERS, EXECUTE_STEPS_IN_PARALLEL).set(true);
+            result = parallelController.execute(failing, null, null, null);
+            assertEquals(FAILED, result.get(OUTCOME).asString());
+            assertEquals(SUCCESS, result.get(RESULT, "step-1", OUTCOME).asString());
+            assertEquals(FAILED, result.get(RESULT, "step-2", OUTCOME).asString());
+        } finally {
+            parallelContainer.shutdown();
+            parallelContainer.awaitTermination(5, TimeUnit.SECONDS);
+            executor.shutdown();
+        }
+    }
+
+    private static ModelNode getReadAttributeOperation(final String name) {
+        final ModelNode op = Util.getEmptyOperation(READ_ATTRIBUTE_OPERATION, new ModelNode());
+        op.get(NAME).set(name);
+        return op;
+    }
+
     public static ModelNode getCompositeOperation(Boolean rollback, ModelNode... steps) {
 
         ModelNode op = new ModelNode();
@@ -22,8 +22,19 @@
 package org.jboss.as.controller;
 
 import static junit.framework.Assert.assertEquals;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.fail;
 
+import java.security.AccessControlContext;
+import java.security.AccessController;
+import java.security.Permission;
+import java.security.Permissions;
+import java.security.Policy;
+import java.security.PrivilegedAction;
+import java.security.ProtectionDomain;
+
 import org.jboss.dmr.ModelNode;
 import org.junit.Test;
 
@@ -128,6 +139,80 @@ public class ExpressionResolverUnitTestCase {
         }
     }
 
+    @Test
+    public void testCompiledExpressionFollowsSystemPropertyChanges() throws OperationFailedException {
+        final ModelNode expression = new ModelNode().setExpression("${test.prop.compiled,test.prop.fallback:default}-x");
+        try {
+            assertEquals("default-x", ExpressionResolver.DEFAULT.resolveExpressions(expression).asString());
+            System.setProperty("test.prop.fallback", "FALLBACK");
+            assertEquals("FALLBACK-x", ExpressionResolver.DEFAULT.resolveExpressions(expression).asString());
+            System.setProperty("test.prop.compiled", "COMPILED");
+            assertEquals("COMPILED-x", ExpressionResolver.DEFAULT.resolveExpressions(expression).asString());
+            System.clearProperty("test.prop.compiled");
+            assertEquals("FALLBACK-x", ExpressionResolver.DEFAULT.resolveExpressions(expression).asString());
+        } finally {
+            System.clearProperty("test.prop.compiled");
+            System.clearProperty("test.prop.fallback");
+        }
+    }
+
+    @Test
+    public void testCompiledExpressionReturnsCopies() throws OperationFailedException {
+        final ModelNode expression = new ModelNode().setExpression("${test.prop.copy:copy}");
+        ExpressionResolver.DEFAULT.resolveExpressions(expression).set("modified");
+        assertEquals("copy", ExpressionResolver.DEFAULT.resolveExpressions(expression).asString());
+    }
+
+    @Test
+    public void testCompiledExpressionChecksPermissions() throws Exception {
+        final ModelNode expression = new ModelNode().setExpression("${test.prop.secret:none}");
+        final Policy policy = Policy.getPolicy();
+        System.setProperty("test.prop.secret", "secret");
+        try {
+            // Compile the expression without a security manager
+            assertEquals("secret", ExpressionResolver.DEFAULT.resolveExpressions(expression).asString());
+
+            Policy.setPolicy(new Policy() {
+                @Override
+                public boolean implies(final ProtectionDomain domain, final Permission permission) {
+                    return true;
+                }
+            });
+            System.setSecurityManager(new SecurityManager());
+            try {
+                // Code without the permission to read the property cannot get it through the compiled expression
+                final AccessControlContext restricted = new AccessControlContext(new ProtectionDomain[] {
+                        new ProtectionDomain(null, new Permissions())
+                });
+                final OperationFailedException failure = AccessController.doPrivileged(new PrivilegedAction<OperationFailedException>() {
+                    @Override
+                    public OperationFailedException run() {
+                        try {
+                            ExpressionResolver.DEFAULT.resolveExpressions(expression);
+                            return null;
+                        } catch (OperationFailedException e) {
+                            return e;
+                        }
+                    }
+                }, restricted);
+                assertNotNull("The expression was resolved without the permission to read the property", failure);
+            } finally {
+                System.setSecurityManager(null);
+            }
+        } finally {
+            Policy.setPolicy(policy);
+            System.clearProperty("test.prop.secret");
+        }
+    }
+
+    @Test
+    public void testReferencedProperties() {
+        assertArrayEquals(new String[] {"a", "b"}, CompiledExpression.getReferencedProperties("${a, b:c}${env.HOME}"));
+        assertArrayEquals(new String[] {"a"}, CompiledExpression.getReferencedProperties("$a${a}${/}"));
+        assertNull(CompiledExpression.getReferencedProperties("${a:${b}}"));
+        assertNull(CompiledExpression.getReferencedProperties("${a"));
+    }
+
     private void checkResolved(ModelNode node) {
         assertEquals(6, node.keys().size());
         assertEquals(1, node.get("int").asInt());
@@ -22,11 +22,17 @@
 package org.jboss.as.controller;
 
 import static junit.framework.Assert.assertEquals;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OUTCOME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESULT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUCCESS;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executor;
@@ -39,6 +45,8 @@ import org.jboss.as.controller.client.ModelControllerClient;
 import org.jboss.as.controller.client.OperationAttachments;
 import org.jboss.as.controller.client.OperationBuilder;
 import org.jboss.as.controller.client.OperationMessageHandler;
+import org.jboss.as.controller.client.ResultFragmentHandler;
+import org.jboss.as.controller.client.StreamingModelControllerClient;
 import org.jboss.as.controller.remote.ExistingChannelModelControllerClient;
 import org.jboss.as.controller.remote.ModelControllerClientOperationHandler;
 import org.jboss.as.controller.support.RemoteChannelPairSetup;
@@ -304,6 +312,52 @@ public class ModelControllerClientTestCase {
 
     }
 
+    @Test
+    public void testStreamingResult() throws Exception {
+        final int children = 150;
+        MockModelController controller = new MockModelController() {
+            @Override
+            public ModelNode execute(ModelNode operation, OperationMessageHandler handler, OperationTransactionControl control, OperationAttachments attachments) {
+                this.operation = operation;
+                ModelNode result = new ModelNode();
+                result.get(OUTCOME).set(SUCCESS);
+                result.get(RESULT, "name").set("test");
+                for (int i = 0; i < children; i++) {
+                    result.get(RESULT, "child", "child" + i, "value").set(i);
+                }
+                result.get(RESULT, "other", "single", "value").set("single");
+                return result;
+            }
+        };
+        final ModelControllerClient client = setupTestClient(controller);
+        try {
+            final List<List<String>> paths = Collections.synchronizedList(new ArrayList<List<String>>());
+            final List<ModelNode> values = Collections.synchronizedList(new ArrayList<ModelNode>());
+            ModelNode response = ((StreamingModelControllerClient) client).executeStreaming(OperationBuilder.create(new ModelNode()).build(),
+                    null, new ResultFragmentHandler() {
+                @Override
+                public void handleFragment(List<String> path, ModelNode value) {
+                    // Fragments are handled sequentially, in the order of the result
+                    paths.add(path);
+                    values.add(value);
+                }
+            }).get();
+
+            assertEquals(SUCCESS, response.get(OUTCOME).asString());
+            assertEquals("test", response.get(RESULT, "name").asString());
+            assertEquals(0, response.get(RESULT, "child").keys().size());
+            assertEquals(children + 1, paths.size());
+            for (int i = 0; i < children; i++) {
+                assertEquals(Arrays.asList("child", "child" + i), paths.get(i));
+                assertEquals(i, values.get(i).get("value").asInt());
+            }
+            assertEquals(Arrays.asList("other", "single"), paths.get(children));
+            assertEquals("single", values.get(children).get("value").asString());
+        } finally {
+            IoUtils.safeClose(client);
+        }
+    }
+
     private void assertArrays(byte[] expected, byte[] actual) {
         assertEquals(expected.length, actual.length);
         for (int i = 0 ; i < expected.length ; i++) {
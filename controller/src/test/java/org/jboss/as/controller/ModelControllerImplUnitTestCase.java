@@ -54,7 +54,10 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
+import java.util.Collections;
+import java.util.List;
 import java.util.Locale;
+import java.util.Set;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -63,6 +66,7 @@ import org.jboss.as.controller.descriptions.DescriptionProvider;
 import org.jboss.as.controller.descriptions.NonResolvingResourceDescriptionResolver;
 import org.jboss.as.controller.operations.common.Util;
 import org.jboss.as.controller.operations.global.GlobalOperationHandlers;
+import org.jboss.as.controller.persistence.AbstractConfigurationPersister;
 import org.jboss.as.controller.persistence.ConfigurationPersistenceException;
 import org.jboss.as.controller.persistence.ConfigurationPersister;
 import org.jboss.as.controller.persistence.NullConfigurationPersister;
@@ -93,6 +97,7 @@ public class ModelControllerImplUnitTestCase {
     protected static boolean useNonRecursive;
 
     private ServiceContainer container;
+    private ModelControllerService service;
     private ModelController controller;
     private AtomicBoolean sharedState;
 
@@ -117,6 +122,7 @@ public class ModelControllerImplUnitTestCase {
         builder.install();
         sharedState = svc.state;
         svc.latch.await();
+        service = svc;
         controller = svc.getValue();
         ModelNode setup = Util.getEmptyOperation("setup", new ModelNode());
         controller.execute(setup, null, null, null);
@@ -203,6 +209,45 @@ public class ModelControllerImplUnitTestCase {
         testGoodModelExecution();
     }
 
+    @Test
+    public void testModelRevision() throws Exception {
+        final ModelControllerImpl impl = service.getModelControllerImpl();
+        final long revision = impl.getModelRevision();
+        ModelNode result = controller.execute(getOperation("good", "attr1", 5), null, null, null);
+        assertEquals(SUCCESS, result.get(OUTCOME).asString());
+        assertEquals(revision + 1, impl.getModelRevision());
+
+        // Reads and failed updates do not publish a model
+        ModelNode read = new ModelNode();
+        read.get(OP).set(READ_RESOURCE_OPERATION);
+        read.get(OP_ADDR).setEmptyList();
+        assertEquals(SUCCESS, controller.execute(read, null, null, null).get(OUTCOME).asString());
+        assertEquals(FAILED, controller.execute(getOperation("bad", "attr1", 6), null, null, null).get(OUTCOME).asString());
+        assertEquals(revision + 1, impl.getModelRevision());
+    }
+
+    /**
+     * Test that a failure to write the configuration file with group commit leaves the outcome of the operation, whose
+     * changes are in effect, alone, like for a failed write of a non grouped commit.
+     */
+    @Test
+    public void testGroupCommitFailure() throws Exception {
+        ControlledProcessState processState = new ControlledProcessState(true);
+        ModelControllerService svc = new ModelControllerService(processState, new FailingGroupCommitPersister());
+        container.subTarget().addService(ServiceName.of("GroupCommitModelController"), svc).install();
+        svc.latch.await();
+        ModelController groupCommitController = svc.getValue();
+        groupCommitController.execute(Util.getEmptyOperation("setup", new ModelNode()), null, null, null);
+        processState.setRunning();
+
+        ModelNode result = groupCommitController.execute(getOperation("good", "attr1", 5), null, null, null);
+        assertEquals(SUCCESS, result.get(OUTCOME).asString());
+        assertFalse(result.hasDefined(FAILURE_DESCRIPTION));
+        result = groupCommitController.execute(getOperation("good", "attr1", 1), null, null, null);
+        assertEquals(SUCCESS, result.get(OUTCOME).asString());
+        assertEquals(5, result.get(RESULT).asInt());
+    }
+
     /**
      * Test successfully updating the model but then having the caller roll back the transaction.
      */
@@ -701,6 +746,40 @@ public class ModelControllerImplUnitTestCase {
         return op;
     }
 
+    private static class FailingGroupCommitPersister extends AbstractConfigurationPersister {
+
+        private FailingGroupCommitPersister() {
+            super(null);
+        }
+
+        @Override
+        public PersistenceResource store(ModelNode model, Set<PathAddress> affectedAddresses) {
+            return new DeferredPersistenceResource() {
+                @Override
+                public void submit() {
+                }
+
+                @Override
+                public void awaitCommitted() throws ConfigurationPersistenceException {
+                    throw new ConfigurationPersistenceException("write failed");
+                }
+
+                @Override
+                public void commit() {
+                }
+
+                @Override
+                public void rollback() {
+                }
+            };
+        }
+
+        @Override
+        public List<ModelNode> load() {
+            return Collections.emptyList();
+        }
+    }
+
     public static class SetupHandler implements OperationStepHandler {
 
         @Override
@@ -0,0 +1,172 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests of {@link ModelControllerLock}.
+ */
+public class ModelControllerLockUnitTestCase {
+
+    private static final PathAddress MESSAGING = PathAddress.pathAddress(PathElement.pathElement("subsystem", "messaging"));
+    private static final PathAddress DATASOURCES = PathAddress.pathAddress(PathElement.pathElement("subsystem", "datasources"));
+    private static final PathAddress DATASOURCE = DATASOURCES.append(PathElement.pathElement("data-source", "ExampleDS"));
+
+    private ExecutorService executor;
+    private ModelControllerLock lock;
+
+    @Before
+    public void setUp() {
+        executor = Executors.newCachedThreadPool();
+        lock = new ModelControllerLock();
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testDisjointScopes() throws Exception {
+        final Object first = new Object();
+        final Object second = new Object();
+        assertTrue(lock.lock(first, MESSAGING, true));
+        assertTrue(lock.lock(second, DATASOURCE, true));
+        assertEquals(0, lock.getContendedAcquisitionCount());
+        lock.unlock(first);
+        lock.unlock(second);
+    }
+
+    @Test
+    public void testReentrant() throws Exception {
+        final Object owner = new Object();
+        assertTrue(lock.lock(owner, DATASOURCES, true));
+        assertFalse(lock.lock(owner, DATASOURCE, true));
+        assertTrue(lock.lockRuntime(owner, true));
+        assertFalse(lock.lockRuntime(owner, true));
+        assertEquals(1, lock.getLockedAddresses(owner).size());
+        lock.unlock(owner);
+        assertTrue(lock.getLockedAddresses(owner).isEmpty());
+    }
+
+    @Test
+    public void testNestedOwnerOnSameThread() throws Exception {
+        final Object outer = new Object();
+        final Object nested = new Object();
+        assertTrue(lock.lock(outer, DATASOURCES, true));
+        // An operation executed by another operation on the same thread is not blocked by it
+        assertTrue(lock.lock(nested, DATASOURCE, true));
+        assertEquals(0, lock.getContendedAcquisitionCount());
+        lock.unlock(nested);
+
+        // Other threads still are
+        final Future<Boolean> other = lockAsync(new Object(), DATASOURCE);
+        assertBlocked(other);
+        lock.unlock(outer);
+        assertTrue(other.get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testAncestorBlocks() throws Exception {
+        final Object first = new Object();
+        assertTrue(lock.lock(first, DATASOURCES, true));
+        final Future<Boolean> second = lockAsync(new Object(), DATASOURCE);
+        assertBlocked(second);
+        lock.unlock(first);
+        assertTrue(second.get(10, TimeUnit.SECONDS));
+        assertEquals(1, lock.getContendedAcquisitionCount());
+    }
+
+    @Test
+    public void testWholeModelBlocksRuntime() throws Exception {
+        final Object first = new Object();
+        assertTrue(lock.lock(first, PathAddress.EMPTY_ADDRESS, true));
+        final Object second = new Object();
+        final Future<Boolean> runtime = executor.submit(new Callable<Boolean>() {
+            @Override
+            public Boolean call() throws Exception {
+                return lock.lockRuntime(second, true);
+            }
+        });
+        assertBlocked(runtime);
+        lock.unlock(first);
+        assertTrue(runtime.get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testDeadlockDetected() throws Exception {
+        final Object first = new Object();
+        final Object second = new Object();
+        assertTrue(lock.lock(first, MESSAGING, true));
+        assertTrue(lock.lock(second, DATASOURCES, true));
+        final Future<Boolean> waiting = lockAsync(first, DATASOURCE);
+        assertBlocked(waiting);
+        try {
+            lock.lock(second, MESSAGING, true);
+            fail("Deadlock not detected");
+        } catch (OperationFailedRuntimeException expected) {
+            // expected
+        }
+        lock.unlock(second);
+        assertTrue(waiting.get(10, TimeUnit.SECONDS));
+        lock.unlock(first);
+    }
+
+    private Future<Boolean> lockAsync(final Object owner, final PathAddress address) throws InterruptedException {
+        final CountDownLatch started = new CountDownLatch(1);
+        final Future<Boolean> future = executor.submit(new Callable<Boolean>() {
+            @Override
+            public Boolean call() throws Exception {
+                started.countDown();
+                return lock.lock(owner, address, true);
+            }
+        });
+        started.await();
+        return future;
+    }
+
+    private static void assertBlocked(final Future<Boolean> future) throws Exception {
+        try {
+            future.get(200, TimeUnit.MILLISECONDS);
+            fail("Lock acquired while a conflicting lock is held");
+        } catch (TimeoutException expected) {
+            // expected
+        }
+    }
+}
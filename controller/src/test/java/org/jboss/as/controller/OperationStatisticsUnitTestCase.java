@@ -0,0 +1,57 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.controller;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Locale;
+
+import org.jboss.as.controller.descriptions.DescriptionProvider;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.dmr.ModelNode;
+import org.junit.Test;
+
+/**
+ * Tests of {@link OperationStatistics}.
+ */
+public class OperationStatisticsUnitTestCase {
+
+    private static final DescriptionProvider NULL_PROVIDER = new DescriptionProvider() {
+        @Override
+        public ModelNode getModelDescription(final Locale locale) {
+            return new ModelNode();
+        }
+    };
+
+    @Test
+    public void testAddressPattern() {
+        final ManagementResourceRegistration root = ManagementResourceRegistration.Factory.create(NULL_PROVIDER);
+        final ManagementResourceRegistration subsystem = root.registerSubModel(PathElement.pathElement("subsystem", "test"), NULL_PROVIDER);
+        subsystem.registerSubModel(PathElement.pathElement("child"), NULL_PROVIDER);
+
+        assertEquals("/", OperationStatistics.getAddressPattern(PathAddress.EMPTY_ADDRESS, root));
+        assertEquals("/subsystem=test", OperationStatistics.getAddressPattern(
+                PathAddress.pathAddress(PathElement.pathElement("subsystem", "test")), root));
+        assertEquals("/subsystem=test/child=*", OperationStatistics.getAddressPattern(
+                PathAddress.pathAddress(PathElement.pathElement("subsystem", "test"), PathElement.pathElement("child", "a")), root));
+    }
+}
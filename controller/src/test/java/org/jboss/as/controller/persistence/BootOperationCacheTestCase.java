@@ -0,0 +1,106 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.persistence;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.Assert;
+
+import org.jboss.dmr.ModelNode;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests of {@link BootOperationCache}.
+ */
+public class BootOperationCacheTestCase {
+
+    private File dir;
+    private File configFile;
+    private File cacheFile;
+
+    @Before
+    public void setUp() throws Exception {
+        dir = new File("target", "boot-operation-cache-test");
+        dir.mkdirs();
+        configFile = new File(dir, "standalone.xml");
+        write(configFile, "<server/>");
+        cacheFile = new File(new File(dir, "standalone_xml_history"), "standalone.xml.ops");
+    }
+
+    @After
+    public void tearDown() {
+        FilePersistenceUtils.deleteFile(cacheFile);
+        FilePersistenceUtils.deleteFile(cacheFile.getParentFile());
+        FilePersistenceUtils.deleteFile(configFile);
+        FilePersistenceUtils.deleteFile(dir);
+    }
+
+    @Test
+    public void testUnchangedConfiguration() throws Exception {
+        final BootOperationCache cache = new BootOperationCache(cacheFile, getClass());
+        final String key = cache.getKey(configFile);
+        Assert.assertNull(cache.load(key));
+
+        final List<ModelNode> operations = createOperations();
+        cache.store(key, operations);
+        Assert.assertEquals(operations, cache.load(cache.getKey(configFile)));
+    }
+
+    @Test
+    public void testChangedConfiguration() throws Exception {
+        final BootOperationCache cache = new BootOperationCache(cacheFile, getClass());
+        cache.store(cache.getKey(configFile), createOperations());
+        write(configFile, "<server name=\"changed\"/>");
+        Assert.assertNull(cache.load(cache.getKey(configFile)));
+    }
+
+    private static List<ModelNode> createOperations() {
+        final List<ModelNode> operations = new ArrayList<ModelNode>();
+        final ModelNode property = new ModelNode();
+        property.get("operation").set("add");
+        property.get("address").add("system-property", "test");
+        property.get("value").setExpression("${test.value:default}");
+        operations.add(property);
+        final ModelNode root = new ModelNode();
+        root.get("operation").set("write-attribute");
+        root.get("address").setEmptyList();
+        root.get("name").set("name");
+        root.get("value").set("test");
+        operations.add(root);
+        return operations;
+    }
+
+    private static void write(final File file, final String contents) throws Exception {
+        final FileWriter writer = new FileWriter(file);
+        try {
+            writer.write(contents);
+        } finally {
+            writer.close();
+        }
+    }
+}
@@ -27,8 +27,10 @@ import java.io.File;
 import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.Writer;
 import java.util.Collections;
+import java.util.concurrent.TimeUnit;
 
 import junit.framework.Assert;
 
@@ -322,6 +324,59 @@ public class PersistanceResourceTestCase {
         checkFiles(null, "Four", "boot", "Four", "Four");
     }
 
+    @Test
+    public void testGroupCommit() throws Exception {
+        ConfigurationFile configurationFile = new ConfigurationFile(standardDir, "standard.xml", null, true);
+        TestGroupCommitPersister persister = new TestGroupCommitPersister(configurationFile);
+        configurationFile.successfulBoot();
+        checkFiles(null, "std", "std", "std", "std");
+
+        ConfigurationPersister.DeferredPersistenceResource one = persister.create(new ModelNode("One"));
+        ConfigurationPersister.DeferredPersistenceResource two = persister.create(new ModelNode("Two"));
+        ConfigurationPersister.DeferredPersistenceResource three = persister.create(new ModelNode("Three"));
+        one.submit();
+        two.submit();
+        three.submit();
+        one.awaitCommitted();
+        // Only the latest model got written, once
+        checkFiles(null, "Three", "std", "std", "Three", "std");
+        two.awaitCommitted();
+        three.awaitCommitted();
+        checkFiles(null, "Three", "std", "std", "Three", "std");
+
+        store(persister, "Four");
+        checkFiles(null, "Four", "std", "std", "Four", "std", "Three");
+    }
+
+    @Test
+    public void testGroupCommitFailure() throws Exception {
+        ConfigurationFile configurationFile = new ConfigurationFile(standardDir, "standard.xml", null, true);
+        TestGroupCommitPersister persister = new TestGroupCommitPersister(configurationFile);
+        configurationFile.successfulBoot();
+
+        ConfigurationPersister.DeferredPersistenceResource one = persister.create(new ModelNode("One"));
+        ConfigurationPersister.DeferredPersistenceResource two = persister.create(new ModelNode("Fail"));
+        one.submit();
+        two.submit();
+        // Both commits belong to the group which failed to be written
+        try {
+            one.awaitCommitted();
+            Assert.fail("Failure of the group not reported");
+        } catch (ConfigurationPersistenceException expected) {
+        }
+        try {
+            two.awaitCommitted();
+            Assert.fail("Failure of the group not reported");
+        } catch (ConfigurationPersistenceException expected) {
+        }
+        checkFiles(null, "std", "std", "std", "std");
+
+        ConfigurationPersister.DeferredPersistenceResource three = persister.create(new ModelNode("Three"));
+        three.submit();
+        three.awaitCommitted();
+        checkFiles(null, "Three", "std", "std", "Three", "std");
+    }
+
     @Test(expected=IllegalStateException.class)
     public void testPersistentBadRawName() {
         new ConfigurationFile(standardDir, "standard.xml", "crap.xml", true);
@@ -780,4 +835,25 @@ public class PersistanceResourceTestCase {
             return new ConfigurationFilePersistenceResource(model, configurationFile, this);
         }
     }
+
+    private class TestGroupCommitPersister extends TestConfigurationPersister {
+        private final ConfigurationFileGroupCommitter groupCommitter;
+
+        public TestGroupCommitPersister(ConfigurationFile configurationFile) {
+            this.groupCommitter = new ConfigurationFileGroupCommitter(configurationFile, this, 10, TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        ConfigurationPersister.DeferredPersistenceResource create(ModelNode model) throws ConfigurationPersistenceException {
+            return groupCommitter.store(model);
+        }
+
+        @Override
+        public void marshallAsXml(ModelNode model, OutputStream output) throws ConfigurationPersistenceException {
+            if ("Fail".equals(model.asString())) {
+                throw new ConfigurationPersistenceException("Fail");
+            }
+            super.marshallAsXml(model, output);
+        }
+    }
 }
@@ -0,0 +1,68 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.registry;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.descriptions.DescriptionProvider;
+import org.jboss.dmr.ModelNode;
+import org.junit.Test;
+
+/**
+ * Tests of the description caching of {@link ConcreteResourceRegistration}.
+ */
+public class CachingDescriptionProviderUnitTestCase {
+
+    @Test
+    public void testDescriptionCachedPerLocale() {
+        final AtomicInteger generated = new AtomicInteger();
+        final ManagementResourceRegistration registration = ManagementResourceRegistration.Factory.create(new DescriptionProvider() {
+            @Override
+            public ModelNode getModelDescription(final Locale locale) {
+                generated.incrementAndGet();
+                return new ModelNode().set("description", String.valueOf(locale));
+            }
+        });
+        final DescriptionProvider provider = registration.getModelDescription(PathAddress.EMPTY_ADDRESS);
+
+        final ModelNode first = provider.getModelDescription(Locale.ENGLISH);
+        first.get("modified").set(true);
+        final ModelNode second = provider.getModelDescription(Locale.ENGLISH);
+        assertEquals(1, generated.get());
+        // Callers get a copy
+        assertFalse(second.has("modified"));
+
+        provider.getModelDescription(Locale.GERMAN);
+        assertEquals(2, generated.get());
+
+        // Registering an attribute invalidates the cache
+        registration.registerReadOnlyAttribute("test", null, AttributeAccess.Storage.CONFIGURATION);
+        provider.getModelDescription(Locale.ENGLISH);
+        assertEquals(3, generated.get());
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.registry;
+
+import static org.jboss.as.controller.registry.CopyOnWriteResourceTreeUnitTestCase.SUBSYSTEM;
+import static org.jboss.as.controller.registry.CopyOnWriteResourceTreeUnitTestCase.createModel;
+import static org.jboss.as.controller.registry.CopyOnWriteResourceTreeUnitTestCase.dataSource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measures the cost of an update and of listing the children with {@link CopyOnWriteResourceTree}, for models of
+ * growing size. Not run by the build, as the timings depend on the load of the machine; run the main method to
+ * compare the timings of the sizes, which should not grow with the size of the model for an update, and grow
+ * linearly for listing the children.
+ */
+public final class CopyOnWriteResourceTreeBenchmark {
+
+    private static final int[] SIZES = { 500, 5000, 50000 };
+
+    public static void main(final String[] args) {
+        for (int size : SIZES) {
+            final Resource model = createModel(size);
+            // Warm up
+            for (int i = 0; i < 5; i++) {
+                measureUpdate(model, size / 2);
+                measureListing(model);
+            }
+            long update = Long.MAX_VALUE;
+            long listing = Long.MAX_VALUE;
+            for (int i = 0; i < 10; i++) {
+                update = Math.min(update, measureUpdate(model, size / 2));
+                listing = Math.min(listing, measureListing(model));
+            }
+            System.out.printf("%6d children: update %8d ns, listing %10d ns%n", size, update, listing);
+        }
+    }
+
+    private static long measureUpdate(final Resource published, final int index) {
+        final int iterations = 200;
+        final List<Resource> results = new ArrayList<Resource>(iterations);
+        final long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            final CopyOnWriteResourceTree tree = new CopyOnWriteResourceTree(published);
+            final Resource subsystem = tree.getChildForUpdate(tree.getRoot(), SUBSYSTEM);
+            tree.getChildForUpdate(subsystem, dataSource(index)).getModel().get("enabled").set(i % 2 == 0);
+            results.add(tree.getRoot());
+        }
+        return (System.nanoTime() - start) / iterations;
+    }
+
+    private static long measureListing(final Resource published) {
+        final CopyOnWriteResourceTree tree = new CopyOnWriteResourceTree(published);
+        final Resource subsystem = tree.getChildForUpdate(tree.getRoot(), SUBSYSTEM);
+        final long start = System.nanoTime();
+        final int count = subsystem.getChildrenNames("data-source").size() + subsystem.getChildren("data-source").size();
+        if (count == 0) {
+            throw new IllegalStateException();
+        }
+        return System.nanoTime() - start;
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.registry;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.jboss.as.controller.PathElement;
+import org.junit.Test;
+
+/**
+ * Tests of {@link CopyOnWriteResourceTree}.
+ */
+public class CopyOnWriteResourceTreeUnitTestCase {
+
+    static final PathElement SUBSYSTEM = PathElement.pathElement("subsystem", "datasources");
+
+    @Test
+    public void testUpdateOnlyCopiesPath() {
+        final Resource published = createModel(10);
+        final CopyOnWriteResourceTree tree = new CopyOnWriteResourceTree(published);
+        final Resource root = tree.getRoot();
+        assertNotSame(published, root);
+
+        final Resource subsystem = tree.getChildForUpdate(root, SUBSYSTEM);
+        final Resource ds = tree.getChildForUpdate(subsystem, dataSource(3));
+        ds.getModel().get("enabled").set(false);
+
+        // The modified path got copied
+        assertNotSame(published.getChild(SUBSYSTEM), subsystem);
+        assertNotSame(published.getChild(SUBSYSTEM).getChild(dataSource(3)), ds);
+        assertTrue(published.getChild(SUBSYSTEM).getChild(dataSource(3)).getModel().get("enabled").asBoolean());
+        assertFalse(root.getChild(SUBSYSTEM).getChild(dataSource(3)).getModel().get("enabled").asBoolean());
+
+        // Everything else is shared
+        assertSame(published.getChild(SUBSYSTEM).getChild(dataSource(2)), subsystem.getChild(dataSource(2)));
+        assertSame(published.getChild(PathElement.pathElement("subsystem", "other")), root.getChild(PathElement.pathElement("subsystem", "other")));
+
+        // Navigating the same path again does not copy again
+        assertSame(subsystem, tree.getChildForUpdate(root, SUBSYSTEM));
+        assertSame(ds, tree.getChildForUpdate(subsystem, dataSource(3)));
+    }
+
+    @Test
+    public void testChildOrderRetained() {
+        final Resource published = createModel(10);
+        final CopyOnWriteResourceTree tree = new CopyOnWriteResourceTree(published);
+        final Resource subsystem = tree.getChildForUpdate(tree.getRoot(), SUBSYSTEM);
+        tree.getChildForUpdate(subsystem, dataSource(0));
+        assertEquals(new ArrayList<String>(published.getChild(SUBSYSTEM).getChildrenNames("data-source")),
+                new ArrayList<String>(subsystem.getChildrenNames("data-source")));
+    }
+
+    @Test
+    public void testAddAndRemove() {
+        final Resource published = createModel(10);
+        final CopyOnWriteResourceTree tree = new CopyOnWriteResourceTree(published);
+        final Resource subsystem = tree.getChildForUpdate(tree.getRoot(), SUBSYSTEM);
+        final Resource added = Resource.Factory.create();
+        tree.registerChild(subsystem, dataSource(10), added);
+        subsystem.removeChild(dataSource(0));
+
+        assertSame(added, tree.getChildForUpdate(subsystem, dataSource(10)));
+        assertFalse(published.getChild(SUBSYSTEM).hasChild(dataSource(10)));
+        assertTrue(published.getChild(SUBSYSTEM).hasChild(dataSource(0)));
+        assertFalse(subsystem.hasChild(dataSource(0)));
+    }
+
+    @Test
+    public void testMakePrivate() {
+        final Resource published = createModel(10);
+        final CopyOnWriteResourceTree tree = new CopyOnWriteResourceTree(published);
+        final Resource root = tree.getRoot();
+        final Resource subsystem = tree.getChildForUpdate(root, SUBSYSTEM);
+        final Resource ds = tree.getChildForUpdate(subsystem, dataSource(3));
+        tree.makePrivate(subsystem);
+
+        // Identity of the already copied resources is retained
+        assertSame(subsystem, root.getChild(SUBSYSTEM));
+        assertSame(ds, subsystem.getChild(dataSource(3)));
+
+        // Descendants can now be modified directly
+        subsystem.getChild(dataSource(2)).getModel().get("enabled").set(false);
+        assertTrue(published.getChild(SUBSYSTEM).getChild(dataSource(2)).getModel().get("enabled").asBoolean());
+    }
+
+    /**
+     * Tests that an update only copies the resources on the path to the updated resource, so its cost does not depend
+     * on the number of siblings of the updated resource. See {@link CopyOnWriteResourceTreeBenchmark} for the timings.
+     */
+    @Test
+    public void testUpdateSharesUnchangedChildren() {
+        final Resource largeModel = createModel(50000);
+        // Path copying only copies a bounded number of resources, regardless of the size of the model
+        final CopyOnWriteResourceTree tree = new CopyOnWriteResourceTree(largeModel);
+        final Resource subsystem = tree.getChildForUpdate(tree.getRoot(), SUBSYSTEM);
+        tree.getChildForUpdate(subsystem, dataSource(5000)).getModel().get("enabled").set(false);
+        int shared = 0;
+        for (final String name : subsystem.getChildrenNames("data-source")) {
+            final PathElement element = PathElement.pathElement("data-source", name);
+            if (subsystem.getChild(element) == largeModel.getChild(SUBSYSTEM).getChild(element)) {
+                shared++;
+            }
+        }
+        assertEquals(49999, shared);
+        assertTrue(largeModel.getChild(SUBSYSTEM).getChild(dataSource(5000)).getModel().get("enabled").asBoolean());
+    }
+
+    @Test
+    public void testRegistrationOrderAfterRemovals() {
+        final Resource published = createModel(1000);
+        final CopyOnWriteResourceTree tree = new CopyOnWriteResourceTree(published);
+        final Resource subsystem = tree.getChildForUpdate(tree.getRoot(), SUBSYSTEM);
+        final List<String> expected = new ArrayList<String>();
+        for (int i = 0; i < 1000; i++) {
+            if (i % 3 == 0) {
+                expected.add("ds" + i);
+            } else {
+                subsystem.removeChild(dataSource(i));
+            }
+        }
+        // Re-registered children are ordered last
+        subsystem.registerChild(dataSource(1), Resource.Factory.create());
+        expected.add("ds1");
+        assertEquals(expected, new ArrayList<String>(subsystem.getChildrenNames("data-source")));
+        assertEquals(1000, published.getChild(SUBSYSTEM).getChildrenNames("data-source").size());
+    }
+
+    @Test
+    public void testChildrenWithEqualHashCodes() {
+        // "Aa" and "BB" have the same hash code
+        final Resource published = Resource.Factory.create();
+        published.registerChild(PathElement.pathElement("type", "Aa"), Resource.Factory.create());
+        published.registerChild(PathElement.pathElement("type", "BB"), Resource.Factory.create());
+        published.registerChild(PathElement.pathElement("type", "AaBB"), Resource.Factory.create());
+        published.registerChild(PathElement.pathElement("type", "BBAa"), Resource.Factory.create());
+
+        final CopyOnWriteResourceTree tree = new CopyOnWriteResourceTree(published);
+        final Resource root = tree.getRoot();
+        final Resource copy = tree.getChildForUpdate(root, PathElement.pathElement("type", "BB"));
+        root.removeChild(PathElement.pathElement("type", "Aa"));
+
+        assertSame(copy, root.getChild(PathElement.pathElement("type", "BB")));
+        assertEquals(Arrays.asList("BB", "AaBB", "BBAa"), new ArrayList<String>(root.getChildrenNames("type")));
+        assertEquals(Arrays.asList("Aa", "BB", "AaBB", "BBAa"), new ArrayList<String>(published.getChildrenNames("type")));
+        assertNotSame(copy, published.getChild(PathElement.pathElement("type", "BB")));
+    }
+
+    static Resource createModel(final int dataSources) {
+        final Resource root = Resource.Factory.create();
+        root.getModel().get("name").set("test");
+        final Resource subsystem = Resource.Factory.create();
+        root.registerChild(SUBSYSTEM, subsystem);
+        for (int i = 0; i < dataSources; i++) {
+            final Resource ds = Resource.Factory.create();
+            ds.getModel().get("jndi-name").set("java:/ds" + i);
+            ds.getModel().get("enabled").set(true);
+            subsystem.registerChild(dataSource(i), ds);
+        }
+        final Resource other = Resource.Factory.create();
+        other.getModel().get("value").set(0);
+        root.registerChild(PathElement.pathElement("subsystem", "other"), other);
+        return root;
+    }
+
+    static PathElement dataSource(final int i) {
+        return PathElement.pathElement("data-source", "ds" + i);
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.registry;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.jboss.as.controller.PathElement;
+import org.junit.Test;
+
+/**
+ * Tests of {@link CopyOnWriteResourceView}.
+ */
+public class CopyOnWriteResourceViewUnitTestCase {
+
+    private static final PathElement SUBSYSTEM = PathElement.pathElement("subsystem", "datasources");
+    private static final PathElement DATASOURCE = PathElement.pathElement("data-source", "ExampleDS");
+
+    @Test
+    public void testModelChangesAreNotVisible() {
+        final Resource snapshot = createModel();
+        final Resource view = CopyOnWriteResourceView.create(snapshot, true);
+        final Resource ds = view.getChild(SUBSYSTEM).getChild(DATASOURCE);
+        assertEquals("java:/ExampleDS", ds.getModel().get("jndi-name").asString());
+
+        ds.getModel().get("jndi-name").set("java:/Other");
+        // Reading an undefined attribute creates it in the model
+        ds.getModel().get("undefined");
+        assertEquals("java:/ExampleDS", snapshot.getChild(SUBSYSTEM).getChild(DATASOURCE).getModel().get("jndi-name").asString());
+        assertFalse(snapshot.getChild(SUBSYSTEM).getChild(DATASOURCE).getModel().has("undefined"));
+    }
+
+    @Test
+    public void testStructuralChangesAreNotVisible() {
+        final Resource snapshot = createModel();
+        final Resource view = CopyOnWriteResourceView.create(snapshot.getChild(SUBSYSTEM), true);
+        view.removeChild(DATASOURCE);
+        view.registerChild(PathElement.pathElement("data-source", "Added"), Resource.Factory.create());
+
+        assertFalse(view.hasChild(DATASOURCE));
+        assertTrue(view.hasChild(PathElement.pathElement("data-source", "Added")));
+        assertTrue(snapshot.getChild(SUBSYSTEM).hasChild(DATASOURCE));
+        assertFalse(snapshot.getChild(SUBSYSTEM).hasChild(PathElement.pathElement("data-source", "Added")));
+    }
+
+    @Test
+    public void testChildViewChangesAreKept() {
+        final Resource snapshot = createModel();
+        final Resource view = CopyOnWriteResourceView.create(snapshot, true);
+        view.getChild(SUBSYSTEM).getChild(DATASOURCE).getModel().get("jndi-name").set("java:/Other");
+        view.getChild(SUBSYSTEM).registerChild(PathElement.pathElement("data-source", "Added"), Resource.Factory.create());
+        assertEquals("java:/Other", view.getChild(SUBSYSTEM).getChild(DATASOURCE).getModel().get("jndi-name").asString());
+        // The snapshot resource of a view with a modified child view is not reused
+        assertSame(view, CopyOnWriteResourceView.getSnapshotResource(view));
+
+        final Resource clone = view.clone();
+        assertEquals("java:/Other", clone.getChild(SUBSYSTEM).getChild(DATASOURCE).getModel().get("jndi-name").asString());
+        assertTrue(clone.getChild(SUBSYSTEM).hasChild(PathElement.pathElement("data-source", "Added")));
+
+        // The changes are kept once the child registrations of the parent get copied, in the registration order
+        final PathElement other = PathElement.pathElement("subsystem", "other");
+        view.registerChild(other, Resource.Factory.create());
+        assertEquals("java:/Other", view.getChild(SUBSYSTEM).getChild(DATASOURCE).getModel().get("jndi-name").asString());
+        assertTrue(view.getChild(SUBSYSTEM).hasChild(PathElement.pathElement("data-source", "Added")));
+        assertEquals(Arrays.asList("datasources", "other"), new ArrayList<String>(view.getChildrenNames("subsystem")));
+        assertEquals("java:/ExampleDS", snapshot.getChild(SUBSYSTEM).getChild(DATASOURCE).getModel().get("jndi-name").asString());
+    }
+
+    @Test
+    public void testNonRecursive() {
+        final Resource snapshot = createModel();
+        final Resource view = CopyOnWriteResourceView.create(snapshot.getChild(SUBSYSTEM), false);
+        assertSame(PlaceholderResource.INSTANCE, view.getChild(DATASOURCE));
+        assertEquals(1, view.getChildren("data-source").size());
+
+        final Resource clone = view.clone();
+        assertSame(PlaceholderResource.INSTANCE, clone.getChild(DATASOURCE));
+        assertEquals("datasources", clone.getModel().get("name").asString());
+    }
+
+    @Test
+    public void testRuntimeResourcesAreCopied() {
+        final Resource snapshot = createModel();
+        final Resource runtime = new BasicResource() {
+            @Override
+            public boolean isRuntime() {
+                return true;
+            }
+        };
+        runtime.getModel().get("state").set("running");
+        snapshot.getChild(SUBSYSTEM).registerChild(PathElement.pathElement("runtime", "state"), runtime);
+
+        final Resource view = CopyOnWriteResourceView.create(snapshot, true);
+        final Resource copy = view.getChild(SUBSYSTEM).getChild(PathElement.pathElement("runtime", "state"));
+        assertFalse(copy instanceof CopyOnWriteResourceView);
+        runtime.getModel().get("state").set("stopped");
+        assertEquals("running", copy.getModel().get("state").asString());
+
+        final Resource nonRecursive = CopyOnWriteResourceView.create(runtime, false);
+        runtime.getModel().get("state").set("failed");
+        assertEquals("stopped", nonRecursive.getModel().get("state").asString());
+    }
+
+    private static Resource createModel() {
+        final Resource root = Resource.Factory.create();
+        final Resource subsystem = Resource.Factory.create();
+        subsystem.getModel().get("name").set("datasources");
+        root.registerChild(SUBSYSTEM, subsystem);
+        final Resource ds = Resource.Factory.create();
+        ds.getModel().get("jndi-name").set("java:/ExampleDS");
+        subsystem.registerChild(DATASOURCE, ds);
+        return root;
+    }
+}
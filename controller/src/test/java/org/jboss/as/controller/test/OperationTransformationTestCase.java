@@ -58,6 +58,7 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * @author Emanuel Muckenhuber
@@ -207,6 +208,45 @@ public class OperationTransformationTestCase {
         Assert.assertNotNull(transformed13.getChild(one));
     }
 
+    @Test
+    public void testCachedResourceTransformation() throws Exception {
+
+        final PathElement one = PathElement.pathElement(ModelDescriptionConstants.EXTENSION, "org.test.one");
+        final AtomicInteger transformations = new AtomicInteger();
+        final ResourceTransformer counting = new ResourceTransformer() {
+            @Override
+            public void transformResource(ResourceTransformationContext context, PathAddress address, Resource resource) throws OperationFailedException {
+                transformations.incrementAndGet();
+                ResourceTransformer.DEFAULT.transformResource(context, address, resource);
+            }
+        };
+        final TransformerRegistry transformers = TransformerRegistry.Factory.create(null);
+        transformers.getDomainRegistration(ModelVersion.create(1, 2)).registerSubResource(one, counting);
+        transformers.getDomainRegistration(ModelVersion.create(1, 3)).registerSubResource(one, true);
+
+        final Resource resource = Resource.Factory.create();
+        resource.registerChild(one, Resource.Factory.create());
+
+        // Targets with the same versions share the result
+        final Resource first = transformCaching(create(transformers, ModelVersion.create(1, 2)), resource);
+        final Resource second = transformCaching(create(transformers, ModelVersion.create(1, 2)), resource);
+        Assert.assertEquals(1, transformations.get());
+        Assert.assertNotNull(first.getChild(one));
+        Assert.assertNotNull(second.getChild(one));
+        Assert.assertNotSame(first, second);
+
+        // A modified resource is transformed again
+        resource.requireChild(one).getModel().get("attr").set("value");
+        final Resource third = transformCaching(create(transformers, ModelVersion.create(1, 2)), resource);
+        Assert.assertEquals(2, transformations.get());
+        Assert.assertEquals("value", third.requireChild(one).getModel().get("attr").asString());
+
+        // Other versions do not share it
+        final Resource other = transformCaching(create(transformers, ModelVersion.create(1, 3)), resource);
+        Assert.assertNull(other.getChild(one));
+        Assert.assertEquals(2, transformations.get());
+    }
+
     @Test
     public void testAddSubsystem() throws Exception {
 
@@ -244,6 +284,12 @@ public class OperationTransformationTestCase {
         return transformers.transformResource(ctx, root);
     }
 
+    protected Resource transformCaching(final TransformationTarget target, final Resource root) throws OperationFailedException {
+        final Transformers transformers = Transformers.Factory.createCaching(target);
+        final ResourceTransformationContext ctx = Transformers.Factory.create(target, root, resourceRegistration, resolver, RunningMode.NORMAL, ProcessType.HOST_CONTROLLER);
+        return transformers.transformResource(ctx, root);
+    }
+
     protected ModelNode transform(final ModelNode operation, int major, int minor) throws OperationFailedException {
         return transform(PathAddress.pathAddress(operation.require(ModelDescriptionConstants.OP_ADDR)), operation, major, minor);
     }
@@ -0,0 +1,75 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.transform;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.registry.Resource;
+import org.junit.Test;
+
+/**
+ * Tests of the revisions of {@link TransformedResourceCache}.
+ */
+public class TransformedResourceCacheTestCase {
+
+    private static final PathElement EXTENSION = PathElement.pathElement("extension", "org.test");
+
+    @Test
+    public void testRevisionComputedOncePerModel() {
+        final TransformedResourceCache cache = new TransformedResourceCache();
+        final Resource resource = createResource();
+        final Object model = new Object();
+        final String revision = cache.getRevision(resource, "[extension]", model);
+        assertEquals(TransformedResourceCache.getRevision(resource), revision);
+
+        // A resource read from the same model has the same content, so the revision is not computed again
+        resource.requireChild(EXTENSION).getModel().get("attr").set("changed");
+        assertEquals(revision, cache.getRevision(resource, "[extension]", model));
+
+        // Resources of a different shape have their own revision
+        final Resource other = Resource.Factory.create();
+        assertEquals(TransformedResourceCache.getRevision(other), cache.getRevision(other, "[]", model));
+
+        // A newly published model gets a new revision
+        final String published = cache.getRevision(resource, "[extension]", new Object());
+        assertFalse(revision.equals(published));
+        assertEquals(TransformedResourceCache.getRevision(resource), published);
+    }
+
+    @Test
+    public void testRevisionOfUnknownModel() {
+        final TransformedResourceCache cache = new TransformedResourceCache();
+        final Resource resource = createResource();
+        final String revision = cache.getRevision(resource, "[extension]", null);
+        resource.requireChild(EXTENSION).getModel().get("attr").set("changed");
+        assertFalse(revision.equals(cache.getRevision(resource, "[extension]", null)));
+    }
+
+    private static Resource createResource() {
+        final Resource resource = Resource.Factory.create();
+        resource.registerChild(EXTENSION, Resource.Factory.create());
+        return resource;
+    }
+}
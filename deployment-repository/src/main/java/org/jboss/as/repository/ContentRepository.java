@@ -22,14 +22,14 @@
 
 package org.jboss.as.repository;
 
-import java.io.BufferedInputStream;
 import java.io.Closeable;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.security.DigestOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 
@@ -117,8 +117,8 @@ public interface ContentRepository {
         private static class ContentRepositoryImpl implements ContentRepository, Service<ContentRepository> {
 
             protected static final String CONTENT = "content";
+            private static final int BUFFER_SIZE = 64 * 1024;
             private final File repoRoot;
-            protected final MessageDigest messageDigest;
 
             protected ContentRepositoryImpl(final File repoRoot) {
                 if (repoRoot == null)
@@ -136,38 +136,35 @@ public interface ContentRepository {
                 }
                 this.repoRoot = repoRoot;
 
-                try {
-                    this.messageDigest = MessageDigest.getInstance("SHA-1");
-                } catch (NoSuchAlgorithmException e) {
-                    throw DeploymentRepositoryMessages.MESSAGES.cannotObtainSha1(e, MessageDigest.class.getSimpleName());
-                }
+                // Fail fast if the digests of the content can't be computed
+                createMessageDigest();
             }
 
             @Override
             public byte[] addContent(InputStream stream) throws IOException {
-                byte[] sha1Bytes;
+                // Each addition has its own digest, so concurrent additions don't wait for each other
+                final MessageDigest messageDigest = createMessageDigest();
                 File tmp = File.createTempFile(CONTENT, "tmp", repoRoot);
                 FileOutputStream fos = new FileOutputStream(tmp);
-                synchronized (messageDigest) {
-                    messageDigest.reset();
-                    try {
-                        DigestOutputStream dos = new DigestOutputStream(fos, messageDigest);
-                        BufferedInputStream bis = new BufferedInputStream(stream);
-                        byte[] bytes = new byte[8192];
-                        int read;
-                        while ((read = bis.read(bytes)) > -1) {
-                            dos.write(bytes, 0, read);
+                try {
+                    final FileChannel channel = fos.getChannel();
+                    final byte[] bytes = new byte[BUFFER_SIZE];
+                    int read;
+                    while ((read = stream.read(bytes)) > -1) {
+                        messageDigest.update(bytes, 0, read);
+                        final ByteBuffer buffer = ByteBuffer.wrap(bytes, 0, read);
+                        while (buffer.hasRemaining()) {
+                            channel.write(buffer);
                         }
-                        fos.flush();
-                        fos.getFD().sync();
-                        fos.close();
-                        fos = null;
-                    }
-                    finally {
-                        safeClose(fos);
                     }
-                    sha1Bytes = messageDigest.digest();
+                    channel.force(false);
+                    fos.close();
+                    fos = null;
                 }
+                finally {
+                    safeClose(fos);
+                }
+                final byte[] sha1Bytes = messageDigest.digest();
                 final File realFile = getDeploymentContentFile(sha1Bytes, true);
                 if(hasContent(sha1Bytes)) {
                     // we've already got this content
@@ -245,8 +242,8 @@ public interface ContentRepository {
                 if (!tmpFile.renameTo(permanentFile)) {
                     // AS7-3574. Try to avoid writing the permanent file bit by bit in we crash in the middle.
                     // Copy tmpFile to another tmpfile in the same dir as the permanent file (and thus same filesystem)
-                    // and see then if we can rename it.
-                    File localTmp = new File(permanentFile.getParent(), "tmp");
+                    // and see then if we can rename it. The tmpfile is unique, as the same content may be added concurrently.
+                    File localTmp = File.createTempFile(CONTENT, "tmp", permanentFile.getParentFile());
                     try {
                         copyFile(tmpFile, localTmp);
                         if (!localTmp.renameTo(permanentFile)) {
@@ -281,13 +278,14 @@ public interface ContentRepository {
                 try {
                     fos = new FileOutputStream(dest);
                     fis = new FileInputStream(src);
-                    byte[] bytes = new byte[8192];
-                    int read;
-                    while ((read = fis.read(bytes)) > -1) {
-                        fos.write(bytes, 0, read);
+                    final FileChannel in = fis.getChannel();
+                    final FileChannel out = fos.getChannel();
+                    final long size = in.size();
+                    long position = 0;
+                    while (position < size) {
+                        position += in.transferTo(position, size - position, out);
                     }
-                    fos.flush();
-                    fos.getFD().sync();
+                    out.force(false);
                     fos.close();
                     fos = null;
                 } finally {
@@ -296,6 +294,14 @@ public interface ContentRepository {
                 }
             }
 
+            private static MessageDigest createMessageDigest() {
+                try {
+                    return MessageDigest.getInstance("SHA-1");
+                } catch (NoSuchAlgorithmException e) {
+                    throw DeploymentRepositoryMessages.MESSAGES.cannotObtainSha1(e, MessageDigest.class.getSimpleName());
+                }
+            }
+
             @Override
             public void removeContent(byte[] hash) {
                 File file = getDeploymentContentFile(hash, true);
@@ -22,6 +22,9 @@
 
 package org.jboss.as.repository;
 
+import java.io.File;
+import java.io.IOException;
+
 import org.jboss.logging.annotations.Cause;
 import org.jboss.logging.annotations.Message;
 import org.jboss.logging.annotations.MessageBundle;
@@ -90,4 +93,39 @@ interface DeploymentRepositoryMessages {
      */
     @Message(id = 14924, value = "%s is null")
     IllegalArgumentException nullVar(String name);
+
+    /**
+     * Creates an exception indicating a chunk of the file, represented by the {@code path} parameter, was corrupted
+     * during its transfer.
+     *
+     * @param path the path of the file.
+     * @param offset the offset of the chunk.
+     *
+     * @return an {@link IOException} for the error.
+     */
+    @Message(id = 14925, value = "Received a corrupt chunk of file %s at offset %d")
+    IOException corruptFileChunk(String path, long offset);
+
+    /**
+     * Creates an exception indicating the file, represented by the {@code path} parameter, does not match the hash
+     * of the file sent.
+     *
+     * @param path the path of the file.
+     *
+     * @return an {@link IOException} for the error.
+     */
+    @Message(id = 14926, value = "The hash of received file %s does not match the hash of the file sent")
+    IOException fileHashMismatch(String path);
+
+    /**
+     * Creates an exception indicating the received file, represented by the {@code source} parameter, could not be
+     * moved to its final location.
+     *
+     * @param source the received file.
+     * @param target the final location of the file.
+     *
+     * @return an {@link IOException} for the error.
+     */
+    @Message(id = 14927, value = "Could not rename %s to %s")
+    IOException cannotRenameFile(File source, File target);
 }
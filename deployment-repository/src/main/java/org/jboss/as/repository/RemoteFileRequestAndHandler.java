@@ -22,18 +22,29 @@
 package org.jboss.as.repository;
 
 import static org.jboss.as.protocol.mgmt.ProtocolUtils.expectHeader;
+import static org.jboss.as.repository.DeploymentRepositoryMessages.MESSAGES;
 
 import java.io.BufferedOutputStream;
 import java.io.DataInput;
+import java.io.DataInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.Executor;
+import java.util.zip.CRC32;
 
 import org.jboss.as.protocol.StreamUtils;
 import org.jboss.as.protocol.mgmt.ActiveOperation;
@@ -46,11 +57,21 @@ import org.jboss.logging.BasicLogger;
 
 /**
  * Common protocol code for getting files from master->slave HC and HC->server.
+ * <p>
+ * Requests sent with the local path of the files use a chunked transfer. Each chunk carries a checksum and is written
+ * to a staging directory next to the local path only once verified, and each file is checked against its SHA-1 hash
+ * once complete. The files are moved to the local path once they all have been received. If a transfer fails, the
+ * next request for the same files reports the verified content of the staging directory, so the transfer resumes
+ * from there. Older versions ignore the resume information and send the files as a whole.
+ * </p>
  *
  * @author <a href="kabir.khan@jboss.com">Kabir Khan</a>
  */
 public abstract class RemoteFileRequestAndHandler {
 
+    private static final int CHUNK_SIZE = 64 * 1024;
+    private static final String STAGING_SUFFIX = ".part";
+
     private final RemoteFileProtocolIdMapper protocol;
     private final Executor asyncExecutor;
 
@@ -64,16 +85,46 @@ public abstract class RemoteFileRequestAndHandler {
     }
 
     public void sendRequest(FlushableDataOutput output, byte rootId, String filePath) throws IOException{
+        sendRequest(output, rootId, filePath, null);
+    }
+
+    /**
+     * Send a request for a file. If the local path is given the files are sent in chunks, resuming a previous
+     * transfer to the same local path.
+     *
+     * @param output the output
+     * @param rootId the root id
+     * @param filePath the path of the file
+     * @param localPath the local path the files will be stored at, {@code null} to have the files sent as a whole
+     * @throws IOException for any error
+     */
+    public void sendRequest(FlushableDataOutput output, byte rootId, String filePath, File localPath) throws IOException{
         output.writeByte(protocol.paramRootId());
         output.writeByte(rootId);
         output.writeByte(protocol.paramFilePath());
         output.writeUTF(filePath);
-
+        if (localPath != null) {
+            final File staging = getStagingDirectory(localPath);
+            final List<File> partialFiles = staging.isDirectory() ? getChildFiles(staging) : Collections.<File>emptyList();
+            output.writeByte(protocol.paramChunkedTransfer());
+            output.writeInt(partialFiles.size());
+            for (File partialFile : partialFiles) {
+                output.writeUTF(getRelativePath(staging, partialFile));
+                output.writeLong(partialFile.length());
+            }
+        }
     }
 
     public void handleResponse(DataInput input, File localPath, BasicLogger log, ActiveOperation.ResultHandler<File> resultHandler, ManagementRequestContext<Void> context)
             throws IOException, CannotCreateLocalDirectoryException, DidNotReadEntireFileException{
-        expectHeader(input, protocol.paramNumFiles());
+        final byte type = input.readByte();
+        final boolean chunked = type == protocol.paramChunkedTransfer();
+        if (chunked) {
+            expectHeader(input, protocol.paramNumFiles());
+        } else {
+            // Older versions always send the files as a whole
+            expectHeader(type, protocol.paramNumFiles());
+        }
         int numFiles = input.readInt();
         log.debugf("Received %d files for %s", numFiles, localPath);
         switch (numFiles) {
@@ -87,6 +138,10 @@ public abstract class RemoteFileRequestAndHandler {
                 break;
             }
             default: { // Found on DC
+                if (chunked) {
+                    readChunkedFiles(input, localPath, numFiles, log);
+                    break;
+                }
                 for (int i = 0; i < numFiles; i++) {
                     expectHeader(input, protocol.fileStart());
                     expectHeader(input, protocol.paramFilePath());
@@ -125,11 +180,99 @@ public abstract class RemoteFileRequestAndHandler {
         resultHandler.done(localPath);
     }
 
+    private void readChunkedFiles(final DataInput input, final File localPath, final int numFiles, final BasicLogger log)
+            throws IOException, CannotCreateLocalDirectoryException {
+        final File staging = getStagingDirectory(localPath);
+        final Set<String> paths = new HashSet<String>();
+        for (int i = 0; i < numFiles; i++) {
+            expectHeader(input, protocol.fileStart());
+            expectHeader(input, protocol.paramFilePath());
+            final String path = input.readUTF();
+            expectHeader(input, protocol.paramFileSize());
+            final long length = input.readLong();
+            expectHeader(input, protocol.paramFileOffset());
+            final long offset = input.readLong();
+            log.debugf("Received file [%s] of length %d from offset %d", path, length, offset);
+            final File file = new File(staging, path);
+            if (!file.getParentFile().exists() && !file.getParentFile().mkdirs()) {
+                throw new CannotCreateLocalDirectoryException(file.getParentFile());
+            }
+            final MessageDigest digest = createDigest();
+            final RandomAccessFile fileOut = new RandomAccessFile(file, "rw");
+            try {
+                // Keep the content verified by a previous transfer
+                fileOut.setLength(offset);
+                final byte[] buffer = new byte[CHUNK_SIZE];
+                long position = 0;
+                while (position < offset) {
+                    final int len = (int) Math.min(offset - position, buffer.length);
+                    fileOut.readFully(buffer, 0, len);
+                    digest.update(buffer, 0, len);
+                    position += len;
+                }
+                final CRC32 checksum = new CRC32();
+                while (position < length) {
+                    final int len = input.readInt();
+                    if (len <= 0 || len > buffer.length || len > length - position) {
+                        throw MESSAGES.corruptFileChunk(path, position);
+                    }
+                    input.readFully(buffer, 0, len);
+                    checksum.reset();
+                    checksum.update(buffer, 0, len);
+                    if (checksum.getValue() != input.readLong()) {
+                        throw MESSAGES.corruptFileChunk(path, position);
+                    }
+                    fileOut.write(buffer, 0, len);
+                    digest.update(buffer, 0, len);
+                    position += len;
+                }
+            } finally {
+                fileOut.close();
+            }
+            expectHeader(input, protocol.paramFileHash());
+            final byte[] hash = new byte[digest.getDigestLength()];
+            input.readFully(hash);
+            if (!MessageDigest.isEqual(hash, digest.digest())) {
+                // Cannot tell which part is wrong, so the file is transferred again
+                file.delete();
+                throw MESSAGES.fileHashMismatch(path);
+            }
+            expectHeader(input, protocol.fileEnd());
+            paths.add(path);
+        }
+        // All files are verified, move them in place
+        for (String path : paths) {
+            final File file = new File(localPath, path);
+            if (!file.getParentFile().exists() && !file.getParentFile().mkdirs()) {
+                throw new CannotCreateLocalDirectoryException(file.getParentFile());
+            }
+            if (file.exists()) {
+                file.delete();
+            }
+            final File received = new File(staging, path);
+            if (!received.renameTo(file)) {
+                throw MESSAGES.cannotRenameFile(received, file);
+            }
+        }
+        deleteRecursively(staging);
+    }
+
     public void handleRequest(final DataInput input, final RootFileReader reader, final ManagementRequestContext<Void> context) throws IOException {
         expectHeader(input, protocol.paramRootId());
         final byte rootId = input.readByte();
         expectHeader(input, protocol.paramFilePath());
         final String filePath = input.readUTF();
+        // Requests of older versions end here
+        final Map<String, Long> resume;
+        if (input.readByte() == protocol.paramChunkedTransfer()) {
+            resume = new HashMap<String, Long>();
+            final int size = input.readInt();
+            for (int i = 0; i < size; i++) {
+                resume.put(input.readUTF(), input.readLong());
+            }
+        } else {
+            resume = null;
+        }
 
         ManagementRequestContext.AsyncTask<Void> task = new ManagementRequestContext.AsyncTask<Void>() {
             @Override
@@ -138,7 +281,7 @@ public abstract class RemoteFileRequestAndHandler {
                 //final FlushableDataOutput output = writeGenericResponseHeader(context);
                 FlushableDataOutput output = context.writeMessage(ManagementResponseHeader.create(context.getRequestHeader()));
                 try {
-                    writeResponse(localPath, output);
+                    writeResponse(localPath, output, resume);
                     output.close();
                 } finally {
                     StreamUtils.safeClose(output);
@@ -153,29 +296,32 @@ public abstract class RemoteFileRequestAndHandler {
         }
     }
 
-    private void writeResponse(final File localPath, final FlushableDataOutput output) throws IOException {
+    private void writeResponse(final File localPath, final FlushableDataOutput output, final Map<String, Long> resume) throws IOException {
+        if (resume != null) {
+            output.writeByte(protocol.paramChunkedTransfer());
+        }
         output.writeByte(protocol.paramNumFiles());
         if (localPath == null || !localPath.exists()) {
             output.writeInt(-1);
         } else if (localPath.isFile()) {
             output.writeInt(1);
-            writeFile(localPath, localPath, output);
+            writeFile(localPath, localPath, output, resume);
         } else {
             final List<File> childFiles = getChildFiles(localPath);
             output.writeInt(childFiles.size());
             for (File child : childFiles) {
-                writeFile(localPath, child, output);
+                writeFile(localPath, child, output, resume);
             }
         }
     }
 
-    private List<File> getChildFiles(final File base) {
+    private static List<File> getChildFiles(final File base) {
         final List<File> childFiles = new ArrayList<File>();
         getChildFiles(base, childFiles);
         return childFiles;
     }
 
-    private void getChildFiles(final File base, final List<File> childFiles) {
+    private static void getChildFiles(final File base, final List<File> childFiles) {
         for (File child : base.listFiles()) {
             if (child.isFile()) {
                 childFiles.add(child);
@@ -185,23 +331,30 @@ public abstract class RemoteFileRequestAndHandler {
         }
     }
 
-    private String getRelativePath(final File parent, final File child) {
+    private static String getRelativePath(final File parent, final File child) {
         return child.getAbsolutePath().substring(parent.getAbsolutePath().length()+1);
     }
 
-    private void writeFile(final File localPath, final File file, final FlushableDataOutput output) throws IOException {
+    private void writeFile(final File localPath, final File file, final FlushableDataOutput output, final Map<String, Long> resume) throws IOException {
+        final String relativePath = getRelativePath(localPath, file);
+        final long length = file.length();
         output.writeByte(protocol.fileStart());
         output.writeByte(protocol.paramFilePath());
-        output.writeUTF(getRelativePath(localPath, file));
+        output.writeUTF(relativePath);
         output.writeByte(protocol.paramFileSize());
-        output.writeLong(file.length());
+        output.writeLong(length);
         InputStream inputStream = null;
         try {
             inputStream = new FileInputStream(file);
-            byte[] buffer = new byte[8192];
-            int len;
-            while ((len = inputStream.read(buffer)) != -1) {
-                output.write(buffer, 0, len);
+            if (resume == null) {
+                byte[] buffer = new byte[8192];
+                int len;
+                while ((len = inputStream.read(buffer)) != -1) {
+                    output.write(buffer, 0, len);
+                }
+            } else {
+                final Long verified = resume.get(relativePath);
+                writeChunks(new DataInputStream(inputStream), length, verified != null && verified <= length ? verified : 0, output);
             }
         } finally {
             if (inputStream != null) {
@@ -214,6 +367,56 @@ public abstract class RemoteFileRequestAndHandler {
         output.writeByte(protocol.fileEnd());
     }
 
+    private void writeChunks(final DataInputStream input, final long length, final long offset, final FlushableDataOutput output) throws IOException {
+        output.writeByte(protocol.paramFileOffset());
+        output.writeLong(offset);
+        final MessageDigest digest = createDigest();
+        final byte[] buffer = new byte[CHUNK_SIZE];
+        long position = 0;
+        // The content the receiver already has only goes into the hash
+        while (position < offset) {
+            final int len = (int) Math.min(offset - position, buffer.length);
+            input.readFully(buffer, 0, len);
+            digest.update(buffer, 0, len);
+            position += len;
+        }
+        final CRC32 checksum = new CRC32();
+        while (position < length) {
+            final int len = (int) Math.min(length - position, buffer.length);
+            input.readFully(buffer, 0, len);
+            digest.update(buffer, 0, len);
+            checksum.reset();
+            checksum.update(buffer, 0, len);
+            output.writeInt(len);
+            output.write(buffer, 0, len);
+            output.writeLong(checksum.getValue());
+            position += len;
+        }
+        output.writeByte(protocol.paramFileHash());
+        output.write(digest.digest());
+    }
+
+    private static File getStagingDirectory(final File localPath) {
+        return new File(localPath.getParentFile(), localPath.getName() + STAGING_SUFFIX);
+    }
+
+    private static MessageDigest createDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw MESSAGES.cannotObtainSha1(e, MessageDigest.class.getSimpleName());
+        }
+    }
+
+    private static void deleteRecursively(final File file) {
+        if (file.isDirectory()) {
+            for (File child : file.listFiles()) {
+                deleteRecursively(child);
+            }
+        }
+        file.delete();
+    }
+
     /**
      * Maps the expected protocol codes to the actual protocol
      */
@@ -224,6 +427,9 @@ public abstract class RemoteFileRequestAndHandler {
         byte paramFilePath();
         byte paramFileSize();
         byte fileEnd();
+        byte paramChunkedTransfer();
+        byte paramFileOffset();
+        byte paramFileHash();
     }
 
     /**
@@ -0,0 +1,124 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.repository;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests of the addition of content to the repository.
+ */
+public class ContentRepositoryTestCase {
+
+    private File root;
+    private ContentRepository repository;
+
+    @Before
+    public void setUp() throws Exception {
+        root = new File(new File("target"), "content-repository");
+        deleteRecursively(root);
+        repository = ContentRepository.Factory.create(root);
+    }
+
+    @After
+    public void tearDown() {
+        deleteRecursively(root);
+    }
+
+    @Test
+    public void testConcurrentAddContent() throws Exception {
+        final Random random = new Random(42);
+        final List<byte[]> contents = new ArrayList<byte[]>();
+        for (int i = 0; i < 8; i++) {
+            final byte[] content = new byte[100000 + random.nextInt(200000)];
+            random.nextBytes(content);
+            contents.add(content);
+        }
+        // The same content added twice
+        contents.add(contents.get(0));
+
+        final ExecutorService executor = Executors.newFixedThreadPool(contents.size());
+        try {
+            final List<Future<byte[]>> hashes = new ArrayList<Future<byte[]>>();
+            for (final byte[] content : contents) {
+                hashes.add(executor.submit(new Callable<byte[]>() {
+                    public byte[] call() throws Exception {
+                        return repository.addContent(new ByteArrayInputStream(content));
+                    }
+                }));
+            }
+            for (int i = 0; i < contents.size(); i++) {
+                final byte[] content = contents.get(i);
+                final byte[] hash = hashes.get(i).get();
+                assertArrayEquals(MessageDigest.getInstance("SHA-1").digest(content), hash);
+                assertTrue(repository.hasContent(hash));
+                final String sha1 = HashUtil.bytesToHexString(hash);
+                assertArrayEquals(content, read(new File(new File(new File(root, sha1.substring(0, 2)), sha1.substring(2)), "content")));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static byte[] read(final File file) throws IOException {
+        final byte[] bytes = new byte[(int) file.length()];
+        final InputStream in = new FileInputStream(file);
+        try {
+            int offset = 0;
+            int read;
+            while (offset < bytes.length && (read = in.read(bytes, offset, bytes.length - offset)) > -1) {
+                offset += read;
+            }
+        } finally {
+            in.close();
+        }
+        return bytes;
+    }
+
+    private static void deleteRecursively(final File file) {
+        if (file.isDirectory()) {
+            for (File child : file.listFiles()) {
+                deleteRecursively(child);
+            }
+        }
+        file.delete();
+    }
+}
@@ -0,0 +1,319 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.repository;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Random;
+import java.util.concurrent.Executor;
+
+import org.jboss.as.protocol.mgmt.ActiveOperation;
+import org.jboss.as.protocol.mgmt.FlushableDataOutput;
+import org.jboss.as.protocol.mgmt.ManagementProtocol;
+import org.jboss.as.protocol.mgmt.ManagementProtocolHeader;
+import org.jboss.as.protocol.mgmt.ManagementRequestContext;
+import org.jboss.as.protocol.mgmt.ManagementRequestHeader;
+import org.jboss.as.protocol.mgmt.RequestProcessingException;
+import org.jboss.logging.Logger;
+import org.jboss.remoting3.Channel;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests of the transfer of files between host controllers and servers.
+ */
+public class RemoteFileRequestAndHandlerTestCase {
+
+    private static final RemoteFileRequestAndHandler.RemoteFileProtocolIdMapper MAPPER = new RemoteFileRequestAndHandler.RemoteFileProtocolIdMapper() {
+        public byte paramRootId() {
+            return 0x01;
+        }
+
+        public byte paramNumFiles() {
+            return 0x02;
+        }
+
+        public byte fileStart() {
+            return 0x03;
+        }
+
+        public byte paramFilePath() {
+            return 0x04;
+        }
+
+        public byte paramFileSize() {
+            return 0x05;
+        }
+
+        public byte fileEnd() {
+            return 0x06;
+        }
+
+        public byte paramChunkedTransfer() {
+            return 0x07;
+        }
+
+        public byte paramFileOffset() {
+            return 0x08;
+        }
+
+        public byte paramFileHash() {
+            return 0x09;
+        }
+    };
+
+    private static final RemoteFileRequestAndHandler HANDLER = new RemoteFileRequestAndHandler(MAPPER) {
+    };
+
+    private static final Logger log = Logger.getLogger(RemoteFileRequestAndHandlerTestCase.class);
+
+    private File root;
+    private File source;
+    private byte[] content;
+
+    @Before
+    public void setUp() throws IOException {
+        root = new File(new File("target"), "remote-file-transfer");
+        deleteRecursively(root);
+        source = new File(root, "source");
+        content = new byte[300 * 1024 + 17];
+        new Random(42).nextBytes(content);
+        writeFile(new File(source, "content"), content);
+        writeFile(new File(new File(source, "META-INF"), "MANIFEST.MF"), "Manifest-Version: 1.0".getBytes("UTF-8"));
+    }
+
+    @After
+    public void tearDown() {
+        deleteRecursively(root);
+    }
+
+    @Test
+    public void testChunkedTransfer() throws Exception {
+        final File target = new File(root, "target");
+        final byte[] response = transfer(target);
+        assertTrue(response.length > content.length);
+
+        assertArrayEquals(content, readFile(new File(target, "content")));
+        assertEquals("Manifest-Version: 1.0", new String(readFile(new File(new File(target, "META-INF"), "MANIFEST.MF")), "UTF-8"));
+        assertFalse(new File(root, "target.part").exists());
+    }
+
+    @Test
+    public void testResumedTransfer() throws Exception {
+        final File target = new File(root, "target");
+        final byte[] partial = new byte[200 * 1024 + 5];
+        System.arraycopy(content, 0, partial, 0, partial.length);
+        writeFile(new File(new File(root, "target.part"), "content"), partial);
+
+        final byte[] response = transfer(target);
+        // Only the missing part of the content is sent
+        assertTrue(response.length < content.length - partial.length + 1024);
+
+        assertArrayEquals(content, readFile(new File(target, "content")));
+        assertFalse(new File(root, "target.part").exists());
+    }
+
+    @Test
+    public void testCorruptPartialFile() throws Exception {
+        final File target = new File(root, "target");
+        final byte[] partial = new byte[100 * 1024];
+        System.arraycopy(content, 0, partial, 0, partial.length);
+        partial[1234]++;
+        final File partialFile = new File(new File(root, "target.part"), "content");
+        writeFile(partialFile, partial);
+
+        try {
+            transfer(target);
+            fail("Expected the hash of the file not to match");
+        } catch (IOException expected) {
+            // The corrupt file is discarded, and the next transfer starts from scratch
+        }
+        assertFalse(partialFile.exists());
+        assertFalse(target.exists());
+
+        transfer(target);
+        assertArrayEquals(content, readFile(new File(target, "content")));
+    }
+
+    @Test
+    public void testWholeFileTransfer() throws Exception {
+        // Request without the local path, as sent by older versions
+        final File target = new File(root, "target");
+        final ByteArrayOutputStream request = new ByteArrayOutputStream();
+        final TestOutput requestOutput = new TestOutput(request);
+        HANDLER.sendRequest(requestOutput, (byte) 0, "source");
+        requestOutput.writeByte(ManagementProtocol.REQUEST_END);
+
+        final byte[] response = handleRequest(request.toByteArray());
+        assertEquals(MAPPER.paramNumFiles(), response[0]);
+        HANDLER.handleResponse(new DataInputStream(new ByteArrayInputStream(response)), target, log, new TestResultHandler(), null);
+        assertArrayEquals(content, readFile(new File(target, "content")));
+    }
+
+    private byte[] transfer(final File target) throws Exception {
+        final ByteArrayOutputStream request = new ByteArrayOutputStream();
+        final TestOutput requestOutput = new TestOutput(request);
+        HANDLER.sendRequest(requestOutput, (byte) 0, "source", target);
+        requestOutput.writeByte(ManagementProtocol.REQUEST_END);
+
+        final byte[] response = handleRequest(request.toByteArray());
+        final TestResultHandler resultHandler = new TestResultHandler();
+        HANDLER.handleResponse(new DataInputStream(new ByteArrayInputStream(response)), target, log, resultHandler, null);
+        assertEquals(target, resultHandler.result);
+        return response;
+    }
+
+    private byte[] handleRequest(final byte[] request) throws Exception {
+        final TestContext context = new TestContext();
+        HANDLER.handleRequest(new DataInputStream(new ByteArrayInputStream(request)), new RemoteFileRequestAndHandler.RootFileReader() {
+            @Override
+            public File readRootFile(byte rootId, String filePath) throws RequestProcessingException {
+                return new File(root, filePath);
+            }
+        }, context);
+        if (context.failure != null) {
+            throw context.failure;
+        }
+        return context.response.toByteArray();
+    }
+
+    private static void writeFile(final File file, final byte[] bytes) throws IOException {
+        file.getParentFile().mkdirs();
+        final OutputStream out = new FileOutputStream(file);
+        try {
+            out.write(bytes);
+        } finally {
+            out.close();
+        }
+    }
+
+    private static byte[] readFile(final File file) throws IOException {
+        final InputStream in = new FileInputStream(file);
+        try {
+            final byte[] bytes = new byte[(int) file.length()];
+            new DataInputStream(in).readFully(bytes);
+            return bytes;
+        } finally {
+            in.close();
+        }
+    }
+
+    private static void deleteRecursively(final File file) {
+        if (file.isDirectory()) {
+            for (File child : file.listFiles()) {
+                deleteRecursively(child);
+            }
+        }
+        file.delete();
+    }
+
+    private static class TestOutput extends DataOutputStream implements FlushableDataOutput {
+
+        TestOutput(final OutputStream out) {
+            super(out);
+        }
+    }
+
+    private static class TestResultHandler implements ActiveOperation.ResultHandler<File> {
+
+        private File result;
+
+        @Override
+        public boolean done(File result) {
+            this.result = result;
+            return true;
+        }
+
+        @Override
+        public boolean failed(Exception e) {
+            return false;
+        }
+
+        @Override
+        public void cancel() {
+        }
+    }
+
+    /**
+     * Runs the tasks in the calling thread, and records the response.
+     */
+    private static class TestContext implements ManagementRequestContext<Void> {
+
+        private final ByteArrayOutputStream response = new ByteArrayOutputStream();
+        private Exception failure;
+
+        @Override
+        public Integer getOperationId() {
+            return 1;
+        }
+
+        @Override
+        public Void getAttachment() {
+            return null;
+        }
+
+        @Override
+        public Channel getChannel() {
+            return null;
+        }
+
+        @Override
+        public ManagementProtocolHeader getRequestHeader() {
+            return new ManagementRequestHeader(ManagementProtocol.VERSION, 1, 1, (byte) 0);
+        }
+
+        @Override
+        public void executeAsync(final AsyncTask<Void> task) {
+            try {
+                task.execute(this);
+            } catch (Exception e) {
+                failure = e;
+            }
+        }
+
+        @Override
+        public void executeAsync(final AsyncTask<Void> task, final Executor executor) {
+            executeAsync(task);
+        }
+
+        @Override
+        public FlushableDataOutput writeMessage(final ManagementProtocolHeader header) {
+            return new TestOutput(response);
+        }
+    }
+}
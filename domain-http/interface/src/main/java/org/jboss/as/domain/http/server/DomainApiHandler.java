@@ -29,13 +29,16 @@ import static org.jboss.as.domain.http.server.Constants.APPLICATION_DMR_ENCODED;
 import static org.jboss.as.domain.http.server.Constants.APPLICATION_JSON;
 import static org.jboss.as.domain.http.server.Constants.CONTENT_DISPOSITION;
 import static org.jboss.as.domain.http.server.Constants.CONTENT_TYPE;
+import static org.jboss.as.domain.http.server.Constants.ETAG;
 import static org.jboss.as.domain.http.server.Constants.FORBIDDEN;
 import static org.jboss.as.domain.http.server.Constants.GET;
 import static org.jboss.as.domain.http.server.Constants.HOST;
 import static org.jboss.as.domain.http.server.Constants.HTTP;
 import static org.jboss.as.domain.http.server.Constants.HTTPS;
+import static org.jboss.as.domain.http.server.Constants.IF_NONE_MATCH;
 import static org.jboss.as.domain.http.server.Constants.INTERNAL_SERVER_ERROR;
 import static org.jboss.as.domain.http.server.Constants.METHOD_NOT_ALLOWED;
+import static org.jboss.as.domain.http.server.Constants.NOT_MODIFIED;
 import static org.jboss.as.domain.http.server.Constants.OK;
 import static org.jboss.as.domain.http.server.Constants.OPTIONS;
 import static org.jboss.as.domain.http.server.Constants.ORIGIN;
@@ -64,6 +67,7 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.Callable;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -81,6 +85,7 @@ import org.jboss.com.sun.net.httpserver.Filter;
 import org.jboss.com.sun.net.httpserver.Headers;
 import org.jboss.com.sun.net.httpserver.HttpContext;
 import org.jboss.com.sun.net.httpserver.HttpExchange;
+import org.jboss.com.sun.net.httpserver.HttpPrincipal;
 import org.jboss.com.sun.net.httpserver.HttpServer;
 import org.jboss.com.sun.net.httpserver.HttpsServer;
 import org.jboss.dmr.ModelNode;
@@ -127,14 +132,31 @@ class DomainApiHandler implements ManagementHttpHandler {
 
     private final Authenticator authenticator;
     private final ControlledProcessStateService controlledProcessStateService;
+    private final ReadResultCache readResultCache;
+    private final ModelRevisionReader modelRevisionReader;
     private ModelControllerClient modelController;
 
 
     DomainApiHandler(final ModelControllerClient modelController, final Authenticator authenticator,
                      final ControlledProcessStateService controlledProcessStateService) {
+        this(modelController, authenticator, controlledProcessStateService, 0, null);
+    }
+
+    /**
+     * @param readCacheTtl the time in ms the results of GET requests are shared by identical requests, {@code 0} or
+     *                     less to execute the operation of each request
+     * @param managementAddress the address of the management resource exposing the revision of the model, used to
+     *                          answer conditional GET requests for the configuration without executing them, or
+     *                          {@code null} to always execute them
+     */
+    DomainApiHandler(final ModelControllerClient modelController, final Authenticator authenticator,
+                     final ControlledProcessStateService controlledProcessStateService, final long readCacheTtl,
+                     final ModelNode managementAddress) {
         this.modelController = modelController;
         this.authenticator = authenticator;
         this.controlledProcessStateService = controlledProcessStateService;
+        this.readResultCache = readCacheTtl > 0 ? new ReadResultCache(readCacheTtl) : null;
+        this.modelRevisionReader = managementAddress != null ? new ModelRevisionReader(modelController, managementAddress) : null;
     }
 
     private void doHandle(HttpExchange http) throws IOException {
@@ -316,8 +338,36 @@ class DomainApiHandler implements ManagementHttpHandler {
             return;
         }
 
+        boolean pretty = dmr.hasDefined("json.pretty") && dmr.get("json.pretty").asBoolean();
+        final String ifNoneMatch = requestHeaders.getFirst(IF_NONE_MATCH);
+        // A conditional read of the configuration is answered from the revision of the model, before executing it
+        String revisionETag = null;
+        if (isGet && ifNoneMatch != null && modelRevisionReader != null && modelRevisionReader.isConfigurationRead(dmr)) {
+            final String revision = modelRevisionReader.readRevision();
+            if (revision != null) {
+                revisionETag = createETag(revision, encode, pretty);
+                if (matchesETag(ifNoneMatch, revisionETag)) {
+                    http.getResponseHeaders().add(ETAG, revisionETag);
+                    http.sendResponseHeaders(NOT_MODIFIED, -1);
+                    return;
+                }
+            }
+        }
+
+        ReadResultCache.Result cached = null;
         try {
-            response = modelController.execute(new OperationBuilder(dmr).build());
+            final ModelNode operation = dmr;
+            if (isGet && readResultCache != null) {
+                final HttpPrincipal principal = http.getPrincipal();
+                cached = readResultCache.get(principal == null ? null : principal.getName(), request.toString(), new Callable<ModelNode>() {
+                    public ModelNode call() throws Exception {
+                        return modelController.execute(new OperationBuilder(operation).build());
+                    }
+                });
+                response = cached.getResponse();
+            } else {
+                response = modelController.execute(new OperationBuilder(operation).build());
+            }
         } catch (Throwable t) {
             ROOT_LOGGER.modelRequestError(t);
             sendError(http,isGet,t);
@@ -328,10 +378,49 @@ class DomainApiHandler implements ManagementHttpHandler {
             status = INTERNAL_SERVER_ERROR;
         }
 
-        boolean pretty = dmr.hasDefined("json.pretty") && dmr.get("json.pretty").asBoolean();
+        // Other entity tags have to be sent ahead of the streamed response, so they take a separate pass over the
+        // response. That is only done for clients polling for changes, which send If-None-Match from their first
+        // request on, or if the cache shares the digest with other requests.
+        if (isGet && status == OK && (ifNoneMatch != null || cached != null)) {
+            final String etag = revisionETag != null ? revisionETag
+                    : createETag(cached != null ? cached.getDigest() : DomainUtil.getDigest(response), encode, pretty);
+            http.getResponseHeaders().add(ETAG, etag);
+            if (matchesETag(ifNoneMatch, etag)) {
+                http.sendResponseHeaders(NOT_MODIFIED, -1);
+                return;
+            }
+        }
         writeResponse(http, isGet, pretty, response, status, encode);
     }
 
+    /**
+     * Create a weak entity tag of the response of a GET request, from the digest of the response or the revision of
+     * the model, and the flags affecting its representation.
+     */
+    private static String createETag(final String digest, final boolean encode, final boolean pretty) {
+        return "W/\"" + digest + (encode ? "-dmr" : (pretty ? "-pretty" : "-json")) + '"';
+    }
+
+    /**
+     * Whether the If-None-Match header of a request matches an entity tag, using the weak comparison of RFC 2616 13.3.3.
+     */
+    private static boolean matchesETag(final String ifNoneMatch, final String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        final String opaqueTag = etag.substring(2);
+        for (String candidate : ifNoneMatch.split(",")) {
+            candidate = candidate.trim();
+            if (candidate.startsWith("W/")) {
+                candidate = candidate.substring(2);
+            }
+            if ("*".equals(candidate) || opaqueTag.equals(candidate)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private void sendError(final HttpExchange http, boolean isGet, Throwable t) throws IOException {
         ModelNode response = new ModelNode();
         response.set(t.getMessage());
@@ -22,19 +22,35 @@
 
 package org.jboss.as.domain.http.server;
 
+import static org.jboss.as.domain.http.server.Constants.ACCEPT_ENCODING;
 import static org.jboss.as.domain.http.server.Constants.APPLICATION_DMR_ENCODED;
 import static org.jboss.as.domain.http.server.Constants.APPLICATION_JSON;
+import static org.jboss.as.domain.http.server.Constants.CONTENT_ENCODING;
 import static org.jboss.as.domain.http.server.Constants.CONTENT_TYPE;
+import static org.jboss.as.domain.http.server.Constants.GZIP;
 import static org.jboss.as.domain.http.server.Constants.HOST;
 import static org.jboss.as.domain.http.server.Constants.HTTP;
 import static org.jboss.as.domain.http.server.Constants.HTTPS;
 import static org.jboss.as.domain.http.server.Constants.OK;
+import static org.jboss.as.domain.http.server.Constants.UTF_8;
+import static org.jboss.as.domain.http.server.Constants.VARY;
 
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
 import java.io.Closeable;
+import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
 
+import org.jboss.as.controller.HashUtil;
 import org.jboss.com.sun.net.httpserver.Headers;
 import org.jboss.com.sun.net.httpserver.HttpExchange;
 import org.jboss.com.sun.net.httpserver.HttpsServer;
@@ -51,8 +67,23 @@ class DomainUtil {
     private DomainUtil() {
     }
 
+    private static final int BUFFER_SIZE = 8192;
+
+    private static final OutputStream NULL_OUTPUT = new OutputStream() {
+        @Override
+        public void write(final int b) {
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) {
+        }
+    };
+
     /**
      * Writes the HTTP response to the output stream.
+     * <p>
+     * The response is serialized directly to the chunked response body rather than to an intermediate buffer, and is
+     * compressed if the client accepts the gzip content coding.
      *
      * @param http The HttpExchange object that allows access to the request and response.
      * @param isGet Flag indicating whether or not the request was a GET request or POST request.
@@ -66,6 +97,11 @@ class DomainUtil {
             boolean encode, String contentType) throws IOException {
         final Headers responseHeaders = http.getResponseHeaders();
         responseHeaders.add(CONTENT_TYPE, contentType);
+        responseHeaders.add(VARY, ACCEPT_ENCODING);
+        final boolean gzip = isGzipAccepted(http.getRequestHeaders());
+        if (gzip) {
+            responseHeaders.add(CONTENT_ENCODING, GZIP);
+        }
         http.sendResponseHeaders(status, 0);
 
         // GET (read) operations will never have a compensating update, and the status is already
@@ -74,19 +110,19 @@ class DomainUtil {
             response = response.get("result");
         }
 
-        final OutputStream out = http.getResponseBody();
-        final PrintWriter print = new PrintWriter(out);
+        final OutputStream out = gzip ? new GZIPOutputStream(http.getResponseBody(), BUFFER_SIZE)
+                : new BufferedOutputStream(http.getResponseBody(), BUFFER_SIZE);
 
         try {
             if (encode) {
                 response.writeBase64(out);
             } else {
+                final PrintWriter print = new PrintWriter(new BufferedWriter(new OutputStreamWriter(out, UTF_8), BUFFER_SIZE));
                 response.writeJSONString(print, !pretty);
+                print.flush();
             }
         } finally {
-            print.flush();
-            out.flush();
-            safeClose(print);
+            // Closing the stream completes the exchange, so the connection can be reused by the client
             safeClose(out);
         }
     }
@@ -97,6 +133,26 @@ class DomainUtil {
          writeResponse(http, isGet, pretty, response, status, encode, contentType);
      }
 
+    /**
+     * Compute the digest of a response, identifying its content.
+     *
+     * @param response the response
+     * @return the digest, as a hex string
+     */
+    static String getDigest(final ModelNode response) {
+        try {
+            final MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            final DataOutputStream out = new DataOutputStream(new DigestOutputStream(NULL_OUTPUT, digest));
+            response.writeExternal(out);
+            out.flush();
+            return HashUtil.bytesToHexString(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
     static void safeClose(Closeable close) {
         try {
             close.close();
@@ -104,6 +160,57 @@ class DomainUtil {
         }
     }
 
+    /**
+     * Whether the client accepts the gzip content coding, as per RFC 2616 14.3. An explicit {@code gzip} entry takes
+     * precedence over {@code *}.
+     *
+     * @param requestHeaders the headers of the request
+     * @return {@code true} if the response can be compressed with gzip
+     */
+    static boolean isGzipAccepted(final Headers requestHeaders) {
+        final List<String> values = requestHeaders.get(ACCEPT_ENCODING);
+        if (values == null) {
+            return false;
+        }
+        Boolean gzip = null;
+        Boolean any = null;
+        for (String value : values) {
+            for (String coding : value.split(",")) {
+                final String[] parts = coding.split(";");
+                final String name = parts[0].trim().toLowerCase(Locale.ENGLISH);
+                if (GZIP.equals(name) || "x-gzip".equals(name)) {
+                    gzip = isAccepted(parts);
+                } else if ("*".equals(name)) {
+                    any = isAccepted(parts);
+                }
+            }
+        }
+        if (gzip != null) {
+            return gzip;
+        }
+        return any != null && any;
+    }
+
+    /**
+     * Whether the quality value of an Accept-Encoding entry permits the coding.
+     *
+     * @param parts the entry split at its parameters, the first part being the coding
+     * @return {@code false} if the quality value is zero or invalid
+     */
+    private static boolean isAccepted(final String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            final String param = parts[i].trim();
+            if (param.startsWith("q=")) {
+                try {
+                    return Float.parseFloat(param.substring(2).trim()) > 0;
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
     /**
      * Based on the current request represented by the HttpExchange construct a complete URL for the supplied path.
      *
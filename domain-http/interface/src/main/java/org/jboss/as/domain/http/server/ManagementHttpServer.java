@@ -26,6 +26,8 @@ import static org.jboss.as.domain.management.RealmConfigurationConstants.DIGEST_
 
 import java.io.IOException;
 import java.net.InetSocketAddress;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
 import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
@@ -49,6 +51,7 @@ import org.jboss.com.sun.net.httpserver.HttpServer;
 import org.jboss.com.sun.net.httpserver.HttpsConfigurator;
 import org.jboss.com.sun.net.httpserver.HttpsParameters;
 import org.jboss.com.sun.net.httpserver.HttpsServer;
+import org.jboss.dmr.ModelNode;
 import org.jboss.modules.ModuleLoadException;
 
 /**
@@ -58,6 +61,12 @@ import org.jboss.modules.ModuleLoadException;
  */
 public class ManagementHttpServer {
 
+    /**
+     * The time in ms the result of a GET request is shared by identical requests of the same user, {@code 0} to execute
+     * the operation of each request.
+     */
+    static final String READ_CACHE_TTL_PROPERTY = "jboss.management.http.read-cache-ttl";
+
     private final HttpServer httpServer;
 
     private final HttpServer secureHttpServer;
@@ -110,6 +119,21 @@ public class ManagementHttpServer {
             ModelControllerClient modelControllerClient, Executor executor, SecurityRealm securityRealm, ControlledProcessStateService controlledProcessStateService,
             ConsoleMode consoleMode, String consoleSlot)
             throws IOException {
+        return create(bindAddress, secureBindAddress, backlog, modelControllerClient, executor, securityRealm, controlledProcessStateService,
+                consoleMode, consoleSlot, null);
+    }
+
+    /**
+     * Create the HTTP management server.
+     *
+     * @param managementAddress the address of the management resource of the process, whose {@code model-revision}
+     *                          answers conditional GET requests for the configuration without executing them, or
+     *                          {@code null} to always execute them
+     */
+    public static ManagementHttpServer create(InetSocketAddress bindAddress, InetSocketAddress secureBindAddress, int backlog,
+            ModelControllerClient modelControllerClient, Executor executor, SecurityRealm securityRealm, ControlledProcessStateService controlledProcessStateService,
+            ConsoleMode consoleMode, String consoleSlot, ModelNode managementAddress)
+            throws IOException {
         Map<String, String> configuration = Collections.emptyMap();
 
         Authenticator auth = null;
@@ -189,7 +213,8 @@ public class ManagementHttpServer {
             HttpServerLogger.ROOT_LOGGER.consoleModuleNotFound(consoleSlot == null ? "main" : consoleSlot);
         }
         managementHttpServer.addHandler(new RootHandler(consoleHandler));
-        managementHttpServer.addHandler(new DomainApiHandler(modelControllerClient, auth, controlledProcessStateService));
+        managementHttpServer.addHandler(new DomainApiHandler(modelControllerClient, auth, controlledProcessStateService,
+                getSystemProperty(READ_CACHE_TTL_PROPERTY, 0), managementAddress));
         if (consoleHandler != null) {
             managementHttpServer.addHandler(consoleHandler);
         }
@@ -205,6 +230,20 @@ public class ManagementHttpServer {
         return managementHttpServer;
     }
 
+    private static long getSystemProperty(final String name, final long defaultValue) {
+        final SecurityManager sm = System.getSecurityManager();
+        if (sm == null) {
+            return Long.getLong(name, defaultValue);
+        } else {
+            return AccessController.doPrivileged(new PrivilegedAction<Long>() {
+                @Override
+                public Long run() {
+                    return Long.getLong(name, defaultValue);
+                }
+            });
+        }
+    }
+
     private enum CertAuth {
         NONE, WANT, NEED
     }
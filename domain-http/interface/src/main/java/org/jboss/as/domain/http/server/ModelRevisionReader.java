@@ -0,0 +1,127 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.domain.http.server;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.HOST;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.INCLUDE_RUNTIME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OUTCOME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.PROXIES;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_ATTRIBUTE_OPERATION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_OPERATION_DESCRIPTION_OPERATION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_OPERATION_NAMES_OPERATION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_RESOURCE_DESCRIPTION_OPERATION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_RESOURCE_OPERATION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESULT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RUNNING_SERVER;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUCCESS;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.jboss.as.controller.client.ModelControllerClient;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.Property;
+
+/**
+ * Reads the revision of the published management model, exposed by the {@code model-revision} metric of the
+ * management resource of the process. The revision changes each time a change of the model takes effect, so it tells
+ * whether the result of a read of the configuration may have changed without executing the read.
+ * <p>
+ * The revision is read before the operation it stands for gets executed. If the model changes in between, the result
+ * is newer than the revision, which only causes the next conditional request to be executed again. A result is never
+ * older than its revision.
+ * </p>
+ */
+class ModelRevisionReader {
+
+    private static final String MODEL_REVISION = "model-revision";
+
+    private final ModelControllerClient client;
+    private final ModelNode operation;
+    /** The name of the local host if the process is a host controller, {@code null} for a standalone server */
+    private final String localHost;
+    /** Distinguishes the revisions of this process from the ones of an earlier start or reload, which start over */
+    private final String epoch = Long.toHexString(System.currentTimeMillis());
+
+    /**
+     * @param client the client of the local controller
+     * @param managementAddress the address of the management resource of the process, exposing the revision
+     */
+    ModelRevisionReader(final ModelControllerClient client, final ModelNode managementAddress) {
+        this.client = client;
+        this.operation = new ModelNode();
+        operation.get(OP).set(READ_ATTRIBUTE_OPERATION);
+        operation.get(OP_ADDR).set(managementAddress);
+        operation.get(NAME).set(MODEL_REVISION);
+        final List<Property> address = managementAddress.asPropertyList();
+        this.localHost = !address.isEmpty() && HOST.equals(address.get(0).getName()) ? address.get(0).getValue().asString() : null;
+    }
+
+    /**
+     * Read the revision of the model.
+     *
+     * @return the revision, which is distinct from the ones of other starts of the process, or {@code null} if it
+     *         could not be read
+     */
+    String readRevision() {
+        final ModelNode response;
+        try {
+            response = client.execute(operation);
+        } catch (IOException e) {
+            return null;
+        }
+        if (!SUCCESS.equals(response.get(OUTCOME).asString()) || !response.hasDefined(RESULT)) {
+            return null;
+        }
+        return "r" + epoch + "." + response.get(RESULT).asLong();
+    }
+
+    /**
+     * Whether the result of an operation only depends on the model of the local controller, so that it does not change
+     * as long as the revision does not. Runtime values and resources proxied to other processes are not covered.
+     *
+     * @param operation the operation of a GET request
+     * @return {@code true} if the operation reads the configuration of the local controller
+     */
+    boolean isConfigurationRead(final ModelNode operation) {
+        final String name = operation.get(OP).asString();
+        if (READ_RESOURCE_OPERATION.equals(name)) {
+            if (operation.get(INCLUDE_RUNTIME).asBoolean(false) || operation.get(PROXIES).asBoolean(false)) {
+                return false;
+            }
+        } else if (!READ_RESOURCE_DESCRIPTION_OPERATION.equals(name) && !READ_OPERATION_NAMES_OPERATION.equals(name)
+                && !READ_OPERATION_DESCRIPTION_OPERATION.equals(name)) {
+            return false;
+        }
+        final List<Property> address = operation.get(OP_ADDR).asPropertyList();
+        if (address.isEmpty() || !HOST.equals(address.get(0).getName())) {
+            return true;
+        }
+        // Other hosts and the servers of the local host are proxies
+        return address.get(0).getValue().asString().equals(localHost)
+                && (address.size() == 1 || !RUNNING_SERVER.equals(address.get(1).getName()));
+    }
+}
@@ -0,0 +1,212 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.domain.http.server;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILED;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OUTCOME;
+
+import java.util.Iterator;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.dmr.ModelNode;
+
+/**
+ * A short lived cache of the results of the read operations of the HTTP API. Identical requests of the same user
+ * received within the time to live of a result share that result, including the requests received while the
+ * operation is executing, so a number of clients polling the same resource cause a single execution of the operation.
+ * The digest of a result is computed at most once, too. Failed results are not cached.
+ */
+class ReadResultCache {
+
+    private static final int PRUNE_THRESHOLD = 256;
+
+    private final long ttl;
+    private final ConcurrentMap<Key, Entry> entries = new ConcurrentHashMap<Key, Entry>();
+
+    /**
+     * @param ttl the time to live of a result in ms
+     */
+    ReadResultCache(final long ttl) {
+        this.ttl = TimeUnit.MILLISECONDS.toNanos(ttl);
+    }
+
+    /**
+     * Get the cached result of a request, or execute the operation in the calling thread.
+     *
+     * @param user the name of the authenticated user, or {@code null}
+     * @param request the request, identifying the operation
+     * @param operation the operation to execute if there is no cached result
+     * @return the result
+     * @throws Exception if the execution of the operation failed
+     */
+    Result get(final String user, final String request, final Callable<ModelNode> operation) throws Exception {
+        final Key key = new Key(user, request);
+        for (;;) {
+            final long now = System.nanoTime();
+            Entry entry = entries.get(key);
+            if (entry != null && entry.isExpired(now)) {
+                entries.remove(key, entry);
+                entry = null;
+            }
+            if (entry == null) {
+                final Entry created = new Entry(new FutureTask<ModelNode>(operation));
+                entry = entries.putIfAbsent(key, created);
+                if (entry == null) {
+                    entry = created;
+                    execute(key, created);
+                }
+            }
+            try {
+                // A copy, as the requesters may modify the result while writing it
+                return new Result(entry, entry.task.get().clone());
+            } catch (ExecutionException e) {
+                if (entry.task.isCancelled()) {
+                    continue;
+                }
+                final Throwable cause = e.getCause();
+                if (cause instanceof Exception) {
+                    throw (Exception) cause;
+                }
+                throw (Error) cause;
+            }
+        }
+    }
+
+    private void execute(final Key key, final Entry entry) {
+        // The operation is executed by the first requester, with its security context
+        entry.task.run();
+        boolean failed;
+        try {
+            final ModelNode result = entry.task.get();
+            failed = result.hasDefined(OUTCOME) && FAILED.equals(result.get(OUTCOME).asString());
+        } catch (Exception e) {
+            failed = true;
+        }
+        if (failed) {
+            entries.remove(key, entry);
+        } else {
+            entry.expires = System.nanoTime() + ttl;
+        }
+        if (entries.size() > PRUNE_THRESHOLD) {
+            prune();
+        }
+    }
+
+    private void prune() {
+        final long now = System.nanoTime();
+        final Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().isExpired(now)) {
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * A result shared with other requests.
+     */
+    static final class Result {
+
+        private final Entry entry;
+        private final ModelNode response;
+
+        private Result(final Entry entry, final ModelNode response) {
+            this.entry = entry;
+            this.response = response;
+        }
+
+        /**
+         * Get the response of the operation.
+         *
+         * @return a copy of the response, private to the caller
+         */
+        ModelNode getResponse() {
+            return response;
+        }
+
+        /**
+         * Get the digest of the response, computed by the first caller only.
+         *
+         * @return the digest
+         * @see DomainUtil#getDigest(ModelNode)
+         */
+        String getDigest() {
+            String digest = entry.digest;
+            if (digest == null) {
+                // Requesters racing here compute the same value
+                digest = DomainUtil.getDigest(response);
+                entry.digest = digest;
+            }
+            return digest;
+        }
+    }
+
+    private static final class Entry {
+
+        private final FutureTask<ModelNode> task;
+        /** Set once the result is available */
+        private volatile long expires;
+        private volatile String digest;
+
+        private Entry(final FutureTask<ModelNode> task) {
+            this.task = task;
+        }
+
+        private boolean isExpired(final long now) {
+            return task.isDone() && expires != 0 && now - expires >= 0;
+        }
+    }
+
+    private static final class Key {
+
+        private final String user;
+        private final String request;
+
+        private Key(final String user, final String request) {
+            this.user = user;
+            this.request = request;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            final Key other = (Key) o;
+            return request.equals(other.request) && (user == null ? other.user == null : user.equals(other.user));
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * request.hashCode() + (user == null ? 0 : user.hashCode());
+        }
+    }
+}
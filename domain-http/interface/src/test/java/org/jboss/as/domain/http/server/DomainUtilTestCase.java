@@ -0,0 +1,83 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.domain.http.server;
+
+import static org.jboss.as.domain.http.server.Constants.ACCEPT_ENCODING;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.jboss.com.sun.net.httpserver.Headers;
+import org.junit.Test;
+
+/**
+ * Tests of the parsing of the Accept-Encoding header by {@link DomainUtil}.
+ */
+public class DomainUtilTestCase {
+
+    @Test
+    public void testNoHeader() {
+        assertFalse(DomainUtil.isGzipAccepted(new Headers()));
+    }
+
+    @Test
+    public void testCodings() {
+        assertTrue(isGzipAccepted("gzip"));
+        assertTrue(isGzipAccepted("deflate, GZIP"));
+        assertTrue(isGzipAccepted("x-gzip"));
+        assertTrue(isGzipAccepted("*"));
+        assertFalse(isGzipAccepted("deflate"));
+        assertFalse(isGzipAccepted("identity, deflate;q=0.5"));
+    }
+
+    @Test
+    public void testQualityValues() {
+        assertTrue(isGzipAccepted("gzip;q=0.5"));
+        assertTrue(isGzipAccepted("gzip ; q=1.0"));
+        assertFalse(isGzipAccepted("gzip;q=0"));
+        assertFalse(isGzipAccepted("gzip;q=0.000"));
+        assertFalse(isGzipAccepted("gzip;q=invalid"));
+        assertFalse(isGzipAccepted("*;q=0"));
+    }
+
+    @Test
+    public void testExplicitGzipTakesPrecedence() {
+        assertFalse(isGzipAccepted("*, gzip;q=0"));
+        assertFalse(isGzipAccepted("gzip;q=0, *"));
+        assertTrue(isGzipAccepted("*;q=0, gzip"));
+        assertTrue(isGzipAccepted("gzip, *;q=0"));
+    }
+
+    @Test
+    public void testMultipleHeaders() {
+        final Headers headers = new Headers();
+        headers.add(ACCEPT_ENCODING, "deflate");
+        headers.add(ACCEPT_ENCODING, "gzip");
+        assertTrue(DomainUtil.isGzipAccepted(headers));
+    }
+
+    private static boolean isGzipAccepted(final String value) {
+        final Headers headers = new Headers();
+        headers.add(ACCEPT_ENCODING, value);
+        return DomainUtil.isGzipAccepted(headers);
+    }
+}
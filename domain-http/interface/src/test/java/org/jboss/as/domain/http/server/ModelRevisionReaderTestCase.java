@@ -0,0 +1,165 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.domain.http.server;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILED;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OUTCOME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESULT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUCCESS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+
+import org.jboss.as.controller.client.ModelControllerClient;
+import org.jboss.as.controller.client.Operation;
+import org.jboss.as.controller.client.OperationMessageHandler;
+import org.jboss.dmr.ModelNode;
+import org.jboss.threads.AsyncFuture;
+import org.junit.Test;
+
+/**
+ * Tests of {@link ModelRevisionReader}.
+ */
+public class ModelRevisionReaderTestCase {
+
+    @Test
+    public void testReadRevision() {
+        final RevisionClient client = new RevisionClient();
+        final ModelRevisionReader reader = new ModelRevisionReader(client, address("core-service", "management"));
+        final String revision = reader.readRevision();
+        assertNotNull(revision);
+        assertEquals("read-attribute", client.operation.get(OP).asString());
+        assertEquals("model-revision", client.operation.get(NAME).asString());
+        assertEquals(address("core-service", "management"), client.operation.get(OP_ADDR));
+        assertEquals(revision, reader.readRevision());
+
+        client.revision++;
+        assertFalse(revision.equals(reader.readRevision()));
+
+        client.revision = -1;
+        assertNull(reader.readRevision());
+    }
+
+    @Test
+    public void testStandaloneConfigurationRead() {
+        final ModelRevisionReader reader = new ModelRevisionReader(new RevisionClient(), address("core-service", "management"));
+        assertTrue(reader.isConfigurationRead(get("read-resource", "subsystem", "datasources")));
+        assertTrue(reader.isConfigurationRead(get("read-resource-description")));
+        assertTrue(reader.isConfigurationRead(get("read-operation-names", "subsystem", "datasources")));
+
+        final ModelNode runtime = get("read-resource", "subsystem", "datasources");
+        runtime.get("include-runtime").set("true");
+        assertFalse(reader.isConfigurationRead(runtime));
+        assertFalse(reader.isConfigurationRead(get("read-attribute", "subsystem", "datasources")));
+        assertFalse(reader.isConfigurationRead(get("list-snapshots")));
+    }
+
+    @Test
+    public void testDomainConfigurationRead() {
+        final ModelRevisionReader reader = new ModelRevisionReader(new RevisionClient(),
+                address("host", "master", "core-service", "management"));
+        assertTrue(reader.isConfigurationRead(get("read-resource", "profile", "default")));
+        assertTrue(reader.isConfigurationRead(get("read-resource", "host", "master")));
+        assertTrue(reader.isConfigurationRead(get("read-resource", "host", "master", "server-config", "server-one")));
+
+        // Proxies to the servers of the host and to the other hosts
+        assertFalse(reader.isConfigurationRead(get("read-resource", "host", "master", "server", "server-one")));
+        assertFalse(reader.isConfigurationRead(get("read-resource", "host", "slave")));
+        final ModelNode proxies = get("read-resource");
+        proxies.get("proxies").set("true");
+        assertFalse(reader.isConfigurationRead(proxies));
+    }
+
+    private static ModelNode address(final String... elements) {
+        final ModelNode address = new ModelNode().setEmptyList();
+        for (int i = 0; i < elements.length; i += 2) {
+            address.add(elements[i], elements[i + 1]);
+        }
+        return address;
+    }
+
+    /**
+     * Create the operation of a GET request, like {@link DomainApiHandler} does.
+     */
+    private static ModelNode get(final String operation, final String... address) {
+        final ModelNode dmr = new ModelNode();
+        dmr.get(OP).set(operation);
+        dmr.get(OP_ADDR).set(address(address));
+        return dmr;
+    }
+
+    private static class RevisionClient implements ModelControllerClient {
+
+        private long revision = 1;
+        private ModelNode operation;
+
+        @Override
+        public ModelNode execute(final ModelNode operation) throws IOException {
+            this.operation = operation;
+            final ModelNode response = new ModelNode();
+            if (revision < 0) {
+                response.get(OUTCOME).set(FAILED);
+            } else {
+                response.get(OUTCOME).set(SUCCESS);
+                response.get(RESULT).set(revision);
+            }
+            return response;
+        }
+
+        @Override
+        public ModelNode execute(final Operation operation) throws IOException {
+            return execute(operation.getOperation());
+        }
+
+        @Override
+        public ModelNode execute(final ModelNode operation, final OperationMessageHandler messageHandler) throws IOException {
+            return execute(operation);
+        }
+
+        @Override
+        public ModelNode execute(final Operation operation, final OperationMessageHandler messageHandler) throws IOException {
+            return execute(operation.getOperation());
+        }
+
+        @Override
+        public AsyncFuture<ModelNode> executeAsync(final ModelNode operation, final OperationMessageHandler messageHandler) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public AsyncFuture<ModelNode> executeAsync(final Operation operation, final OperationMessageHandler messageHandler) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
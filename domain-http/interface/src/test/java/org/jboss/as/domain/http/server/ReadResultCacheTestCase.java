@@ -0,0 +1,180 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.domain.http.server;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILED;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OUTCOME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESULT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUCCESS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.dmr.ModelNode;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests of {@link ReadResultCache}.
+ */
+public class ReadResultCacheTestCase {
+
+    private static final String REQUEST = "/management/subsystem/datasources";
+
+    private ExecutorService executor;
+    private AtomicInteger executions;
+
+    @Before
+    public void setUp() {
+        executor = Executors.newCachedThreadPool();
+        executions = new AtomicInteger();
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testResultShared() throws Exception {
+        final ReadResultCache cache = new ReadResultCache(60000);
+        final ReadResultCache.Result first = cache.get("user", REQUEST, operation(success("a")));
+        final ReadResultCache.Result second = cache.get("user", REQUEST, operation(success("b")));
+        assertEquals(1, executions.get());
+        assertEquals("a", second.getResponse().get(RESULT).asString());
+        // Each requester gets its own copy
+        assertNotSame(first.getResponse(), second.getResponse());
+        // The digest is only computed once
+        assertSame(first.getDigest(), second.getDigest());
+        assertEquals(DomainUtil.getDigest(success("a")), first.getDigest());
+    }
+
+    @Test
+    public void testKeyedByUserAndRequest() throws Exception {
+        final ReadResultCache cache = new ReadResultCache(60000);
+        cache.get("user", REQUEST, operation(success("a")));
+        assertEquals("b", cache.get("other", REQUEST, operation(success("b"))).getResponse().get(RESULT).asString());
+        assertEquals("c", cache.get(null, REQUEST, operation(success("c"))).getResponse().get(RESULT).asString());
+        assertEquals("d", cache.get("user", REQUEST + "/data-source", operation(success("d"))).getResponse().get(RESULT).asString());
+        assertEquals(4, executions.get());
+    }
+
+    @Test
+    public void testExpiry() throws Exception {
+        final ReadResultCache cache = new ReadResultCache(50);
+        cache.get("user", REQUEST, operation(success("a")));
+        Thread.sleep(100);
+        assertEquals("b", cache.get("user", REQUEST, operation(success("b"))).getResponse().get(RESULT).asString());
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    public void testFailedResultNotCached() throws Exception {
+        final ReadResultCache cache = new ReadResultCache(60000);
+        final ModelNode failed = new ModelNode();
+        failed.get(OUTCOME).set(FAILED);
+        assertEquals(FAILED, cache.get("user", REQUEST, operation(failed)).getResponse().get(OUTCOME).asString());
+        assertEquals("a", cache.get("user", REQUEST, operation(success("a"))).getResponse().get(RESULT).asString());
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    public void testExceptionNotCached() throws Exception {
+        final ReadResultCache cache = new ReadResultCache(60000);
+        try {
+            cache.get("user", REQUEST, new Callable<ModelNode>() {
+                @Override
+                public ModelNode call() throws Exception {
+                    throw new IllegalStateException("expected");
+                }
+            });
+            fail("Exception not thrown");
+        } catch (IllegalStateException expected) {
+            // expected
+        }
+        assertEquals("a", cache.get("user", REQUEST, operation(success("a"))).getResponse().get(RESULT).asString());
+    }
+
+    @Test
+    public void testConcurrentRequestsShareExecution() throws Exception {
+        final ReadResultCache cache = new ReadResultCache(60000);
+        final CountDownLatch executing = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final Future<ReadResultCache.Result> first = executor.submit(new Callable<ReadResultCache.Result>() {
+            @Override
+            public ReadResultCache.Result call() throws Exception {
+                return cache.get("user", REQUEST, new Callable<ModelNode>() {
+                    @Override
+                    public ModelNode call() throws Exception {
+                        executions.incrementAndGet();
+                        executing.countDown();
+                        release.await();
+                        return success("a");
+                    }
+                });
+            }
+        });
+        executing.await(10, TimeUnit.SECONDS);
+        final Future<ReadResultCache.Result> second = executor.submit(new Callable<ReadResultCache.Result>() {
+            @Override
+            public ReadResultCache.Result call() throws Exception {
+                return cache.get("user", REQUEST, operation(success("b")));
+            }
+        });
+        // The second request waits for the execution of the first one
+        Thread.sleep(100);
+        assertFalse(second.isDone());
+        release.countDown();
+        assertEquals("a", first.get(10, TimeUnit.SECONDS).getResponse().get(RESULT).asString());
+        assertEquals("a", second.get(10, TimeUnit.SECONDS).getResponse().get(RESULT).asString());
+        assertEquals(1, executions.get());
+    }
+
+    private Callable<ModelNode> operation(final ModelNode response) {
+        return new Callable<ModelNode>() {
+            @Override
+            public ModelNode call() throws Exception {
+                executions.incrementAndGet();
+                return response;
+            }
+        };
+    }
+
+    private static ModelNode success(final String result) {
+        final ModelNode response = new ModelNode();
+        response.get(OUTCOME).set(SUCCESS);
+        response.get(RESULT).set(result);
+        return response;
+    }
+}
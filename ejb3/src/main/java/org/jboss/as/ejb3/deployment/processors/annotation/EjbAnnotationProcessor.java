@@ -25,6 +25,7 @@ package org.jboss.as.ejb3.deployment.processors.annotation;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 
 import javax.annotation.security.DenyAll;
 import javax.annotation.security.PermitAll;
@@ -34,16 +35,22 @@ import javax.ejb.Asynchronous;
 import javax.ejb.BeforeCompletion;
 import javax.ejb.Startup;
 
+import org.jboss.as.ee.component.Attachments;
 import org.jboss.as.ee.component.deployers.BooleanAnnotationInformationFactory;
 import org.jboss.as.ee.metadata.AbstractEEAnnotationProcessor;
 import org.jboss.as.ee.metadata.ClassAnnotationInformationFactory;
+import org.jboss.as.server.deployment.AttachmentKey;
+import org.jboss.as.server.deployment.ConcurrentDeploymentUnitProcessor;
 
 /**
  * Processes EJB annotations and attaches them to the {@link org.jboss.as.ee.component.EEModuleClassDescription}
  *
  * @author Stuart Douglas
  */
-public class EjbAnnotationProcessor extends AbstractEEAnnotationProcessor {
+public class EjbAnnotationProcessor extends AbstractEEAnnotationProcessor implements ConcurrentDeploymentUnitProcessor {
+
+    private static final Set<AttachmentKey<?>> READ_ATTACHMENTS = Collections.<AttachmentKey<?>>singleton(org.jboss.as.server.deployment.Attachments.COMPOSITE_ANNOTATION_INDEX);
+    private static final Set<AttachmentKey<?>> WRITTEN_ATTACHMENTS = Collections.<AttachmentKey<?>>singleton(Attachments.EE_MODULE_DESCRIPTION);
 
     final List<ClassAnnotationInformationFactory> factories;
 
@@ -97,4 +104,14 @@ public class EjbAnnotationProcessor extends AbstractEEAnnotationProcessor {
     protected List<ClassAnnotationInformationFactory> annotationInformationFactories() {
         return factories;
     }
+
+    @Override
+    public Set<AttachmentKey<?>> getReadAttachments() {
+        return READ_ATTACHMENTS;
+    }
+
+    @Override
+    public Set<AttachmentKey<?>> getWrittenAttachments() {
+        return WRITTEN_ATTACHMENTS;
+    }
 }
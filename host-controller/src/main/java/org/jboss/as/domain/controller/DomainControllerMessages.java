@@ -552,4 +552,29 @@ public interface DomainControllerMessages {
     @Message(id = 10877, value = "Failed to load module '%s'.")
     OperationFailedException failedToLoadModule(@Cause ModuleLoadException e,String module);
 
+    /**
+     * A message indicating the progress of a rollout.
+     *
+     * @param completed the number of servers which completed
+     * @param total     the number of servers of the rollout
+     * @param failed    the number of servers which failed
+     * @param cancelled the number of servers which were cancelled
+     *
+     * @return the message.
+     */
+    @Message(id = 10878, value = "%d of %d servers completed the rollout (%d failed, %d cancelled)")
+    String rolloutProgress(int completed, int total, int failed, int cancelled);
+
+    /**
+     * A message indicating that the value of a rollout plan property must be positive.
+     *
+     * @param name         the server group name.
+     * @param propertyName the property name.
+     * @param value        the value.
+     *
+     * @return the message.
+     */
+    @Message(id = 10879, value = "Invalid rollout plan. Server group %s has a %s value of %s; must be greater than 0.")
+    String invalidRolloutPlanNotPositive(String name, String propertyName, int value);
+
 }
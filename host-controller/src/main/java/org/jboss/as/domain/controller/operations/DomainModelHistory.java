@@ -0,0 +1,205 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.domain.controller.operations;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.DOMAIN_MODEL;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.jboss.as.controller.HashUtil;
+import org.jboss.dmr.ModelNode;
+
+/**
+ * The recent revisions of the domain model descriptions sent to the slave host controllers, so that a reconnecting
+ * slave only needs to receive the resources which changed since the revision it applied last.
+ * <p>
+ * A revision is the digest of a description, as created by {@link ReadMasterDomainModelHandler}. Being derived from
+ * the content only, revisions stay comparable across restarts of the master. The history is bounded, if the revision
+ * of a slave is not known anymore the complete description is sent.
+ * </p>
+ */
+public final class DomainModelHistory {
+
+    /** The key of the revision of the domain model, in the host info and in the read-master-domain-model result */
+    public static final String DOMAIN_MODEL_REVISION = "domain-model-revision";
+    /** The key of the revision a delta applies to */
+    public static final String BASE_REVISION = "base-revision";
+    /** The key of the changed and added resources of a delta */
+    public static final String CHANGED = "changed";
+    /** The key of the addresses of the removed resources of a delta */
+    public static final String REMOVED = "removed";
+
+    private static final String DOMAIN_RESOURCE_ADDRESS = "domain-resource-address";
+    private static final String DOMAIN_RESOURCE_MODEL = "domain-resource-model";
+
+    private static final int MAX_REVISIONS = 16;
+
+    /** Guarded by {@code this} */
+    private final Map<String, List<ModelNode>> revisions = new LinkedHashMap<String, List<ModelNode>>(MAX_REVISIONS, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<String, List<ModelNode>> eldest) {
+            return size() > MAX_REVISIONS;
+        }
+    };
+
+    /**
+     * Record a description of the domain model.
+     *
+     * @param description the description, which must not be modified afterwards
+     * @return the revision of the description
+     */
+    String record(final List<ModelNode> description) {
+        final String revision = getRevision(description);
+        synchronized (this) {
+            if (!revisions.containsKey(revision)) {
+                revisions.put(revision, description);
+            }
+        }
+        return revision;
+    }
+
+    /**
+     * Get a recorded description.
+     *
+     * @param revision the revision
+     * @return the description, or {@code null} if the revision is not known
+     */
+    synchronized List<ModelNode> getDescription(final String revision) {
+        return revisions.get(revision);
+    }
+
+    /**
+     * Create the result of the read-master-domain-model operation for a slave, which is either the complete
+     * description or the delta to the revision of the slave.
+     *
+     * @param description the current description
+     * @param slaveRevision the revision last applied by the slave, {@code null} if the slave did not apply any
+     * @return the result
+     */
+    ModelNode createResult(final List<ModelNode> description, final String slaveRevision) {
+        final String revision = record(description);
+        final ModelNode result = new ModelNode();
+        result.get(DOMAIN_MODEL_REVISION).set(revision);
+        final List<ModelNode> base = slaveRevision == null ? null : getDescription(slaveRevision);
+        if (base == null) {
+            result.get(DOMAIN_MODEL).set(description);
+        } else {
+            result.get(BASE_REVISION).set(slaveRevision);
+            createDelta(base, description, result);
+        }
+        return result;
+    }
+
+    /**
+     * Compute the revision of a description.
+     *
+     * @param description the description
+     * @return the revision
+     */
+    static String getRevision(final List<ModelNode> description) {
+        try {
+            final MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            final DataOutputStream out = new DataOutputStream(bytes);
+            for (final ModelNode node : description) {
+                node.writeExternal(out);
+                out.flush();
+                digest.update(bytes.toByteArray());
+                bytes.reset();
+            }
+            return HashUtil.bytesToHexString(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Compute the resources which changed between two descriptions.
+     *
+     * @param base the description applied by the slave
+     * @param current the current description
+     * @param delta the node to add the {@link #CHANGED} and {@link #REMOVED} resources to
+     */
+    static void createDelta(final List<ModelNode> base, final List<ModelNode> current, final ModelNode delta) {
+        final Map<String, ModelNode> remaining = index(base);
+        final ModelNode changed = delta.get(CHANGED).setEmptyList();
+        for (final ModelNode node : current) {
+            final ModelNode previous = remaining.remove(getKey(node));
+            if (previous == null || !previous.get(DOMAIN_RESOURCE_MODEL).equals(node.get(DOMAIN_RESOURCE_MODEL))) {
+                changed.add(node);
+            }
+        }
+        final ModelNode removed = delta.get(REMOVED).setEmptyList();
+        for (final ModelNode node : remaining.values()) {
+            removed.add(node.get(DOMAIN_RESOURCE_ADDRESS));
+        }
+    }
+
+    /**
+     * Reconstruct the complete description from the description applied last and a delta. Changed resources keep
+     * their position, added resources are appended, which keeps parents ahead of their children.
+     *
+     * @param base the description applied last
+     * @param delta the delta, as created by {@link #createDelta(List, List, ModelNode)}
+     * @return the complete description
+     */
+    public static List<ModelNode> applyDelta(final List<ModelNode> base, final ModelNode delta) {
+        final Map<String, ModelNode> resources = index(base);
+        if (delta.hasDefined(REMOVED)) {
+            for (final ModelNode address : delta.get(REMOVED).asList()) {
+                resources.remove(address.toString());
+            }
+        }
+        if (delta.hasDefined(CHANGED)) {
+            for (final ModelNode node : delta.get(CHANGED).asList()) {
+                resources.put(getKey(node), node);
+            }
+        }
+        return new ArrayList<ModelNode>(resources.values());
+    }
+
+    private static Map<String, ModelNode> index(final Collection<ModelNode> description) {
+        final Map<String, ModelNode> index = new LinkedHashMap<String, ModelNode>();
+        for (final ModelNode node : description) {
+            index.put(getKey(node), node);
+        }
+        return index;
+    }
+
+    private static String getKey(final ModelNode node) {
+        return node.get(DOMAIN_RESOURCE_ADDRESS).toString();
+    }
+}
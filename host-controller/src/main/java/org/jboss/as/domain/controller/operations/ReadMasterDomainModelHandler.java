@@ -45,8 +45,25 @@ public class ReadMasterDomainModelHandler implements OperationStepHandler {
     public static final String OPERATION_NAME = "read-master-domain-model";
 
     private final Transformers transformers;
+    private final DomainModelHistory history;
+    private final String slaveRevision;
+
     public ReadMasterDomainModelHandler(final Transformers transformers) {
+        this(transformers, null, null);
+    }
+
+    /**
+     * Create a handler which only returns the resources changed since the revision last applied by the slave, if
+     * that revision is still known.
+     *
+     * @param transformers the transformers for the slave
+     * @param history the history of the domain model revisions, {@code null} to always return the complete model
+     * @param slaveRevision the revision last applied by the slave, {@code null} if it did not apply any
+     */
+    public ReadMasterDomainModelHandler(final Transformers transformers, final DomainModelHistory history, final String slaveRevision) {
         this.transformers = transformers;
+        this.history = history;
+        this.slaveRevision = slaveRevision;
     }
 
     private Resource transformResource(final OperationContext context, Resource root) throws OperationFailedException {
@@ -60,7 +77,13 @@ public class ReadMasterDomainModelHandler implements OperationStepHandler {
         final Resource untransformedRoot = context.readResource(PathAddress.EMPTY_ADDRESS,true);
         final Resource root = transformResource(context, untransformedRoot);
         // Get the list of all resources registered in this model
-        context.getResult().set(describeAsNodeList(root));
+        final List<ModelNode> description = describeAsNodeList(root);
+        if (history == null) {
+            context.getResult().set(description);
+        } else {
+            // The slave understands revisions, only send what it does not have yet
+            context.getResult().set(history.createResult(description, slaveRevision));
+        }
         // The HC registration process will hijack the operationPrepared call and push
         // the model to a registering host-controller
         context.stepCompleted();
@@ -33,6 +33,8 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.HOS
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.IN_SERIES;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.MAX_FAILED_SERVERS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.MAX_FAILURE_PERCENTAGE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.MAX_IN_FLIGHT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.MAX_IN_FLIGHT_PER_HOST;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OUTCOME;
@@ -387,6 +389,14 @@ public class DomainRolloutStepHandler implements OperationStepHandler {
                 throw new OperationFailedException(new ModelNode().set(MESSAGES.invalidRolloutPlanLess(prop.getName(), MAX_FAILED_SERVERS, max)));
             }
         }
+        for (final String window : new String[] {MAX_IN_FLIGHT, MAX_IN_FLIGHT_PER_HOST}) {
+            if (plan.hasDefined(window)) {
+                int max = plan.get(window).asInt();
+                if (max < 1) {
+                    throw new OperationFailedException(new ModelNode().set(MESSAGES.invalidRolloutPlanNotPositive(prop.getName(), window, max)));
+                }
+            }
+        }
     }
 
     private ModelNode getDefaultRolloutPlan(Map<String, Map<ServerIdentity, ModelNode>> opsByGroup) {
@@ -8,6 +8,8 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.GRA
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.IN_SERIES;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.MAX_FAILED_SERVERS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.MAX_FAILURE_PERCENTAGE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.MAX_IN_FLIGHT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.MAX_IN_FLIGHT_PER_HOST;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ROLLBACK_ACROSS_GROUPS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ROLLING_TO_SERVERS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SERVER_GROUP;
@@ -51,6 +53,8 @@ public class RolloutPlanController implements ServerUpdateResultHandler {
     private final ServerTaskExecutor taskExecutor;
     private final DomainOperationContext domainOperationContext;
     private final ConcurrentMap<String, Map<ServerIdentity, ModelNode>> serverResults = new ConcurrentHashMap<String, Map<ServerIdentity, ModelNode>>();
+    /** The progress reported to the client, {@code null} unless a server group uses a window */
+    private final RolloutProgress progress;
 
     public RolloutPlanController(final Map<String, Map<ServerIdentity, ModelNode>> opsByGroup,
                                  final ModelNode rolloutPlan,
@@ -66,6 +70,11 @@ public class RolloutPlanController implements ServerUpdateResultHandler {
 
         final List<Runnable> rollingTasks = new ArrayList<Runnable>();
         this.rootTask = new RollingUpdateTask(rollingTasks);
+        int serverCount = 0;
+        for (final Map<ServerIdentity, ModelNode> groupEntry : opsByGroup.values()) {
+            serverCount += groupEntry.size();
+        }
+        boolean windowed = false;
 
         if (rolloutPlan.hasDefined(IN_SERIES)) {
             ConcurrentGroupServerUpdatePolicy predecessor = null;
@@ -112,8 +121,18 @@ public class RolloutPlanController implements ServerUpdateResultHandler {
                     }
                     ServerUpdatePolicy policy = new ServerUpdatePolicy(parent, serverGroupName, servers, maxFailures);
 
-                    seriesTasks.add(rollingGroup ? new RollingServerGroupUpdateTask(groupTasks, policy, taskExecutor, this)
-                        : new ConcurrentServerGroupUpdateTask(groupTasks, policy, taskExecutor, this));
+                    if (policyNode.hasDefined(MAX_IN_FLIGHT) || policyNode.hasDefined(MAX_IN_FLIGHT_PER_HOST)) {
+                        // An explicit window takes precedence over rolling-to-servers
+                        final int maxInFlight = policyNode.hasDefined(MAX_IN_FLIGHT) ? policyNode.get(MAX_IN_FLIGHT).asInt()
+                                : (rollingGroup ? 1 : Integer.MAX_VALUE);
+                        final int maxInFlightPerHost = policyNode.hasDefined(MAX_IN_FLIGHT_PER_HOST)
+                                ? policyNode.get(MAX_IN_FLIGHT_PER_HOST).asInt() : Integer.MAX_VALUE;
+                        seriesTasks.add(new WindowedServerGroupUpdateTask(groupTasks, policy, taskExecutor, this, maxInFlight, maxInFlightPerHost));
+                        windowed = true;
+                    } else {
+                        seriesTasks.add(rollingGroup ? new RollingServerGroupUpdateTask(groupTasks, policy, taskExecutor, this)
+                            : new ConcurrentServerGroupUpdateTask(groupTasks, policy, taskExecutor, this));
+                    }
 
                     updatePolicies.put(serverGroupName, policy);
 
@@ -123,6 +142,8 @@ public class RolloutPlanController implements ServerUpdateResultHandler {
                 }
             }
         }
+        // Only windowed rollouts may take long enough for progress reports to be of use
+        this.progress = windowed ? new RolloutProgress(serverCount, taskExecutor) : null;
     }
 
     public Result execute() {
@@ -160,6 +181,9 @@ public class RolloutPlanController implements ServerUpdateResultHandler {
             groupResults = existing;
         }
         groupResults.put(serverId, response);
+        if (progress != null) {
+            progress.serverCompleted(response);
+        }
     }
 
     private ServerUpdateTask createServerTask(final ServerIdentity serverIdentity, final ModelNode serverOp, final ServerUpdatePolicy policy) {
@@ -0,0 +1,82 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.domain.controller.plan;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.CANCELLED;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILURE_DESCRIPTION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OUTCOME;
+import static org.jboss.as.domain.controller.DomainControllerLogger.HOST_CONTROLLER_LOGGER;
+import static org.jboss.as.domain.controller.DomainControllerMessages.MESSAGES;
+
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.dmr.ModelNode;
+
+/**
+ * The progress of a windowed rollout, reported to the client of the operation while the servers return their
+ * prepared results. Reports are sent at most once per second, and once all servers completed.
+ */
+class RolloutProgress {
+
+    private static final long REPORT_INTERVAL = TimeUnit.SECONDS.toNanos(1);
+
+    private final int total;
+    private final ServerTaskExecutor executor;
+    /** Guarded by {@code this} */
+    private int prepared;
+    private int failed;
+    private int cancelled;
+    private long lastReport = System.nanoTime();
+
+    RolloutProgress(final int total, final ServerTaskExecutor executor) {
+        this.total = total;
+        this.executor = executor;
+    }
+
+    /**
+     * Record the prepared result of a server, or its cancellation.
+     *
+     * @param response the response of the server
+     */
+    void serverCompleted(final ModelNode response) {
+        final String message;
+        synchronized (this) {
+            if (response.hasDefined(OUTCOME) && CANCELLED.equals(response.get(OUTCOME).asString())) {
+                cancelled++;
+            } else if (response.has(FAILURE_DESCRIPTION)) {
+                failed++;
+            } else {
+                prepared++;
+            }
+            final int completed = prepared + failed + cancelled;
+            final long now = System.nanoTime();
+            if (completed < total && now - lastReport < REPORT_INTERVAL) {
+                return;
+            }
+            lastReport = now;
+            message = MESSAGES.rolloutProgress(completed, total, failed, cancelled);
+        }
+        HOST_CONTROLLER_LOGGER.debug(message);
+        executor.reportProgress(message);
+    }
+}
@@ -129,6 +129,15 @@ public abstract class ServerTaskExecutor {
         }
     }
 
+    /**
+     * Report the progress of the rollout to the client of the operation.
+     *
+     * @param message the progress message
+     */
+    void reportProgress(final String message) {
+        context.report(MessageSeverity.INFO, message);
+    }
+
     /**
      * Record a prepare operation.
      *
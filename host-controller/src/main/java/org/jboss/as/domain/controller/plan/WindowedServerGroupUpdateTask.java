@@ -0,0 +1,106 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.domain.controller.plan;
+
+import org.jboss.as.controller.remote.TransactionalProtocolClient;
+import org.jboss.as.domain.controller.ServerIdentity;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Updates the servers of a group with a bounded number of servers in flight, overall and per host. The next server
+ * is sent the operation as soon as a server in flight returns its prepared result, rather than waiting for a whole
+ * batch to complete.
+ */
+class WindowedServerGroupUpdateTask extends AbstractServerGroupRolloutTask implements Runnable {
+
+    private final int maxInFlight;
+    private final int maxInFlightPerHost;
+
+    /**
+     * @param maxInFlight the maximum number of servers in flight, {@link Integer#MAX_VALUE} for no limit
+     * @param maxInFlightPerHost the maximum number of servers in flight per host, {@link Integer#MAX_VALUE} for no limit
+     */
+    WindowedServerGroupUpdateTask(List<ServerUpdateTask> tasks, ServerUpdatePolicy updatePolicy, ServerTaskExecutor executor,
+                                  ServerUpdateTask.ServerUpdateResultHandler resultHandler, int maxInFlight, int maxInFlightPerHost) {
+        super(tasks, updatePolicy, executor, resultHandler);
+        assert maxInFlight > 0 && maxInFlightPerHost > 0;
+        this.maxInFlight = maxInFlight;
+        this.maxInFlightPerHost = maxInFlightPerHost;
+    }
+
+    @Override
+    public void execute() {
+        final List<ServerUpdateTask> pending = new LinkedList<ServerUpdateTask>(tasks);
+        final Map<String, Integer> inFlightPerHost = new HashMap<String, Integer>();
+        final ServerTaskExecutor.ServerOperationListener listener = new ServerTaskExecutor.ServerOperationListener();
+        int inFlight = 0;
+        boolean interrupted = false;
+        for (;;) {
+            // Fill the window
+            final Iterator<ServerUpdateTask> i = pending.iterator();
+            while (i.hasNext() && inFlight < maxInFlight) {
+                final ServerUpdateTask task = i.next();
+                final ServerIdentity identity = task.getServerIdentity();
+                if (interrupted || !updatePolicy.canUpdateServer(identity)) {
+                    i.remove();
+                    sendCancelledResponse(identity);
+                    continue;
+                }
+                final String hostName = identity.getHostName();
+                final Integer hostInFlight = inFlightPerHost.get(hostName);
+                if (hostInFlight != null && hostInFlight >= maxInFlightPerHost) {
+                    // Leave it for when a server of the host completes
+                    continue;
+                }
+                i.remove();
+                if (executor.executeTask(listener, task)) {
+                    inFlight++;
+                    inFlightPerHost.put(hostName, hostInFlight == null ? 1 : hostInFlight + 1);
+                }
+            }
+            if (inFlight == 0) {
+                // Nothing outstanding, so the window could not have been blocked by any host limit
+                break;
+            }
+            try {
+                // Wait for the next prepared result, which frees a slot
+                final TransactionalProtocolClient.PreparedOperation<ServerTaskExecutor.ServerOperation> prepared = listener.retrievePreparedOperation();
+                final ServerIdentity identity = prepared.getOperation().getIdentity();
+                recordPreparedOperation(identity, prepared);
+                inFlight--;
+                inFlightPerHost.put(identity.getHostName(), inFlightPerHost.get(identity.getHostName()) - 1);
+            } catch (InterruptedException e) {
+                // Cancel the pending servers, but still wait for the ones in flight
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
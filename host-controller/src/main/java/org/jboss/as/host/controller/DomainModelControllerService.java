@@ -22,9 +22,11 @@
 
 package org.jboss.as.host.controller;
 
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.CORE_SERVICE;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.DESCRIBE;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILURE_DESCRIPTION;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.HOST;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.MANAGEMENT;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OUTCOME;
@@ -588,6 +590,7 @@ public class DomainModelControllerService extends AbstractControllerService impl
         HostModelUtil.createHostRegistry(hostName, root, hostControllerConfigurationPersister, environment, runningModeControl,
                 localFileRepository, hostControllerInfo, new DelegatingServerInventory(), remoteFileRepository, contentRepository,
                 this, extensionRegistry,vaultReader, ignoredRegistry, processState, pathManager);
+        registerControllerMetrics(root.getSubModel(PathAddress.pathAddress(PathElement.pathElement(HOST, hostName), PathElement.pathElement(CORE_SERVICE, MANAGEMENT))));
     }
 
 
@@ -695,6 +698,11 @@ public class DomainModelControllerService extends AbstractControllerService impl
             return serverInventory.determineServerStatus(serverName);
         }
 
+        @Override
+        public long getServerBootTime(String serverName) {
+            return serverInventory.getServerBootTime(serverName);
+        }
+
         public ServerStatus startServer(String serverName, ModelNode domainModel) {
             return serverInventory.startServer(serverName, domainModel);
         }
@@ -704,6 +712,11 @@ public class DomainModelControllerService extends AbstractControllerService impl
             return serverInventory.startServer(serverName, domainModel, blocking);
         }
 
+        @Override
+        public void startServers(List<String> serverNames, ModelNode domainModel) {
+            serverInventory.startServers(serverNames, domainModel);
+        }
+
         public void reconnectServer(String serverName, ModelNode domainModel, boolean running, boolean stopping) {
             serverInventory.reconnectServer(serverName, domainModel, running, stopping);
         }
@@ -396,4 +396,15 @@ public interface HostControllerLogger extends BasicLogger {
     @LogMessage(level = Level.WARN)
     @Message(id=10939, value="The slave host controller \"%s\"  could not be reached in the last [%d] milliseconds. Unregistering.")
     void slaveHostControllerUnreachable(String hostName, long timeout);
+
+    /**
+     * Logs a warning message indicating a server did not start within the timeout, so the next servers are started
+     * while it is still starting.
+     *
+     * @param serverName the name of the server.
+     * @param timeout the timeout, in ms.
+     */
+    @LogMessage(level = Level.WARN)
+    @Message(id = 16514, value = "Server (%s) did not start within [%d] ms. Starting the next servers.")
+    void serverStartTimedOut(String serverName, long timeout);
 }
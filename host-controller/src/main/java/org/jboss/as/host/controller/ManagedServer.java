@@ -119,6 +119,9 @@ class ManagedServer {
 
     private volatile InternalState requiredState = InternalState.STOPPED;
     private volatile InternalState internalState = InternalState.STOPPED;
+    /** The time the server was requested to start, {@code 0} once it reported it is started */
+    private volatile long startTime;
+    private volatile long bootTime = -1;
 
     ManagedServer(final String hostControllerName, final String serverName, final ProcessControllerClient processControllerClient,
             final InetSocketAddress managementSocket, final ManagedServer.ManagedServerBootConfiguration bootConfiguration,
@@ -181,6 +184,15 @@ class ManagedServer {
         }
     }
 
+    /**
+     * Get how long the last start of the server took.
+     *
+     * @return the boot time in ms, or {@code -1} if the server did not start yet
+     */
+    public long getBootTime() {
+        return bootTime;
+    }
+
     /**
      * Start a managed server.
      */
@@ -199,6 +211,8 @@ class ManagedServer {
             }
         }
         this.requiredState = InternalState.SERVER_STARTED;
+        this.startTime = System.currentTimeMillis();
+        this.bootTime = -1;
         ROOT_LOGGER.startingServer(serverName);
         transition();
     }
@@ -250,6 +264,18 @@ class ManagedServer {
      * @return {@code true} if the state was reached, {@code false} otherwise
      */
     protected boolean awaitState(final InternalState expected) {
+        return awaitState(expected, 0);
+    }
+
+    /**
+     * Await a state.
+     *
+     * @param expected the expected state
+     * @param timeout the maximum time to wait in ms, {@code 0} to wait until the state is reached or cannot be reached
+     * @return {@code true} if the state was reached, {@code false} otherwise
+     */
+    protected boolean awaitState(final InternalState expected, final long timeout) {
+        final long deadline = System.currentTimeMillis() + timeout;
         synchronized (this) {
             final InternalState initialRequired = this.requiredState;
             for(;;) {
@@ -266,7 +292,15 @@ class ManagedServer {
                     return true;
                 }
                 try {
-                    wait();
+                    if(timeout == 0) {
+                        wait();
+                    } else {
+                        final long remaining = deadline - System.currentTimeMillis();
+                        if(remaining <= 0) {
+                            return false;
+                        }
+                        wait(remaining);
+                    }
                 } catch(InterruptedException e) {
                     Thread.currentThread().interrupt();
                     return false;
@@ -311,7 +345,15 @@ class ManagedServer {
     }
 
     protected synchronized void serverStarted(final TransitionTask task) {
-        internalSetState(task, InternalState.SERVER_STARTING, InternalState.SERVER_STARTED);
+        if(internalSetState(task, InternalState.SERVER_STARTING, InternalState.SERVER_STARTED)) {
+            final long startTime = this.startTime;
+            // Not set for a reconnected server
+            if(startTime != 0) {
+                this.bootTime = System.currentTimeMillis() - startTime;
+                this.startTime = 0;
+                ROOT_LOGGER.debugf("Server (%s) started in %d ms", serverName, bootTime);
+            }
+        }
     }
 
     protected synchronized void serverStartFailed() {
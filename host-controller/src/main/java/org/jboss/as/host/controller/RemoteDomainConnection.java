@@ -24,6 +24,7 @@ package org.jboss.as.host.controller;
 
 import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
 import org.jboss.as.domain.controller.SlaveRegistrationException;
+import org.jboss.as.domain.controller.operations.DomainModelHistory;
 import org.jboss.as.domain.management.CallbackHandlerFactory;
 import org.jboss.as.domain.management.SecurityRealm;
 import org.jboss.as.host.controller.mgmt.DomainControllerProtocol;
@@ -42,6 +43,7 @@ import org.jboss.as.protocol.mgmt.ManagementPongRequestHandler;
 import org.jboss.as.protocol.mgmt.ManagementRequestContext;
 import org.jboss.as.remoting.management.ManagementRemotingServices;
 import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
 import org.jboss.remoting3.Channel;
 import org.jboss.remoting3.CloseHandler;
 import org.jboss.remoting3.Connection;
@@ -102,6 +104,9 @@ class RemoteDomainConnection extends FutureManagementChannel {
     private final ExecutorService executorService;
     private final ScheduledExecutorService scheduledExecutorService;
     private final ManagementPongRequestHandler pongHandler = new ManagementPongRequestHandler();
+    /** The domain model applied last and its revision, so that a reconnect only needs to transfer the changes */
+    private volatile List<ModelNode> domainModel;
+    private volatile String domainModelRevision;
 
     RemoteDomainConnection(final String localHostName, final ModelNode localHostInfo,
                            final ProtocolChannelClient.Configuration configuration, final SecurityRealm realm,
@@ -259,8 +264,34 @@ class RemoteDomainConnection extends FutureManagementChannel {
         if(! result.hasDefined(ModelDescriptionConstants.RESULT)) {
             return false;
         }
-        final List<ModelNode> bootOperations= result.get(ModelDescriptionConstants.RESULT).asList();
-        return callback.applyDomainModel(bootOperations);
+        final ModelNode model = result.get(ModelDescriptionConstants.RESULT);
+        final List<ModelNode> bootOperations;
+        final String revision;
+        if (model.getType() == ModelType.LIST) {
+            // The master does not support revisions
+            bootOperations = model.asList();
+            revision = null;
+        } else {
+            revision = model.require(DomainModelHistory.DOMAIN_MODEL_REVISION).asString();
+            if (model.has(ModelDescriptionConstants.DOMAIN_MODEL)) {
+                bootOperations = model.get(ModelDescriptionConstants.DOMAIN_MODEL).asList();
+            } else {
+                final List<ModelNode> base = domainModel;
+                if (base == null || !model.require(DomainModelHistory.BASE_REVISION).asString().equals(domainModelRevision)) {
+                    // Should not happen, the master only sends a delta to the revision we sent. Start over with the complete model
+                    domainModel = null;
+                    domainModelRevision = null;
+                    return false;
+                }
+                bootOperations = DomainModelHistory.applyDelta(base, model);
+                HostControllerLogger.ROOT_LOGGER.debugf("Applying the changes of the domain model since revision %s, %d resources changed and %d removed",
+                        domainModelRevision, model.get(DomainModelHistory.CHANGED).asList().size(), model.get(DomainModelHistory.REMOVED).asList().size());
+            }
+        }
+        final boolean success = callback.applyDomainModel(bootOperations);
+        domainModel = success && revision != null ? bootOperations : null;
+        domainModelRevision = success ? revision : null;
+        return success;
     }
 
     void registered() {
@@ -315,6 +346,12 @@ class RemoteDomainConnection extends FutureManagementChannel {
              output.writeUTF(localHostName);
              ModelNode hostInfo = localHostInfo.clone();
              hostInfo.get(RemoteDomainConnectionService.DOMAIN_CONNECTION_ID).set(pongHandler.getConnectionId());
+             // Sending the key, even if undefined, tells the master that we support domain model revisions
+             final String revision = domainModelRevision;
+             final ModelNode revisionNode = hostInfo.get(DomainModelHistory.DOMAIN_MODEL_REVISION);
+             if (revision != null) {
+                 revisionNode.set(revision);
+             }
              hostInfo.writeExternal(output);
          }
 
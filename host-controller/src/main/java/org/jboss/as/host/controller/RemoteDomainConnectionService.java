@@ -41,9 +41,14 @@ import java.security.AccessController;
 import java.security.PrivilegedAction;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ThreadFactory;
 
@@ -114,6 +119,8 @@ public class RemoteDomainConnectionService implements MasterDomainControllerClie
     private static final String CONNECTION_TIMEOUT_PROPERTY = "jboss.host.domain.connection.timeout";
     private static final int CONNECTION_TIMEOUT = getSystemProperty(CONNECTION_TIMEOUT_PROPERTY, CONNECTION_TIMEOUT_DEFAULT);
 
+    private static final int MAX_FILE_TRANSFER_ATTEMPTS = 3;
+
     private static final ModelNode APPLY_EXTENSIONS = new ModelNode();
     private static final ModelNode APPLY_DOMAIN_MODEL = new ModelNode();
     static {
@@ -135,6 +142,7 @@ public class RemoteDomainConnectionService implements MasterDomainControllerClie
     private final LocalHostControllerInfo localHostInfo;
     private final RemoteFileRepository remoteFileRepository;
     private final IgnoredDomainResourceRegistry ignoredDomainResourceRegistry;
+    private final ConcurrentMap<String, FutureTask<File>> pendingTransfers = new ConcurrentHashMap<String, FutureTask<File>>();
 
     /** Used to invoke ModelController ops on the master */
     private volatile ModelControllerClient masterProxy;
@@ -407,12 +415,12 @@ public class RemoteDomainConnectionService implements MasterDomainControllerClie
     private class GetFileRequest extends AbstractManagementRequest<File, Void> {
         private final byte rootId;
         private final String filePath;
-        private final HostFileRepository localFileRepository;
+        private final File localPath;
 
         private GetFileRequest(final byte rootId, final String filePath, final HostFileRepository localFileRepository) {
             this.rootId = rootId;
             this.filePath = filePath;
-            this.localFileRepository = localFileRepository;
+            this.localPath = getLocalPath(rootId, filePath, localFileRepository);
         }
 
         @Override
@@ -424,30 +432,11 @@ public class RemoteDomainConnectionService implements MasterDomainControllerClie
         protected void sendRequest(ActiveOperation.ResultHandler<File> resultHandler, ManagementRequestContext<Void> context, FlushableDataOutput output) throws IOException {
             output.write(DomainControllerProtocol.PARAM_HOST_ID);
             output.writeUTF(localHostInfo.getLocalHostName());
-            DomainRemoteFileRequestAndHandler.INSTANCE.sendRequest(output, rootId, filePath);
+            DomainRemoteFileRequestAndHandler.INSTANCE.sendRequest(output, rootId, filePath, localPath);
         }
 
         @Override
         public void handleRequest(DataInput input, ActiveOperation.ResultHandler<File> resultHandler, ManagementRequestContext<Void> context) throws IOException {
-            final File localPath;
-            switch (rootId) {
-                case DomainControllerProtocol.PARAM_ROOT_ID_FILE: {
-                    localPath = localFileRepository.getFile(filePath);
-                    break;
-                }
-                case DomainControllerProtocol.PARAM_ROOT_ID_CONFIGURATION: {
-                    localPath = localFileRepository.getConfigurationFile(filePath);
-                    break;
-                }
-                case DomainControllerProtocol.PARAM_ROOT_ID_DEPLOYMENT: {
-                    byte[] hash = HashUtil.hexStringToByteArray(filePath);
-                    localPath = localFileRepository.getDeploymentRoot(hash);
-                    break;
-                }
-                default: {
-                    localPath = null;
-                }
-            }
             try {
                 DomainRemoteFileRequestAndHandler.INSTANCE.handleResponse(input, localPath, ROOT_LOGGER, resultHandler, context);
             } catch (CannotCreateLocalDirectoryException e) {
@@ -458,6 +447,24 @@ public class RemoteDomainConnectionService implements MasterDomainControllerClie
         }
     }
 
+    private static File getLocalPath(final byte rootId, final String filePath, final HostFileRepository localFileRepository) {
+        switch (rootId) {
+            case DomainControllerProtocol.PARAM_ROOT_ID_FILE: {
+                return localFileRepository.getFile(filePath);
+            }
+            case DomainControllerProtocol.PARAM_ROOT_ID_CONFIGURATION: {
+                return localFileRepository.getConfigurationFile(filePath);
+            }
+            case DomainControllerProtocol.PARAM_ROOT_ID_DEPLOYMENT: {
+                byte[] hash = HashUtil.hexStringToByteArray(filePath);
+                return localFileRepository.getDeploymentRoot(hash);
+            }
+            default: {
+                return null;
+            }
+        }
+    }
+
     static class RemoteFileRepository implements HostFileRepository {
         private final HostFileRepository localFileRepository;
         private volatile RemoteFileRepositoryExecutor remoteFileRepositoryExecutor;
@@ -511,10 +518,26 @@ public class RemoteDomainConnectionService implements MasterDomainControllerClie
     }
 
     private final RemoteFileRepositoryExecutor remoteFileRepositoryExecutor = new RemoteFileRepositoryExecutor() {
-        public File getFile(final String relativePath, final byte repoId, HostFileRepository localFileRepository) {
+        public File getFile(final String relativePath, final byte repoId, final HostFileRepository localFileRepository) {
             if(connection.isConnected()) {
+                // Concurrent requests for the same file, e.g. from the servers of this host, share a single transfer
+                final String key = repoId + ":" + relativePath;
+                final FutureTask<File> transfer = new FutureTask<File>(new Callable<File>() {
+                    @Override
+                    public File call() throws Exception {
+                        return transferFile(relativePath, repoId, localFileRepository);
+                    }
+                });
+                final FutureTask<File> existing = pendingTransfers.putIfAbsent(key, transfer);
+                if (existing == null) {
+                    try {
+                        transfer.run();
+                    } finally {
+                        pendingTransfers.remove(key, transfer);
+                    }
+                }
                 try {
-                    return handler.executeRequest(new GetFileRequest(repoId, relativePath, localFileRepository), null).getResult().get();
+                    return (existing == null ? transfer : existing).get();
                 } catch (Exception e) {
                     throw MESSAGES.failedToGetFileFromRemoteRepository(e);
                 }
@@ -522,6 +545,20 @@ public class RemoteDomainConnectionService implements MasterDomainControllerClie
                 return localFileRepository.getFile(relativePath);
             }
         }
+
+        private File transferFile(final String relativePath, final byte repoId, final HostFileRepository localFileRepository) throws Exception {
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    return handler.executeRequest(new GetFileRequest(repoId, relativePath, localFileRepository), null).getResult().get();
+                } catch (ExecutionException e) {
+                    // The verified part of the content is kept, so the next attempt resumes the transfer
+                    if (attempt >= MAX_FILE_TRANSFER_ATTEMPTS || !connection.isConnected()) {
+                        throw e;
+                    }
+                    ROOT_LOGGER.debugf(e, "Retrying the transfer of %s", relativePath);
+                }
+            }
+        }
     };
 
     private class FutureClient extends AsyncFutureTask<MasterDomainControllerClient>{
@@ -22,6 +22,7 @@
 
 package org.jboss.as.host.controller;
 
+import java.util.List;
 import java.util.Map;
 
 import javax.security.auth.callback.CallbackHandler;
@@ -81,6 +82,15 @@ public interface ServerInventory {
      */
     ServerStatus determineServerStatus(final String serverName);
 
+    /**
+     * Get how long the last start of the server with the given name took, from the start request until the server
+     * reported it is started.
+     *
+     * @param serverName the name of the server
+     * @return the boot time in milliseconds, or {@code -1} if the server is not started
+     */
+    long getServerBootTime(String serverName);
+
     /**
      * Start the server with the given name. Note that returning from this method does not mean the server
      * is completely started; it usually will only be in the process of starting, having received all startup instructions.
@@ -101,6 +111,16 @@ public interface ServerInventory {
      */
     ServerStatus startServer(String serverName, ModelNode domainModel, boolean blocking);
 
+    /**
+     * Start the servers with the given names in the background. The number of servers starting at the same time is
+     * limited, and the next server is only started once a server is started, failed to start or did not start
+     * within the start timeout.
+     *
+     * @param serverNames the names of the servers, in the order to start them
+     * @param domainModel the configuration model for the domain
+     */
+    void startServers(List<String> serverNames, ModelNode domainModel);
+
     /**
      * Restart the server with the given name. Note that returning from this method does not mean the server
      * is completely started; it usually will only be in the process of starting, having received all startup instructions.
@@ -89,6 +89,7 @@ public class ServerInventoryImpl implements ServerInventory {
     private final InetSocketAddress managementAddress;
     private final DomainController domainController;
     private final ExtensionRegistry extensionRegistry;
+    private final ServerStartScheduler startScheduler;
 
     private volatile boolean shutdown;
     private volatile boolean connectionFinished;
@@ -100,12 +101,14 @@ public class ServerInventoryImpl implements ServerInventory {
     private final Object shutdownCondition = new Object();
 
     ServerInventoryImpl(final DomainController domainController, final HostControllerEnvironment environment, final InetSocketAddress managementAddress,
-                        final ProcessControllerClient processControllerClient, final ExtensionRegistry extensionRegistry) {
+                        final ProcessControllerClient processControllerClient, final ExtensionRegistry extensionRegistry,
+                        final ServerStartScheduler startScheduler) {
         this.domainController = domainController;
         this.environment = environment;
         this.managementAddress = managementAddress;
         this.processControllerClient = processControllerClient;
         this.extensionRegistry = extensionRegistry;
+        this.startScheduler = startScheduler;
     }
 
     @Override
@@ -160,6 +163,15 @@ public class ServerInventoryImpl implements ServerInventory {
         return server.getState();
     }
 
+    @Override
+    public long getServerBootTime(final String serverName) {
+        final ManagedServer server = servers.get(serverName);
+        if(server == null) {
+            return -1;
+        }
+        return server.getBootTime();
+    }
+
     @Override
     public ServerStatus startServer(final String serverName, final ModelNode domainModel) {
         return startServer(serverName, domainModel, false);
@@ -188,6 +200,22 @@ public class ServerInventoryImpl implements ServerInventory {
         return server.getState();
     }
 
+    @Override
+    public void startServers(final List<String> serverNames, final ModelNode domainModel) {
+        startScheduler.startServers(serverNames, new ServerStartScheduler.ServerStarter() {
+            @Override
+            public boolean startServer(final String serverName, final long timeout) {
+                ServerInventoryImpl.this.startServer(serverName, domainModel, false);
+                final ManagedServer server = servers.get(serverName);
+                if(server == null || server.awaitState(ManagedServer.InternalState.SERVER_STARTED, timeout)) {
+                    return true;
+                }
+                // Only report servers which are still starting, failures are reported by the server
+                return server.getState() != ServerStatus.STARTING;
+            }
+        });
+    }
+
     @Override
     public ServerStatus restartServer(final String serverName, final int gracefulTimeout, final ModelNode domainModel) {
         return restartServer(serverName, gracefulTimeout, domainModel, false);
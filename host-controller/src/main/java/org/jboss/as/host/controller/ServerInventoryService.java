@@ -97,7 +97,8 @@ class ServerInventoryService implements Service<ServerInventory> {
         try {
             final ProcessControllerConnectionService processControllerConnectionService = client.getValue();
             final InetSocketAddress binding = new InetSocketAddress(interfaceBinding.getValue().getAddress(), port);
-            serverInventory = new ServerInventoryImpl(domainController, environment, binding, processControllerConnectionService.getClient(), extensionRegistry);
+            serverInventory = new ServerInventoryImpl(domainController, environment, binding, processControllerConnectionService.getClient(), extensionRegistry,
+                    new ServerStartScheduler(executorService.getValue()));
             processControllerConnectionService.setServerInventory(serverInventory);
             serverCallback.getValue().setCallbackHandler(serverInventory.getServerCallbackHandler());
             futureInventory.setInventory(serverInventory);
@@ -0,0 +1,138 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.host.controller;
+
+import static org.jboss.as.host.controller.HostControllerLogger.ROOT_LOGGER;
+
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Starts servers in the background, with a limited number of servers starting at the same time. A server keeps its
+ * slot until it is started, failed to start or did not start within the start timeout, so the servers of a host do
+ * not all compete for the CPU while booting.
+ */
+class ServerStartScheduler {
+
+    static final String MAX_CONCURRENT_STARTS_PROPERTY = "jboss.host.server.start.max-concurrent";
+    static final String START_TIMEOUT_PROPERTY = "jboss.host.server.start.timeout";
+
+    private static final int MAX_CONCURRENT_STARTS_DEFAULT = Runtime.getRuntime().availableProcessors();
+    private static final int START_TIMEOUT_DEFAULT = 300000;
+
+    private final Executor executor;
+    private final Semaphore slots;
+    private final long timeout;
+
+    ServerStartScheduler(final Executor executor) {
+        this(executor, getSystemProperty(MAX_CONCURRENT_STARTS_PROPERTY, MAX_CONCURRENT_STARTS_DEFAULT),
+                getSystemProperty(START_TIMEOUT_PROPERTY, START_TIMEOUT_DEFAULT));
+    }
+
+    /**
+     * @param executor the executor to start the servers with
+     * @param maxConcurrentStarts the maximum number of servers starting at the same time, {@code 0} or less for no limit
+     * @param timeout the time in ms a server may take to start before the next server is started
+     */
+    ServerStartScheduler(final Executor executor, final int maxConcurrentStarts, final long timeout) {
+        this.executor = executor;
+        this.slots = new Semaphore(maxConcurrentStarts > 0 ? maxConcurrentStarts : Integer.MAX_VALUE);
+        this.timeout = timeout;
+    }
+
+    /**
+     * Schedule the start of servers. Returns immediately.
+     *
+     * @param serverNames the names of the servers, in the order to start them
+     * @param starter the starter of the servers
+     */
+    void startServers(final List<String> serverNames, final ServerStarter starter) {
+        final List<String> pending = new ArrayList<String>(serverNames);
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                for (final String serverName : pending) {
+                    try {
+                        slots.acquire();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    try {
+                        executor.execute(new Runnable() {
+                            @Override
+                            public void run() {
+                                try {
+                                    if (!starter.startServer(serverName, timeout)) {
+                                        ROOT_LOGGER.serverStartTimedOut(serverName, timeout);
+                                    }
+                                } catch (Exception e) {
+                                    ROOT_LOGGER.failedToStartServer(e, serverName);
+                                } finally {
+                                    slots.release();
+                                }
+                            }
+                        });
+                    } catch (RuntimeException e) {
+                        slots.release();
+                        ROOT_LOGGER.failedToStartServer(e, serverName);
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Starts a single server.
+     */
+    interface ServerStarter {
+
+        /**
+         * Start a server and wait until it is started or failed to start.
+         *
+         * @param serverName the name of the server
+         * @param timeout the maximum time to wait in ms
+         * @return {@code false} if the server is still starting once the timeout elapsed, {@code true} otherwise
+         * @throws Exception if the server could not be started
+         */
+        boolean startServer(String serverName, long timeout) throws Exception;
+    }
+
+    private static int getSystemProperty(final String name, final int defaultValue) {
+        final SecurityManager sm = System.getSecurityManager();
+        if(sm == null) {
+            return Integer.getInteger(name, defaultValue);
+        } else {
+            return AccessController.doPrivileged( new PrivilegedAction<Integer>() {
+                @Override
+                public Integer run() {
+                    return Integer.getInteger(name, defaultValue);
+                }
+            });
+        }
+    }
+}
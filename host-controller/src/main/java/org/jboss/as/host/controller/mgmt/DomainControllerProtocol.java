@@ -49,4 +49,7 @@ public interface DomainControllerProtocol extends ModelControllerProtocol {
     byte FILE_START = 0x30;
     byte PARAM_FILE_SIZE = 0x31;
     byte FILE_END = 0x32;
+    byte PARAM_CHUNKED_TRANSFER = 0x33;
+    byte PARAM_FILE_OFFSET = 0x34;
+    byte PARAM_FILE_HASH = 0x35;
 }
@@ -55,6 +55,18 @@ public class DomainRemoteFileRequestAndHandler extends RemoteFileRequestAndHandl
         public byte fileEnd() {
             return DomainControllerProtocol.FILE_END;
         }
+
+        public byte paramChunkedTransfer() {
+            return DomainControllerProtocol.PARAM_CHUNKED_TRANSFER;
+        }
+
+        public byte paramFileOffset() {
+            return DomainControllerProtocol.PARAM_FILE_OFFSET;
+        }
+
+        public byte paramFileHash() {
+            return DomainControllerProtocol.PARAM_FILE_HASH;
+        }
     };
 
     public static final DomainRemoteFileRequestAndHandler INSTANCE = new DomainRemoteFileRequestAndHandler(null);
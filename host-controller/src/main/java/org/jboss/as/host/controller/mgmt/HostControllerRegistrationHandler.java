@@ -53,6 +53,7 @@ import org.jboss.as.controller.transform.Transformers;
 import org.jboss.as.domain.controller.DomainController;
 import org.jboss.as.domain.controller.DomainControllerMessages;
 import org.jboss.as.domain.controller.SlaveRegistrationException;
+import org.jboss.as.domain.controller.operations.DomainModelHistory;
 import org.jboss.as.domain.controller.operations.ReadMasterDomainModelHandler;
 import org.jboss.as.host.controller.HostControllerMessages;
 import org.jboss.as.protocol.ProtocolLogger;
@@ -91,12 +92,15 @@ public class HostControllerRegistrationHandler implements ManagementRequestHandl
     private final OperationExecutor operationExecutor;
     private final DomainController domainController;
     private final Executor registrations;
+    private final DomainModelHistory domainModelHistory;
 
-    public HostControllerRegistrationHandler(ManagementChannelHandler handler, DomainController domainController, OperationExecutor operationExecutor, Executor registrations) {
+    public HostControllerRegistrationHandler(ManagementChannelHandler handler, DomainController domainController, OperationExecutor operationExecutor,
+                                             Executor registrations, DomainModelHistory domainModelHistory) {
         this.handler = handler;
         this.operationExecutor = operationExecutor;
         this.domainController = domainController;
         this.registrations = registrations;
+        this.domainModelHistory = domainModelHistory;
     }
 
     @Override
@@ -242,7 +246,8 @@ public class HostControllerRegistrationHandler implements ManagementRequestHandl
             // Initialize the transformers
             final TransformationTarget target = TransformationTargetImpl.create(transformerRegistry, ModelVersion.create(major, minor, micro),
                     Collections.<PathAddress, ModelVersion>emptyMap(), hostInfo, TransformationTarget.TransformationTargetType.HOST);
-            final Transformers transformers = Transformers.Factory.create(target);
+            // Slaves with the same versions share the transformed domain model
+            final Transformers transformers = Transformers.Factory.createCaching(target);
             // Build the extensions list
             final ModelNode extensions = new ModelNode();
             final Resource transformed = transformers.transformResource(Transformers.Factory.getTransformationContext(target, context), root);
@@ -256,7 +261,12 @@ public class HostControllerRegistrationHandler implements ManagementRequestHandl
             // Remotely resolve the subsystem versions and create the transformation
             registrationContext.processSubsystems(transformers, extensions);
             // Now run the read-domain model operation
-            final ReadMasterDomainModelHandler handler = new ReadMasterDomainModelHandler(transformers);
+            final ReadMasterDomainModelHandler handler;
+            if (hostInfo.isDomainModelRevisionSupported()) {
+                handler = new ReadMasterDomainModelHandler(transformers, domainModelHistory, hostInfo.getDomainModelRevision());
+            } else {
+                handler = new ReadMasterDomainModelHandler(transformers);
+            }
             context.addStep(READ_DOMAIN_MODEL, handler, OperationContext.Stage.MODEL);
             // Complete
             context.stepCompleted();
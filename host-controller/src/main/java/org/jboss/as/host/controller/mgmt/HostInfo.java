@@ -45,6 +45,7 @@ import org.jboss.as.controller.PathElement;
 import org.jboss.as.controller.registry.Resource;
 import org.jboss.as.controller.transform.TransformationTarget;
 import org.jboss.as.domain.controller.LocalHostControllerInfo;
+import org.jboss.as.domain.controller.operations.DomainModelHistory;
 import org.jboss.as.host.controller.RemoteDomainConnectionService;
 import org.jboss.as.host.controller.ignored.IgnoredDomainResourceRegistry;
 import org.jboss.as.version.ProductConfig;
@@ -105,7 +106,10 @@ public class HostInfo implements TransformationTarget.IgnoredTransformationRegis
     private final String productName;
     private final String productVersion;
     private final Long remoteConnectionId;
+    private final boolean domainModelRevisionSupported;
+    private final String domainModelRevision;
     private final Map<String, IgnoredType> ignoredResources;
+    private final String ignoredResourcesKey;
 
     private HostInfo(final ModelNode hostInfo) {
         hostName = hostInfo.require(NAME).asString();
@@ -118,6 +122,10 @@ public class HostInfo implements TransformationTarget.IgnoredTransformationRegis
         productVersion = hostInfo.hasDefined(PRODUCT_VERSION) ? hostInfo.require(PRODUCT_VERSION).asString() : null;
         remoteConnectionId = hostInfo.hasDefined(RemoteDomainConnectionService.DOMAIN_CONNECTION_ID)
                 ? hostInfo.get(RemoteDomainConnectionService.DOMAIN_CONNECTION_ID).asLong() : null;
+        // Older slaves do not send the revision key at all, and expect the complete domain model
+        domainModelRevisionSupported = hostInfo.has(DomainModelHistory.DOMAIN_MODEL_REVISION);
+        domainModelRevision = hostInfo.hasDefined(DomainModelHistory.DOMAIN_MODEL_REVISION)
+                ? hostInfo.get(DomainModelHistory.DOMAIN_MODEL_REVISION).asString() : null;
 
         if (hostInfo.hasDefined(IGNORED_RESOURCES)) {
             ignoredResources = new HashMap<String, IgnoredType>();
@@ -130,6 +138,7 @@ public class HostInfo implements TransformationTarget.IgnoredTransformationRegis
         } else {
             ignoredResources = null;
         }
+        ignoredResourcesKey = hostInfo.hasDefined(IGNORED_RESOURCES) ? hostInfo.get(IGNORED_RESOURCES).toString() : "";
     }
 
     public String getHostName() {
@@ -168,6 +177,24 @@ public class HostInfo implements TransformationTarget.IgnoredTransformationRegis
         return remoteConnectionId;
     }
 
+    /**
+     * Whether the slave accepts the domain model as a delta to the revision it applied last.
+     *
+     * @return {@code true} if the slave supports domain model revisions
+     */
+    public boolean isDomainModelRevisionSupported() {
+        return domainModelRevisionSupported;
+    }
+
+    /**
+     * Get the revision of the domain model the slave applied last.
+     *
+     * @return the revision, or {@code null} if the slave did not apply any
+     */
+    public String getDomainModelRevision() {
+        return domainModelRevision;
+    }
+
     public boolean isResourceTransformationIgnored(final PathAddress address) {
         boolean result = false;
         if (ignoredResources != null && address.size() > 0) {
@@ -187,6 +214,11 @@ public class HostInfo implements TransformationTarget.IgnoredTransformationRegis
         return false;
     }
 
+    @Override
+    public String getTransformationExclusionKey() {
+        return ignoredResourcesKey;
+    }
+
     public String getPrettyProductName() {
 
         final String result;
@@ -27,6 +27,7 @@ import static org.jboss.as.host.controller.HostControllerLogger.ROOT_LOGGER;
 import org.jboss.as.controller.remote.AbstractModelControllerOperationHandlerFactoryService;
 import org.jboss.as.controller.remote.ModelControllerClientOperationHandlerFactoryService;
 import org.jboss.as.domain.controller.DomainController;
+import org.jboss.as.domain.controller.operations.DomainModelHistory;
 import org.jboss.as.protocol.mgmt.ManagementChannelHandler;
 import org.jboss.as.protocol.mgmt.ManagementClientChannelStrategy;
 import org.jboss.as.protocol.mgmt.ManagementPongRequestHandler;
@@ -61,6 +62,8 @@ public class MasterDomainControllerOperationHandlerService extends AbstractModel
     private final ManagementPongRequestHandler pongRequestHandler = new ManagementPongRequestHandler();
     private final ThreadFactory threadFactory = new JBossThreadFactory(new ThreadGroup("slave-request-threads"), Boolean.FALSE, null, "%G - %t", null, null, AccessController.getContext());
     private volatile ExecutorService slaveRequestExecutor;
+    /** The revisions of the domain model sent to the slaves, shared by all slave connections */
+    private final DomainModelHistory domainModelHistory = new DomainModelHistory();
 
     public MasterDomainControllerOperationHandlerService(final DomainController domainController, final HostControllerRegistrationHandler.OperationExecutor operationExecutor) {
         this.domainController = domainController;
@@ -91,7 +94,7 @@ public class MasterDomainControllerOperationHandlerService extends AbstractModel
     public Channel.Key startReceiving(final Channel channel) {
         final ManagementChannelHandler handler = new ManagementChannelHandler(ManagementClientChannelStrategy.create(channel), getExecutor());
         // Assemble the request handlers for the domain channel
-        handler.addHandlerFactory(new HostControllerRegistrationHandler(handler, domainController, operationExecutor, slaveRequestExecutor));
+        handler.addHandlerFactory(new HostControllerRegistrationHandler(handler, domainController, operationExecutor, slaveRequestExecutor, domainModelHistory));
         handler.addHandlerFactory(new ModelControllerClientOperationHandler(getController(), handler));
         handler.addHandlerFactory(new MasterDomainControllerOperationHandlerImpl(domainController, slaveRequestExecutor));
         handler.addHandlerFactory(pongRequestHandler);
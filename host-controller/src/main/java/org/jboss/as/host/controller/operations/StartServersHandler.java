@@ -22,9 +22,10 @@ package org.jboss.as.host.controller.operations;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.AUTO_START;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SERVER_CONFIG;
-import static org.jboss.as.host.controller.HostControllerLogger.ROOT_LOGGER;
 import static org.jboss.as.host.controller.HostControllerMessages.MESSAGES;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 import org.jboss.as.controller.OperationContext;
@@ -107,32 +108,28 @@ public class StartServersHandler implements OperationStepHandler {
     }
 
     private void cleanStartServers(final ModelNode servers, final ModelNode domainModel){
+        final List<String> serverNames = new ArrayList<String>();
         for(final String serverName : servers.keys()) {
             if(servers.get(serverName, AUTO_START).asBoolean(true)) {
-                try {
-                    serverInventory.startServer(serverName, domainModel);
-                } catch (Exception e) {
-                    ROOT_LOGGER.failedToStartServer(e, serverName);
-                }
+                serverNames.add(serverName);
             }
         }
+        serverInventory.startServers(serverNames, domainModel);
     }
 
     private void restartedHcStartOrReconnectServers(final ModelNode servers, final ModelNode domainModel){
         Map<String, ProcessInfo> processInfos = serverInventory.determineRunningProcesses();
+        final List<String> serverNames = new ArrayList<String>();
         for(final String serverName : servers.keys()) {
             ProcessInfo info = processInfos.get(serverInventory.getServerProcessName(serverName));
             boolean auto = servers.get(serverName, AUTO_START).asBoolean(true);
             if (info == null && auto) {
-                try {
-                    serverInventory.startServer(serverName, domainModel);
-                } catch (Exception e) {
-                    ROOT_LOGGER.failedToStartServer(e, serverName);
-                }
+                serverNames.add(serverName);
             } else if (info != null){
                 //Reconnect the server
                 serverInventory.reconnectServer(serverName, domainModel, info.isRunning(), info.isStopping());
             }
         }
+        serverInventory.startServers(serverNames, domainModel);
     }
 }
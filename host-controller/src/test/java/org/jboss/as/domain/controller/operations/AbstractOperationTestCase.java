@@ -428,6 +428,10 @@ public abstract class AbstractOperationTestCase {
             return root;
         }
 
+        public Object getModelIdentity() {
+            return null;
+        }
+
         public boolean isModelAffected() {
             return false;
         }
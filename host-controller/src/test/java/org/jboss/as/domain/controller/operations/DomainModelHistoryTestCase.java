@@ -0,0 +1,118 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.domain.controller.operations;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.DOMAIN_MODEL;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.PROFILE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SERVER_GROUP;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.dmr.ModelNode;
+import org.junit.Test;
+
+/**
+ * Tests of the revisions and deltas of the domain model sent to slave host controllers.
+ */
+public class DomainModelHistoryTestCase {
+
+    @Test
+    public void testCompleteModelForUnknownRevision() {
+        final DomainModelHistory history = new DomainModelHistory();
+        final List<ModelNode> description = Arrays.asList(resource("a", 1), resource("b", 1));
+
+        final ModelNode result = history.createResult(description, null);
+        assertEquals(DomainModelHistory.getRevision(description), result.get(DomainModelHistory.DOMAIN_MODEL_REVISION).asString());
+        assertEquals(description, result.get(DOMAIN_MODEL).asList());
+
+        final ModelNode unknown = history.createResult(description, "unknown");
+        assertTrue(unknown.has(DOMAIN_MODEL));
+        assertFalse(unknown.has(DomainModelHistory.BASE_REVISION));
+    }
+
+    @Test
+    public void testUnchangedModel() {
+        final DomainModelHistory history = new DomainModelHistory();
+        final List<ModelNode> description = Arrays.asList(resource("a", 1), resource("b", 1));
+        final String revision = history.createResult(description, null).get(DomainModelHistory.DOMAIN_MODEL_REVISION).asString();
+
+        final ModelNode result = history.createResult(Arrays.asList(resource("a", 1), resource("b", 1)), revision);
+        assertEquals(revision, result.get(DomainModelHistory.DOMAIN_MODEL_REVISION).asString());
+        assertEquals(revision, result.get(DomainModelHistory.BASE_REVISION).asString());
+        assertEquals(0, result.get(DomainModelHistory.CHANGED).asList().size());
+        assertEquals(0, result.get(DomainModelHistory.REMOVED).asList().size());
+        assertEquals(description, DomainModelHistory.applyDelta(description, result));
+    }
+
+    @Test
+    public void testDelta() {
+        final DomainModelHistory history = new DomainModelHistory();
+        final List<ModelNode> base = Arrays.asList(resource("a", 1), resource("b", 1), resource("c", 1));
+        final String revision = history.createResult(base, null).get(DomainModelHistory.DOMAIN_MODEL_REVISION).asString();
+
+        final List<ModelNode> current = Arrays.asList(resource("a", 1), resource("c", 2), resource("d", 1));
+        final ModelNode result = history.createResult(current, revision);
+        assertEquals(DomainModelHistory.getRevision(current), result.get(DomainModelHistory.DOMAIN_MODEL_REVISION).asString());
+        assertFalse(result.has(DOMAIN_MODEL));
+        assertEquals(Arrays.asList(resource("c", 2), resource("d", 1)), result.get(DomainModelHistory.CHANGED).asList());
+        assertEquals(Arrays.asList(address("b")), result.get(DomainModelHistory.REMOVED).asList());
+
+        assertEquals(current, DomainModelHistory.applyDelta(base, result));
+    }
+
+    @Test
+    public void testAddedChildrenFollowTheirParent() {
+        final List<ModelNode> base = Arrays.asList(resource("a", 1), resource("b", 1));
+        final ModelNode child = new ModelNode();
+        child.get("domain-resource-address").set(PathAddress.pathAddress(PathElement.pathElement(PROFILE, "a"),
+                PathElement.pathElement(SERVER_GROUP, "child")).toModelNode());
+        child.get("domain-resource-model").setEmptyObject();
+        final List<ModelNode> current = new ArrayList<ModelNode>(base);
+        current.add(1, child);
+
+        final ModelNode delta = new ModelNode();
+        DomainModelHistory.createDelta(base, current, delta);
+        final List<ModelNode> applied = DomainModelHistory.applyDelta(base, delta);
+        assertEquals(3, applied.size());
+        assertEquals(resource("a", 1), applied.get(0));
+        assertEquals(child, applied.get(2));
+    }
+
+    private static ModelNode resource(final String name, final int value) {
+        final ModelNode resource = new ModelNode();
+        resource.get("domain-resource-address").set(address(name));
+        resource.get("domain-resource-model", "value").set(value);
+        return resource;
+    }
+
+    private static ModelNode address(final String name) {
+        return PathAddress.pathAddress(PathElement.pathElement(PROFILE, name)).toModelNode();
+    }
+}
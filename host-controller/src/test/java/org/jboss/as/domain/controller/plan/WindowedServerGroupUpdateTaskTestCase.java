@@ -0,0 +1,228 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.domain.controller.plan;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.CANCELLED;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILURE_DESCRIPTION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OUTCOME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUCCESS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.remote.TransactionalProtocolClient;
+import org.jboss.as.controller.transform.OperationResultTransformer;
+import org.jboss.as.domain.controller.ServerIdentity;
+import org.jboss.dmr.ModelNode;
+import org.jboss.threads.AsyncFuture;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Tests of the windowed rollout of a server group.
+ */
+public class WindowedServerGroupUpdateTaskTestCase {
+
+    private static final String GROUP = "group";
+
+    private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(4);
+
+    @After
+    public void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void testWindowLimits() {
+        final Set<ServerIdentity> servers = createServers(3, 4);
+        final ServerUpdatePolicy policy = new ServerUpdatePolicy(new ConcurrentGroupServerUpdatePolicy(null, Collections.singleton(GROUP)), GROUP, servers, 0);
+        final TestExecutor executor = new TestExecutor(Collections.<ServerIdentity>emptySet());
+        final Map<ServerIdentity, ModelNode> results = new ConcurrentHashMap<ServerIdentity, ModelNode>();
+
+        new WindowedServerGroupUpdateTask(createTasks(servers, policy), policy, executor, createResultHandler(results), 2, 1).execute();
+
+        assertEquals(servers.size(), results.size());
+        for (final ModelNode result : results.values()) {
+            assertEquals(SUCCESS, result.get(OUTCOME).asString());
+        }
+        assertEquals(2, executor.maxInFlight.get());
+        assertEquals(1, executor.maxInFlightPerHost.get());
+        assertFalse(policy.isFailed());
+    }
+
+    @Test
+    public void testFailureCancelsPendingServers() {
+        final Set<ServerIdentity> servers = createServers(2, 3);
+        final ServerIdentity failing = servers.iterator().next();
+        final ServerUpdatePolicy policy = new ServerUpdatePolicy(new ConcurrentGroupServerUpdatePolicy(null, Collections.singleton(GROUP)), GROUP, servers, 0);
+        final TestExecutor executor = new TestExecutor(Collections.singleton(failing));
+        final Map<ServerIdentity, ModelNode> results = new ConcurrentHashMap<ServerIdentity, ModelNode>();
+
+        // A window of one updates the servers one after the other, like rolling-to-servers
+        new WindowedServerGroupUpdateTask(createTasks(servers, policy), policy, executor, createResultHandler(results), 1, Integer.MAX_VALUE).execute();
+
+        assertEquals(servers.size(), results.size());
+        assertTrue(results.get(failing).has(FAILURE_DESCRIPTION));
+        for (final ServerIdentity server : servers) {
+            if (!server.equals(failing)) {
+                assertEquals(CANCELLED, results.get(server).get(OUTCOME).asString());
+            }
+        }
+        assertEquals(1, executor.maxInFlight.get());
+        assertTrue(policy.isFailed());
+    }
+
+    private static Set<ServerIdentity> createServers(final int hosts, final int serversPerHost) {
+        final Set<ServerIdentity> servers = new LinkedHashSet<ServerIdentity>();
+        for (int i = 0; i < serversPerHost; i++) {
+            for (int j = 0; j < hosts; j++) {
+                servers.add(new ServerIdentity("host-" + j, GROUP, "server-" + j + "-" + i));
+            }
+        }
+        return servers;
+    }
+
+    private static List<ServerUpdateTask> createTasks(final Set<ServerIdentity> servers, final ServerUpdatePolicy policy) {
+        final List<ServerUpdateTask> tasks = new ArrayList<ServerUpdateTask>();
+        for (final ServerIdentity server : servers) {
+            tasks.add(new RunningServerUpdateTask(server, new ModelNode(), policy, null));
+        }
+        return tasks;
+    }
+
+    private static ServerUpdateTask.ServerUpdateResultHandler createResultHandler(final Map<ServerIdentity, ModelNode> results) {
+        return new ServerUpdateTask.ServerUpdateResultHandler() {
+            @Override
+            public void handleServerUpdateResult(ServerIdentity serverId, ModelNode response) {
+                results.put(serverId, response);
+            }
+        };
+    }
+
+    /**
+     * Prepares the operations asynchronously, tracking the number of servers in flight.
+     */
+    private class TestExecutor extends ServerTaskExecutor {
+
+        private final Set<ServerIdentity> failing;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger maxInFlight = new AtomicInteger();
+        private final AtomicInteger maxInFlightPerHost = new AtomicInteger();
+        private final Map<String, Integer> inFlightPerHost = new HashMap<String, Integer>();
+
+        private TestExecutor(final Set<ServerIdentity> failing) {
+            super(null, new HashMap<ServerIdentity, ExecutedServerRequest>(), new ArrayList<ServerPreparedResponse>());
+            this.failing = failing;
+        }
+
+        @Override
+        protected boolean execute(final TransactionalProtocolClient.TransactionalOperationListener<ServerOperation> listener,
+                                  final ServerIdentity identity, final ModelNode operation) throws OperationFailedException {
+            final int current = inFlight.incrementAndGet();
+            maxInFlight.set(Math.max(maxInFlight.get(), current));
+            synchronized (inFlightPerHost) {
+                final Integer hostCount = inFlightPerHost.get(identity.getHostName());
+                final int count = hostCount == null ? 1 : hostCount + 1;
+                inFlightPerHost.put(identity.getHostName(), count);
+                maxInFlightPerHost.set(Math.max(maxInFlightPerHost.get(), count));
+            }
+            final ServerOperation serverOperation = new ServerOperation(identity, operation, null, null, OperationResultTransformer.ORIGINAL_RESULT);
+            scheduler.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    inFlight.decrementAndGet();
+                    synchronized (inFlightPerHost) {
+                        inFlightPerHost.put(identity.getHostName(), inFlightPerHost.get(identity.getHostName()) - 1);
+                    }
+                    final ModelNode result = new ModelNode();
+                    if (failing.contains(identity)) {
+                        result.get(OUTCOME).set("failed");
+                        result.get(FAILURE_DESCRIPTION).set("failed");
+                    } else {
+                        result.get(OUTCOME).set(SUCCESS);
+                    }
+                    listener.operationPrepared(new PreparedServerOperation(serverOperation, result));
+                }
+            }, 10, TimeUnit.MILLISECONDS);
+            return true;
+        }
+    }
+
+    private static class PreparedServerOperation implements TransactionalProtocolClient.PreparedOperation<ServerTaskExecutor.ServerOperation> {
+
+        private final ServerTaskExecutor.ServerOperation operation;
+        private final ModelNode result;
+
+        private PreparedServerOperation(final ServerTaskExecutor.ServerOperation operation, final ModelNode result) {
+            this.operation = operation;
+            this.result = result;
+        }
+
+        @Override
+        public ServerTaskExecutor.ServerOperation getOperation() {
+            return operation;
+        }
+
+        @Override
+        public ModelNode getPreparedResult() {
+            return result;
+        }
+
+        @Override
+        public boolean isFailed() {
+            return result.has(FAILURE_DESCRIPTION);
+        }
+
+        @Override
+        public boolean isDone() {
+            return false;
+        }
+
+        @Override
+        public AsyncFuture<ModelNode> getFinalResult() {
+            return null;
+        }
+
+        @Override
+        public void commit() {
+        }
+
+        @Override
+        public void rollback() {
+        }
+    }
+}
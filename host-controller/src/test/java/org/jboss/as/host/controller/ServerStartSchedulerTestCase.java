@@ -0,0 +1,103 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.host.controller;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Tests of the throttled start of the servers of a host.
+ */
+public class ServerStartSchedulerTestCase {
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testConcurrentStartsAreLimited() throws Exception {
+        final List<String> serverNames = Arrays.asList("a", "b", "c", "d", "e", "f", "g");
+        final CountDownLatch done = new CountDownLatch(serverNames.size());
+        final AtomicInteger starting = new AtomicInteger();
+        final AtomicInteger maxStarting = new AtomicInteger();
+        final List<String> started = Collections.synchronizedList(new ArrayList<String>());
+
+        new ServerStartScheduler(executor, 2, 10000).startServers(serverNames, new ServerStartScheduler.ServerStarter() {
+            @Override
+            public boolean startServer(String serverName, long timeout) throws Exception {
+                final int current = starting.incrementAndGet();
+                synchronized (maxStarting) {
+                    maxStarting.set(Math.max(maxStarting.get(), current));
+                }
+                try {
+                    Thread.sleep(20);
+                    started.add(serverName);
+                    return true;
+                } finally {
+                    starting.decrementAndGet();
+                    done.countDown();
+                }
+            }
+        });
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertEquals(2, maxStarting.get());
+        assertEquals(serverNames.size(), started.size());
+    }
+
+    @Test
+    public void testFailedStartReleasesSlot() throws Exception {
+        final List<String> serverNames = Arrays.asList("a", "b", "c");
+        final CountDownLatch done = new CountDownLatch(serverNames.size());
+
+        new ServerStartScheduler(executor, 1, 10000).startServers(serverNames, new ServerStartScheduler.ServerStarter() {
+            @Override
+            public boolean startServer(String serverName, long timeout) throws Exception {
+                done.countDown();
+                if ("a".equals(serverName)) {
+                    throw new IllegalStateException();
+                }
+                // Still starting once the timeout elapsed
+                return false;
+            }
+        });
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+    }
+}
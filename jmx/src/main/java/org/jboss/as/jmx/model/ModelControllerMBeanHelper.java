@@ -39,6 +39,8 @@ import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import javax.management.Attribute;
 import javax.management.AttributeList;
@@ -61,7 +63,6 @@ import org.jboss.as.controller.descriptions.DescriptionProvider;
 import org.jboss.as.controller.registry.ImmutableManagementResourceRegistration;
 import org.jboss.as.controller.registry.OperationEntry;
 import org.jboss.as.jmx.model.ChildAddOperationFinder.ChildAddOperationEntry;
-import org.jboss.as.jmx.model.RootResourceIterator.ResourceAction;
 import org.jboss.as.server.operations.RootResourceHack;
 import org.jboss.as.server.operations.RootResourceHack.ResourceAndRegistration;
 import org.jboss.dmr.ModelNode;
@@ -73,6 +74,7 @@ import org.jboss.dmr.ModelNode;
 public class ModelControllerMBeanHelper {
 
     static final String CLASS_NAME = ModelController.class.getName();
+    private static final int MAX_CACHED_DESCRIPTIONS = 4096;
     private final boolean standalone;
     private final ModelController controller;
     private final PathAddress CORE_SERVICE_PLATFORM_MBEAN = PathAddress.pathAddress(PathElement.pathElement("core-service", "platform-mbean"));
@@ -80,12 +82,16 @@ public class ModelControllerMBeanHelper {
     private final TypeConverters converters;
     private final ConfiguredDomains configuredDomains;
     private final String domain;
+    private final ObjectNameIndex index;
+    /** The descriptions and MBeanInfo of the resources, valid for the model generation they were created in */
+    private final ConcurrentMap<PathAddress, CachedDescription> descriptions = new ConcurrentHashMap<PathAddress, CachedDescription>();
 
     ModelControllerMBeanHelper(TypeConverters converters, ConfiguredDomains configuredDomains, String domain, ModelController controller) {
         this.converters = converters;
         this.configuredDomains = configuredDomains;
         this.domain = domain;
         this.controller = controller;
+        this.index = new ObjectNameIndex(domain, CORE_SERVICE_PLATFORM_MBEAN);
 
         ModelNode op = new ModelNode();
         op.get(OP).set(READ_ATTRIBUTE_OPERATION);
@@ -100,89 +106,68 @@ public class ModelControllerMBeanHelper {
     }
 
     int getMBeanCount() {
-        return new RootResourceIterator<Integer>(getRootResourceAndRegistration().getResource(), new ResourceAction<Integer>() {
-            int count;
-            public boolean onResource(PathAddress address) {
-                if (isExcludeAddress(address)) {
-                    return false;
-                }
-                count++;
-                return true;
-            }
-
-            public Integer getResult() {
-                return count;
-            }
-        }).iterate();
+        return index.update(getRootResourceAndRegistration().getResource()).size();
     }
 
     Set<ObjectInstance> queryMBeans(final ObjectName name, final QueryExp query) {
-        return new RootResourceIterator<Set<ObjectInstance>>(getRootResourceAndRegistration().getResource(), new ResourceAction<Set<ObjectInstance>>() {
-            Set<ObjectInstance> set = new HashSet<ObjectInstance>();
-
-            @Override
-            public boolean onResource(PathAddress address) {
-                if (isExcludeAddress(address)) {
-                    return false;
-                }
-                ObjectName resourceName = ObjectNameAddressUtil.createObjectName(domain, address);
-                if (name == null || name.apply(resourceName)) {
-                    //TODO check query
-                    set.add(new ObjectInstance(resourceName, CLASS_NAME));
-                }
-                return true;
-            }
-
-            @Override
-            public Set<ObjectInstance> getResult() {
-                return set;
-            }
-        }).iterate();
+        final Set<ObjectInstance> set = new HashSet<ObjectInstance>();
+        for (ObjectName resourceName : queryNames(name, query)) {
+            set.add(new ObjectInstance(resourceName, CLASS_NAME));
+        }
+        return set;
     }
 
     Set<ObjectName> queryNames(final ObjectName name, final QueryExp query) {
-        return new RootResourceIterator<Set<ObjectName>>(getRootResourceAndRegistration().getResource(), new ResourceAction<Set<ObjectName>>() {
-            Set<ObjectName> set = new HashSet<ObjectName>();
-
-            @Override
-            public boolean onResource(PathAddress address) {
-                if (isExcludeAddress(address)) {
-                    return false;
-                }
-                ObjectName resourceName = ObjectNameAddressUtil.createObjectName(domain, address);
-                if (name == null || name.apply(resourceName)) {
-                    //TODO check query
-                    set.add(resourceName);
-                }
-                return true;
+        final Map<ObjectName, PathAddress> addresses = index.update(getRootResourceAndRegistration().getResource());
+        final Set<ObjectName> set = new HashSet<ObjectName>();
+        if (name != null && !name.isPattern()) {
+            if (addresses.containsKey(name)) {
+                set.add(name);
             }
-
-            @Override
-            public Set<ObjectName> getResult() {
-                return set;
+            return set;
+        }
+        for (ObjectName resourceName : addresses.keySet()) {
+            if (name == null || name.apply(resourceName)) {
+                //TODO check query
+                set.add(resourceName);
             }
-        }).iterate();
+        }
+        return set;
     }
 
 
     PathAddress resolvePathAddress(final ObjectName name) {
-        return ObjectNameAddressUtil.resolvePathAddress(domain, getRootResourceAndRegistration().getResource(), name);
+        return resolvePathAddress(getRootResourceAndRegistration(), name);
+    }
+
+    private PathAddress resolvePathAddress(final ResourceAndRegistration reg, final ObjectName name) {
+        final PathAddress address = index.update(reg.getResource()).get(name);
+        if (address != null) {
+            return address;
+        }
+        return ObjectNameAddressUtil.resolvePathAddress(domain, reg.getResource(), name);
     }
 
 
     MBeanInfo getMBeanInfo(final ObjectName name) throws InstanceNotFoundException {
         ResourceAndRegistration reg = getRootResourceAndRegistration();
-        PathAddress address = ObjectNameAddressUtil.resolvePathAddress(domain, reg.getResource(), name);
+        PathAddress address = resolvePathAddress(reg, name);
         if (address == null) {
             throw createInstanceNotFoundException(name);
         }
 
-        return MBeanInfoFactory.createMBeanInfo(name, converters, configuredDomains, standalone, address, getMBeanRegistration(address, reg));
+        final CachedDescription cached = getCachedDescription(address, reg);
+        MBeanInfo info = cached.info;
+        if (info == null) {
+            info = MBeanInfoFactory.createMBeanInfo(name, converters, configuredDomains, standalone, address, getMBeanRegistration(address, reg));
+            cached.info = info;
+        }
+        return info;
     }
 
     Object getAttribute(final ObjectName name, final String attribute)  throws AttributeNotFoundException, InstanceNotFoundException, ReflectionException {
         final ResourceAndRegistration reg = getRootResourceAndRegistration();
-        final PathAddress address = ObjectNameAddressUtil.resolvePathAddress(domain, reg.getResource(), name);
+        final PathAddress address = resolvePathAddress(reg, name);
         if (address == null) {
             throw createInstanceNotFoundException(name);
         }
@@ -191,7 +176,7 @@ public class ModelControllerMBeanHelper {
 
     AttributeList getAttributes(ObjectName name, String[] attributes) throws InstanceNotFoundException, ReflectionException {
         final ResourceAndRegistration reg = getRootResourceAndRegistration();
-        final PathAddress address = ObjectNameAddressUtil.resolvePathAddress(domain, reg.getResource(), name);
+        final PathAddress address = resolvePathAddress(reg, name);
         if (address == null) {
             throw createInstanceNotFoundException(name);
         }
@@ -207,13 +192,8 @@ public class ModelControllerMBeanHelper {
     }
 
     private Object getAttribute(final ResourceAndRegistration reg, final PathAddress address, final ObjectName name, final String attribute)  throws ReflectionException, AttributeNotFoundException, InstanceNotFoundException {
-        final ImmutableManagementResourceRegistration registration = getMBeanRegistration(address, reg);
-        final DescriptionProvider provider = registration.getModelDescription(PathAddress.EMPTY_ADDRESS);
-        if (provider == null) {
-            throw MESSAGES.descriptionProviderNotFound(address);
-        }
-        final ModelNode description = provider.getModelDescription(null);
-        final String attributeName = findAttributeName(description.get(ATTRIBUTES), attribute);
+        final ModelNode attributes = getCachedDescription(address, reg).attributes;
+        final String attributeName = findAttributeName(attributes, attribute);
 
         ModelNode op = new ModelNode();
         op.get(OP).set(READ_ATTRIBUTE_OPERATION);
@@ -225,13 +205,13 @@ public class ModelControllerMBeanHelper {
             throw new AttributeNotFoundException(error);
         }
 
-        return converters.fromModelNode(description.require(ATTRIBUTES).require(attributeName), result.get(RESULT));
+        return converters.fromModelNode(attributes.require(attributeName), result.get(RESULT));
     }
 
 
     void setAttribute(ObjectName name, Attribute attribute) throws InstanceNotFoundException, AttributeNotFoundException, InvalidAttributeValueException {
         final ResourceAndRegistration reg = getRootResourceAndRegistration();
-        final PathAddress address = ObjectNameAddressUtil.resolvePathAddress(domain, reg.getResource(), name);
+        final PathAddress address = resolvePathAddress(reg, name);
         if (address == null) {
             throw createInstanceNotFoundException(name);
         }
@@ -241,7 +221,7 @@ public class ModelControllerMBeanHelper {
 
     AttributeList setAttributes(ObjectName name, AttributeList attributes) throws InstanceNotFoundException, ReflectionException {
         final ResourceAndRegistration reg = getRootResourceAndRegistration();
-        final PathAddress address = ObjectNameAddressUtil.resolvePathAddress(domain, reg.getResource(), name);
+        final PathAddress address = resolvePathAddress(reg, name);
         if (address == null) {
             throw createInstanceNotFoundException(name);
         }
@@ -258,13 +238,8 @@ public class ModelControllerMBeanHelper {
     }
 
     private void setAttribute(final ResourceAndRegistration reg, final PathAddress address, final ObjectName name, final Attribute attribute)  throws InvalidAttributeValueException, AttributeNotFoundException, InstanceNotFoundException {
-        final ImmutableManagementResourceRegistration registration = getMBeanRegistration(address, reg);
-        final DescriptionProvider provider = registration.getModelDescription(PathAddress.EMPTY_ADDRESS);
-        if (provider == null) {
-            throw MESSAGES.descriptionProviderNotFound(address);
-        }
-        final ModelNode description = provider.getModelDescription(null);
-        final String attributeName = findAttributeName(description.get(ATTRIBUTES), attribute.getName());
+        final ModelNode attributes = getCachedDescription(address, reg).attributes;
+        final String attributeName = findAttributeName(attributes, attribute.getName());
 
         if (!standalone) {
             throw MESSAGES.attributeNotWritable(attribute);
@@ -275,7 +250,7 @@ public class ModelControllerMBeanHelper {
         op.get(OP_ADDR).set(address.toModelNode());
         op.get(NAME).set(attributeName);
         try {
-            op.get(VALUE).set(converters.toModelNode(description.require(ATTRIBUTES).require(attributeName), attribute.getValue()));
+            op.get(VALUE).set(converters.toModelNode(attributes.require(attributeName), attribute.getValue()));
         } catch (ClassCastException e) {
             throw MESSAGES.invalidAttributeType(e, attribute.getName());
         }
@@ -308,7 +283,7 @@ public class ModelControllerMBeanHelper {
         }
 
         final ResourceAndRegistration reg = getRootResourceAndRegistration();
-        PathAddress address = ObjectNameAddressUtil.resolvePathAddress(domain, reg.getResource(), name);
+        PathAddress address = resolvePathAddress(reg, name);
         if (address == null) {
             throw createInstanceNotFoundException(name);
         }
@@ -402,6 +377,31 @@ public class ModelControllerMBeanHelper {
         return RootResourceHack.INSTANCE.getRootResource(controller);
     }
 
+    /**
+     * Get the description of a resource. The descriptions are cached until the model is updated, as the
+     * registrations of the resources only change along with the model.
+     */
+    private CachedDescription getCachedDescription(final PathAddress address, final ResourceAndRegistration reg) throws InstanceNotFoundException {
+        final int generation = index.getGeneration();
+        CachedDescription cached = descriptions.get(address);
+        if (cached != null && cached.generation == generation) {
+            return cached;
+        }
+        final ImmutableManagementResourceRegistration registration = getMBeanRegistration(address, reg);
+        final DescriptionProvider provider = registration.getModelDescription(PathAddress.EMPTY_ADDRESS);
+        if (provider == null) {
+            throw MESSAGES.descriptionProviderNotFound(address);
+        }
+        final ModelNode description = provider.getModelDescription(null);
+        final ModelNode attributes = description.hasDefined(ATTRIBUTES) ? description.get(ATTRIBUTES) : new ModelNode();
+        cached = new CachedDescription(generation, attributes);
+        if (descriptions.size() > MAX_CACHED_DESCRIPTIONS) {
+            descriptions.clear();
+        }
+        descriptions.put(address, cached);
+        return cached;
+    }
+
     private ModelNode execute(ModelNode op) {
         return controller.execute(op, null, OperationTransactionControl.COMMIT, null);
     }
@@ -434,8 +434,16 @@ public class ModelControllerMBeanHelper {
         throw MESSAGES.attributeNotFound(attributeName);
     }
 
-    private boolean isExcludeAddress(PathAddress pathAddress) {
-        return pathAddress.equals(CORE_SERVICE_PLATFORM_MBEAN);
+    private static final class CachedDescription {
+        private final int generation;
+        /** The descriptions of the attributes, not to be modified */
+        private final ModelNode attributes;
+        private volatile MBeanInfo info;
+
+        private CachedDescription(final int generation, final ModelNode attributes) {
+            this.generation = generation;
+            this.attributes = attributes;
+        }
     }
 
     public static ObjectName createRootObjectName(String domain) {
@@ -0,0 +1,160 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.jmx.model;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.management.ObjectName;
+
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.registry.CopyOnWriteResourceView;
+import org.jboss.as.controller.registry.Resource;
+import org.jboss.as.controller.registry.Resource.ResourceEntry;
+
+/**
+ * The object names of the resources of the model, and their addresses.
+ * <p>
+ * The index is updated from the snapshot of the model each time it is used. As a model update only replaces the
+ * resources on the modified paths of the snapshot, the subtrees whose snapshot resource did not change are reused
+ * from the previous update, so the cost of an update is proportional to the size of the changes. Runtime and proxy
+ * resources may change their children without a model update, so their subtrees are always walked again.
+ * </p>
+ */
+class ObjectNameIndex {
+
+    private final String domain;
+    private final PathAddress excluded;
+    /** Guarded by {@code this} */
+    private Node root;
+    private Resource rootSnapshot;
+    private Map<ObjectName, PathAddress> addresses = Collections.emptyMap();
+    private int generation;
+
+    /**
+     * @param domain the domain of the object names
+     * @param excluded the address of a subtree not to index
+     */
+    ObjectNameIndex(final String domain, final PathAddress excluded) {
+        this.domain = domain;
+        this.excluded = excluded;
+    }
+
+    /**
+     * Update the index from a snapshot of the model.
+     *
+     * @param rootResource the root resource of the snapshot
+     * @return the object names of the resources, mapped to their addresses, in the order of the resource tree
+     */
+    synchronized Map<ObjectName, PathAddress> update(final Resource rootResource) {
+        final Resource snapshot = CopyOnWriteResourceView.getSnapshotResource(rootResource);
+        if (snapshot != rootSnapshot) {
+            rootSnapshot = snapshot;
+            generation++;
+        }
+        final Node updated = update(rootResource, PathAddress.EMPTY_ADDRESS, root);
+        if (updated != root) {
+            root = updated;
+            final Map<ObjectName, PathAddress> addresses = new LinkedHashMap<ObjectName, PathAddress>();
+            collect(updated, addresses);
+            this.addresses = Collections.unmodifiableMap(addresses);
+        }
+        return addresses;
+    }
+
+    /**
+     * Get the generation of the model snapshots, which changes each time the model was updated.
+     *
+     * @return the generation of the last snapshot the index was updated from
+     */
+    synchronized int getGeneration() {
+        return generation;
+    }
+
+    private Node update(final Resource resource, final PathAddress address, final Node previous) {
+        final Resource snapshot = CopyOnWriteResourceView.getSnapshotResource(resource);
+        final boolean dynamic = snapshot == resource || resource.isRuntime() || resource.isProxy();
+        if (previous != null && !previous.dynamic && previous.snapshot == snapshot) {
+            return previous;
+        }
+
+        final Map<PathElement, Node> children = new LinkedHashMap<PathElement, Node>();
+        boolean changed = previous == null;
+        boolean dynamicChildren = false;
+        for (String type : resource.getChildTypes()) {
+            if (resource.hasChildren(type)) {
+                for (ResourceEntry entry : resource.getChildren(type)) {
+                    final PathElement element = entry.getPathElement();
+                    final PathAddress childAddress = address.append(element);
+                    if (childAddress.equals(excluded)) {
+                        continue;
+                    }
+                    final Resource child = resource.getChild(element);
+                    if (child == null) {
+                        continue;
+                    }
+                    final Node previousChild = previous == null ? null : previous.children.get(element);
+                    final Node node = update(child, childAddress, previousChild);
+                    changed |= node != previousChild;
+                    dynamicChildren |= node.dynamic;
+                    children.put(element, node);
+                }
+            }
+        }
+        if (!changed && previous.children.size() == children.size()) {
+            // Same children, only the model of the resource changed or the resource is dynamic
+            previous.snapshot = snapshot;
+            return previous;
+        }
+        final ObjectName name = previous != null ? previous.name : ObjectNameAddressUtil.createObjectName(domain, address);
+        return new Node(snapshot, address, name, children, dynamic || dynamicChildren);
+    }
+
+    private static void collect(final Node node, final Map<ObjectName, PathAddress> addresses) {
+        addresses.put(node.name, node.address);
+        for (Node child : node.children.values()) {
+            collect(child, addresses);
+        }
+    }
+
+    private static final class Node {
+
+        /** The resource of the snapshot, compared by identity */
+        private Resource snapshot;
+        private final PathAddress address;
+        private final ObjectName name;
+        private final Map<PathElement, Node> children;
+        /** Whether the subtree has to be walked again on each update */
+        private final boolean dynamic;
+
+        private Node(final Resource snapshot, final PathAddress address, final ObjectName name, final Map<PathElement, Node> children, final boolean dynamic) {
+            this.snapshot = snapshot;
+            this.address = address;
+            this.name = name;
+            this.children = children.isEmpty() ? Collections.<PathElement, Node>emptyMap() : children;
+            this.dynamic = dynamic;
+        }
+    }
+}
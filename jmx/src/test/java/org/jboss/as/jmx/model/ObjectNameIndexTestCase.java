@@ -0,0 +1,93 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.jmx.model;
+
+import java.util.Map;
+
+import javax.management.ObjectName;
+
+import junit.framework.Assert;
+
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.registry.CopyOnWriteResourceView;
+import org.jboss.as.controller.registry.Resource;
+import org.junit.Test;
+
+/**
+ * Tests of the incremental update of the object names of the model.
+ */
+public class ObjectNameIndexTestCase {
+
+    static final String DOMAIN = "jboss.as";
+    static final PathElement SUBSYSTEM_ONE = PathElement.pathElement("subsystem", "one");
+    static final PathElement SUBSYSTEM_TWO = PathElement.pathElement("subsystem", "two");
+    static final PathElement CHILD = PathElement.pathElement("child", "a");
+    static final PathElement PLATFORM_MBEAN = PathElement.pathElement("core-service", "platform-mbean");
+
+    @Test
+    public void testUpdate() throws Exception {
+        final ObjectNameIndex index = new ObjectNameIndex(DOMAIN, PathAddress.pathAddress(PLATFORM_MBEAN));
+
+        final Resource one = Resource.Factory.create();
+        one.registerChild(CHILD, Resource.Factory.create());
+        final Resource root = Resource.Factory.create();
+        root.registerChild(SUBSYSTEM_ONE, one);
+        root.registerChild(PLATFORM_MBEAN, Resource.Factory.create());
+
+        final Map<ObjectName, PathAddress> addresses = index.update(CopyOnWriteResourceView.create(root, true));
+        Assert.assertEquals(3, addresses.size());
+        Assert.assertEquals(PathAddress.EMPTY_ADDRESS, addresses.get(ObjectNameAddressUtil.createObjectName(DOMAIN, PathAddress.EMPTY_ADDRESS)));
+        checkAddress(addresses, SUBSYSTEM_ONE);
+        checkAddress(addresses, SUBSYSTEM_ONE, CHILD);
+        final int generation = index.getGeneration();
+
+        // The same snapshot is not walked again
+        Assert.assertSame(addresses, index.update(CopyOnWriteResourceView.create(root, true)));
+        Assert.assertEquals(generation, index.getGeneration());
+
+        // A new snapshot, sharing the unmodified resources
+        final Resource updatedRoot = Resource.Factory.create();
+        updatedRoot.registerChild(SUBSYSTEM_ONE, one);
+        updatedRoot.registerChild(SUBSYSTEM_TWO, Resource.Factory.create());
+        updatedRoot.registerChild(PLATFORM_MBEAN, Resource.Factory.create());
+
+        final Map<ObjectName, PathAddress> updated = index.update(CopyOnWriteResourceView.create(updatedRoot, true));
+        Assert.assertEquals(4, updated.size());
+        checkAddress(updated, SUBSYSTEM_ONE, CHILD);
+        checkAddress(updated, SUBSYSTEM_TWO);
+        Assert.assertTrue(generation != index.getGeneration());
+
+        // A snapshot with only an attribute change keeps the same names
+        final Resource modifiedRoot = Resource.Factory.create();
+        modifiedRoot.getModel().get("attr").set(true);
+        modifiedRoot.registerChild(SUBSYSTEM_ONE, one);
+        modifiedRoot.registerChild(SUBSYSTEM_TWO, updatedRoot.getChild(SUBSYSTEM_TWO));
+        modifiedRoot.registerChild(PLATFORM_MBEAN, Resource.Factory.create());
+        Assert.assertSame(updated, index.update(CopyOnWriteResourceView.create(modifiedRoot, true)));
+    }
+
+    private static void checkAddress(final Map<ObjectName, PathAddress> addresses, final PathElement... elements) {
+        final PathAddress address = PathAddress.pathAddress(elements);
+        Assert.assertEquals(address, addresses.get(ObjectNameAddressUtil.createObjectName(DOMAIN, address)));
+    }
+}
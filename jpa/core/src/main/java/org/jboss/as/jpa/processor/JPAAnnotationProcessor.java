@@ -24,10 +24,14 @@ package org.jboss.as.jpa.processor;
 
 import static org.jboss.as.jpa.JpaMessages.MESSAGES;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 
 import javax.persistence.PersistenceContext;
 import javax.persistence.PersistenceContextType;
@@ -52,10 +56,11 @@ import org.jboss.as.jpa.injectors.PersistenceContextInjectionSource;
 import org.jboss.as.jpa.injectors.PersistenceUnitInjectionSource;
 import org.jboss.as.jpa.service.PersistenceUnitServiceImpl;
 import org.jboss.as.jpa.spi.PersistenceUnitMetadata;
+import org.jboss.as.server.deployment.AttachmentKey;
+import org.jboss.as.server.deployment.ConcurrentDeploymentUnitProcessor;
 import org.jboss.as.server.deployment.DeploymentPhaseContext;
 import org.jboss.as.server.deployment.DeploymentUnit;
 import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
-import org.jboss.as.server.deployment.DeploymentUnitProcessor;
 import org.jboss.as.server.deployment.JPADeploymentMarker;
 import org.jboss.as.server.deployment.annotation.CompositeIndex;
 import org.jboss.jandex.AnnotationInstance;
@@ -72,7 +77,14 @@ import org.jboss.msc.service.ServiceName;
  *
  * @author Scott Marlow (based on ResourceInjectionAnnotationParsingProcessor)
  */
-public class JPAAnnotationProcessor implements DeploymentUnitProcessor {
+public class JPAAnnotationProcessor implements ConcurrentDeploymentUnitProcessor {
+
+    private static final Set<AttachmentKey<?>> READ_ATTACHMENTS = Collections.unmodifiableSet(new HashSet<AttachmentKey<?>>(Arrays.<AttachmentKey<?>>asList(
+            org.jboss.as.server.deployment.Attachments.COMPOSITE_ANNOTATION_INDEX, Attachments.EE_APPLICATION_CLASSES_DESCRIPTION,
+            org.jboss.as.server.deployment.Attachments.DEPLOYMENT_ROOT, org.jboss.as.server.deployment.Attachments.RESOURCE_ROOTS,
+            org.jboss.as.server.deployment.Attachments.SUB_DEPLOYMENTS)));
+    private static final Set<AttachmentKey<?>> WRITTEN_ATTACHMENTS = Collections.unmodifiableSet(new HashSet<AttachmentKey<?>>(Arrays.<AttachmentKey<?>>asList(
+            Attachments.EE_MODULE_DESCRIPTION, JPADeploymentMarker.MARKER)));
 
 
     private static final DotName PERSISTENCE_CONTEXT_ANNOTATION_NAME = DotName.createSimple(PersistenceContext.class.getName());
@@ -121,6 +133,16 @@ public class JPAAnnotationProcessor implements DeploymentUnitProcessor {
 
     }
 
+    @Override
+    public Set<AttachmentKey<?>> getReadAttachments() {
+        return READ_ATTACHMENTS;
+    }
+
+    @Override
+    public Set<AttachmentKey<?>> getWrittenAttachments() {
+        return WRITTEN_ATTACHMENTS;
+    }
+
     private void processPersistenceAnnotations(final DeploymentUnit deploymentUnit, final EEModuleDescription eeModuleDescription, List<AnnotationInstance> persistenceContexts, final EEApplicationClasses applicationClasses) throws
         DeploymentUnitProcessingException {
 
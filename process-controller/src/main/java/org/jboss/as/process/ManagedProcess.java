@@ -25,15 +25,10 @@ package org.jboss.as.process;
 import static java.lang.Thread.holdsLock;
 import static org.jboss.as.process.ProcessMessages.MESSAGES;
 
-import java.io.BufferedInputStream;
-import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.io.OutputStream;
-import java.io.OutputStreamWriter;
-import java.io.PrintStream;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -204,13 +199,8 @@ final class ManagedProcess {
         final OutputStream stdin = process.getOutputStream();
         final InputStream stderr = process.getErrorStream();
         final InputStream stdout = process.getInputStream();
-        final Thread stderrThread = new Thread(new ReadTask(stderr, processController.getStderr()));
-        stderrThread.setName(String.format("stderr for %s", processName));
-        stderrThread.start();
-        final Thread stdoutThread = new Thread(new ReadTask(stdout, processController.getStdout()));
-        stdoutThread.setName(String.format("stdout for %s", processName));
-        stdoutThread.start();
-        final Thread joinThread = new Thread(new JoinTask(startTime));
+        final ProcessOutputPump.Registration output = processController.getOutputPump().register(processName, isPrivileged, stdout, stderr, log);
+        final Thread joinThread = new Thread(new JoinTask(startTime, output));
         joinThread.setName(String.format("reaper for %s", processName));
         joinThread.start();
         boolean ok = false;
@@ -283,9 +273,11 @@ final class ManagedProcess {
 
     private final class JoinTask implements Runnable {
         private final long startTime;
+        private final ProcessOutputPump.Registration output;
 
-        public JoinTask(final long startTime) {
+        public JoinTask(final long startTime, final ProcessOutputPump.Registration output) {
             this.startTime = startTime;
+            this.output = output;
         }
 
         public void run() {
@@ -301,6 +293,7 @@ final class ManagedProcess {
             } catch (InterruptedException e) {
                 // ignore
             }
+            output.close();
             boolean respawn = false;
             int respawnCount = 0;
             synchronized (lock) {
@@ -343,61 +336,4 @@ final class ManagedProcess {
             }
         }
     }
-
-    private final class ReadTask implements Runnable {
-        private final InputStream source;
-        private final PrintStream target;
-
-        private ReadTask(final InputStream source, final PrintStream target) {
-            this.source = source;
-            this.target = target;
-        }
-
-        public void run() {
-            final InputStream source = this.source;
-            final String processName = ManagedProcess.this.processName;
-            try {
-                final BufferedReader reader = new BufferedReader(new InputStreamReader(new BufferedInputStream(source)));
-                final OutputStreamWriter writer = new OutputStreamWriter(target);
-                String s;
-                String prevEscape = "";
-                while ((s = reader.readLine()) != null) {
-                    // Has ANSI?
-                    int i = s.lastIndexOf('\033');
-                    int j = i != -1 ? s.indexOf('m', i) : 0;
-
-                    synchronized (target) {
-                        writer.write('[');
-                        writer.write(processName);
-                        writer.write("] ");
-                        writer.write(prevEscape);
-                        writer.write(s);
-
-                        // Reset if there was ANSI
-                        if (j != 0 || prevEscape != "") {
-                            writer.write("\033[0m");
-                        }
-                        writer.write('\n');
-                        writer.flush();
-                    }
-
-
-                    // Remember escape code for the next line
-                    if (j != 0) {
-                        String escape = s.substring(i, j + 1);
-                        if (!"\033[0m".equals(escape)) {
-                            prevEscape = escape;
-                        } else {
-                            prevEscape = "";
-                        }
-                    }
-                }
-                source.close();
-            } catch (IOException e) {
-                log.streamProcessingFailed(processName, e);
-            } finally {
-                StreamUtils.safeClose(source);
-            }
-        }
-    }
 }
@@ -64,10 +64,12 @@ public final class ProcessController {
 
     private final PrintStream stdout;
     private final PrintStream stderr;
+    private final ProcessOutputPump outputPump;
 
     public ProcessController(final ProtocolServer.Configuration configuration, final PrintStream stdout, final PrintStream stderr) throws IOException {
         this.stdout = stdout;
         this.stderr = stderr;
+        this.outputPump = new ProcessOutputPump(stdout, stderr);
         rng = new Random(new SecureRandom().nextLong());
         //noinspection ThisEscapedInObjectConstruction
         configuration.setConnectionHandler(new ProcessControllerServerHandler(this));
@@ -208,6 +210,7 @@ public final class ProcessController {
                     // ignore
                 }
             }
+            outputPump.shutdown();
             ROOT_LOGGER.shutdownComplete();
         }
     }
@@ -371,6 +374,10 @@ public final class ProcessController {
         return stderr;
     }
 
+    ProcessOutputPump getOutputPump() {
+        return outputPump;
+    }
+
     private static final class Key {
         private final byte[] authKey;
         private final int hashCode;
@@ -22,6 +22,8 @@
 
 package org.jboss.as.process;
 
+import java.io.File;
+
 import org.jboss.logging.annotations.Message;
 import org.jboss.logging.annotations.MessageBundle;
 import org.jboss.logging.Messages;
@@ -309,4 +311,15 @@ interface ProcessMessages {
      */
     @Message(id = 12059, value = "%s is null")
     IllegalArgumentException nullVar(String varName);
+
+    /**
+     * Creates a message indicating a file could not be renamed while rotating the output files of a process.
+     *
+     * @param file the file to rename.
+     * @param target the new name of the file.
+     *
+     * @return the message.
+     */
+    @Message(id = 12060, value = "Could not rename %s to %s")
+    String failedToRotateFile(File file, File target);
 }
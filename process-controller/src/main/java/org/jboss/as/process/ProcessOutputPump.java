@@ -0,0 +1,466 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.process;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.LockSupport;
+
+import org.jboss.as.process.protocol.StreamUtils;
+
+/**
+ * Copies the output of the managed processes. A single pump thread polls the stdout and stderr streams of all
+ * processes, and hands the complete lines read from a stream in one pass to a single writer thread as one batch.
+ * The batches are queued in a bounded queue: if the console is slow the pump stops reading until the writer caught up,
+ * leaving the output in the pipes of the processes rather than in the memory of the process controller.
+ * <p>
+ * The output of the non privileged processes is optionally written to a rotating file per process instead of the
+ * console, in the directory set by the {@code jboss.process.output.dir} system property.
+ */
+final class ProcessOutputPump {
+
+    static final String OUTPUT_DIR_PROPERTY = "jboss.process.output.dir";
+    static final String OUTPUT_MAX_SIZE_PROPERTY = "jboss.process.output.max-size";
+    static final String OUTPUT_MAX_BACKUPS_PROPERTY = "jboss.process.output.max-backups";
+
+    private static final long OUTPUT_MAX_SIZE_DEFAULT = 10 * 1024 * 1024;
+    private static final int OUTPUT_MAX_BACKUPS_DEFAULT = 5;
+    private static final int BUFFER_SIZE = 8192;
+    private static final int QUEUE_CAPACITY = 64;
+    private static final long MAX_IDLE_SLEEP = 50;
+
+    private static final Batch END = new Batch(null, null, null);
+
+    private final PrintStream stdout;
+    private final PrintStream stderr;
+    private final File outputDir;
+    private final long maxFileSize;
+    private final int maxBackups;
+    private final CopyOnWriteArrayList<Registration> registrations = new CopyOnWriteArrayList<Registration>();
+    private final BlockingQueue<Batch> batches = new ArrayBlockingQueue<Batch>(QUEUE_CAPACITY);
+    private final Thread pumpThread;
+    private final Thread writerThread;
+    private volatile boolean shutdown;
+
+    ProcessOutputPump(final PrintStream stdout, final PrintStream stderr) {
+        this(stdout, stderr, getOutputDir(), getSystemProperty(OUTPUT_MAX_SIZE_PROPERTY, OUTPUT_MAX_SIZE_DEFAULT),
+                (int) getSystemProperty(OUTPUT_MAX_BACKUPS_PROPERTY, OUTPUT_MAX_BACKUPS_DEFAULT));
+    }
+
+    /**
+     * @param stdout the console stdout
+     * @param stderr the console stderr
+     * @param outputDir the directory of the output files of the processes, {@code null} to write to the console
+     * @param maxFileSize the size in bytes at which an output file is rotated
+     * @param maxBackups the number of rotated output files to keep
+     */
+    ProcessOutputPump(final PrintStream stdout, final PrintStream stderr, final File outputDir, final long maxFileSize, final int maxBackups) {
+        this.stdout = stdout;
+        this.stderr = stderr;
+        this.outputDir = outputDir;
+        this.maxFileSize = maxFileSize;
+        this.maxBackups = maxBackups;
+        pumpThread = new Thread(new PumpTask(), "process output pump");
+        pumpThread.setDaemon(true);
+        writerThread = new Thread(new WriteTask(), "process output writer");
+        writerThread.setDaemon(true);
+        pumpThread.start();
+        writerThread.start();
+    }
+
+    /**
+     * Start copying the output of a process.
+     *
+     * @param processName the name of the process
+     * @param privileged whether the process is privileged, the output of which is always written to the console
+     * @param stdout the stdout of the process
+     * @param stderr the stderr of the process
+     * @param log the logger of the process
+     * @return the registration, to close once the process finished
+     */
+    Registration register(final String processName, final boolean privileged, final InputStream stdout, final InputStream stderr, final ProcessLogger log) {
+        final Sink out;
+        final Sink err;
+        if (outputDir == null || privileged) {
+            out = new ConsoleSink(this.stdout);
+            err = new ConsoleSink(this.stderr);
+        } else {
+            out = err = new RotatingFileSink(new File(outputDir, getFileName(processName)), maxFileSize, maxBackups);
+        }
+        final Registration registration = new Registration(processName, log, new Source(stdout, out), new Source(stderr, err));
+        registrations.add(registration);
+        LockSupport.unpark(pumpThread);
+        return registration;
+    }
+
+    /**
+     * Copy the remaining output of all registered processes, and stop the pump.
+     */
+    void shutdown() {
+        shutdown = true;
+        LockSupport.unpark(pumpThread);
+        boolean interrupted = false;
+        for (Thread thread : Arrays.asList(pumpThread, writerThread)) {
+            for (;;) try {
+                thread.join();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    static String getFileName(final String processName) {
+        return processName.replaceAll("[^A-Za-z0-9._-]", "_") + ".log";
+    }
+
+    /**
+     * The streams of a process.
+     */
+    final class Registration {
+
+        private final String processName;
+        private final ProcessLogger log;
+        private final Source[] sources;
+        private volatile boolean closed;
+
+        private Registration(final String processName, final ProcessLogger log, final Source... sources) {
+            this.processName = processName;
+            this.log = log;
+            this.sources = sources;
+        }
+
+        /**
+         * Copy the output remaining in the streams, and close them. To be called once the process finished, so
+         * the streams are at their end once their available bytes are read.
+         */
+        void close() {
+            closed = true;
+            LockSupport.unpark(pumpThread);
+        }
+    }
+
+    private final class PumpTask implements Runnable {
+
+        public void run() {
+            final byte[] buffer = new byte[BUFFER_SIZE];
+            long idleSleep = 1;
+            for (;;) {
+                final boolean shutdown = ProcessOutputPump.this.shutdown;
+                boolean read = false;
+                for (Registration registration : registrations) {
+                    final boolean closed = registration.closed || shutdown;
+                    for (Source source : registration.sources) {
+                        try {
+                            read |= source.pump(buffer, registration, closed);
+                        } catch (IOException e) {
+                            registration.log.streamProcessingFailed(registration.processName, e);
+                            source.failed = true;
+                        }
+                    }
+                    if (closed) {
+                        registrations.remove(registration);
+                        for (Source source : registration.sources) {
+                            StreamUtils.safeClose(source.stream);
+                            enqueue(new Batch(source.sink, null, registration));
+                        }
+                    }
+                }
+                if (shutdown) {
+                    enqueue(END);
+                    return;
+                }
+                if (read) {
+                    idleSleep = 1;
+                } else {
+                    // Nothing to read, wait for output with an increasing delay
+                    LockSupport.parkNanos(idleSleep * 1000000L);
+                    idleSleep = Math.min(idleSleep * 2, MAX_IDLE_SLEEP);
+                }
+            }
+        }
+    }
+
+    private final class WriteTask implements Runnable {
+
+        public void run() {
+            for (;;) {
+                final Batch batch;
+                try {
+                    batch = batches.take();
+                } catch (InterruptedException e) {
+                    continue;
+                }
+                if (batch == END) {
+                    return;
+                }
+                try {
+                    if (batch.text == null) {
+                        batch.sink.close();
+                    } else {
+                        batch.sink.write(batch.text);
+                    }
+                } catch (IOException e) {
+                    batch.registration.log.streamProcessingFailed(batch.registration.processName, e);
+                }
+            }
+        }
+    }
+
+    private void enqueue(final Batch batch) {
+        // Blocks the pump while the writer is behind
+        for (;;) try {
+            batches.put(batch);
+            return;
+        } catch (InterruptedException e) {
+            // ignore
+        }
+    }
+
+    /**
+     * A stream of a process, and the line being read from it.
+     */
+    private final class Source {
+
+        private final InputStream stream;
+        private final Sink sink;
+        private final StringBuilder batch = new StringBuilder();
+        private byte[] line = new byte[256];
+        private int lineLength;
+        private boolean skipLineFeed;
+        private String prevEscape = "";
+        private boolean failed;
+
+        private Source(final InputStream stream, final Sink sink) {
+            this.stream = stream;
+            this.sink = sink;
+        }
+
+        /**
+         * Read the available output, and queue the complete lines as one batch.
+         *
+         * @return {@code true} if output was read
+         */
+        boolean pump(final byte[] buffer, final Registration registration, final boolean closed) throws IOException {
+            if (failed) {
+                return false;
+            }
+            final String processName = registration.processName;
+            boolean read = false;
+            int available;
+            do {
+                available = stream.available();
+                if (available > 0) {
+                    final int count = stream.read(buffer, 0, Math.min(available, buffer.length));
+                    if (count <= 0) {
+                        break;
+                    }
+                    read = true;
+                    for (int i = 0; i < count; i++) {
+                        final byte b = buffer[i];
+                        if (b == '\n' || b == '\r') {
+                            if (b == '\n' && skipLineFeed) {
+                                skipLineFeed = false;
+                                continue;
+                            }
+                            skipLineFeed = b == '\r';
+                            appendLine(processName);
+                        } else {
+                            skipLineFeed = false;
+                            if (lineLength == line.length) {
+                                line = Arrays.copyOf(line, line.length * 2);
+                            }
+                            line[lineLength++] = b;
+                        }
+                    }
+                }
+                // Read one buffer per pass, unless draining a finished process
+            } while (closed && available > 0);
+            if (closed && lineLength > 0) {
+                appendLine(processName);
+            }
+            if (batch.length() > 0) {
+                enqueue(new Batch(sink, batch.toString(), registration));
+                batch.setLength(0);
+            }
+            return read;
+        }
+
+        private void appendLine(final String processName) {
+            final String s = new String(line, 0, lineLength);
+            lineLength = 0;
+            // Has ANSI?
+            int i = s.lastIndexOf('\033');
+            int j = i != -1 ? s.indexOf('m', i) : 0;
+
+            batch.append('[').append(processName).append("] ").append(prevEscape).append(s);
+            // Reset if there was ANSI
+            if (j != 0 || prevEscape.length() > 0) {
+                batch.append("\033[0m");
+            }
+            batch.append('\n');
+
+            // Remember escape code for the next line
+            if (j != 0) {
+                String escape = s.substring(i, j + 1);
+                if (!"\033[0m".equals(escape)) {
+                    prevEscape = escape;
+                } else {
+                    prevEscape = "";
+                }
+            }
+        }
+    }
+
+    private static final class Batch {
+
+        private final Sink sink;
+        /** The text to write, {@code null} to close the sink */
+        private final String text;
+        private final Registration registration;
+
+        private Batch(final Sink sink, final String text, final Registration registration) {
+            this.sink = sink;
+            this.text = text;
+            this.registration = registration;
+        }
+    }
+
+    private interface Sink {
+
+        void write(String text) throws IOException;
+
+        void close() throws IOException;
+    }
+
+    private static final class ConsoleSink implements Sink {
+
+        private final PrintStream target;
+        private final Writer writer;
+
+        private ConsoleSink(final PrintStream target) {
+            this.target = target;
+            this.writer = new OutputStreamWriter(target);
+        }
+
+        public void write(final String text) throws IOException {
+            // Same lock as the console handler of the process controller
+            synchronized (target) {
+                writer.write(text);
+                writer.flush();
+            }
+        }
+
+        public void close() {
+            // The console stays open
+        }
+    }
+
+    /**
+     * A file rotated once it reached its maximum size: {@code name.log} is renamed to {@code name.log.1},
+     * {@code name.log.1} to {@code name.log.2}, and so on. Shared by the stdout and stderr of a process, so it is
+     * closed once both are closed.
+     */
+    private static final class RotatingFileSink implements Sink {
+
+        private final File file;
+        private final long maxSize;
+        private final int maxBackups;
+        private Writer writer;
+        private FileOutputStream out;
+        private int openSources = 2;
+
+        private RotatingFileSink(final File file, final long maxSize, final int maxBackups) {
+            this.file = file;
+            this.maxSize = maxSize;
+            this.maxBackups = maxBackups;
+        }
+
+        public void write(final String text) throws IOException {
+            if (writer == null) {
+                file.getParentFile().mkdirs();
+                out = new FileOutputStream(file, true);
+                writer = new OutputStreamWriter(out);
+            }
+            writer.write(text);
+            writer.flush();
+            if (out.getChannel().position() >= maxSize) {
+                rotate();
+            }
+        }
+
+        public void close() throws IOException {
+            if (--openSources == 0 && writer != null) {
+                writer.close();
+                writer = null;
+            }
+        }
+
+        private void rotate() throws IOException {
+            writer.close();
+            writer = null;
+            for (int i = maxBackups; i > 0; i--) {
+                final File backup = new File(file.getPath() + "." + i);
+                final File previous = i == 1 ? file : new File(file.getPath() + "." + (i - 1));
+                if (i == maxBackups) {
+                    backup.delete();
+                }
+                if (previous.exists() && !previous.renameTo(backup)) {
+                    throw new IOException(ProcessMessages.MESSAGES.failedToRotateFile(previous, backup));
+                }
+            }
+            if (maxBackups <= 0) {
+                file.delete();
+            }
+        }
+    }
+
+    private static File getOutputDir() {
+        final String dir = SecurityActions.getSystemProperty(OUTPUT_DIR_PROPERTY);
+        return dir == null ? null : new File(dir);
+    }
+
+    private static long getSystemProperty(final String name, final long defaultValue) {
+        final String value = SecurityActions.getSystemProperty(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+}
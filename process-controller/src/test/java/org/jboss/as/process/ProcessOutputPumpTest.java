@@ -0,0 +1,100 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.process;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.PrintStream;
+
+import org.jboss.logging.Logger;
+import org.junit.Test;
+
+/**
+ * Tests of the copy of the output of the managed processes.
+ */
+public class ProcessOutputPumpTest {
+
+    private static final ProcessLogger log = Logger.getMessageLogger(ProcessLogger.class, "org.jboss.as.process.test");
+
+    @Test
+    public void testConsoleOutput() throws Exception {
+        final ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+        final ByteArrayOutputStream stderr = new ByteArrayOutputStream();
+        final ProcessOutputPump pump = new ProcessOutputPump(new PrintStream(stdout, true), new PrintStream(stderr, true), null, 0, 0);
+
+        pump.register("Server:one", false, input("first\r\nsecond\n\033[31mred\nstill red\033[0m\nplain\nlast"), input("error\n"), log).close();
+        pump.shutdown();
+
+        assertEquals("[Server:one] first\n" +
+                "[Server:one] second\n" +
+                "[Server:one] \033[31mred\033[0m\n" +
+                "[Server:one] \033[31mstill red\033[0m\033[0m\n" +
+                "[Server:one] plain\n" +
+                "[Server:one] last\n", stdout.toString("UTF-8"));
+        assertEquals("[Server:one] error\n", stderr.toString("UTF-8"));
+    }
+
+    @Test
+    public void testRotatingFileOutput() throws Exception {
+        final File dir = new File(new File("target"), "process-output");
+        final File file = new File(dir, ProcessOutputPump.getFileName("Server:one"));
+        deleteRecursively(dir);
+
+        final ByteArrayOutputStream console = new ByteArrayOutputStream();
+        final ProcessOutputPump pump = new ProcessOutputPump(new PrintStream(console, true), new PrintStream(console, true), dir, 100, 2);
+        final StringBuilder output = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            output.append("line ").append(i).append('\n');
+        }
+        // The output of privileged processes stays on the console
+        pump.register("Host Controller", true, input("host\n"), input(""), log).close();
+        pump.register("Server:one", false, input(output.toString()), input(""), log).close();
+        pump.shutdown();
+
+        assertEquals("[Host Controller] host\n", console.toString("UTF-8"));
+        assertEquals("Server_one.log", file.getName());
+        // The file is rotated once a batch made it exceed its maximum size
+        assertFalse(file.exists());
+        assertTrue(new File(dir, "Server_one.log.1").length() > 100);
+        assertFalse(new File(dir, "Server_one.log.2").exists());
+        deleteRecursively(dir);
+    }
+
+    private static ByteArrayInputStream input(final String text) throws Exception {
+        return new ByteArrayInputStream(text.getBytes("UTF-8"));
+    }
+
+    private static void deleteRecursively(final File file) {
+        if (file.isDirectory()) {
+            for (File child : file.listFiles()) {
+                deleteRecursively(child);
+            }
+        }
+        file.delete();
+    }
+}
@@ -24,7 +24,9 @@ package org.jboss.as.security.vault;
 import java.security.AccessController;
 import java.security.PrivilegedActionException;
 import java.security.PrivilegedExceptionAction;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.StringTokenizer;
 import java.util.regex.Pattern;
@@ -44,7 +46,22 @@ public class RuntimeVaultReader extends AbstractVaultReader {
 
     private static final Pattern VAULT_PATTERN = Pattern.compile("VAULT::.*::.*::.*");
 
+    /** The maximum number of parsed vault expressions kept */
+    private static final int MAX_PARSED_EXPRESSIONS = 256;
+
     private volatile SecurityVault vault;
+    /**
+     * The tokens of the vault expressions already parsed. The retrieved values themselves are not kept, so no
+     * secrets are held in memory and changes to the vault are always seen.
+     */
+    private final Map<String, String[]> parsed = Collections.synchronizedMap(new LinkedHashMap<String, String[]>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<String, String[]> eldest) {
+            return size() > MAX_PARSED_EXPRESSIONS;
+        }
+    });
 
 
     /**
@@ -120,7 +137,11 @@ public class RuntimeVaultReader extends AbstractVaultReader {
     }
 
     private char[] getValue(String vaultString) throws SecurityVaultException {
-        String[] tokens = tokens(vaultString);
+        String[] tokens = parsed.get(vaultString);
+        if (tokens == null) {
+            tokens = tokens(vaultString);
+            parsed.put(vaultString, tokens);
+        }
         return vault.retrieve(tokens[1], tokens[2], tokens[3].getBytes(VaultSession.CHARSET));
     }
 
@@ -401,4 +401,8 @@ public interface ServerLogger extends BasicLogger {
     @LogMessage(level = Logger.Level.INFO)
     @Message(id = 15970, value = "Defer %s for %s making it %s")
     void infoDeferDeploymentPhase(Phase phase, String deploymentName, Mode mode);
+
+    @LogMessage(level = WARN)
+    @Message(id = 15971, value = "Could not write the cached annotation index %s")
+    void cannotWriteCachedAnnotationIndex(String index, @Cause Throwable cause);
 }
@@ -38,6 +38,7 @@ import org.jboss.as.controller.BootContext;
 import org.jboss.as.controller.ControlledProcessState;
 import org.jboss.as.controller.ModelController;
 import org.jboss.as.controller.OperationStepHandler;
+import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.PathElement;
 import org.jboss.as.controller.ProcessType;
 import org.jboss.as.controller.ResourceDefinition;
@@ -58,6 +59,7 @@ import org.jboss.as.server.controller.resources.ServerRootResourceDefinition;
 import org.jboss.as.server.deployment.Attachments;
 import org.jboss.as.server.deployment.ContentOverrideDeploymentUnitProcessor;
 import org.jboss.as.server.deployment.DeploymentCompleteServiceProcessor;
+import org.jboss.as.server.deployment.DeploymentExecutorService;
 import org.jboss.as.server.deployment.DeploymentMountProvider;
 import org.jboss.as.server.deployment.DeploymentPhaseContext;
 import org.jboss.as.server.deployment.DeploymentUnit;
@@ -66,6 +68,7 @@ import org.jboss.as.server.deployment.DeploymentUnitProcessor;
 import org.jboss.as.server.deployment.Phase;
 import org.jboss.as.server.deployment.ServiceLoaderProcessor;
 import org.jboss.as.server.deployment.SubDeploymentProcessor;
+import org.jboss.as.server.deployment.annotation.AnnotationIndexCache;
 import org.jboss.as.server.deployment.annotation.AnnotationIndexProcessor;
 import org.jboss.as.server.deployment.annotation.CleanupAnnotationIndexProcessor;
 import org.jboss.as.server.deployment.annotation.CompositeIndexProcessor;
@@ -191,6 +194,7 @@ public final class ServerService extends AbstractControllerService {
 //        serverExecutorService.getThreadFactoryInjector().inject(threadFactory);
         final ServerExecutorService serverExecutorService = new ServerExecutorService(threadFactory);
         serviceTarget.addService(Services.JBOSS_SERVER_EXECUTOR, serverExecutorService).install();
+        DeploymentExecutorService.addService(serviceTarget);
 
         DelegatingResourceDefinition rootResourceDefinition = new DelegatingResourceDefinition();
         ServerService service = new ServerService(configuration, processState, null, bootstrapListener, rootResourceDefinition, runningModeControl, vaultReader);
@@ -241,16 +245,19 @@ public final class ServerService extends AbstractControllerService {
             context.getServiceTarget().addService(DeploymentOverlayIndexService.SERVICE_NAME, deploymentOverlayIndexService).install();
 
             // Activate module loader
+            final AnnotationIndexCache annotationIndexCache = new AnnotationIndexCache(new File(serverEnvironment.getServerDataDir(), "annotation-index"));
             DeployerChainAddHandler.addDeploymentProcessor(SERVER_NAME, Phase.STRUCTURE, Phase.STRUCTURE_SERVICE_MODULE_LOADER, new DeploymentUnitProcessor() {
                 @Override
                 public void deploy(DeploymentPhaseContext phaseContext) throws DeploymentUnitProcessingException {
                     phaseContext.getDeploymentUnit().putAttachment(Attachments.SERVICE_MODULE_LOADER, injectedModuleLoader.getValue());
                     phaseContext.getDeploymentUnit().putAttachment(Attachments.EXTERNAL_MODULE_SERVICE, injectedExternalModuleService.getValue());
+                    phaseContext.getDeploymentUnit().putAttachment(Attachments.ANNOTATION_INDEX_CACHE, annotationIndexCache);
                 }
 
                 @Override
                 public void undeploy(DeploymentUnit context) {
                     context.removeAttachment(Attachments.SERVICE_MODULE_LOADER);
+                    context.removeAttachment(Attachments.ANNOTATION_INDEX_CACHE);
                 }
             });
 
@@ -346,6 +353,8 @@ public final class ServerService extends AbstractControllerService {
 
         // Platform MBeans
         rootResource.registerChild(PlatformMBeanConstants.ROOT_PATH, new RootPlatformMBeanResource());
+
+        registerControllerMetrics(rootRegistration.getSubModel(PathAddress.pathAddress(PathElement.pathElement(ModelDescriptionConstants.CORE_SERVICE, ModelDescriptionConstants.MANAGEMENT))));
     }
 
     /** Temporary replacement for QueuelessThreadPoolService */
@@ -23,11 +23,13 @@
 package org.jboss.as.server.deployment;
 
 import java.util.Set;
+import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.jar.Manifest;
 
 import org.jboss.as.controller.ServiceVerificationHandler;
 import org.jboss.as.server.deployment.annotation.AnnotationIndexProcessor;
+import org.jboss.as.server.deployment.annotation.AnnotationIndexCache;
 import org.jboss.as.server.deployment.annotation.CompositeIndex;
 import org.jboss.as.server.deployment.module.AdditionalModuleSpecification;
 import org.jboss.as.server.deployment.module.ExtensionInfo;
@@ -63,6 +65,12 @@ public final class Attachments {
      * A list of service dependencies that must be satisfied before the next deployment phase can begin executing.
      */
     public static final AttachmentKey<AttachmentList<AttachableDependency>> NEXT_PHASE_ATTACHABLE_DEPS = AttachmentKey.createList(AttachableDependency.class);
+    /**
+     * The executor of the tasks running concurrently with the thread of the deployment phase, attached to the phase
+     * context. Not attached if the deployment executor is not available, in which case the tasks have to be executed
+     * by the thread of the phase.
+     */
+    public static final AttachmentKey<Executor> DEPLOYMENT_EXECUTOR = AttachmentKey.create(Executor.class);
 
     /**
      * A set of subsystem names that should not be processed. Any subsystem whos name is in this list will not have
@@ -162,6 +170,11 @@ public final class Attachments {
      */
     public static final AttachmentKey<Index> ANNOTATION_INDEX = AttachmentKey.create(Index.class);
 
+    /**
+     * The cache of the annotation indexes of the resource roots.
+     */
+    public static final AttachmentKey<AnnotationIndexCache> ANNOTATION_INDEX_CACHE = AttachmentKey.create(AnnotationIndexCache.class);
+
     /**
      * The composite annotation index for this deployment.
      */
@@ -0,0 +1,53 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment;
+
+import java.util.Set;
+
+/**
+ * A deployment processor which declares the attachments it uses. The consecutive processors of a phase which all
+ * declare their attachments may be executed concurrently: a processor is only executed once the processors of
+ * lower priority writing an attachment it reads or writes, or reading an attachment it writes, completed.
+ * <p>
+ * The declared attachments cover the attachments of both the deployment unit and the phase context, and of the
+ * parent deployment unit. A processor which uses any other shared state, or the order of execution of other
+ * processors, should not implement this interface. The methods of the {@link DeploymentPhaseContext} may be called
+ * concurrently by the processors of a group.
+ */
+public interface ConcurrentDeploymentUnitProcessor extends DeploymentUnitProcessor {
+
+    /**
+     * Get the keys of the attachments read by {@link #deploy(DeploymentPhaseContext)}.
+     *
+     * @return the keys of the attachments read
+     */
+    Set<AttachmentKey<?>> getReadAttachments();
+
+    /**
+     * Get the keys of the attachments added, replaced or removed by {@link #deploy(DeploymentPhaseContext)}, or
+     * whose value it modifies.
+     *
+     * @return the keys of the attachments written
+     */
+    Set<AttachmentKey<?>> getWrittenAttachments();
+}
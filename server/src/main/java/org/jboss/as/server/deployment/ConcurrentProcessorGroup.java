@@ -0,0 +1,264 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Executes consecutive {@link ConcurrentDeploymentUnitProcessor}s of a phase concurrently, in an order consistent with
+ * their declared attachments, on the deployment executor. The thread of the phase takes part in the execution, so a
+ * deployment progresses even if all the threads of the executor are busy, or if there is no executor.
+ */
+final class ConcurrentProcessorGroup {
+
+    private final List<RegisteredDeploymentUnitProcessor> processors;
+    private final DeploymentUnit deploymentUnit;
+    private final Phase phase;
+    private final DeploymentPhaseContext phaseContext;
+    private final Executor executor;
+    private final ClassLoader contextClassLoader;
+    /** The processors to execute after each processor */
+    private final List<List<Integer>> successors;
+
+    // Guarded by this
+    /** The number of processors each processor waits for */
+    private final int[] predecessorCounts;
+    private final Deque<Integer> ready = new ArrayDeque<Integer>();
+    private final boolean[] started;
+    private int running;
+    private int completed;
+    private Throwable failure;
+
+    private ConcurrentProcessorGroup(final List<RegisteredDeploymentUnitProcessor> processors, final DeploymentUnit deploymentUnit,
+                                     final Phase phase, final DeploymentPhaseContext phaseContext, final Executor executor) {
+        this.processors = processors;
+        this.deploymentUnit = deploymentUnit;
+        this.phase = phase;
+        this.phaseContext = phaseContext;
+        this.executor = executor;
+        this.contextClassLoader = SecurityActions.getContextClassLoader();
+        final int size = processors.size();
+        successors = new ArrayList<List<Integer>>(size);
+        predecessorCounts = new int[size];
+        started = new boolean[size];
+        for (int i = 0; i < size; i++) {
+            successors.add(new ArrayList<Integer>());
+        }
+        for (int j = 0; j < size; j++) {
+            final ConcurrentDeploymentUnitProcessor later = (ConcurrentDeploymentUnitProcessor) processors.get(j).getProcessor();
+            for (int i = 0; i < j; i++) {
+                final ConcurrentDeploymentUnitProcessor earlier = (ConcurrentDeploymentUnitProcessor) processors.get(i).getProcessor();
+                if (conflicts(earlier, later)) {
+                    successors.get(i).add(j);
+                    predecessorCounts[j]++;
+                }
+            }
+            if (predecessorCounts[j] == 0) {
+                ready.add(j);
+            }
+        }
+    }
+
+    /**
+     * Get the end of the group of processors starting at an index of a chain.
+     *
+     * @param chain the processors of the phase
+     * @param start the index of the first processor of the group
+     * @return the index following the last processor of the group, {@code start + 1} if the processor at {@code start}
+     *         has to be executed alone
+     */
+    static int getGroupEnd(final List<RegisteredDeploymentUnitProcessor> chain, final int start) {
+        int end = start;
+        while (end < chain.size() && chain.get(end).getProcessor() instanceof ConcurrentDeploymentUnitProcessor) {
+            end++;
+        }
+        return Math.max(end, start + 1);
+    }
+
+    /**
+     * Execute a group of processors. If one of them fails, the processors which were started are undeployed, in
+     * reverse priority order, before the failure is thrown.
+     *
+     * @param processors the processors, as returned by {@link #getGroupEnd(List, int)}
+     * @param deploymentUnit the deployment unit
+     * @param phase the phase
+     * @param phaseContext the context of the phase
+     * @param executor the executor of the processors which run concurrently with the thread of the phase, or
+     *                 {@code null} to execute all of them in the thread of the phase
+     * @throws Throwable the failure of the first failed processor
+     */
+    static void deploy(final List<RegisteredDeploymentUnitProcessor> processors, final DeploymentUnit deploymentUnit, final Phase phase,
+                       final DeploymentPhaseContext phaseContext, final Executor executor) throws Throwable {
+        new ConcurrentProcessorGroup(processors, deploymentUnit, phase, phaseContext, executor).deploy();
+    }
+
+    private void deploy() throws Throwable {
+        // The phase thread executes the first ready processor, the executor the others
+        synchronized (this) {
+            startWorkers(ready.size() - 1);
+        }
+        execute(true);
+
+        final Throwable failure;
+        synchronized (this) {
+            failure = this.failure;
+        }
+        if (failure != null) {
+            for (int i = processors.size() - 1; i >= 0; i--) {
+                if (started[i]) {
+                    DeploymentUnitPhaseService.safeUndeploy(deploymentUnit, phase, processors.get(i));
+                }
+            }
+            throw failure;
+        }
+    }
+
+    /**
+     * Execute the ready processors.
+     *
+     * @param wait {@code true} to wait for the completion of the group, {@code false} to return once no processor
+     *             is ready
+     */
+    private void execute(final boolean wait) {
+        boolean interrupted = false;
+        try {
+            for (;;) {
+                final int index;
+                synchronized (this) {
+                    for (;;) {
+                        if (failure != null && running == 0 || completed == processors.size()) {
+                            return;
+                        }
+                        if (failure == null && !ready.isEmpty()) {
+                            index = ready.poll();
+                            started[index] = true;
+                            running++;
+                            break;
+                        }
+                        if (!wait) {
+                            return;
+                        }
+                        try {
+                            wait();
+                        } catch (InterruptedException e) {
+                            // The running processors have to complete anyway
+                            interrupted = true;
+                        }
+                    }
+                }
+                executed(index, execute(index));
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private Throwable execute(final int index) {
+        try {
+            final RegisteredDeploymentUnitProcessor processor = processors.get(index);
+            if (DeploymentUnitPhaseService.shouldRun(deploymentUnit, processor)) {
+                processor.getProcessor().deploy(phaseContext);
+            }
+            return null;
+        } catch (Throwable t) {
+            return t;
+        }
+    }
+
+    private synchronized void executed(final int index, final Throwable thrown) {
+        running--;
+        completed++;
+        if (thrown != null) {
+            if (failure == null) {
+                failure = thrown;
+            }
+        } else {
+            int newlyReady = 0;
+            for (int successor : successors.get(index)) {
+                if (--predecessorCounts[successor] == 0) {
+                    ready.add(successor);
+                    newlyReady++;
+                }
+            }
+            // The executing thread takes one of them
+            startWorkers(newlyReady - 1);
+        }
+        notifyAll();
+    }
+
+    private void startWorkers(final int count) {
+        if (executor == null) {
+            return;
+        }
+        try {
+            for (int i = 0; i < count; i++) {
+                executor.execute(new Worker());
+            }
+        } catch (RejectedExecutionException e) {
+            // The executor is shutting down, the executing threads take the ready processors
+        }
+    }
+
+    private static boolean conflicts(final ConcurrentDeploymentUnitProcessor earlier, final ConcurrentDeploymentUnitProcessor later) {
+        final Set<AttachmentKey<?>> earlierWritten = nonNull(earlier.getWrittenAttachments());
+        return intersects(earlierWritten, nonNull(later.getReadAttachments()))
+                || intersects(earlierWritten, nonNull(later.getWrittenAttachments()))
+                || intersects(nonNull(earlier.getReadAttachments()), nonNull(later.getWrittenAttachments()));
+    }
+
+    private static boolean intersects(final Set<AttachmentKey<?>> first, final Set<AttachmentKey<?>> second) {
+        for (AttachmentKey<?> key : first) {
+            if (second.contains(key)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Set<AttachmentKey<?>> nonNull(final Set<AttachmentKey<?>> keys) {
+        return keys == null ? Collections.<AttachmentKey<?>>emptySet() : keys;
+    }
+
+    private final class Worker implements Runnable {
+
+        @Override
+        public void run() {
+            final ClassLoader old = SecurityActions.getContextClassLoader();
+            SecurityActions.setContextClassLoader(contextClassLoader);
+            try {
+                execute(false);
+            } finally {
+                SecurityActions.setContextClassLoader(old);
+            }
+        }
+    }
+}
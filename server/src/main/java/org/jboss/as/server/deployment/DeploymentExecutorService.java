@@ -0,0 +1,72 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment;
+
+import java.security.AccessController;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.msc.service.Service;
+import org.jboss.msc.service.ServiceTarget;
+import org.jboss.msc.service.StartContext;
+import org.jboss.msc.service.StartException;
+import org.jboss.msc.service.StopContext;
+import org.jboss.threads.JBossThreadFactory;
+
+/**
+ * The executor of the deployment tasks which run concurrently with the thread of a deployment phase, shared by all
+ * the deployments. It has one thread per processor, so concurrent deployments can't start more threads than the
+ * machine can run. The tasks must not wait for each other: the thread of the phase takes part in the work, and is
+ * the only one waiting for its completion.
+ */
+public class DeploymentExecutorService implements Service<ExecutorService> {
+
+    private ExecutorService executor;
+
+    public static void addService(final ServiceTarget serviceTarget) {
+        serviceTarget.addService(Services.JBOSS_DEPLOYMENT_EXECUTOR, new DeploymentExecutorService()).install();
+    }
+
+    public synchronized void start(final StartContext context) throws StartException {
+        final int threads = Runtime.getRuntime().availableProcessors();
+        final JBossThreadFactory threadFactory = new JBossThreadFactory(new ThreadGroup("Deployment-threads"), Boolean.TRUE, null, "%G - %t", null, null, AccessController.getContext());
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 30L, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), threadFactory);
+        executor.allowCoreThreadTimeOut(true);
+        this.executor = executor;
+    }
+
+    public synchronized void stop(final StopContext context) {
+        executor.shutdown();
+        executor = null;
+    }
+
+    public synchronized ExecutorService getValue() throws IllegalStateException, IllegalArgumentException {
+        final ExecutorService executor = this.executor;
+        if (executor == null) {
+            throw new IllegalStateException();
+        }
+        return executor;
+    }
+}
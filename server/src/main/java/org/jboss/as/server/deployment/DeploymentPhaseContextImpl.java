@@ -72,7 +72,8 @@ final class DeploymentPhaseContextImpl extends SimpleAttachable implements Deplo
     }
 
     @Override
-    public <T> void addDependency(final ServiceName serviceName, final Class<T> type, final Injector<T> injector) {
+    public synchronized <T> void addDependency(final ServiceName serviceName, final Class<T> type, final Injector<T> injector) {
+        // The builder is not thread safe, and concurrent processors may add dependencies at the same time
         nextPhaseBuilder.addDependency(serviceName, type, injector);
     }
 
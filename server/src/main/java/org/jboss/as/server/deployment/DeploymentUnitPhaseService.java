@@ -28,12 +28,14 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
 
 import org.jboss.as.server.ServerLogger;
 import org.jboss.as.server.ServerMessages;
 import org.jboss.msc.service.DelegatingServiceRegistry;
 import org.jboss.msc.service.Service;
 import org.jboss.msc.service.ServiceBuilder;
+import org.jboss.msc.service.ServiceBuilder.DependencyType;
 import org.jboss.msc.service.ServiceContainer;
 import org.jboss.msc.service.ServiceController.Mode;
 import org.jboss.msc.service.ServiceName;
@@ -55,6 +57,7 @@ final class DeploymentUnitPhaseService<T> implements Service<T> {
     private static final AttachmentKey<AttachmentList<DeploymentUnit>> UNVISITED_DEFERRED_MODULES = AttachmentKey.createList(DeploymentUnit.class);
 
     private final InjectedValue<DeployerChains> deployerChainsInjector = new InjectedValue<DeployerChains>();
+    private final InjectedValue<ExecutorService> executorInjector = new InjectedValue<ExecutorService>();
     private final DeploymentUnit deploymentUnit;
     private final Phase phase;
     private final AttachmentKey<T> valueKey;
@@ -79,7 +82,6 @@ final class DeploymentUnitPhaseService<T> implements Service<T> {
         final DeployerChains chains = deployerChainsInjector.getValue();
         final DeploymentUnit deploymentUnit = this.deploymentUnit;
         final List<RegisteredDeploymentUnitProcessor> list = chains.getChain(phase);
-        final ListIterator<RegisteredDeploymentUnitProcessor> iterator = list.listIterator();
         final ServiceContainer container = context.getController().getServiceContainer();
         final ServiceTarget serviceTarget = context.getChildTarget().subTarget();
         final Phase nextPhase = phase.next();
@@ -97,6 +99,10 @@ final class DeploymentUnitPhaseService<T> implements Service<T> {
         }
         final DeploymentPhaseContext processorContext = new DeploymentPhaseContextImpl(serviceTarget, new DelegatingServiceRegistry(container), phaseServiceBuilder,
                 deploymentUnit, phase);
+        final ExecutorService executor = executorInjector.getOptionalValue();
+        if (executor != null) {
+            processorContext.putAttachment(Attachments.DEPLOYMENT_EXECUTOR, executor);
+        }
 
         // attach any injected values from the last phase
         for (AttachedDependency attachedDependency : injectedAttachedDependencies) {
@@ -113,22 +119,32 @@ final class DeploymentUnitPhaseService<T> implements Service<T> {
             }
         }
 
-        while (iterator.hasNext()) {
-            final RegisteredDeploymentUnitProcessor processor = iterator.next();
+        int index = 0;
+        while (index < list.size()) {
+            final int end = ConcurrentProcessorGroup.getGroupEnd(list, index);
             try {
-                if (shouldRun(deploymentUnit, processor)) {
-                    processor.getProcessor().deploy(processorContext);
+                if (end - index > 1) {
+                    // Undeploys the started processors of the group on failure
+                    ConcurrentProcessorGroup.deploy(list.subList(index, end), deploymentUnit, phase, processorContext, executor);
+                } else {
+                    final RegisteredDeploymentUnitProcessor processor = list.get(index);
+                    if (shouldRun(deploymentUnit, processor)) {
+                        processor.getProcessor().deploy(processorContext);
+                    }
                 }
             } catch (Throwable e) {
+                final ListIterator<RegisteredDeploymentUnitProcessor> iterator = list.listIterator(end - index > 1 ? index : end);
                 while (iterator.hasPrevious()) {
                     final RegisteredDeploymentUnitProcessor prev = iterator.previous();
                     safeUndeploy(deploymentUnit, phase, prev);
                 }
                 throw ServerMessages.MESSAGES.deploymentPhaseFailed(phase, deploymentUnit, e);
             }
+            index = end;
         }
         if (nextPhase != null) {
             phaseServiceBuilder.addDependency(Services.JBOSS_DEPLOYMENT_CHAINS, DeployerChains.class, phaseService.getDeployerChainsInjector());
+            phaseServiceBuilder.addDependency(DependencyType.OPTIONAL, Services.JBOSS_DEPLOYMENT_EXECUTOR, ExecutorService.class, phaseService.getExecutorInjector());
             phaseServiceBuilder.addDependency(context.getController().getName());
 
             final List<ServiceName> nextPhaseDeps = processorContext.getAttachment(Attachments.NEXT_PHASE_DEPS);
@@ -216,7 +232,7 @@ final class DeploymentUnitPhaseService<T> implements Service<T> {
         return initialMode;
     }
 
-    private static void safeUndeploy(final DeploymentUnit deploymentUnit, final Phase phase, final RegisteredDeploymentUnitProcessor prev) {
+    static void safeUndeploy(final DeploymentUnit deploymentUnit, final Phase phase, final RegisteredDeploymentUnitProcessor prev) {
         try {
             if (shouldRun(deploymentUnit, prev)) {
                 prev.getProcessor().undeploy(deploymentUnit);
@@ -234,7 +250,11 @@ final class DeploymentUnitPhaseService<T> implements Service<T> {
         return deployerChainsInjector;
     }
 
-    private static boolean shouldRun(final DeploymentUnit unit, final RegisteredDeploymentUnitProcessor deployer) {
+    InjectedValue<ExecutorService> getExecutorInjector() {
+        return executorInjector;
+    }
+
+    static boolean shouldRun(final DeploymentUnit unit, final RegisteredDeploymentUnitProcessor deployer) {
         Set<String> shouldNotRun = unit.getAttachment(Attachments.EXCLUDED_SUBSYSTEMS);
         if (shouldNotRun == null) {
             if (unit.getParent() != null) {
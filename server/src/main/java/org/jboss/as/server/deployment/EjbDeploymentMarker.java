@@ -30,7 +30,10 @@ package org.jboss.as.server.deployment;
  */
 public class EjbDeploymentMarker {
 
-    private static final AttachmentKey<Boolean> ATTACHMENT_KEY = AttachmentKey.create(Boolean.class);
+    /**
+     * The key of the marker, for the processors declaring the attachments they use
+     */
+    public static final AttachmentKey<Boolean> ATTACHMENT_KEY = AttachmentKey.create(Boolean.class);
 
     public static void mark(final DeploymentUnit deployment) {
         deployment.putAttachment(ATTACHMENT_KEY, true);
@@ -30,7 +30,10 @@ package org.jboss.as.server.deployment;
  */
 public class JPADeploymentMarker {
 
-    private static final AttachmentKey<Boolean> MARKER = AttachmentKey.create(Boolean.class);
+    /**
+     * The key of the marker, for the processors declaring the attachments they use
+     */
+    public static final AttachmentKey<Boolean> MARKER = AttachmentKey.create(Boolean.class);
 
     /**
      * Mark the top level deployment as being a JPA deployment. If the deployment is not a top level deployment the parent is
@@ -0,0 +1,256 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.annotation;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jboss.as.controller.HashUtil;
+import org.jboss.as.server.ServerLogger;
+import org.jboss.jandex.Index;
+import org.jboss.jandex.IndexReader;
+import org.jboss.jandex.IndexWriter;
+import org.jboss.vfs.VFSUtils;
+import org.jboss.vfs.VirtualFile;
+
+/**
+ * A cache of the annotation indexes of the resource roots, stored in a directory of the server, so the resource roots
+ * that did not change are not indexed again on the next deployment or boot.
+ * <p>
+ * The indexes of archives are keyed by a hash of the content of the archive file, and the indexes of the other
+ * resource roots by a hash of the names and the content of their class files. Both are much cheaper to compute than
+ * the index itself. The modification times are not used, as the archives of the reproducible builds have constant
+ * entry times. The entries that were not used for {@link #MAX_UNUSED_DAYS} days are removed when the cache is
+ * created.
+ * </p>
+ */
+public class AnnotationIndexCache {
+
+    static final int MAX_UNUSED_DAYS = 30;
+
+    private static final String SUFFIX = ".idx";
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final File dir;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * @param dir the directory of the cached indexes
+     */
+    public AnnotationIndexCache(final File dir) {
+        this.dir = dir;
+        removeUnused(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(MAX_UNUSED_DAYS));
+    }
+
+    /**
+     * Compute the key of the index of an archive, from the content of the archive file.
+     *
+     * @param archive the archive file
+     * @param ignorePaths the paths not indexed, or {@code null}
+     * @return the key, or {@code null} if the index of the archive can't be cached
+     */
+    String getKey(final File archive, final Set<String> ignorePaths) {
+        final MessageDigest digest = createDigest();
+        if (digest == null) {
+            return null;
+        }
+        // Keeps the keys of archives apart from the keys of the other resource roots
+        update(digest, "archive");
+        InputStream in = null;
+        try {
+            in = new FileInputStream(archive);
+            update(digest, in);
+        } catch (IOException e) {
+            return null;
+        } finally {
+            VFSUtils.safeClose(in);
+        }
+        return getKey(digest, ignorePaths);
+    }
+
+    /**
+     * Compute the key of the index of a resource root, from the names and the content of its class files.
+     *
+     * @param root the resource root
+     * @param ignorePaths the paths not indexed, or {@code null}
+     * @param classFiles the class files of the resource root
+     * @return the key, or {@code null} if the index of the resource root can't be cached
+     */
+    String getKey(final VirtualFile root, final Set<String> ignorePaths, final List<VirtualFile> classFiles) {
+        final MessageDigest digest = createDigest();
+        if (digest == null) {
+            return null;
+        }
+        for (VirtualFile classFile : classFiles) {
+            update(digest, classFile.getPathNameRelativeTo(root));
+            InputStream in = null;
+            try {
+                in = classFile.openStream();
+                update(digest, in);
+            } catch (IOException e) {
+                return null;
+            } finally {
+                VFSUtils.safeClose(in);
+            }
+        }
+        return getKey(digest, ignorePaths);
+    }
+
+    /**
+     * Get a cached index.
+     *
+     * @param key the key of the index
+     * @return the index, or {@code null} if it is not cached
+     */
+    Index get(final String key) {
+        final File file = getFile(key);
+        if (file.isFile()) {
+            InputStream in = null;
+            try {
+                in = new BufferedInputStream(new FileInputStream(file));
+                final Index index = new IndexReader(in).read();
+                file.setLastModified(System.currentTimeMillis());
+                hits.incrementAndGet();
+                return index;
+            } catch (Exception e) {
+                ServerLogger.DEPLOYMENT_LOGGER.tracef(e, "Could not read the cached index %s", file);
+            } finally {
+                VFSUtils.safeClose(in);
+            }
+            file.delete();
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * Store an index in the cache.
+     *
+     * @param key the key of the index
+     * @param index the index
+     */
+    void put(final String key, final Index index) {
+        final File file = getFile(key);
+        final File temp = new File(dir, key + "." + Thread.currentThread().getId() + ".tmp");
+        OutputStream out = null;
+        try {
+            if (!dir.isDirectory() && !dir.mkdirs() && !dir.isDirectory()) {
+                throw new IOException(dir.getAbsolutePath());
+            }
+            out = new BufferedOutputStream(new FileOutputStream(temp));
+            new IndexWriter(out).write(index);
+            out.close();
+            out = null;
+            // Another deployment may have stored the same index in the meantime
+            if (!temp.renameTo(file) && !file.isFile()) {
+                throw new IOException(temp.getAbsolutePath());
+            }
+        } catch (IOException e) {
+            ServerLogger.DEPLOYMENT_LOGGER.cannotWriteCachedAnnotationIndex(file.getAbsolutePath(), e);
+        } finally {
+            VFSUtils.safeClose(out);
+            temp.delete();
+        }
+    }
+
+    /**
+     * Get the number of indexes read from the cache.
+     *
+     * @return the number of hits
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * Get the number of indexes that were not cached.
+     *
+     * @return the number of misses
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    private File getFile(final String key) {
+        return new File(dir, key + SUFFIX);
+    }
+
+    private void removeUnused(final long unusedSince) {
+        final File[] files = dir.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                if (file.getName().endsWith(SUFFIX) && file.lastModified() < unusedSince) {
+                    file.delete();
+                }
+            }
+        }
+    }
+
+    private static MessageDigest createDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            return null;
+        }
+    }
+
+    private static String getKey(final MessageDigest digest, final Set<String> ignorePaths) {
+        if (ignorePaths != null) {
+            for (String path : new TreeSet<String>(ignorePaths)) {
+                update(digest, path);
+            }
+        }
+        return HashUtil.bytesToHexString(digest.digest());
+    }
+
+    private static void update(final MessageDigest digest, final InputStream in) throws IOException {
+        final byte[] buffer = new byte[8192];
+        long length = 0;
+        int count;
+        while ((count = in.read(buffer)) != -1) {
+            digest.update(buffer, 0, count);
+            length += count;
+        }
+        update(digest, Long.toString(length));
+    }
+
+    private static void update(final MessageDigest digest, final String value) {
+        digest.update(value.getBytes(UTF_8));
+        digest.update((byte) 0);
+    }
+}
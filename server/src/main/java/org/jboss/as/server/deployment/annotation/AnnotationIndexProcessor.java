@@ -22,6 +22,17 @@
 
 package org.jboss.as.server.deployment.annotation;
 
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.jboss.as.server.ServerLogger;
+import org.jboss.as.server.ServerMessages;
+import org.jboss.as.server.deployment.Attachments;
 import org.jboss.as.server.deployment.DeploymentPhaseContext;
 import org.jboss.as.server.deployment.DeploymentUnit;
 import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
@@ -30,13 +41,17 @@ import org.jboss.as.server.deployment.DeploymentUtils;
 import org.jboss.as.server.deployment.module.ResourceRoot;
 
 /**
- * Deployment unit processor responsible for creating and attaching an annotation index for a resource root
+ * Deployment unit processor responsible for creating and attaching an annotation index for a resource root. The
+ * resource roots of a deployment are indexed in parallel by the deployment executor, by at most as many threads as
+ * there are processors.
  *
  * @author John E. Bailey
  * @author Stuart Douglas
  */
 public class AnnotationIndexProcessor implements DeploymentUnitProcessor {
 
+    private static final int PARALLELISM = Runtime.getRuntime().availableProcessors();
+
     /**
      * Process this deployment for annotations.  This will use an annotation indexer to create an index of all annotations
      * found in this deployment and attach it to the deployment unit context.
@@ -47,11 +62,94 @@ public class AnnotationIndexProcessor implements DeploymentUnitProcessor {
      */
     public void deploy(DeploymentPhaseContext phaseContext) throws DeploymentUnitProcessingException {
         final DeploymentUnit deploymentUnit = phaseContext.getDeploymentUnit();
-        for (ResourceRoot resourceRoot : DeploymentUtils.allResourceRoots(deploymentUnit)) {
-            ResourceRootIndexer.indexResourceRoot(resourceRoot);
+        final AnnotationIndexCache cache = deploymentUnit.getAttachment(Attachments.ANNOTATION_INDEX_CACHE);
+        final List<ResourceRoot> resourceRoots = DeploymentUtils.allResourceRoots(deploymentUnit);
+        final Executor executor = phaseContext.getAttachment(Attachments.DEPLOYMENT_EXECUTOR);
+        if (executor == null || resourceRoots.size() < 2) {
+            for (ResourceRoot resourceRoot : resourceRoots) {
+                ResourceRootIndexer.indexResourceRoot(resourceRoot, cache);
+            }
+        } else {
+            // The thread of the phase takes part in the indexing, so the deployment progresses even if all the
+            // threads of the executor are busy
+            final IndexTask task = new IndexTask(resourceRoots, cache);
+            try {
+                for (int i = 1; i < Math.min(PARALLELISM, resourceRoots.size()); i++) {
+                    executor.execute(task);
+                }
+            } catch (RejectedExecutionException e) {
+                // The executor is shutting down, the thread of the phase indexes the remaining resource roots
+            }
+            task.run();
+            task.await();
+        }
+        if (cache != null) {
+            ServerLogger.DEPLOYMENT_LOGGER.debugf("Indexed %s, the annotation index cache had %d hits and %d misses so far", deploymentUnit.getName(), cache.getHits(), cache.getMisses());
         }
     }
 
     public void undeploy(final DeploymentUnit context) {
     }
+
+    /**
+     * Indexes the resource roots of a deployment, from any number of threads.
+     */
+    private static final class IndexTask implements Runnable {
+
+        private final Queue<ResourceRoot> resourceRoots;
+        private final AnnotationIndexCache cache;
+        /** Counts down as the resource roots get indexed, including the ones failing */
+        private final CountDownLatch remaining;
+        private final AtomicReference<DeploymentUnitProcessingException> failure = new AtomicReference<DeploymentUnitProcessingException>();
+
+        private IndexTask(final List<ResourceRoot> resourceRoots, final AnnotationIndexCache cache) {
+            this.resourceRoots = new ConcurrentLinkedQueue<ResourceRoot>(resourceRoots);
+            this.cache = cache;
+            this.remaining = new CountDownLatch(resourceRoots.size());
+        }
+
+        @Override
+        public void run() {
+            ResourceRoot resourceRoot;
+            while ((resourceRoot = resourceRoots.poll()) != null) {
+                try {
+                    if (failure.get() == null) {
+                        ResourceRootIndexer.indexResourceRoot(resourceRoot, cache);
+                    }
+                } catch (DeploymentUnitProcessingException e) {
+                    failure.compareAndSet(null, e);
+                } catch (RuntimeException e) {
+                    failure.compareAndSet(null, ServerMessages.MESSAGES.deploymentIndexingFailed(e));
+                } finally {
+                    remaining.countDown();
+                }
+            }
+        }
+
+        /**
+         * Wait for the resource roots taken by the other threads. Called once the calling thread found no more
+         * resource roots to index, so it never waits for a thread of the pool to become available.
+         */
+        private void await() throws DeploymentUnitProcessingException {
+            boolean interrupted = false;
+            try {
+                for (;;) {
+                    try {
+                        remaining.await();
+                        break;
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                    }
+                }
+            } finally {
+                if (interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            final DeploymentUnitProcessingException e = failure.get();
+            if (e != null) {
+                throw e;
+            }
+        }
+    }
 }
@@ -1,5 +1,6 @@
 package org.jboss.as.server.deployment.annotation;
 
+import java.io.File;
 import java.io.InputStream;
 import java.util.HashSet;
 import java.util.List;
@@ -29,6 +30,17 @@ public class ResourceRootIndexer {
      * Creates and attaches the annotation index to a resource root, if it has not already been attached
      */
     public static void indexResourceRoot(final ResourceRoot resourceRoot) throws DeploymentUnitProcessingException {
+        indexResourceRoot(resourceRoot, null);
+    }
+
+    /**
+     * Creates and attaches the annotation index to a resource root, if it has not already been attached. The index
+     * is read from the cache if the resource root was already indexed.
+     *
+     * @param resourceRoot the resource root
+     * @param cache the cache of the indexes, or {@code null}
+     */
+    public static void indexResourceRoot(final ResourceRoot resourceRoot, final AnnotationIndexCache cache) throws DeploymentUnitProcessingException {
         if (resourceRoot.getAttachment(Attachments.ANNOTATION_INDEX) != null) {
             return;
         }
@@ -70,23 +82,52 @@ public class ResourceRootIndexer {
                 }
             });
 
+            // A mounted archive is hashed as a whole, rather than reading each of its class files through VFS
+            final File archive = resourceRoot.getMountHandle() == null ? null : resourceRoot.getMountHandle().getMountSource();
+            final boolean mountedArchive = archive != null && archive.isFile();
+            String key = cache != null && mountedArchive ? cache.getKey(archive, indexIgnorePaths) : null;
+            if (readCachedIndex(resourceRoot, cache, key)) {
+                return;
+            }
             final List<VirtualFile> classChildren = virtualFile.getChildren(new SuffixMatchFilter(".class", visitorAttributes));
+            if (cache != null && !mountedArchive) {
+                key = cache.getKey(virtualFile, indexIgnorePaths, classChildren);
+                if (readCachedIndex(resourceRoot, cache, key)) {
+                    return;
+                }
+            }
+            boolean complete = true;
             for (VirtualFile classFile : classChildren) {
                 InputStream inputStream = null;
                 try {
                     inputStream = classFile.openStream();
                     indexer.index(inputStream);
                 } catch (Exception e) {
+                    complete = false;
                     ServerLogger.DEPLOYMENT_LOGGER.cannotIndexClass(classFile.getPathNameRelativeTo(virtualFile), virtualFile.getPathName(), e);
                 } finally {
                     VFSUtils.safeClose(inputStream);
                 }
             }
             final Index index = indexer.complete();
+            // An incomplete index is not cached, so the classes that could not be read are indexed again next time
+            if (key != null && complete) {
+                cache.put(key, index);
+            }
             resourceRoot.putAttachment(Attachments.ANNOTATION_INDEX, index);
             ServerLogger.DEPLOYMENT_LOGGER.tracef("Generated index for archive %s", virtualFile);
         } catch (Throwable t) {
             throw ServerMessages.MESSAGES.deploymentIndexingFailed(t);
         }
     }
+
+    private static boolean readCachedIndex(final ResourceRoot resourceRoot, final AnnotationIndexCache cache, final String key) {
+        final Index index = key == null ? null : cache.get(key);
+        if (index == null) {
+            return false;
+        }
+        resourceRoot.putAttachment(Attachments.ANNOTATION_INDEX, index);
+        ServerLogger.DEPLOYMENT_LOGGER.tracef("Read cached index for archive %s", resourceRoot.getRoot());
+        return true;
+    }
 }
@@ -23,6 +23,7 @@
 package org.jboss.as.server.deployment.module;
 
 import java.io.Closeable;
+import java.io.File;
 
 import org.jboss.vfs.VFSUtils;
 
@@ -47,6 +48,15 @@ public class MountHandle implements Closeable {
         this.handle = handle;
     }
 
+    /**
+     * Get the source of the mount, i.e. the mounted archive or directory.
+     *
+     * @return the source of the mount, or {@code null} if it is not known
+     */
+    public File getMountSource() {
+        return handle != null ? VFSUtils.getMountSource(handle) : null;
+    }
+
     /**
      * Forcefully close this handle. Use with caution.
      */
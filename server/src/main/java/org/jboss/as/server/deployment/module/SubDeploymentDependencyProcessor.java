@@ -22,23 +22,34 @@
 package org.jboss.as.server.deployment.module;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
+import org.jboss.as.server.deployment.AttachmentKey;
 import org.jboss.as.server.deployment.Attachments;
+import org.jboss.as.server.deployment.ConcurrentDeploymentUnitProcessor;
 import org.jboss.as.server.deployment.DeploymentPhaseContext;
 import org.jboss.as.server.deployment.DeploymentUnit;
 import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
-import org.jboss.as.server.deployment.DeploymentUnitProcessor;
 import org.jboss.modules.ModuleIdentifier;
 import org.jboss.modules.ModuleLoader;
 import org.jboss.modules.filter.PathFilters;
 
 /**
  * Processor that set up a module dependency on the parent module
+ * <p>
+ * The module specifications of the other sub deployments are only read, and were complete before this phase.
  *
  * @author Stuart Douglas
  */
-public class SubDeploymentDependencyProcessor implements DeploymentUnitProcessor {
+public class SubDeploymentDependencyProcessor implements ConcurrentDeploymentUnitProcessor {
+
+    private static final Set<AttachmentKey<?>> READ_ATTACHMENTS = Collections.unmodifiableSet(new HashSet<AttachmentKey<?>>(Arrays.<AttachmentKey<?>>asList(
+            Attachments.MODULE_SPECIFICATION, Attachments.SERVICE_MODULE_LOADER, Attachments.MODULE_IDENTIFIER, Attachments.SUB_DEPLOYMENTS)));
+    private static final Set<AttachmentKey<?>> WRITTEN_ATTACHMENTS = Collections.<AttachmentKey<?>>singleton(Attachments.MODULE_SPECIFICATION);
 
     @Override
     public void deploy(DeploymentPhaseContext phaseContext) throws DeploymentUnitProcessingException {
@@ -88,4 +99,14 @@ public class SubDeploymentDependencyProcessor implements DeploymentUnitProcessor
     public void undeploy(DeploymentUnit context) {
     }
 
+    @Override
+    public Set<AttachmentKey<?>> getReadAttachments() {
+        return READ_ATTACHMENTS;
+    }
+
+    @Override
+    public Set<AttachmentKey<?>> getWrittenAttachments() {
+        return WRITTEN_ATTACHMENTS;
+    }
+
 }
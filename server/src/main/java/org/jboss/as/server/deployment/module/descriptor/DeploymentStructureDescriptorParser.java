@@ -206,7 +206,7 @@ public class DeploymentStructureDescriptorParser implements DeploymentUnitProces
                 additional.addSystemDependencies(additionalModule.getModuleDependencies());
                 deploymentUnit.addToAttachmentList(Attachments.ADDITIONAL_MODULES, additional);
                 for (final ResourceRoot root : additionalModule.getResourceRoots()) {
-                    ResourceRootIndexer.indexResourceRoot(root);
+                    ResourceRootIndexer.indexResourceRoot(root, deploymentUnit.getAttachment(Attachments.ANNOTATION_INDEX_CACHE));
                 }
             }
 
@@ -233,7 +233,7 @@ public class DeploymentStructureDescriptorParser implements DeploymentUnitProces
             } else {
                 deploymentUnit.addToAttachmentList(Attachments.RESOURCE_ROOTS, additionalResourceRoot);
                 //compute the annotation index for the root
-                ResourceRootIndexer.indexResourceRoot(additionalResourceRoot);
+                ResourceRootIndexer.indexResourceRoot(additionalResourceRoot, deploymentUnit.getAttachment(Attachments.ANNOTATION_INDEX_CACHE));
                 ModuleRootMarker.mark(additionalResourceRoot);
             }
         }
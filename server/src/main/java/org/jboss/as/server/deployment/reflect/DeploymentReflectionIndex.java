@@ -23,18 +23,36 @@
 package org.jboss.as.server.deployment.reflect;
 
 import java.security.Permission;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Collections;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.jboss.as.server.ServerMessages;
+import org.jboss.as.server.moduleservice.ExternalModuleService;
+import org.jboss.as.server.moduleservice.ServiceModuleLoader;
+import org.jboss.modules.ModuleClassLoader;
 
 /**
  * A reflection index for a deployment.
+ * <p>
+ * The indexes of the classes of the JDK, of the static modules and of the external modules are shared by all the
+ * deployments, as these classes are used by many deployments and outlive them. The indexes of the classes of an
+ * external module are evicted when the module is unloaded. A deployment may still hold classes of an unloaded module,
+ * so the class loaders of the unloaded modules are remembered, weakly, and their classes are indexed per deployment.
  *
  * @author <a href="mailto:david.lloyd@redhat.com">David M. Lloyd</a>
  */
 public final class DeploymentReflectionIndex {
-    private final Map<Class<?>, ClassReflectionIndex<?>> classes = new HashMap<Class<?>, ClassReflectionIndex<?>>();
+    /** The key of the classes of the bootstrap class loader in the shared indexes */
+    private static final Object BOOTSTRAP_CLASS_LOADER = new Object();
+    /** The indexes shared by the deployments, by class loader */
+    private static final ConcurrentMap<Object, ConcurrentMap<Class<?>, ClassReflectionIndex<?>>> SHARED_CLASSES = new ConcurrentHashMap<Object, ConcurrentMap<Class<?>, ClassReflectionIndex<?>>>();
+    /** The class loaders evicted from the shared indexes, which must not be added again */
+    private static final Set<ClassLoader> EVICTED_CLASS_LOADERS = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<ClassLoader, Boolean>()));
+
+    private final ConcurrentMap<Class<?>, ClassReflectionIndex<?>> classes = new ConcurrentHashMap<Class<?>, ClassReflectionIndex<?>>();
 
     DeploymentReflectionIndex() {
     }
@@ -61,15 +79,71 @@ public final class DeploymentReflectionIndex {
      * @return the index
      */
     @SuppressWarnings({"unchecked"})
-    public synchronized <T> ClassReflectionIndex<T> getClassIndex(Class<T> clazz) {
+    public <T> ClassReflectionIndex<T> getClassIndex(Class<T> clazz) {
         try {
+            final ConcurrentMap<Class<?>, ClassReflectionIndex<?>> classes = getClasses(clazz);
             ClassReflectionIndex<T> index = (ClassReflectionIndex<T>) classes.get(clazz);
             if (index == null) {
-                classes.put(clazz, index = new ClassReflectionIndex<T>(clazz, this));
+                // Two threads may index the same class, only one of the indexes is kept
+                final ClassReflectionIndex<T> created = new ClassReflectionIndex<T>(clazz, this);
+                index = (ClassReflectionIndex<T>) classes.putIfAbsent(clazz, created);
+                if (index == null) {
+                    index = created;
+                }
             }
             return index;
         } catch (Throwable e) {
             throw ServerMessages.MESSAGES.errorGettingReflectiveInformation(clazz, clazz.getClassLoader(), e);
         }
     }
+
+    /**
+     * Remove the shared indexes of the classes of a class loader. Called when the module of the class loader is
+     * unloaded.
+     *
+     * @param classLoader the class loader
+     */
+    public static void evict(final ClassLoader classLoader) {
+        if (classLoader != null) {
+            // Marked first, so a concurrent deployment adding the class loader again removes it, see getClasses
+            EVICTED_CLASS_LOADERS.add(classLoader);
+            SHARED_CLASSES.remove(classLoader);
+        }
+    }
+
+    private ConcurrentMap<Class<?>, ClassReflectionIndex<?>> getClasses(final Class<?> clazz) {
+        final ClassLoader classLoader = SecurityActions.getClassLoader(clazz);
+        if (!isShared(classLoader)) {
+            return classes;
+        }
+        final Object key = classLoader == null ? BOOTSTRAP_CLASS_LOADER : classLoader;
+        ConcurrentMap<Class<?>, ClassReflectionIndex<?>> shared = SHARED_CLASSES.get(key);
+        if (shared == null) {
+            if (classLoader != null && EVICTED_CLASS_LOADERS.contains(classLoader)) {
+                return classes;
+            }
+            final ConcurrentMap<Class<?>, ClassReflectionIndex<?>> created = new ConcurrentHashMap<Class<?>, ClassReflectionIndex<?>>();
+            shared = SHARED_CLASSES.putIfAbsent(key, created);
+            if (shared == null) {
+                shared = created;
+                // The module may have been unloaded in the meantime, the shared indexes must not keep its class loader
+                if (classLoader != null && EVICTED_CLASS_LOADERS.contains(classLoader)) {
+                    SHARED_CLASSES.remove(key, created);
+                    return classes;
+                }
+            }
+        }
+        return shared;
+    }
+
+    private static boolean isShared(final ClassLoader classLoader) {
+        if (classLoader == null) {
+            return true;
+        }
+        if (classLoader instanceof ModuleClassLoader) {
+            final String name = ((ModuleClassLoader) classLoader).getModule().getIdentifier().getName();
+            return !name.startsWith(ServiceModuleLoader.MODULE_PREFIX) || name.startsWith(ExternalModuleService.EXTERNAL_MODULE_PREFIX);
+        }
+        return false;
+    }
 }
@@ -67,4 +67,21 @@ final class SecurityActions {
         }
     }
 
+    /**
+     * Gets the class loader of a class.
+     *
+     * @param clazz the class
+     * @return the class loader, or {@code null} for the bootstrap class loader
+     */
+    static ClassLoader getClassLoader(final Class<?> clazz) {
+        if (System.getSecurityManager() == null) {
+            return clazz.getClassLoader();
+        } else {
+            return AccessController.doPrivileged(new PrivilegedAction<ClassLoader>() {
+                public ClassLoader run() {
+                    return clazz.getClassLoader();
+                }
+            });
+        }
+    }
 }
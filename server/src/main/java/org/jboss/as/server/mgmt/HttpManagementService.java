@@ -28,6 +28,7 @@ import java.util.concurrent.ExecutorService;
 
 import org.jboss.as.controller.ControlledProcessStateService;
 import org.jboss.as.controller.ModelController;
+import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.client.ModelControllerClient;
 import org.jboss.as.domain.http.server.ConsoleMode;
 import org.jboss.as.domain.http.server.ManagementHttpServer;
@@ -67,6 +68,7 @@ public class HttpManagementService implements Service<HttpManagement> {
     private final InjectedValue<ControlledProcessStateService> controlledProcessStateServiceValue = new InjectedValue<ControlledProcessStateService>();
     private final ConsoleMode consoleMode;
     private final String consoleSlot;
+    private final PathAddress managementAddress;
     private ManagementHttpServer serverManagement;
     private SocketBindingManager socketBindingManager;
     private boolean useUnmanagedBindings = false;
@@ -136,8 +138,17 @@ public class HttpManagementService implements Service<HttpManagement> {
     };
 
     public HttpManagementService(ConsoleMode consoleMode, String consoleSlot) {
+        this(consoleMode, consoleSlot, null);
+    }
+
+    /**
+     * @param managementAddress the address of the management resource of the process, whose model revision answers
+     *                          conditional GET requests for the configuration, or {@code null} to always execute them
+     */
+    public HttpManagementService(ConsoleMode consoleMode, String consoleSlot, PathAddress managementAddress) {
         this.consoleMode = consoleMode;
         this.consoleSlot = consoleSlot;
+        this.managementAddress = managementAddress;
     }
 
     /**
@@ -182,7 +193,8 @@ public class HttpManagementService implements Service<HttpManagement> {
 
         try {
             serverManagement = ManagementHttpServer.create(bindAddress, secureBindAddress, 50, modelControllerClient,
-                    executorService, securityRealmService, controlledProcessStateService, consoleMode, consoleSlot);
+                    executorService, securityRealmService, controlledProcessStateService, consoleMode, consoleSlot,
+                    managementAddress == null ? null : managementAddress.toModelNode());
             serverManagement.start();
 
             // Register the now-created sockets with the SBM
@@ -46,4 +46,7 @@ public interface DomainServerProtocol {
     byte PARAM_FILE_SIZE = 0x31;
     byte FILE_END = 0x32;
     byte PARAM_ROOT_ID = 0x33;
+    byte PARAM_CHUNKED_TRANSFER = 0x34;
+    byte PARAM_FILE_OFFSET = 0x35;
+    byte PARAM_FILE_HASH = 0x36;
 }
@@ -106,11 +106,11 @@ public class HostControllerClient implements Closeable {
 
     private static class GetFileRequest extends AbstractManagementRequest<File, Void> {
         private final String hash;
-        private final File localDeploymentFolder;
+        private final File localPath;
 
         private GetFileRequest(final String hash, final File localDeploymentFolder) {
             this.hash = hash;
-            this.localDeploymentFolder = localDeploymentFolder;
+            this.localPath = new File(new File(localDeploymentFolder, hash.substring(0,2)), hash.substring(2));
         }
 
         @Override
@@ -121,14 +121,12 @@ public class HostControllerClient implements Closeable {
         @Override
         protected void sendRequest(ActiveOperation.ResultHandler<File> resultHandler, ManagementRequestContext<Void> context, FlushableDataOutput output) throws IOException {
             //The root id does not matter here
-            ServerToHostRemoteFileRequestAndHandler.INSTANCE.sendRequest(output, (byte)0, hash);
+            ServerToHostRemoteFileRequestAndHandler.INSTANCE.sendRequest(output, (byte)0, hash, localPath);
         }
 
         @Override
         public void handleRequest(DataInput input, ActiveOperation.ResultHandler<File> resultHandler, ManagementRequestContext<Void> context) throws IOException {
             try {
-                File first = new File(localDeploymentFolder, hash.substring(0,2));
-                File localPath = new File(first, hash.substring(2));
                 ServerToHostRemoteFileRequestAndHandler.INSTANCE.handleResponse(input, localPath, ServerLogger.ROOT_LOGGER, resultHandler, context);
                 resultHandler.done(null);
             } catch (RemoteFileRequestAndHandler.CannotCreateLocalDirectoryException e) {
@@ -53,6 +53,18 @@ public class ServerToHostRemoteFileRequestAndHandler extends RemoteFileRequestAn
         public byte fileEnd() {
             return DomainServerProtocol.FILE_END;
         }
+
+        public byte paramChunkedTransfer() {
+            return DomainServerProtocol.PARAM_CHUNKED_TRANSFER;
+        }
+
+        public byte paramFileOffset() {
+            return DomainServerProtocol.PARAM_FILE_OFFSET;
+        }
+
+        public byte paramFileHash() {
+            return DomainServerProtocol.PARAM_FILE_HASH;
+        }
     };
 
     public static ServerToHostRemoteFileRequestAndHandler INSTANCE = new ServerToHostRemoteFileRequestAndHandler(MAPPER);
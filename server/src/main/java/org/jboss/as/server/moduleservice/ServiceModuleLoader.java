@@ -28,6 +28,7 @@ import org.jboss.as.server.Bootstrap;
 import org.jboss.as.server.ServerLogger;
 import org.jboss.as.server.ServerMessages;
 import org.jboss.as.server.Services;
+import org.jboss.as.server.deployment.reflect.DeploymentReflectionIndex;
 import org.jboss.modules.Module;
 import org.jboss.modules.ModuleIdentifier;
 import org.jboss.modules.ModuleLoadException;
@@ -103,6 +104,7 @@ public class ServiceModuleLoader extends ModuleLoader implements Service<Service
                     try {
                         Module module = loadModule(moduleSpec.getModuleIdentifier());
                         unloadModuleLocal(module);
+                        DeploymentReflectionIndex.evict(module.getClassLoader());
                     } catch (ModuleLoadException e) {
                         // ignore, the module should always be already loaded by this point,
                         // and if not we will only mask the true problem
@@ -22,6 +22,7 @@
 package org.jboss.as.server.operations;
 
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
 
 import org.jboss.as.controller.ModelController;
 import org.jboss.as.controller.ModelController.OperationTransactionControl;
@@ -50,11 +51,14 @@ public class RootResourceHack implements OperationStepHandler {
     public static OperationDefinition DEFINITION = new SimpleOperationDefinitionBuilder(NAME, null)
         .setPrivateEntry()
         .setRuntimeOnly()
+        // Read-only, so the root resource is a view of the published model rather than a copy of it
+        .setReadOnly()
         .build();
     private static final ModelNode OPERATION;
     static {
         OPERATION = new ModelNode();
         OPERATION.get(OP).set(NAME);
+        OPERATION.get(OP_ADDR).setEmptyList();
     }
 
     private ThreadLocal<ResourceAndRegistration> resource = new ThreadLocal<ResourceAndRegistration>();
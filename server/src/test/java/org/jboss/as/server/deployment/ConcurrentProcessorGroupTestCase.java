@@ -0,0 +1,273 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+/**
+ * Tests of the concurrent execution of the processors of a phase by {@link ConcurrentProcessorGroup}.
+ */
+public class ConcurrentProcessorGroupTestCase {
+
+    private static final AttachmentKey<String> FIRST = AttachmentKey.create(String.class);
+    private static final AttachmentKey<String> SECOND = AttachmentKey.create(String.class);
+
+    private final List<String> events = Collections.synchronizedList(new ArrayList<String>());
+    private final DeploymentUnit deploymentUnit = Mockito.mock(DeploymentUnit.class);
+    private final DeploymentPhaseContext phaseContext = Mockito.mock(DeploymentPhaseContext.class);
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() {
+        executor = Executors.newCachedThreadPool();
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testGroupEnd() {
+        final List<RegisteredDeploymentUnitProcessor> chain = Arrays.asList(
+                register(new TestProcessor("a")),
+                register(new TestProcessor("b")),
+                new RegisteredDeploymentUnitProcessor(3, Mockito.mock(DeploymentUnitProcessor.class), null),
+                register(new TestProcessor("c")));
+        assertEquals(2, ConcurrentProcessorGroup.getGroupEnd(chain, 0));
+        assertEquals(3, ConcurrentProcessorGroup.getGroupEnd(chain, 2));
+        assertEquals(4, ConcurrentProcessorGroup.getGroupEnd(chain, 3));
+    }
+
+    @Test
+    public void testConflictingProcessorsOrdered() throws Throwable {
+        final TestProcessor writer = new TestProcessor("writer").writes(FIRST).slow();
+        final TestProcessor reader = new TestProcessor("reader").reads(FIRST);
+        final TestProcessor secondReader = new TestProcessor("second-reader").reads(SECOND).slow();
+        final TestProcessor secondWriter = new TestProcessor("second-writer").writes(SECOND);
+        final TestProcessor rewriter = new TestProcessor("rewriter").writes(FIRST);
+        deploy(executor, writer, reader, secondReader, secondWriter, rewriter);
+
+        // A processor reading or writing an attachment waits for the earlier processors writing it
+        assertBefore("writer completed", "reader started");
+        assertBefore("writer completed", "rewriter started");
+        // A processor writing an attachment waits for the earlier processors reading it
+        assertBefore("second-reader completed", "second-writer started");
+        assertBefore("reader completed", "rewriter started");
+    }
+
+    @Test
+    public void testIndependentProcessorsConcurrent() throws Throwable {
+        final CountDownLatch first = new CountDownLatch(1);
+        final CountDownLatch second = new CountDownLatch(1);
+        // Each processor waits for the other one, which only completes if they are executed concurrently
+        deploy(executor, new TestProcessor("first").reads(FIRST).meets(first, second), new TestProcessor("second").reads(SECOND).meets(second, first));
+        assertTrue(events.containsAll(Arrays.asList("first completed", "second completed")));
+    }
+
+    @Test
+    public void testFailureStopsNewStarts() throws Throwable {
+        final TestProcessor failing = new TestProcessor("failing").writes(FIRST).fails();
+        final TestProcessor dependent = new TestProcessor("dependent").reads(FIRST);
+        final TestProcessor next = new TestProcessor("next");
+        try {
+            deploy(null, failing, dependent, next);
+            fail("The failure was not thrown");
+        } catch (DeploymentUnitProcessingException e) {
+            assertSame(failing.failure, e);
+        }
+        assertFalse(events.contains("dependent started"));
+        assertFalse(events.contains("next started"));
+    }
+
+    @Test
+    public void testStartedProcessorsUndeployedInReverseOrder() throws Throwable {
+        try {
+            deploy(null, new TestProcessor("a"), new TestProcessor("b"), new TestProcessor("c").fails(), new TestProcessor("d"));
+            fail("The failure was not thrown");
+        } catch (DeploymentUnitProcessingException expected) {
+            // expected
+        }
+        assertEquals(Arrays.asList(
+                "a started", "a completed",
+                "b started", "b completed",
+                "c started",
+                "c undeployed", "b undeployed", "a undeployed"), events);
+    }
+
+    @Test
+    public void testPhaseThreadTakesPart() throws Throwable {
+        final List<Runnable> saturated = new ArrayList<Runnable>();
+        // An executor whose threads are all busy never runs the workers
+        final Executor busy = new Executor() {
+            @Override
+            public void execute(final Runnable command) {
+                saturated.add(command);
+            }
+        };
+        final TestProcessor first = new TestProcessor("first");
+        final TestProcessor second = new TestProcessor("second");
+        final TestProcessor third = new TestProcessor("third").reads(FIRST);
+        deploy(busy, first, second, third);
+        assertFalse(saturated.isEmpty());
+        assertSame(Thread.currentThread(), first.thread);
+        assertSame(Thread.currentThread(), second.thread);
+        assertSame(Thread.currentThread(), third.thread);
+
+        // The workers started later find no processor left
+        for (Runnable worker : saturated) {
+            worker.run();
+        }
+        assertEquals(6, events.size());
+    }
+
+    @Test
+    public void testWithoutExecutor() throws Throwable {
+        final TestProcessor first = new TestProcessor("first").writes(FIRST);
+        final TestProcessor second = new TestProcessor("second").reads(FIRST);
+        deploy(null, first, second);
+        assertEquals(Arrays.asList("first started", "first completed", "second started", "second completed"), events);
+        assertSame(Thread.currentThread(), second.thread);
+    }
+
+    private void deploy(final Executor executor, final TestProcessor... processors) throws Throwable {
+        final List<RegisteredDeploymentUnitProcessor> chain = new ArrayList<RegisteredDeploymentUnitProcessor>();
+        for (TestProcessor processor : processors) {
+            chain.add(register(processor));
+        }
+        assertEquals(chain.size(), ConcurrentProcessorGroup.getGroupEnd(chain, 0));
+        ConcurrentProcessorGroup.deploy(chain, deploymentUnit, Phase.PARSE, phaseContext, executor);
+    }
+
+    private static RegisteredDeploymentUnitProcessor register(final TestProcessor processor) {
+        return new RegisteredDeploymentUnitProcessor(0, processor, null);
+    }
+
+    private void assertBefore(final String first, final String second) {
+        final int firstIndex = events.indexOf(first);
+        final int secondIndex = events.indexOf(second);
+        assertTrue(events.toString(), firstIndex >= 0 && secondIndex >= 0 && firstIndex < secondIndex);
+    }
+
+    private final class TestProcessor implements ConcurrentDeploymentUnitProcessor {
+
+        private final String name;
+        private final Set<AttachmentKey<?>> read = new HashSet<AttachmentKey<?>>();
+        private final Set<AttachmentKey<?>> written = new HashSet<AttachmentKey<?>>();
+        private boolean slow;
+        private DeploymentUnitProcessingException failure;
+        private CountDownLatch arrived;
+        private CountDownLatch awaited;
+        private volatile Thread thread;
+
+        private TestProcessor(final String name) {
+            this.name = name;
+        }
+
+        private TestProcessor reads(final AttachmentKey<?> key) {
+            read.add(key);
+            return this;
+        }
+
+        private TestProcessor writes(final AttachmentKey<?> key) {
+            written.add(key);
+            return this;
+        }
+
+        private TestProcessor slow() {
+            slow = true;
+            return this;
+        }
+
+        private TestProcessor fails() {
+            failure = new DeploymentUnitProcessingException(name);
+            return this;
+        }
+
+        private TestProcessor meets(final CountDownLatch arrived, final CountDownLatch awaited) {
+            this.arrived = arrived;
+            this.awaited = awaited;
+            return this;
+        }
+
+        @Override
+        public Set<AttachmentKey<?>> getReadAttachments() {
+            return read;
+        }
+
+        @Override
+        public Set<AttachmentKey<?>> getWrittenAttachments() {
+            return written;
+        }
+
+        @Override
+        public void deploy(final DeploymentPhaseContext phaseContext) throws DeploymentUnitProcessingException {
+            thread = Thread.currentThread();
+            events.add(name + " started");
+            if (failure != null) {
+                throw failure;
+            }
+            try {
+                if (slow) {
+                    Thread.sleep(50);
+                }
+                if (arrived != null) {
+                    arrived.countDown();
+                    if (!awaited.await(10, TimeUnit.SECONDS)) {
+                        throw new DeploymentUnitProcessingException(name + " was not executed concurrently");
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new DeploymentUnitProcessingException(e);
+            }
+            events.add(name + " completed");
+        }
+
+        @Override
+        public void undeploy(final DeploymentUnit context) {
+            events.add(name + " undeployed");
+        }
+    }
+}
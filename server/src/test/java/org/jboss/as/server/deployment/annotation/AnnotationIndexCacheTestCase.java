@@ -0,0 +1,193 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.annotation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.server.deployment.Attachments;
+import org.jboss.as.server.deployment.module.ResourceRoot;
+import org.jboss.jandex.DotName;
+import org.jboss.jandex.Index;
+import org.jboss.jandex.Indexer;
+import org.jboss.vfs.VFS;
+import org.jboss.vfs.VFSUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests of {@link AnnotationIndexCache}.
+ */
+public class AnnotationIndexCacheTestCase {
+
+    private static final DotName TEST_CLASS = DotName.createSimple(AnnotationIndexCacheTestCase.class.getName());
+
+    private File dir;
+    private File cacheDir;
+
+    @Before
+    public void setUp() throws IOException {
+        dir = File.createTempFile("annotation-index", "");
+        dir.delete();
+        cacheDir = new File(dir, "cache");
+        cacheDir.mkdirs();
+    }
+
+    @After
+    public void tearDown() {
+        delete(dir);
+    }
+
+    @Test
+    public void testCachedIndex() throws Exception {
+        final AnnotationIndexCache cache = new AnnotationIndexCache(cacheDir);
+        assertNull(cache.get("key"));
+        cache.put("key", createIndex());
+        assertNotNull(cache.get("key").getClassByName(TEST_CLASS));
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+
+        // The index is kept for the next boot
+        assertNotNull(new AnnotationIndexCache(cacheDir).get("key"));
+    }
+
+    @Test
+    public void testUnusedIndexRemoved() throws Exception {
+        new AnnotationIndexCache(cacheDir).put("key", createIndex());
+        final long unused = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(AnnotationIndexCache.MAX_UNUSED_DAYS + 1);
+        for (File file : cacheDir.listFiles()) {
+            file.setLastModified(unused);
+        }
+        assertNull(new AnnotationIndexCache(cacheDir).get("key"));
+    }
+
+    @Test
+    public void testArchiveKey() throws Exception {
+        final AnnotationIndexCache cache = new AnnotationIndexCache(cacheDir);
+        final File archive = write(new File(dir, "a/lib.jar"), new byte[] { 1, 2, 3 });
+        final String key = cache.getKey(archive, null);
+        assertNotNull(key);
+
+        // The key only depends on the content of the archive
+        assertEquals(key, cache.getKey(write(new File(dir, "b/lib.jar"), new byte[] { 1, 2, 3 }), null));
+        assertFalse(key.equals(cache.getKey(write(new File(dir, "c/lib.jar"), new byte[] { 1, 2, 4 }), null)));
+        assertFalse(key.equals(cache.getKey(archive, Collections.singleton("META-INF"))));
+        assertNull(cache.getKey(new File(dir, "missing.jar"), null));
+    }
+
+    @Test
+    public void testResourceRootIndexCached() throws Exception {
+        final AnnotationIndexCache cache = new AnnotationIndexCache(cacheDir);
+        final File root = new File(dir, "classes");
+        write(new File(root, "org/test/Test.class"), readTestClass());
+
+        final Index index = index(root, cache);
+        assertNotNull(index.getClassByName(TEST_CLASS));
+        assertEquals(0, cache.getHits());
+        assertEquals(1, cache.getMisses());
+
+        assertNotNull(index(root, cache).getClassByName(TEST_CLASS));
+        assertEquals(1, cache.getHits());
+
+        // A changed class file is indexed again
+        write(new File(root, "org/test/Other.class"), readTestClass());
+        index(root, cache);
+        assertEquals(1, cache.getHits());
+        assertEquals(2, cache.getMisses());
+    }
+
+    @Test
+    public void testIncompleteIndexNotCached() throws Exception {
+        final AnnotationIndexCache cache = new AnnotationIndexCache(cacheDir);
+        final File root = new File(dir, "classes");
+        write(new File(root, "org/test/Test.class"), readTestClass());
+        write(new File(root, "org/test/Broken.class"), new byte[] { 1, 2, 3 });
+
+        assertNotNull(index(root, cache).getClassByName(TEST_CLASS));
+        assertEquals(0, cacheDir.listFiles().length);
+        index(root, cache);
+        assertEquals(0, cache.getHits());
+        assertEquals(2, cache.getMisses());
+    }
+
+    private static Index index(final File root, final AnnotationIndexCache cache) throws Exception {
+        final ResourceRoot resourceRoot = new ResourceRoot(VFS.getChild(root.toURI()), null);
+        ResourceRootIndexer.indexResourceRoot(resourceRoot, cache);
+        return resourceRoot.getAttachment(Attachments.ANNOTATION_INDEX);
+    }
+
+    private static Index createIndex() throws IOException {
+        final Indexer indexer = new Indexer();
+        final InputStream in = AnnotationIndexCacheTestCase.class.getResourceAsStream(AnnotationIndexCacheTestCase.class.getSimpleName() + ".class");
+        try {
+            indexer.index(in);
+        } finally {
+            VFSUtils.safeClose(in);
+        }
+        return indexer.complete();
+    }
+
+    private static byte[] readTestClass() throws IOException {
+        final InputStream in = AnnotationIndexCacheTestCase.class.getResourceAsStream(AnnotationIndexCacheTestCase.class.getSimpleName() + ".class");
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            VFSUtils.copyStream(in, out);
+        } finally {
+            VFSUtils.safeClose(in);
+        }
+        return out.toByteArray();
+    }
+
+    private static File write(final File file, final byte[] content) throws IOException {
+        file.getParentFile().mkdirs();
+        final OutputStream out = new FileOutputStream(file);
+        try {
+            out.write(content);
+        } finally {
+            VFSUtils.safeClose(out);
+        }
+        return file;
+    }
+
+    private static void delete(final File file) {
+        final File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+}
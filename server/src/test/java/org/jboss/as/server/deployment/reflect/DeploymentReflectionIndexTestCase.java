@@ -0,0 +1,154 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.reflect;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.io.File;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.modules.DependencySpec;
+import org.jboss.modules.ModuleIdentifier;
+import org.jboss.modules.ModuleLoadException;
+import org.jboss.modules.ModuleLoader;
+import org.jboss.modules.ModuleSpec;
+import org.jboss.modules.ResourceLoaderSpec;
+import org.jboss.modules.ResourceLoaders;
+import org.junit.Test;
+
+/**
+ * Tests of the per-deployment and of the shared indexes of {@link DeploymentReflectionIndex}.
+ */
+public class DeploymentReflectionIndexTestCase {
+
+    @Test
+    public void testDeploymentClassIndexedPerDeployment() {
+        // The classes of the test are not loaded by a module, so they are indexed per deployment
+        final DeploymentReflectionIndex index = DeploymentReflectionIndex.create();
+        final ClassReflectionIndex<Sample> classIndex = index.getClassIndex(Sample.class);
+        assertSame(classIndex, index.getClassIndex(Sample.class));
+        assertNotSame(classIndex, DeploymentReflectionIndex.create().getClassIndex(Sample.class));
+    }
+
+    @Test
+    public void testConcurrentIndexing() throws Exception {
+        final DeploymentReflectionIndex index = DeploymentReflectionIndex.create();
+        final int threads = 8;
+        final CountDownLatch start = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            final Set<Future<ClassReflectionIndex<Sample>>> futures = new HashSet<Future<ClassReflectionIndex<Sample>>>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(new Callable<ClassReflectionIndex<Sample>>() {
+                    @Override
+                    public ClassReflectionIndex<Sample> call() throws Exception {
+                        start.await();
+                        return index.getClassIndex(Sample.class);
+                    }
+                }));
+            }
+            start.countDown();
+            // All the threads get the index that was kept
+            final Set<ClassReflectionIndex<Sample>> indexes = new HashSet<ClassReflectionIndex<Sample>>();
+            for (Future<ClassReflectionIndex<Sample>> future : futures) {
+                indexes.add(future.get(10, TimeUnit.SECONDS));
+            }
+            assertEquals(1, indexes.size());
+            assertSame(indexes.iterator().next(), index.getClassIndex(Sample.class));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testJdkClassShared() {
+        assertSame(DeploymentReflectionIndex.create().getClassIndex(String.class), DeploymentReflectionIndex.create().getClassIndex(String.class));
+    }
+
+    @Test
+    public void testModuleClassShared() throws Exception {
+        final Class<?> sample = loadSample();
+        final ClassReflectionIndex<?> classIndex = DeploymentReflectionIndex.create().getClassIndex(sample);
+        assertSame(classIndex, DeploymentReflectionIndex.create().getClassIndex(sample));
+    }
+
+    @Test
+    public void testEvictedClassLoaderNotSharedAgain() throws Exception {
+        final Class<?> sample = loadSample();
+        final ClassReflectionIndex<?> classIndex = DeploymentReflectionIndex.create().getClassIndex(sample);
+        DeploymentReflectionIndex.evict(sample.getClassLoader());
+
+        // A deployment still using the class of the unloaded module indexes it on its own
+        final DeploymentReflectionIndex index = DeploymentReflectionIndex.create();
+        final ClassReflectionIndex<?> deploymentIndex = index.getClassIndex(sample);
+        assertNotSame(classIndex, deploymentIndex);
+        assertSame(deploymentIndex, index.getClassIndex(sample));
+        assertNotSame(deploymentIndex, DeploymentReflectionIndex.create().getClassIndex(sample));
+    }
+
+    /**
+     * Load {@link Sample} with the class loader of a new module, as for the classes of a static or an external module.
+     */
+    private static Class<?> loadSample() throws Exception {
+        final File root = new File(Sample.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+        final ModuleLoader moduleLoader = new ModuleLoader() {
+            @Override
+            protected ModuleSpec findModule(final ModuleIdentifier identifier) throws ModuleLoadException {
+                final ModuleSpec.Builder builder = ModuleSpec.build(identifier);
+                builder.addResourceRoot(ResourceLoaderSpec.createResourceLoaderSpec(ResourceLoaders.createFileResourceLoader("test-classes", root)));
+                builder.addDependency(DependencySpec.createLocalDependencySpec());
+                return builder.create();
+            }
+
+            @Override
+            public String toString() {
+                return "test module loader";
+            }
+        };
+        final Class<?> sample = moduleLoader.loadModule(ModuleIdentifier.create("test.reflection")).getClassLoader().loadClass(Sample.class.getName());
+        assertNotSame(Sample.class, sample);
+        return sample;
+    }
+
+    public static class Sample {
+
+        private int value;
+
+        public int getValue() {
+            return value;
+        }
+
+        public void setValue(final int value) {
+            this.value = value;
+        }
+    }
+}
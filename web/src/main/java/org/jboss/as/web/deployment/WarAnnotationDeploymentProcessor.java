@@ -24,10 +24,14 @@ package org.jboss.as.web.deployment;
 import static org.jboss.as.web.WebMessages.MESSAGES;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
 
 import javax.annotation.security.DeclareRoles;
 import javax.annotation.security.RunAs;
@@ -42,10 +46,12 @@ import org.jboss.annotation.javaee.DisplayNames;
 import org.jboss.annotation.javaee.Icons;
 import org.jboss.as.ee.structure.DeploymentType;
 import org.jboss.as.ee.structure.DeploymentTypeMarker;
+import org.jboss.as.server.deployment.AttachmentKey;
+import org.jboss.as.server.deployment.Attachments;
+import org.jboss.as.server.deployment.ConcurrentDeploymentUnitProcessor;
 import org.jboss.as.server.deployment.DeploymentPhaseContext;
 import org.jboss.as.server.deployment.DeploymentUnit;
 import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
-import org.jboss.as.server.deployment.DeploymentUnitProcessor;
 import org.jboss.as.server.deployment.annotation.AnnotationIndexUtils;
 import org.jboss.as.server.deployment.module.ResourceRoot;
 import org.jboss.jandex.AnnotationInstance;
@@ -89,7 +95,11 @@ import org.jboss.metadata.web.spec.WebMetaData;
  * @author Emanuel Muckenhuber
  * @author Remy Maucherat
  */
-public class WarAnnotationDeploymentProcessor implements DeploymentUnitProcessor {
+public class WarAnnotationDeploymentProcessor implements ConcurrentDeploymentUnitProcessor {
+
+    private static final Set<AttachmentKey<?>> READ_ATTACHMENTS = Collections.unmodifiableSet(new HashSet<AttachmentKey<?>>(Arrays.<AttachmentKey<?>>asList(
+            org.jboss.as.ee.structure.Attachments.DEPLOYMENT_TYPE, Attachments.DEPLOYMENT_ROOT, Attachments.RESOURCE_ROOTS)));
+    private static final Set<AttachmentKey<?>> WRITTEN_ATTACHMENTS = Collections.<AttachmentKey<?>>singleton(WarMetaData.ATTACHMENT_KEY);
 
     private static final DotName webFilter = DotName.createSimple(WebFilter.class.getName());
     private static final DotName webListener = DotName.createSimple(WebListener.class.getName());
@@ -127,6 +137,14 @@ public class WarAnnotationDeploymentProcessor implements DeploymentUnitProcessor
     public void undeploy(final DeploymentUnit context) {
     }
 
+    public Set<AttachmentKey<?>> getReadAttachments() {
+        return READ_ATTACHMENTS;
+    }
+
+    public Set<AttachmentKey<?>> getWrittenAttachments() {
+        return WRITTEN_ATTACHMENTS;
+    }
+
     /**
      * Process a single index.
      *
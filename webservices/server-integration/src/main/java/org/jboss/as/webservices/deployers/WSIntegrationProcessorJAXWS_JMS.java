@@ -21,6 +21,7 @@
  */
 package org.jboss.as.webservices.deployers;
 
+import static org.jboss.as.server.deployment.Attachments.COMPOSITE_ANNOTATION_INDEX;
 import static org.jboss.as.server.deployment.Attachments.DEPLOYMENT_ROOT;
 import static org.jboss.as.server.deployment.Attachments.RESOURCE_ROOTS;
 import static org.jboss.as.webservices.WSLogger.ROOT_LOGGER;
@@ -30,20 +31,26 @@ import static org.jboss.as.webservices.util.WSAttachmentKeys.JMS_ENDPOINT_METADA
 
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import javax.xml.namespace.QName;
 
+import org.jboss.as.ee.structure.Attachments;
 import org.jboss.as.ee.structure.DeploymentType;
 import org.jboss.as.ee.structure.DeploymentTypeMarker;
+import org.jboss.as.server.deployment.AttachmentKey;
 import org.jboss.as.server.deployment.AttachmentList;
+import org.jboss.as.server.deployment.ConcurrentDeploymentUnitProcessor;
 import org.jboss.as.server.deployment.DeploymentPhaseContext;
 import org.jboss.as.server.deployment.DeploymentUnit;
 import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
-import org.jboss.as.server.deployment.DeploymentUnitProcessor;
 import org.jboss.as.server.deployment.module.ResourceRoot;
 import org.jboss.jandex.AnnotationInstance;
 import org.jboss.jandex.AnnotationValue;
@@ -58,7 +65,11 @@ import org.jboss.wsf.spi.metadata.jms.JMSEndpointsMetaData;
  *
  * @author <a href="mailto:alessio.soldano@jboss.com">Alessio Soldano</a>
  */
-public final class WSIntegrationProcessorJAXWS_JMS implements DeploymentUnitProcessor {
+public final class WSIntegrationProcessorJAXWS_JMS implements ConcurrentDeploymentUnitProcessor {
+
+    private static final Set<AttachmentKey<?>> READ_ATTACHMENTS = Collections.unmodifiableSet(new HashSet<AttachmentKey<?>>(Arrays.<AttachmentKey<?>>asList(
+            Attachments.DEPLOYMENT_TYPE, COMPOSITE_ANNOTATION_INDEX, DEPLOYMENT_ROOT, RESOURCE_ROOTS)));
+    private static final Set<AttachmentKey<?>> WRITTEN_ATTACHMENTS = Collections.<AttachmentKey<?>>singleton(JMS_ENDPOINT_METADATA_KEY);
 
     private static final String WSDL_LOCATION = "wsdlLocation";
     private static final String PORT_NAME = "portName";
@@ -139,6 +150,16 @@ public final class WSIntegrationProcessorJAXWS_JMS implements DeploymentUnitProc
         // NOOP
     }
 
+    @Override
+    public Set<AttachmentKey<?>> getReadAttachments() {
+        return READ_ATTACHMENTS;
+    }
+
+    @Override
+    public Set<AttachmentKey<?>> getWrittenAttachments() {
+        return WRITTEN_ATTACHMENTS;
+    }
+
     private static ResourceRoot getWsdlResourceRoot(final DeploymentUnit unit, final String wsdlPath) throws MalformedURLException {
         final AttachmentList<ResourceRoot> resourceRoots = new AttachmentList<ResourceRoot>(ResourceRoot.class);
         final ResourceRoot root = unit.getAttachment(DEPLOYMENT_ROOT);